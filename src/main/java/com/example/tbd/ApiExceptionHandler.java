@@ -0,0 +1,77 @@
+package com.example.tbd;
+
+import com.example.tbd.vehicle.VehicleImportException;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.time.LocalDate;
+
+// Spoločné spracovanie výnimiek, ktoré nezachytia samotné kontroléry
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiExceptionHandler.class);
+
+    // Plný front hashovania hesiel -> 503 s hlavičkou Retry-After
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ResponseEntity<String> handlePasswordHashingBusy(PasswordHashingBusyException e) {
+        logger.warn("Odmietnutá požiadavka - front hashovania hesiel je plný.");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(e.getMessage());
+    }
+
+    // Prekročený limit prihlasovacích pokusov -> 429 s hlavičkou Retry-After
+    @ExceptionHandler(LoginRateLimitedException.class)
+    public ResponseEntity<String> handleLoginRateLimited(LoginRateLimitedException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(e.getMessage());
+    }
+
+    // Neplatný kurzor alebo limit stránkovania -> 400
+    @ExceptionHandler(InvalidPageRequestException.class)
+    public ResponseEntity<String> handleInvalidPageRequest(InvalidPageRequestException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    // Import vozidiel, ktorý nie je možné spracovať ako celok -> 400
+    @ExceptionHandler(VehicleImportException.class)
+    public ResponseEntity<String> handleVehicleImport(VehicleImportException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    // Neplatný JSON Merge Patch (nepovolené pole, nesprávny typ, If-Match) -> 400
+    @ExceptionHandler(InvalidPatchException.class)
+    public ResponseEntity<String> handleInvalidPatch(InvalidPatchException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    // Záznam medzitým zmenila iná požiadavka (@Version) -> 409, klient má záznam načítať znova
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleOptimisticLockingFailure(ObjectOptimisticLockingFailureException e) {
+        logger.info("Súbežná zmena záznamu {} (ID {}).", e.getPersistentClassName(), e.getIdentifier());
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body("Záznam medzitým zmenila iná požiadavka. Načítajte ho znova a zopakujte zmenu.");
+    }
+
+    // Neplatné telo požiadavky -> 400; pri neplatnom dátume (napr. dátumy vozidla) so správou pre klienta
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<String> handleNotReadable(HttpMessageNotReadableException e) {
+        if (e.getCause() instanceof InvalidFormatException invalid && invalid.getTargetType() == LocalDate.class
+                && !invalid.getPath().isEmpty()) {
+            String field = invalid.getPath().get(invalid.getPath().size() - 1).getFieldName();
+            return ResponseEntity.badRequest().body("Neplatný dátum v poli " + field + ": " + invalid.getValue()
+                    + ". Očakávaný formát: DD.MM.YYYY alebo YYYY-MM-DD.");
+        }
+        return ResponseEntity.badRequest().build();
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.tbd;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Hromadné označenie záznamov ako vymazaných. Aktívne ID sa najprv uzamknú (SELECT ... FOR UPDATE),
+// potom ich jeden UPDATE na blok ID označí ako vymazané - entity sa nenačítavajú. Zámok zaručí, že počet
+// v udalosti EntitySoftDeletedEvent zodpovedá skutočne zmeneným riadkom aj pri súbežnom mazaní.
+@Component
+public class BulkSoftDelete {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkSoftDelete.class);
+
+    public static final int MAX_IDS = 10_000;   // Najviac ID v jednej požiadavke
+    private static final int IN_CHUNK_SIZE = 1_000; // Najviac hodnôt v jednom IN (...)
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public BulkSoftDelete(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    // Kontrola zoznamu ID z požiadavky - vráti chybovú správu alebo null
+    public static String checkIds(Collection<? extends Number> ids, String invalidIdMessage) {
+        if (ids.isEmpty()) {
+            return "Zoznam ID je prázdny.";
+        }
+        if (ids.size() > MAX_IDS) {
+            return "Požiadavka môže obsahovať najviac " + MAX_IDS + " ID.";
+        }
+        for (Number id : ids) {
+            if (id == null || id.longValue() <= 0) {
+                return invalidIdMessage;
+            }
+        }
+        return null;
+    }
+
+    // Záznamy so zadanými ID. lockActiveIds vráti nevymazané zo zadaných ID so zámkom, markDeleted vráti počet zmenených riadkov.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public <ID> SoftDeleteResultDTO byIds(Class<?> entityType, Collection<ID> ids,
+                                          Function<Collection<ID>, List<ID>> lockActiveIds,
+                                          Function<Collection<ID>, Integer> markDeleted) {
+        List<ID> requested = new ArrayList<>(new LinkedHashSet<>(ids));
+        List<ID> locked = new ArrayList<>();
+        for (int from = 0; from < requested.size(); from += IN_CHUNK_SIZE) {
+            locked.addAll(lockActiveIds.apply(requested.subList(from, Math.min(from + IN_CHUNK_SIZE, requested.size()))));
+        }
+        int deleted = markDeleted(entityType, locked, markDeleted);
+        return new SoftDeleteResultDTO(deleted, requested.size() - deleted);
+    }
+
+    // Všetky aktívne záznamy v rozsahu (napr. vozidlá zákazníka), lockActiveIds vráti ich ID so zámkom
+    @Transactional(propagation = Propagation.MANDATORY)
+    public <ID> SoftDeleteResultDTO byScope(Class<?> entityType, Supplier<List<ID>> lockActiveIds,
+                                            Function<Collection<ID>, Integer> markDeleted) {
+        return new SoftDeleteResultDTO(markDeleted(entityType, lockActiveIds.get(), markDeleted), 0);
+    }
+
+    private <ID> int markDeleted(Class<?> entityType, List<ID> ids, Function<Collection<ID>, Integer> markDeleted) {
+        int deleted = 0;
+        for (int from = 0; from < ids.size(); from += IN_CHUNK_SIZE) {
+            deleted += markDeleted.apply(ids.subList(from, Math.min(from + IN_CHUNK_SIZE, ids.size())));
+        }
+        if (deleted > 0) {
+            eventPublisher.publishEvent(new EntitySoftDeletedEvent(entityType, List.copyOf(ids)));
+        }
+        logger.info("Hromadne označených ako vymazané ({}): {}.", entityType.getSimpleName(), deleted);
+        return deleted;
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.tbd;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+// Jedna stránka výsledkov pri stránkovaní podľa kľúča (keyset) - záznamy sú zoradené podľa ID
+// a ďalšia stránka začína za posledným vráteným ID, takže cena stránky nezávisí od jej poradia
+public class CursorPage<T> {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+
+    private static final String CURSOR_PREFIX = "id:";
+    private static final String SORT_KEY_CURSOR_PREFIX = "key:";
+
+    // Pozícia v stránke zoradenej podľa (hodnota stĺpca, ID) - hodnota posledného riadku ako text a jeho ID
+    public record SortKeyCursor(String sortKey, long lastId) {
+    }
+
+    private final List<T> items;
+    private final String nextCursor; // null, ak ďalšia stránka neexistuje
+
+    public CursorPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    // Zostaví stránku z riadkov načítaných s limitom o jedna väčším - nadbytočný riadok
+    // sa nevracia, iba signalizuje, že existuje ďalšia stránka
+    public static <E, T> CursorPage<T> of(List<E> rows, int limit, Function<E, ? extends Number> idOf,
+                                          Function<E, T> mapper) {
+        boolean hasNext = rows.size() > limit;
+        List<E> pageRows = hasNext ? rows.subList(0, limit) : rows;
+        List<T> items = pageRows.stream().map(mapper).toList();
+        String nextCursor = hasNext ? encodeCursor(idOf.apply(pageRows.get(limit - 1)).longValue()) : null;
+        return new CursorPage<>(items, nextCursor);
+    }
+
+    // Ako of(...), ale stránka je zoradená podľa (sortKeyOf, idOf) - kurzor obsahuje obe hodnoty posledného
+    // riadku, ďalšia stránka začína za touto dvojicou. Riadky s prázdnou hodnotou stĺpca sa takto stránkovať nedajú.
+    public static <E, T> CursorPage<T> of(List<E> rows, int limit, Function<E, ?> sortKeyOf,
+                                          Function<E, ? extends Number> idOf, Function<E, T> mapper) {
+        boolean hasNext = rows.size() > limit;
+        List<E> pageRows = hasNext ? rows.subList(0, limit) : rows;
+        List<T> items = pageRows.stream().map(mapper).toList();
+        String nextCursor = null;
+        if (hasNext) {
+            E last = pageRows.get(limit - 1);
+            nextCursor = encode(SORT_KEY_CURSOR_PREFIX + idOf.apply(last).longValue() + ":" + sortKeyOf.apply(last));
+        }
+        return new CursorPage<>(items, nextCursor);
+    }
+
+    // Kurzor je pre klienta nepriehľadný reťazec, interne Base64 zakódované posledné ID
+    public static String encodeCursor(long lastId) {
+        return encode(CURSOR_PREFIX + lastId);
+    }
+
+    private static String encode(String cursor) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Vráti ID, za ktorým stránka začína (0 pre prvú stránku)
+    public static long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (decoded.startsWith(CURSOR_PREFIX)) {
+                long lastId = Long.parseLong(decoded.substring(CURSOR_PREFIX.length()));
+                if (lastId >= 0) {
+                    return lastId;
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            // Neplatné Base64 alebo číslo - spracuje sa nižšie
+        }
+        throw new InvalidPageRequestException("Neplatný kurzor stránkovania.");
+    }
+
+    // Kurzor stránky zoradenej podľa (hodnota stĺpca, ID); null pre prvú stránku
+    public static SortKeyCursor decodeSortKeyCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(':', SORT_KEY_CURSOR_PREFIX.length());
+            if (decoded.startsWith(SORT_KEY_CURSOR_PREFIX) && separator > 0) {
+                long lastId = Long.parseLong(decoded.substring(SORT_KEY_CURSOR_PREFIX.length(), separator));
+                if (lastId >= 0) {
+                    return new SortKeyCursor(decoded.substring(separator + 1), lastId);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            // Neplatné Base64 alebo číslo - spracuje sa nižšie
+        }
+        throw new InvalidPageRequestException("Neplatný kurzor stránkovania.");
+    }
+
+    // Overí požadovaný počet záznamov na stránku (predvolene DEFAULT_LIMIT, najviac MAX_LIMIT)
+    public static int resolveLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new InvalidPageRequestException("Limit musí byť v rozsahu 1 až " + MAX_LIMIT + ".");
+        }
+        return limit;
+    }
+}
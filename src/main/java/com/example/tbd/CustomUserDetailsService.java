@@ -3,6 +3,7 @@ package com.example.tbd;
 import com.example.tbd.customer.Customer;  // Import triedy Customer, ktorá reprezentuje zákazníka v databáze
 import com.example.tbd.customer.CustomerRepository;  // Import repository pre prístup k údajom o zákazníkoch
 import org.springframework.beans.factory.annotation.Autowired;  // Import pre automatickú injekciu závislostí
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;  // Import pre použitie triedy User v kontexte autentifikácie
 import org.springframework.security.core.userdetails.UserDetails;  // Import pre UserDetails rozhranie
 import org.springframework.security.core.userdetails.UserDetailsService;  // Import rozhrania pre načítavanie údajov o používateľovi
@@ -10,7 +11,7 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;  // Import pre označenie triedy ako služba
 
-import java.util.ArrayList;  // Import pre použitie zoznamu (v tomto prípade prázdneho)
+import java.util.List;
 
 @Service  // Označenie triedy ako Spring služba
 public class CustomUserDetailsService implements UserDetailsService {  // Implementácia UserDetailsService pre zákazníka
@@ -39,6 +40,13 @@ public class CustomUserDetailsService implements UserDetailsService {  // Implem
         //System.out.println("DEBUG: Načítané heslo: " + customer.getPassword());  // Debug výpis pre načítané heslo zákazníka
 
         // Vytvorenie a vrátenie objektu User pre autentifikáciu
-        return new User(customer.getEmail(), customer.getPassword(), new ArrayList<>());  // Vytvorenie objektu User, ktorý sa používa pri autentifikácii
+        return new User(customer.getEmail(), customer.getPassword(), authorities(customer));  // Vytvorenie objektu User, ktorý sa používa pri autentifikácii
+    }
+
+    // Bežný zákazník nemá žiadnu rolu, správca má ROLE_ADMIN
+    private static List<SimpleGrantedAuthority> authorities(Customer customer) {
+        return Integer.valueOf(Customer.ROLE_ID_ADMIN).equals(customer.getRoleId())
+                ? List.of(new SimpleGrantedAuthority("ROLE_" + JwtTokenUtil.ROLE_ADMIN))
+                : List.of();
     }
 }
@@ -0,0 +1,243 @@
+package com.example.tbd;
+
+import com.example.tbd.company.Company;
+import com.example.tbd.company.CompanyRepository;
+import com.example.tbd.customer.Customer;
+import com.example.tbd.customer.CustomerRepository;
+import com.example.tbd.product.Product;
+import com.example.tbd.product.ProductRepository;
+import com.example.tbd.vehicle.Vehicle;
+import com.example.tbd.vehicle.VehicleRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// Počty pre endpointy /count držané v pamäti - čítanie je jedno atomické načítanie namiesto COUNT(*).
+// Po potvrdení transakcie ich upravujú Hibernate listenery (vloženie, zmena deleted / roleId, zmazanie),
+// periodická kontrola voči databáze opraví odchýlky po zmenách mimo Hibernate (natívne SQL, iné inštancie).
+@Component
+public class EntityCounters {
+
+    private static final Logger logger = LoggerFactory.getLogger(EntityCounters.class);
+
+    private final AtomicLong activeVehicles = new AtomicLong();  // deleted = 'N'
+    private final AtomicLong activeProducts = new AtomicLong();  // deleted = 'N'
+    private final AtomicLong companies = new AtomicLong();
+    private final AtomicLong customersWithRoleUser = new AtomicLong();  // roleId = 1
+
+    private final VehicleRepository vehicleRepository;
+    private final ProductRepository productRepository;
+    private final CompanyRepository companyRepository;
+    private final CustomerRepository customerRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TransactionTemplate primaryTransaction;
+
+    public EntityCounters(VehicleRepository vehicleRepository,
+                          ProductRepository productRepository,
+                          CompanyRepository companyRepository,
+                          CustomerRepository customerRepository,
+                          EntityManagerFactory entityManagerFactory,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry) {
+        this.vehicleRepository = vehicleRepository;
+        this.productRepository = productRepository;
+        this.companyRepository = companyRepository;
+        this.customerRepository = customerRepository;
+        this.entityManagerFactory = entityManagerFactory;
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+
+        Gauge.builder("entity.count", activeVehicles, AtomicLong::get).tag("entity", "vehicle").register(meterRegistry);
+        Gauge.builder("entity.count", activeProducts, AtomicLong::get).tag("entity", "product").register(meterRegistry);
+        Gauge.builder("entity.count", companies, AtomicLong::get).tag("entity", "company").register(meterRegistry);
+        Gauge.builder("entity.count", customersWithRoleUser, AtomicLong::get).tag("entity", "customer").register(meterRegistry);
+    }
+
+    @PostConstruct
+    void registerListeners() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        CountingListener listener = new CountingListener();
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+        reconcile();
+    }
+
+    public long activeVehicles() {
+        return activeVehicles.get();
+    }
+
+    public long activeProducts() {
+        return activeProducts.get();
+    }
+
+    public long companies() {
+        return companies.get();
+    }
+
+    public long customersWithRoleUser() {
+        return customersWithRoleUser.get();
+    }
+
+    // Úprava počtu po hromadnej zmene mimo Hibernate listenerov (napr. JPQL UPDATE)
+    public void adjustActiveVehicles(long delta) {
+        activeVehicles.addAndGet(delta);
+    }
+
+    public void adjustActiveProducts(long delta) {
+        activeProducts.addAndGet(delta);
+    }
+
+    // Hromadné označenie ako vymazané (BulkSoftDelete) - volá sa až po commite
+    @TransactionalEventListener
+    public void onSoftDeleted(EntitySoftDeletedEvent event) {
+        if (event.entityType() == Vehicle.class) {
+            adjustActiveVehicles(-event.ids().size());
+        } else if (event.entityType() == Product.class) {
+            adjustActiveProducts(-event.ids().size());
+        }
+    }
+
+    // Periodická kontrola voči databáze. COUNT(*) beží v zapisovacej transakcii, teda na primárnej databáze -
+    // zaostávajúca replika by vrátila starší počet a ten by prepísal správne počítadlo.
+    @Scheduled(initialDelayString = "${counters.reconcile-interval:5m}", fixedDelayString = "${counters.reconcile-interval:5m}")
+    public void reconcile() {
+        primaryTransaction.executeWithoutResult(status -> {
+            reconcile("vehicle", activeVehicles, vehicleRepository::countVehicles);
+            reconcile("product", activeProducts, productRepository::countProducts);
+            reconcile("company", companies, companyRepository::countCompany);
+            reconcile("customer", customersWithRoleUser, customerRepository::countUsersWithRoleUser);
+        });
+    }
+
+    // Hodnota sa prepíše iba vtedy, ak sa počítadlo počas COUNT(*) nezmenilo. Inak nie je jasné, či súbežná
+    // zmena už je v COUNT(*) započítaná, a oprava sa nechá na ďalší interval. Zostáva úzke okno medzi commitom
+    // a jeho listenerom (COUNT(*) zmenu vidí, počítadlo ešte nie) - takú odchýlku opraví ďalší interval.
+    private void reconcile(String entity, AtomicLong counter, LongSupplier databaseCount) {
+        long before = counter.get();
+        long actual = databaseCount.getAsLong();
+        if (actual == before) {
+            return;
+        }
+        if (counter.compareAndSet(before, actual)) {
+            logger.debug("Počítadlo {} opravené o {} (databáza: {}).", entity, actual - before, actual);
+        } else {
+            logger.debug("Počítadlo {} sa počas kontroly zmenilo, oprava sa odkladá na ďalší interval.", entity);
+        }
+    }
+
+    private static boolean isActive(Object deleted) {
+        return "N".equals(deleted);
+    }
+
+    private static boolean hasRoleUser(Object roleId) {
+        return Integer.valueOf(1).equals(roleId);
+    }
+
+    private static Object propertyValue(EntityPersister persister, Object[] state, String property) {
+        int index = Arrays.asList(persister.getPropertyNames()).indexOf(property);
+        return index >= 0 ? state[index] : null;
+    }
+
+    // Hibernate listener volaný až po úspešnom commite transakcie
+    private final class CountingListener implements PostCommitInsertEventListener,
+            PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            Object entity = event.getEntity();
+            if (entity instanceof Vehicle vehicle && isActive(vehicle.getDeleted())) {
+                activeVehicles.incrementAndGet();
+            } else if (entity instanceof Product product && isActive(product.getDeleted())) {
+                activeProducts.incrementAndGet();
+            } else if (entity instanceof Company) {
+                companies.incrementAndGet();
+            } else if (entity instanceof Customer customer && hasRoleUser(customer.getRoleId())) {
+                customersWithRoleUser.incrementAndGet();
+            }
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            Object[] oldState = event.getOldState();
+            if (oldState == null) {
+                return; // Pôvodný stav nie je známy - prípadnú odchýlku opraví reconcile()
+            }
+            Object entity = event.getEntity();
+            EntityPersister persister = event.getPersister();
+            if (entity instanceof Vehicle vehicle) {
+                adjust(activeVehicles, isActive(propertyValue(persister, oldState, "deleted")), isActive(vehicle.getDeleted()));
+            } else if (entity instanceof Product product) {
+                adjust(activeProducts, isActive(propertyValue(persister, oldState, "deleted")), isActive(product.getDeleted()));
+            } else if (entity instanceof Customer customer) {
+                adjust(customersWithRoleUser, hasRoleUser(propertyValue(persister, oldState, "roleId")), hasRoleUser(customer.getRoleId()));
+            }
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            Object[] deletedState = event.getDeletedState();
+            Object entity = event.getEntity();
+            EntityPersister persister = event.getPersister();
+            if (entity instanceof Vehicle && isActive(propertyValue(persister, deletedState, "deleted"))) {
+                activeVehicles.decrementAndGet();
+            } else if (entity instanceof Product && isActive(propertyValue(persister, deletedState, "deleted"))) {
+                activeProducts.decrementAndGet();
+            } else if (entity instanceof Company) {
+                companies.decrementAndGet();
+            } else if (entity instanceof Customer && hasRoleUser(propertyValue(persister, deletedState, "roleId"))) {
+                customersWithRoleUser.decrementAndGet();
+            }
+        }
+
+        private void adjust(AtomicLong counter, boolean before, boolean after) {
+            if (before != after) {
+                counter.addAndGet(after ? 1 : -1);
+            }
+        }
+
+        @Override
+        public void onPostInsertCommitFailed(PostInsertEvent event) {
+            // Neúspešný commit - počet sa nemení
+        }
+
+        @Override
+        public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+            // Neúspešný commit - počet sa nemení
+        }
+
+        @Override
+        public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+            // Neúspešný commit - počet sa nemení
+        }
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            Class<?> type = persister.getMappedClass();
+            return type == Vehicle.class || type == Product.class || type == Company.class || type == Customer.class;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.tbd;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Hibernate listener volaný až po úspešnom commite transakcie - posiela vložené, zmenené a vymazané entity
+// všetkým indexom v pamäti (InMemoryEntityIndex). Hibernate odmietne dva listenery rovnakej triedy, preto
+// je spoločný. Neúspešný commit indexy nemení.
+@Component
+class EntityIndexListener implements PostCommitInsertEventListener,
+        PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final List<InMemoryEntityIndex<?, ?>> indexes;
+
+    EntityIndexListener(EntityManagerFactory entityManagerFactory, List<InMemoryEntityIndex<?, ?>> indexes) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.indexes = indexes;
+    }
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        indexes.forEach(index -> index.committed(event.getEntity(), false));
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        indexes.forEach(index -> index.committed(event.getEntity(), false));
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        indexes.forEach(index -> index.committed(event.getEntity(), true));
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return indexes.stream().anyMatch(index -> index.indexes(persister.getMappedClass()));
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.tbd;
+
+import java.util.List;
+
+// Záznamy hromadne označené ako vymazané (deleted = 'Y') jedným UPDATE bez načítania entít, takže
+// Hibernate listenery sa nevolajú. Publikuje BulkSoftDelete, poslucháči ho dostanú až po commite.
+public record EntitySoftDeletedEvent(Class<?> entityType, List<?> ids) {
+}
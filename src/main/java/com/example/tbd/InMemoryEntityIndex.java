@@ -0,0 +1,72 @@
+package com.example.tbd;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Index jednej entity v pamäti (CompanyNameSearch, CustomerSearch, VehicleFacetSearch). Zostaví sa pri štarte
+// a po commite ho upravuje EntityIndexListener pri vložení, zmene a vymazaní entity. Podtrieda prekryje reload()
+// s vlastným @Scheduled - periodické načítanie z databázy zahrnie zmeny z ostatných inštancií aj hromadné UPDATE
+// bez Hibernate udalostí. Načítaný index nahradí predchádzajúci naraz, čitatelia nikdy nevidia rozpracovaný stav;
+// zmena potvrdená počas načítania sa prejaví najneskôr pri ďalšom.
+public abstract class InMemoryEntityIndex<E, I> {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryEntityIndex.class);
+
+    private final Class<E> entityType;
+    private final String name; // Do logu, napr. "názvov firiem"
+    private final TransactionTemplate primaryTransaction;
+
+    private volatile I index;
+
+    protected InMemoryEntityIndex(Class<E> entityType, String name, I empty, PlatformTransactionManager transactionManager) {
+        this.entityType = entityType;
+        this.name = name;
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+        this.index = empty;
+    }
+
+    @PostConstruct
+    protected void init() {
+        reload();
+    }
+
+    // Zostaví index znova z databázy. Zapisovacia transakcia ide na primárnu databázu - replika môže zaostávať
+    // a riadok potvrdený tesne pred načítaním by v indexe chýbal až do ďalšieho.
+    public void reload() {
+        I loaded = primaryTransaction.execute(status -> load());
+        index = loaded;
+        logger.debug("Index {} načítaný: {} záznamov.", name, size(loaded));
+    }
+
+    protected I index() {
+        return index;
+    }
+
+    protected abstract I load();
+
+    protected abstract int size(I index);
+
+    // Vložená alebo zmenená entita - pridá ju do indexu alebo nahradí jej predchádzajúce hodnoty
+    protected abstract void upsert(I index, E entity);
+
+    protected abstract void remove(I index, E entity);
+
+    boolean indexes(Class<?> mappedClass) {
+        return mappedClass == entityType;
+    }
+
+    // Volá EntityIndexListener po commite pre entity všetkých typov
+    void committed(Object entity, boolean deleted) {
+        if (!entityType.isInstance(entity)) {
+            return;
+        }
+        if (deleted) {
+            remove(index, entityType.cast(entity));
+        } else {
+            upsert(index, entityType.cast(entity));
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.tbd;
+
+// Neplatný kurzor alebo limit pri stránkovaní - API vráti 400 Bad Request
+public class InvalidPageRequestException extends RuntimeException {
+
+    public InvalidPageRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.tbd;
+
+// Neplatný JSON Merge Patch alebo hlavička If-Match - API vráti 400 Bad Request
+public class InvalidPatchException extends RuntimeException {
+
+    public InvalidPatchException(String message) {
+        super(message);
+    }
+}
@@ -1,11 +1,11 @@
 package com.example.tbd;
 
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jws;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -17,25 +17,30 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 import java.io.IOException;
-import java.security.Key;
 import java.util.Date;
+import java.util.List;
 
 // Komponent pre JWT autentifikáciu
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    // Služby pre získanie údajov o používateľovi (Zákazník alebo Firma)
-    private final CustomUserDetailsService userDetailsService;
-    private final CompanyUserDetailsService companyUserDetailsService;
+    // Cache používateľov pred CustomUserDetailsService a CompanyUserDetailsService
+    private final PrincipalCache principalCache;
 
-    // Pevný bezpečný tajný kľúč pre podpisovanie tokenov
-    private static final Key SECRET_KEY = Keys.hmacShaKeyFor("verysecuresecretkeywith256bits1234567890".getBytes());
+    // Overovanie tokenov (zdieľaný parser a cache overených claimov)
+    private final JwtTokenUtil jwtTokenUtil;
 
-    // Konštruktor na injekciu závislostí (CustomUserDetailsService a CompanyUserDetailsService)
-    public JwtAuthenticationFilter(CustomUserDetailsService userDetailsService,
-                                   CompanyUserDetailsService companyUserDetailsService) {
-        this.userDetailsService = userDetailsService;
-        this.companyUserDetailsService = companyUserDetailsService;
+    // Bezstavový režim: Authentication sa zostaví len z overených claimov tokenu, bez prístupu k databáze
+    // (verzia prihlasovacích údajov sa porovná iba so zmenami zaznamenanými v PrincipalCache po commite)
+    private final boolean statelessClaims;
+
+    // Konštruktor na injekciu závislostí
+    public JwtAuthenticationFilter(PrincipalCache principalCache,
+                                   JwtTokenUtil jwtTokenUtil,
+                                   @Value("${auth.stateless-claims:false}") boolean statelessClaims) {
+        this.principalCache = principalCache;
+        this.jwtTokenUtil = jwtTokenUtil;
+        this.statelessClaims = statelessClaims;
     }
 
     // Metóda na filtrovanie požiadaviek
@@ -58,13 +63,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         String companyICO = null;
 
         try {
-            // Dekódovanie a validácia JWT tokenu
-            Jws<Claims> claimsJws = Jwts.parserBuilder()
-                    .setSigningKey(SECRET_KEY)  // Použitie tajného kľúča na validáciu tokenu
-                    .build()
-                    .parseClaimsJws(jwtToken);  // Parsovanie tokenu
-
-            Claims claims = claimsJws.getBody();  // Získanie údajov (claims) z tokenu
+            // Dekódovanie a validácia JWT tokenu (opakované tokeny sa berú z cache overených claimov)
+            Claims claims = jwtTokenUtil.extractClaims(jwtToken);  // Získanie údajov (claims) z tokenu
             username = claims.getSubject();  // Získanie používateľského mena (e-mail)
             companyICO = claims.get("companyICO", String.class); // Získanie IČO firmy z tokenu
             Date expiration = claims.getExpiration();  // Získanie dátumu exspirácie tokenu
@@ -80,16 +80,32 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 return;
             }
 
-            // Autentifikácia pre zákazníka, ak je prítomný len username a nie IČO
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null && companyICO == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);  // Načítanie údajov o zákazníkovi
-                setAuthentication(userDetails, request);  // Nastavenie autentifikácie pre zákazníka
-            }
-
-            // Autentifikácia pre firmu cez IČO
-            if (companyICO != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails companyDetails = companyUserDetailsService.loadUserByUsername(companyICO);  // Načítanie údajov o firme
-                setAuthentication(companyDetails, request);  // Nastavenie autentifikácie pre firmu
+            // Tokeny s claimom "role" určujú typ účtu priamo (zákazník alebo firma)
+            String role = claims.get(JwtTokenUtil.CLAIM_ROLE, String.class);
+            if (role != null) {
+                if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                    if (statelessClaims) {
+                        authenticateFromClaims(claims, role, request);  // Bez načítania používateľa, iba verzia prihlasovacích údajov
+                    } else if (JwtTokenUtil.ROLE_COMPANY.equals(role)) {
+                        setAuthentication(principalCache.getCompany(username), request);
+                    } else {
+                        setAuthentication(principalCache.getCustomer(username), request);
+                    }
+                }
+            } else {
+                // Staršie tokeny bez claimu "role"
+
+                // Autentifikácia pre zákazníka, ak je prítomný len username a nie IČO
+                if (username != null && SecurityContextHolder.getContext().getAuthentication() == null && companyICO == null) {
+                    UserDetails userDetails = principalCache.getCustomer(username);  // Načítanie údajov o zákazníkovi (z cache)
+                    setAuthentication(userDetails, request);  // Nastavenie autentifikácie pre zákazníka
+                }
+
+                // Autentifikácia pre firmu cez IČO
+                if (companyICO != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                    UserDetails companyDetails = principalCache.getCompany(companyICO);  // Načítanie údajov o firme (z cache)
+                    setAuthentication(companyDetails, request);  // Nastavenie autentifikácie pre firmu
+                }
             }
 
         } catch (Exception e) {
@@ -99,6 +115,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);  // Pokračovanie v spracovaní požiadavky
     }
 
+    // Zostavenie autentifikácie iba z claimov - odmietne token so zastaranou verziou prihlasovacích údajov
+    private void authenticateFromClaims(Claims claims, String role, HttpServletRequest request) {
+        Long accountId = claims.get("customerId", Long.class);
+        Integer credentialVersion = claims.get(JwtTokenUtil.CLAIM_CREDENTIAL_VERSION, Integer.class);
+        if (!principalCache.isCredentialVersionCurrent(role, accountId, credentialVersion)) {
+            return;  // Prihlasovacie údaje sa po vydaní tokenu zmenili, požiadavka zostane neautentifikovaná
+        }
+        List<SimpleGrantedAuthority> authorities = Boolean.TRUE.equals(claims.get(JwtTokenUtil.CLAIM_ADMIN, Boolean.class))
+                ? List.of(new SimpleGrantedAuthority("ROLE_" + role), new SimpleGrantedAuthority("ROLE_" + JwtTokenUtil.ROLE_ADMIN))
+                : List.of(new SimpleGrantedAuthority("ROLE_" + role));
+        UserDetails userDetails = new User(claims.getSubject(), "", authorities);
+        setAuthentication(userDetails, request);
+    }
+
     // Metóda na nastavenie autentifikácie v kontexte
     private void setAuthentication(UserDetails userDetails, HttpServletRequest request) {
         // Vytvorenie autentifikačného tokenu
@@ -1,11 +1,23 @@
 package com.example.tbd;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.Date;
 
 @Component
@@ -13,23 +25,94 @@ public class JwtTokenUtil {
     private static final String SECRET_KEY = "verysecuresecretkeywith256bits1234567890";
     private final Key key = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
 
-    public String generateToken(String subject, Long customerId, String customerEmail) {
+    // Názvy claimov a rolí používané v bezstavovom režime JwtAuthenticationFilter
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_CREDENTIAL_VERSION = "credVersion";
+    public static final String ROLE_CUSTOMER = "CUSTOMER";
+    public static final String ROLE_COMPANY = "COMPANY";
+    public static final String CLAIM_ADMIN = "admin";
+    public static final String ROLE_ADMIN = "ADMIN"; // Doplnková rola správcu (zákazník s role_id = 2)
+
+    // Platnosť vydaného tokenu
+    public static final Duration TOKEN_VALIDITY = Duration.ofHours(24);
+
+    // Parser je nemenný a bezpečný pre viac vlákien - vytvára sa iba raz
+    private final JwtParser parser = Jwts.parserBuilder()
+            .setSigningKey(key)
+            .build();
+
+    // SHA-256 odtlačok tokenu -> už overené claims; položka vyprší spolu s tokenom
+    private final Cache<ByteBuffer, Claims> verifiedTokens;
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 nie je dostupný", e);
+        }
+    });
+
+    public JwtTokenUtil(MeterRegistry meterRegistry,
+                        @Value("${auth.token-cache.max-size:50000}") long maxSize) {
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<ByteBuffer, Claims>() {
+                    @Override
+                    public long expireAfterCreate(ByteBuffer digest, Claims claims, long currentTime) {
+                        // Zvyšná platnosť tokenu v nanosekundách
+                        return Math.max(0, claims.getExpiration().getTime() - System.currentTimeMillis()) * 1_000_000L;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(ByteBuffer digest, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(ByteBuffer digest, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt.verified");
+    }
+
+    public String generateToken(String subject, Long customerId, String customerEmail, String role, Integer credentialVersion) {
+        return generateToken(subject, customerId, customerEmail, role, credentialVersion, false);
+    }
+
+    public String generateToken(String subject, Long customerId, String customerEmail, String role, Integer credentialVersion, boolean admin) {
+        return generateToken(subject, customerId, customerEmail, role, credentialVersion, admin, TOKEN_VALIDITY);
+    }
+
+    // Platnosť mení iba test cache overených tokenov
+    String generateToken(String subject, Long customerId, String customerEmail, String role, Integer credentialVersion,
+                         boolean admin, Duration validity) {
         return Jwts.builder()
                 .setSubject(subject)
                 .claim("customerId", customerId) // Long hodnota
                 .claim("customerEmail", customerEmail)
+                .claim(CLAIM_ROLE, role) // CUSTOMER alebo COMPANY
+                .claim(CLAIM_CREDENTIAL_VERSION, credentialVersion) // Verzia prihlasovacích údajov účtu
+                .claim(CLAIM_ADMIN, admin) // Správca (bezstavový režim z neho odvodí ROLE_ADMIN)
                 .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + 86400000)) // Token valid for 24 hours
+                .setExpiration(new Date(System.currentTimeMillis() + validity.toMillis()))
                 .signWith(key)
                 .compact();
     }
 
+    // Overenie podpisu a parsovanie prebehne iba pri prvom výskyte tokenu, ďalej sa claims berú z cache
     public Claims extractClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        ByteBuffer digest = ByteBuffer.wrap(SHA256.get().digest(token.getBytes(StandardCharsets.US_ASCII)));
+        Claims claims = verifiedTokens.getIfPresent(digest);
+        if (claims == null) {
+            claims = parser.parseClaimsJws(token).getBody(); // Pri neplatnom podpise alebo expirácii vyhodí výnimku
+            if (claims.getExpiration() != null) {
+                verifiedTokens.put(digest, claims); // Tokeny bez expirácie sa necachujú
+            }
+        }
+        return claims;
     }
 
     public boolean isTokenValid(String token, String subject) {
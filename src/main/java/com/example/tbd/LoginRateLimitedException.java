@@ -0,0 +1,17 @@
+package com.example.tbd;
+
+// Výnimka pri prekročení limitu prihlasovacích pokusov - klient môže skúsiť znova po retryAfterSeconds
+public class LoginRateLimitedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public LoginRateLimitedException(long retryAfterSeconds) {
+        // Bez stack trace - výnimka je bežná odpoveď pri útoku hrubou silou a nemá byť drahá
+        super("Príliš veľa pokusov o prihlásenie, skúste to prosím neskôr.", null, false, false);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.tbd;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// Token-bucket limiter pre prihlasovacie endpointy, samostatne podľa IP adresy klienta a podľa účtu (e-mail/IČO).
+// IP adresa aj účet platia token za každý pokus ešte pred overením hesla, takže ani súbežné pokusy na jeden účet
+// z rôznych IP adries neprekročia jeho limit. Úspešné prihlásenie limit účtu vynuluje.
+// Kľúče sú rozdelené do pruhov (stripes) s vlastným zámkom, takže súbežné prihlásenia sa navzájom neblokujú.
+// Plný pruh vyradí najdlhšie nepoužitý bucket v O(1) - nový kľúč nevytlačí účet, na ktorý sa práve útočí.
+// Odmietnutie nastane ešte pred prístupom k databáze a pred BCrypt porovnaním.
+@Component
+public class LoginRateLimiter {
+
+    private static final int STRIPES = 64; // Mocnina dvoch kvôli rýchlemu výberu pruhu
+
+    private final BucketGroup ipBuckets;
+    private final BucketGroup accountBuckets;
+    private final Counter ipRejected;
+    private final Counter accountRejected;
+
+    public LoginRateLimiter(MeterRegistry meterRegistry,
+                            @Value("${auth.login-limit.ip.capacity:20}") int ipCapacity,
+                            @Value("${auth.login-limit.ip.refill-per-second:0.5}") double ipRefillPerSecond,
+                            @Value("${auth.login-limit.account.capacity:5}") int accountCapacity,
+                            @Value("${auth.login-limit.account.refill-per-second:0.1}") double accountRefillPerSecond,
+                            @Value("${auth.login-limit.max-keys:100000}") int maxKeys) {
+        this.ipBuckets = new BucketGroup(ipCapacity, ipRefillPerSecond, maxKeys / STRIPES);
+        this.accountBuckets = new BucketGroup(accountCapacity, accountRefillPerSecond, maxKeys / STRIPES);
+        this.ipRejected = Counter.builder("login.rate_limited")
+                .tag("scope", "ip")
+                .description("Počet prihlásení odmietnutých limitom na IP adresu")
+                .register(meterRegistry);
+        this.accountRejected = Counter.builder("login.rate_limited")
+                .tag("scope", "account")
+                .description("Počet prihlásení odmietnutých limitom na účet")
+                .register(meterRegistry);
+    }
+
+    // Spotrebuje token pre IP aj pre účet, inak vyhodí LoginRateLimitedException (429 + Retry-After)
+    public void check(String clientIp, String account) {
+        long now = System.nanoTime();
+        long retryAfter = ipBuckets.tryConsume(clientIp == null ? "" : clientIp, now);
+        if (retryAfter > 0) {
+            ipRejected.increment();
+            throw new LoginRateLimitedException(retryAfter);
+        }
+        retryAfter = accountBuckets.tryConsume(accountKey(account), now);
+        if (retryAfter > 0) {
+            accountRejected.increment();
+            throw new LoginRateLimitedException(retryAfter);
+        }
+    }
+
+    // Úspešné prihlásenie - predchádzajúce neúspešné pokusy sa zabudnú
+    public void recordSuccess(String account) {
+        accountBuckets.reset(accountKey(account));
+    }
+
+    // Heslo sa neoverilo (preťažený BCrypt) - účtu sa token vráti
+    public void release(String account) {
+        accountBuckets.refund(accountKey(account), System.nanoTime());
+    }
+
+    private static String accountKey(String account) {
+        return account == null ? "" : account.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Skupina bucketov jedného typu kľúča rozdelená do pruhov
+    private static final class BucketGroup {
+        private final double capacity;
+        private final double refillPerNano;
+        private final Stripe[] stripes = new Stripe[STRIPES];
+
+        BucketGroup(int capacity, double refillPerSecond, int maxKeysPerStripe) {
+            this.capacity = capacity;
+            this.refillPerNano = refillPerSecond / 1_000_000_000d;
+            for (int i = 0; i < STRIPES; i++) {
+                stripes[i] = new Stripe(Math.max(16, maxKeysPerStripe));
+            }
+        }
+
+        // Vráti 0, ak bol token spotrebovaný, inak počet sekúnd do ďalšieho voľného tokenu
+        long tryConsume(String key, long now) {
+            Stripe stripe = stripeFor(key);
+            synchronized (stripe) {
+                TokenBucket bucket = stripe.buckets.get(key);
+                if (bucket == null) {
+                    bucket = new TokenBucket(capacity, now);
+                    stripe.buckets.put(key, bucket); // Pri plnom pruhu vyradí najdlhšie nepoužitý bucket
+                }
+                bucket.refill(capacity, refillPerNano, now);
+                if (bucket.tokens >= 1d) {
+                    bucket.tokens -= 1d;
+                    return 0;
+                }
+                return secondsUntilToken(bucket);
+            }
+        }
+
+        void refund(String key, long now) {
+            Stripe stripe = stripeFor(key);
+            synchronized (stripe) {
+                TokenBucket bucket = stripe.buckets.get(key);
+                if (bucket != null) {
+                    bucket.refill(capacity, refillPerNano, now);
+                    bucket.tokens = Math.min(capacity, bucket.tokens + 1d);
+                }
+            }
+        }
+
+        void reset(String key) {
+            Stripe stripe = stripeFor(key);
+            synchronized (stripe) {
+                stripe.buckets.remove(key);
+            }
+        }
+
+        private Stripe stripeFor(String key) {
+            int hash = key.hashCode();
+            return stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+        }
+
+        private long secondsUntilToken(TokenBucket bucket) {
+            return Math.max(1, (long) Math.ceil((1d - bucket.tokens) / refillPerNano / 1_000_000_000d));
+        }
+    }
+
+    // Buckety pruhu v poradí prístupu (get aj put presunú kľúč na koniec), najviac maxKeys
+    private static final class Stripe {
+        private final LinkedHashMap<String, TokenBucket> buckets;
+
+        Stripe(int maxKeys) {
+            this.buckets = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, TokenBucket> eldest) {
+                    return size() > maxKeys;
+                }
+            };
+        }
+    }
+
+    // Stav jedného bucketu - upravuje sa iba pod zámkom svojho pruhu
+    private static final class TokenBucket {
+        private double tokens;
+        private long lastRefill;
+
+        TokenBucket(double capacity, long now) {
+            this.tokens = capacity;
+            this.lastRefill = now;
+        }
+
+        void refill(double capacity, double refillPerNano, long now) {
+            long elapsed = now - lastRefill;
+            if (elapsed > 0) {
+                tokens = Math.min(capacity, tokens + elapsed * refillPerNano);
+                lastRefill = now;
+            }
+        }
+    }
+}
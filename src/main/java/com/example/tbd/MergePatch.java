@@ -0,0 +1,275 @@
+package com.example.tbd;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+// JSON Merge Patch (RFC 7386) pre entity s plochými stĺpcami. Z polí uvedených v patchi zostaví jeden
+// UPDATE ... SET <iba tieto stĺpce>, version = version + 1 WHERE id = ? [AND version = ?] bez načítania entity.
+// Hodnota null stĺpec vymaže (iba ak je voliteľný), polia mimo zoznamu povolených vrátia 400.
+// @SQLRestriction entity (deleted = 'N') Hibernate pridá aj do tohto UPDATE - vymazaný záznam vráti 404.
+// Entity v cache druhej úrovne (@Cache) sa menia cez načítanú entitu - hromadný UPDATE by Hibernate premietol
+// vyradením celého regiónu cache, takto sa obnoví iba zmenený záznam (s @DynamicUpdate iba zmenené stĺpce).
+public final class MergePatch<E> {
+
+    public static final String APPLICATION_MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+
+    public enum Outcome {
+        UPDATED,           // Riadok bol zmenený
+        NOT_FOUND,         // Riadok s daným ID neexistuje (alebo je vymazaný)
+        VERSION_MISMATCH   // Verzia z If-Match už neplatí -> 412
+    }
+
+    // Výsledok patchu - pri UPDATED aj nová verzia záznamu pre hlavičku ETag
+    public record Result(Outcome outcome, Long version) {
+
+        static Result of(Outcome outcome) {
+            return new Result(outcome, null);
+        }
+    }
+
+    // Prevod hodnoty z JSON na typ atribútu - pri nesprávnom type vráti null
+    public interface Parser<T> {
+        T parse(JsonNode value);
+    }
+
+    private static final HibernateJpaDialect JPA_DIALECT = new HibernateJpaDialect();
+
+    private final Class<E> entityType;
+    private final Map<String, PatchField<?>> fields = new LinkedHashMap<>();
+    private final boolean cached; // Entita v cache druhej úrovne - patch cez načítanú entitu
+    private final Field versionField;
+
+    public MergePatch(Class<E> entityType) {
+        this.entityType = entityType;
+        this.cached = entityType.isAnnotationPresent(org.hibernate.annotations.Cache.class);
+        this.versionField = cached ? entityField("version") : null;
+    }
+
+    // Povinný stĺpec - null v patchi vráti 400. Kontrola vráti chybovú správu alebo null.
+    public <T> MergePatch<E> required(String property, String attribute, Parser<T> parser, Function<T, String> check) {
+        fields.put(property, new PatchField<>(property, attribute, parser, check, false, cached ? entityField(attribute) : null));
+        return this;
+    }
+
+    // Voliteľný stĺpec - null v patchi ho vymaže
+    public <T> MergePatch<E> optional(String property, String attribute, Parser<T> parser, Function<T, String> check) {
+        fields.put(property, new PatchField<>(property, attribute, parser, check, true, cached ? entityField(attribute) : null));
+        return this;
+    }
+
+    // Vykoná patch iba so zmenenými stĺpcami; volať v transakcii. expectedVersion = verzia z If-Match alebo null (bez kontroly).
+    public Result apply(EntityManager entityManager, Object id, JsonNode patch, Long expectedVersion) {
+        if (patch == null || !patch.isObject()) {
+            throw new InvalidPatchException("Telo požiadavky musí byť JSON objekt.");
+        }
+        if (patch.isEmpty()) {
+            throw new InvalidPatchException("Patch neobsahuje žiadne zmeny.");
+        }
+
+        // Všetky polia sa overia pred prvou zmenou
+        Map<PatchField<?>, Object> changes = new LinkedHashMap<>();
+        for (Iterator<Map.Entry<String, JsonNode>> it = patch.fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> entry = it.next();
+            PatchField<?> field = fields.get(entry.getKey());
+            if (field == null) {
+                throw new InvalidPatchException("Pole " + entry.getKey() + " nie je možné meniť.");
+            }
+            changes.put(field, field.value(entry.getValue()));
+        }
+        return cached ? applyToEntity(entityManager, id, changes, expectedVersion)
+                : applyUpdate(entityManager, id, changes, expectedVersion);
+    }
+
+    // Hromadný UPDATE bez načítania entity
+    private Result applyUpdate(EntityManager entityManager, Object id, Map<PatchField<?>, Object> changes, Long expectedVersion) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<E> update = cb.createCriteriaUpdate(entityType);
+        Root<E> root = update.from(entityType);
+        for (Map.Entry<PatchField<?>, Object> change : changes.entrySet()) {
+            Path<Object> path = root.get(change.getKey().attribute());
+            if (change.getValue() == null) {
+                @SuppressWarnings("unchecked")
+                Class<Object> type = (Class<Object>) path.getJavaType();
+                update.<Object>set(path, cb.nullLiteral(type));
+            } else {
+                update.<Object, Object>set(path, change.getValue());
+            }
+        }
+        update.set(root.<Long>get("version"), cb.sum(root.<Long>get("version"), 1L));
+
+        List<Predicate> where = new ArrayList<>();
+        where.add(cb.equal(root.get("id"), id));
+        if (expectedVersion != null) {
+            where.add(cb.equal(root.get("version"), expectedVersion));
+        }
+        update.where(where.toArray(new Predicate[0]));
+
+        int updated;
+        try {
+            updated = entityManager.createQuery(update).executeUpdate();
+        } catch (RuntimeException e) {
+            throw translate(e);
+        }
+        if (updated > 0) {
+            // Bez If-Match pôvodná verzia nie je známa - novú prečíta tá istá transakcia
+            return new Result(Outcome.UPDATED, expectedVersion != null ? expectedVersion + 1 : currentVersion(entityManager, id));
+        }
+        return Result.of(expectedVersion != null && currentVersion(entityManager, id) != null
+                ? Outcome.VERSION_MISMATCH : Outcome.NOT_FOUND);
+    }
+
+    // Zmena načítanej entity - Hibernate pri flushi zvýši verziu a obnoví v cache iba tento záznam.
+    // Nezmenené hodnoty UPDATE nevyvolajú a verzia ostane rovnaká.
+    private Result applyToEntity(EntityManager entityManager, Object id, Map<PatchField<?>, Object> changes, Long expectedVersion) {
+        E entity = entityManager.find(entityType, id);
+        if (entity == null) {
+            return Result.of(Outcome.NOT_FOUND);
+        }
+        if (expectedVersion != null && !expectedVersion.equals(ReflectionUtils.getField(versionField, entity))) {
+            return Result.of(Outcome.VERSION_MISMATCH);
+        }
+        for (Map.Entry<PatchField<?>, Object> change : changes.entrySet()) {
+            ReflectionUtils.setField(change.getKey().entityField(), entity, change.getValue());
+        }
+        try {
+            entityManager.flush();
+        } catch (RuntimeException e) {
+            throw translate(e);
+        }
+        return new Result(Outcome.UPDATED, (Long) ReflectionUtils.getField(versionField, entity));
+    }
+
+    // Porušené obmedzenie (unikátny index, cudzí kľúč) -> DataIntegrityViolationException ako pri repozitároch
+    private static RuntimeException translate(RuntimeException e) {
+        DataAccessException translated = JPA_DIALECT.translateExceptionIfPossible(e);
+        return translated != null ? translated : e;
+    }
+
+    private Field entityField(String attribute) {
+        Field field = ReflectionUtils.findField(entityType, attribute);
+        if (field == null) {
+            throw new IllegalArgumentException("Entita " + entityType.getSimpleName() + " nemá atribút " + attribute);
+        }
+        ReflectionUtils.makeAccessible(field);
+        return field;
+    }
+
+    // Odpoveď PATCH endpointu - 200 s novou verziou v ETag, 404 alebo 412
+    public static ResponseEntity<String> toResponse(Result result, String updatedMessage,
+                                                    String notFoundMessage, String versionMismatchMessage) {
+        switch (result.outcome()) {
+            case NOT_FOUND:
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(notFoundMessage);
+            case VERSION_MISMATCH:
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(versionMismatchMessage);
+            default:
+                return ResponseEntity.ok().eTag(String.valueOf(result.version())).body(updatedMessage);
+        }
+    }
+
+    // Verzia z hlavičky If-Match ("3", W/"3"); null pri chýbajúcej hlavičke alebo "*"
+    public static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1);
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new InvalidPatchException("Neplatná hlavička If-Match: " + ifMatch);
+        }
+    }
+
+    // Kontrola textového stĺpca - nesmie byť prázdny a najviac maxLength znakov (dĺžka stĺpca)
+    public static Function<String, String> nonEmpty(String property, int maxLength) {
+        return value -> {
+            if (value.isBlank()) {
+                return "Pole " + property + " nemôže byť prázdne.";
+            }
+            return value.length() > maxLength ? "Pole " + property + " môže mať najviac " + maxLength + " znakov." : null;
+        };
+    }
+
+    public static Parser<String> text() {
+        return value -> value.isTextual() ? value.asText() : null;
+    }
+
+    public static Parser<Integer> integer() {
+        return value -> value.isIntegralNumber() && value.canConvertToInt() ? value.intValue() : null;
+    }
+
+    public static Parser<LocalDate> date(String pattern) {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(pattern);
+        return value -> {
+            if (!value.isTextual()) {
+                return null;
+            }
+            try {
+                return LocalDate.parse(value.asText(), formatter);
+            } catch (DateTimeParseException e) {
+                return null;
+            }
+        };
+    }
+
+    // Verzia záznamu, null ak neexistuje (alebo je vymazaný)
+    private Long currentVersion(EntityManager entityManager, Object id) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<E> root = query.from(entityType);
+        query.select(root.<Long>get("version")).where(cb.equal(root.get("id"), id));
+        List<Long> versions = entityManager.createQuery(query).getResultList();
+        return versions.isEmpty() ? null : versions.get(0);
+    }
+
+    private record PatchField<T>(String property, String attribute, Parser<T> parser,
+                                 Function<T, String> check, boolean nullable, Field entityField) {
+
+        // Overená hodnota z patchu; null iba pre voliteľný stĺpec, ktorý sa má vymazať
+        T value(JsonNode value) {
+            if (value.isNull()) {
+                if (!nullable) {
+                    throw new InvalidPatchException("Pole " + property + " nemôže byť prázdne.");
+                }
+                return null;
+            }
+            T parsed = parser.parse(value);
+            if (parsed == null) {
+                throw new InvalidPatchException("Neplatná hodnota poľa " + property + ".");
+            }
+            String error = check != null ? check.apply(parsed) : null;
+            if (error != null) {
+                throw new InvalidPatchException(error);
+            }
+            return parsed;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.tbd;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+// Export celej tabuľky ako NDJSON (jeden JSON objekt na riadok) s konštantnou spotrebou pamäte:
+// riadky sa čítajú cez databázový kurzor, každý sa hneď zapíše do odpovede a entita sa odpojí
+// z persistence contextu, takže sa v pamäti nikdy nedrží celý zoznam
+@Component
+public class NdjsonExporter {
+
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType(APPLICATION_NDJSON_VALUE);
+
+    // Počet riadkov čítaných z databázy naraz (hint pre JDBC driver)
+    public static final String FETCH_SIZE = "500";
+
+    static final int FLUSH_EVERY_ROWS = 500;
+
+    private static final Logger logger = LoggerFactory.getLogger(NdjsonExporter.class);
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter rowWriter;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public NdjsonExporter(ObjectMapper objectMapper, EntityManager entityManager,
+                          PlatformTransactionManager transactionManager) {
+        this.objectMapper = objectMapper;
+        // Bez flush po každom riadku - výstup sa posiela po dávkach FLUSH_EVERY_ROWS
+        this.rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    // Telo odpovede sa zapisuje až po návrate z kontroléra (na async vlákne), preto si
+    // read-only transakciu, v ktorej je otvorený kurzor, otvára samo
+    public <E, T> StreamingResponseBody export(String name, Supplier<Stream<E>> query, Function<E, T> mapper) {
+        return out -> {
+            long started = System.nanoTime();
+            long rows = readOnlyTransaction.execute(status -> {
+                try (Stream<E> entities = query.get();
+                     JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET); // Výstupný stream zatvára servlet kontajner
+                    generator.setRootValueSeparator(null); // Oddeľovačom riadkov je '\n' zapísaný nižšie
+                    long count = 0;
+                    for (E entity : (Iterable<E>) entities::iterator) {
+                        rowWriter.writeValue(generator, mapper.apply(entity));
+                        generator.writeRaw('\n');
+                        entityManager.detach(entity);
+                        if (++count % FLUSH_EVERY_ROWS == 0) {
+                            generator.flush();
+                        }
+                    }
+                    return count;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            logger.info("Export {} dokončený: {} záznamov za {} ms.", name, rows, (System.nanoTime() - started) / 1_000_000);
+        };
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.tbd;
+
+// Výnimka pri plnom fronte PasswordHasher - klient má požiadavku zopakovať po retryAfterSeconds
+public class PasswordHashingBusyException extends RuntimeException {
+
+    private final int retryAfterSeconds;
+
+    public PasswordHashingBusyException(int retryAfterSeconds) {
+        super("Server je momentálne preťažený, skúste to prosím neskôr.");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
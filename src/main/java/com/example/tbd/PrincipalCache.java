@@ -0,0 +1,125 @@
+package com.example.tbd;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+// Ohraničená cache načítaných používateľov (zákazník podľa e-mailu, firma podľa IČO),
+// aby JwtAuthenticationFilter nemusel pri každej požiadavke volať databázu
+@Component
+public class PrincipalCache {
+
+    private final CustomUserDetailsService userDetailsService;
+    private final CompanyUserDetailsService companyUserDetailsService;
+
+    private final Cache<String, UserDetails> customers; // Kľúč: e-mail zákazníka
+    private final Cache<String, UserDetails> companies; // Kľúč: IČO firmy
+
+    // Verzie prihlasovacích údajov zmenené na tejto inštancii po commite (kľúč: rola + ID účtu). Bez databázy -
+    // pri miss rozhoduje verzia v podpísanom tokene. Položka žije ako najdlhší token vydaný pred zmenou.
+    private final Cache<String, Integer> credentialVersions;
+
+    public PrincipalCache(CustomUserDetailsService userDetailsService,
+                          CompanyUserDetailsService companyUserDetailsService,
+                          MeterRegistry meterRegistry,
+                          @Value("${auth.principal-cache.max-size:10000}") long maxSize,
+                          @Value("${auth.principal-cache.ttl:5m}") Duration ttl,
+                          @Value("${auth.credential-version.max-size:100000}") long credentialVersionMaxSize) {
+        this.userDetailsService = userDetailsService;
+        this.companyUserDetailsService = companyUserDetailsService;
+        this.customers = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.companies = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.credentialVersions = Caffeine.newBuilder()
+                .maximumSize(credentialVersionMaxSize)
+                .expireAfterWrite(JwtTokenUtil.TOKEN_VALIDITY)
+                .recordStats()
+                .build();
+
+        // Metriky hit/miss sú dostupné cez /actuator/metrics/cache.gets?tag=cache:principal.customer
+        CaffeineCacheMetrics.monitor(meterRegistry, customers, "principal.customer");
+        CaffeineCacheMetrics.monitor(meterRegistry, companies, "principal.company");
+        CaffeineCacheMetrics.monitor(meterRegistry, credentialVersions, "principal.credential-version");
+    }
+
+    // Vráti zákazníka z cache, pri miss ho načíta cez CustomUserDetailsService
+    // (UsernameNotFoundException sa prepošle volajúcemu a nič sa neuloží)
+    public UserDetails getCustomer(String email) {
+        return customers.get(email, userDetailsService::loadUserByUsername);
+    }
+
+    // Vráti firmu z cache, pri miss ju načíta cez CompanyUserDetailsService
+    public UserDetails getCompany(String ico) {
+        return companies.get(ico, companyUserDetailsService::loadUserByUsername);
+    }
+
+    // Zneplatnenie po zmene prihlasovacích údajov zákazníka
+    public void evictCustomer(String email) {
+        if (email != null) {
+            customers.invalidate(email);
+        }
+    }
+
+    // Zneplatnenie po zmene prihlasovacích údajov firmy
+    public void evictCompany(String ico) {
+        if (ico != null) {
+            companies.invalidate(ico);
+        }
+    }
+
+    // Zaznamená novú verziu prihlasovacích údajov - tokeny so staršou verziou bezstavový režim odmietne
+    public void recordCredentialVersion(String role, Long accountId, int version) {
+        credentialVersions.put(role + ":" + accountId, version);
+    }
+
+    // Zmena prihlasovacích údajov v transakcii - cache sa upraví až po commite, pri rollbacku ostane pôvodná.
+    // credentialVersion = null, ak sa verzia nezmenila. Vyradí sa pôvodný aj nový kľúč (e-mail alebo IČO).
+    public void credentialsChanged(String role, Long accountId, Integer credentialVersion, String previousKey, String currentKey) {
+        Runnable update = () -> {
+            if (credentialVersion != null) {
+                recordCredentialVersion(role, accountId, credentialVersion);
+            }
+            Cache<String, UserDetails> principals = JwtTokenUtil.ROLE_COMPANY.equals(role) ? companies : customers;
+            for (String key : new String[] {previousKey, currentKey}) {
+                if (key != null) {
+                    principals.invalidate(key);
+                }
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+
+    // Overí verziu z tokenu iba voči zmenám zaznamenaným po commite - bez prístupu k databáze.
+    // Token bez ID účtu alebo bez verzie sa odmietne.
+    public boolean isCredentialVersionCurrent(String role, Long accountId, Integer tokenVersion) {
+        if (accountId == null || tokenVersion == null) {
+            return false;
+        }
+        Integer current = credentialVersions.getIfPresent(role + ":" + accountId);
+        return current == null || tokenVersion >= current;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.tbd;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.util.StringUtils;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Verejné cesty skompilované do stromu podľa segmentov URL - cesta sa vyhodnotí jedným prechodom
+// namiesto postupného skúšania každého vzoru. Význam vzorov zodpovedá AntPathMatcher:
+// doslovný segment, premenná "{id}" alebo "*" (práve jeden segment) a "/**" na konci vzoru (zvyšok cesty).
+public class PublicPathMatcher implements RequestMatcher {
+
+    private final Node root = new Node();
+
+    public PublicPathMatcher(String... patterns) {
+        for (String pattern : patterns) {
+            add(pattern);
+        }
+    }
+
+    @Override
+    public boolean matches(HttpServletRequest request) {
+        return matches(UrlPathHelper.defaultInstance.getPathWithinApplication(request));
+    }
+
+    public boolean matches(String path) {
+        if (path == null || !path.startsWith("/")) {
+            return false;
+        }
+        String[] segments = StringUtils.tokenizeToStringArray(path, "/", false, true);
+        return root.matches(segments, 0, path.endsWith("/"));
+    }
+
+    private void add(String pattern) {
+        if (!pattern.startsWith("/")) {
+            throw new IllegalArgumentException("Vzor musí začínať znakom '/': " + pattern);
+        }
+        String[] segments = StringUtils.tokenizeToStringArray(pattern, "/", false, true);
+        Node node = root;
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            if (segment.equals("**")) {
+                if (i != segments.length - 1) {
+                    throw new IllegalArgumentException("'**' je podporované iba na konci vzoru: " + pattern);
+                }
+                node.matchesRest = true;
+                return;
+            }
+            if (isWildcard(segment)) {
+                if (node.wildcard == null) {
+                    node.wildcard = new Node();
+                }
+                node = node.wildcard;
+            } else if (segment.indexOf('*') >= 0 || segment.indexOf('?') >= 0 || segment.indexOf('{') >= 0) {
+                throw new IllegalArgumentException("Nepodporovaný segment '" + segment + "' vo vzore: " + pattern);
+            } else {
+                node = node.literals.computeIfAbsent(segment, s -> new Node());
+            }
+        }
+        if (pattern.endsWith("/")) {
+            node.endsWithSlash = true;
+        } else {
+            node.endsWithoutSlash = true;
+        }
+    }
+
+    // Celý segment je premenná "{meno}" alebo "*"
+    private static boolean isWildcard(String segment) {
+        return segment.equals("*")
+                || (segment.startsWith("{") && segment.endsWith("}") && segment.indexOf('{', 1) < 0);
+    }
+
+    private static final class Node {
+        private final Map<String, Node> literals = new HashMap<>();
+        private Node wildcard;
+        private boolean matchesRest;      // Vzor pokračuje "/**"
+        private boolean endsWithoutSlash; // Vzor končí v tomto uzle, napr. "/vehicle/add"
+        private boolean endsWithSlash;    // Vzor končí v tomto uzle lomkou, napr. "/"
+
+        private boolean matches(String[] segments, int index, boolean trailingSlash) {
+            if (matchesRest) {
+                return true;
+            }
+            if (index == segments.length) {
+                return trailingSlash ? endsWithSlash : endsWithoutSlash;
+            }
+            // Doslovný segment má prednosť, pri neúspechu sa skúsi ešte premenná
+            Node literal = literals.get(segments[index]);
+            if (literal != null && literal.matches(segments, index + 1, trailingSlash)) {
+                return true;
+            }
+            return wildcard != null && wildcard.matches(segments, index + 1, trailingSlash);
+        }
+    }
+}
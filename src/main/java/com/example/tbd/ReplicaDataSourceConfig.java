@@ -0,0 +1,96 @@
+package com.example.tbd;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Čítanie z replík - zapne sa nastavením datasource.replica.urls (inak jediná databáza zo spring.datasource).
+// Transakcie @Transactional(readOnly = true) idú na repliky, ostatné (zápisy, dotazy mimo transakcie, Flyway)
+// na primárnu databázu. LazyConnectionDataSourceProxy získa skutočné spojenie až pri prvom príkaze, keď už
+// vie, či je transakcia readOnly (Hibernate volá Connection.setReadOnly pri jej začiatku).
+@Configuration
+@ConditionalOnProperty("datasource.replica.urls")
+public class ReplicaDataSourceConfig implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaDataSourceConfig.class);
+
+    private final List<HikariDataSource> pools = new ArrayList<>(); // Zatvoria sa pri ukončení aplikácie
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties properties,
+                                 @Value("${datasource.replica.urls}") List<String> replicaUrls,
+                                 @Value("${datasource.replica.username:${spring.datasource.username:}}") String replicaUsername,
+                                 @Value("${datasource.replica.password:${spring.datasource.password:}}") String replicaPassword,
+                                 @Value("${datasource.replica.sticky-window:5s}") Duration stickyWindow,
+                                 @Value("${datasource.replica.sticky-max-clients:100000}") long stickyMaxClients) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+        pools.add(primary);
+
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + i);
+            replica.setJdbcUrl(replicaUrls.get(i).trim());
+            replica.setUsername(replicaUsername);
+            replica.setPassword(replicaPassword);
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setReadOnly(true);
+            replicas.add(replica);
+            pools.add(replica);
+        }
+
+        StickyPrimary stickyPrimary = new StickyPrimary(stickyWindow, stickyMaxClients);
+        DataSource trackedPrimary = new DelegatingDataSource(primary) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                stickyPrimary.onPrimaryConnection();
+                return super.getConnection();
+            }
+        };
+
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(trackedPrimary);
+        dataSource.setReadOnlyDataSource(new ReplicaRoutingDataSource(primary, replicas, stickyPrimary));
+        logger.info("Čítanie z replík zapnuté: {} replík, primárna databáza po zápise na {}.", replicas.size(), stickyWindow);
+        return dataSource;
+    }
+
+    // Entity načítané z repliky sa neukladajú do cache druhej úrovne (ReplicaJpaDialect). Dialekt sa nastaví
+    // pred inicializáciou EntityManagerFactory - JpaTransactionManager ho potom prevezme z nej.
+    @Bean
+    static BeanPostProcessor replicaJpaDialectPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof LocalContainerEntityManagerFactoryBean entityManagerFactory) {
+                    entityManagerFactory.setJpaDialect(new ReplicaJpaDialect());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Override
+    public void destroy() {
+        pools.forEach(HikariDataSource::close);
+    }
+}
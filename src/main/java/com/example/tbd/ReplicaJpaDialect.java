@@ -0,0 +1,51 @@
+package com.example.tbd;
+
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.sql.SQLException;
+
+// Transakcie readOnly čítajú z replík, ktoré môžu zaostávať. Entity načítané v nich sa preto do cache druhej
+// úrovne neukladajú (z cache sa iba číta), inak by zastaraný riadok ostal v cache až do uplynutia after-write
+// z hibernate-cache.conf. Cache plnia zápisy a čítania v zapisovacích transakciách.
+class ReplicaJpaDialect extends HibernateJpaDialect {
+
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition) throws SQLException {
+        Object transactionData = super.beginTransaction(entityManager, definition);
+        if (!definition.isReadOnly()) {
+            return transactionData;
+        }
+        Session session = entityManager.unwrap(Session.class);
+        Object previousStoreMode = session.getProperties().get(AvailableSettings.JAKARTA_SHARED_CACHE_STORE_MODE);
+        CacheMode previousCacheMode = session.getCacheMode();
+        // Dotazy sa riadia CacheMode, find() vlastnosťou session storeMode - nastavia sa obe
+        session.setProperty(AvailableSettings.JAKARTA_SHARED_CACHE_STORE_MODE, CacheStoreMode.BYPASS);
+        session.setCacheMode(CacheMode.GET);
+        return new ReadOnlyTransactionData(transactionData, session,
+                previousStoreMode != null ? previousStoreMode : CacheStoreMode.USE, previousCacheMode);
+    }
+
+    @Override
+    public void cleanupTransaction(Object transactionData) {
+        if (transactionData instanceof ReadOnlyTransactionData readOnly) {
+            // Session môže prežiť transakciu (open-in-view) - obnoví sa pôvodné správanie cache
+            if (readOnly.session().isOpen()) {
+                readOnly.session().setProperty(AvailableSettings.JAKARTA_SHARED_CACHE_STORE_MODE, readOnly.previousStoreMode());
+                readOnly.session().setCacheMode(readOnly.previousCacheMode());
+            }
+            super.cleanupTransaction(readOnly.transactionData());
+            return;
+        }
+        super.cleanupTransaction(transactionData);
+    }
+
+    private record ReadOnlyTransactionData(Object transactionData, Session session,
+                                           Object previousStoreMode, CacheMode previousCacheMode) {
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.tbd;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Cieľ spojení pre transakcie readOnly (viď ReplicaDataSourceConfig) - repliky sa striedajú dokola,
+// klient so zápisom v posledných sekundách (StickyPrimary) dostane primárnu databázu
+final class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final String PRIMARY = "primary";
+
+    private final int replicaCount;
+    private final StickyPrimary stickyPrimary;
+    private final AtomicInteger next = new AtomicInteger();
+
+    ReplicaRoutingDataSource(DataSource primary, List<? extends DataSource> replicas, StickyPrimary stickyPrimary) {
+        this.replicaCount = replicas.size();
+        this.stickyPrimary = stickyPrimary;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(i, replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (stickyPrimary.isSticky()) {
+            return PRIMARY;
+        }
+        return Math.floorMod(next.getAndIncrement(), replicaCount);
+    }
+}
@@ -2,15 +2,19 @@ package com.example.tbd;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.annotation.web.configurers.HeadersConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -20,6 +24,65 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 @Configuration
 public class SecurityConfig {
 
+    // Cesty prístupné bez prihlásenia (vzory v štýle AntPathMatcher, viď PublicPathMatcher)
+    public static final String[] PUBLIC_PATHS = {
+            "/",
+            "/swagger-ui/**",
+            "/v3/api-docs/**",
+            "/customer/login",
+            "/customer/register",
+            "/customer/editprofile/**",
+            "/customer/all",
+            "/customer/{id}",
+            "/customer/count",
+            "/customer/page",
+            "/company/login",
+            "/company/**",
+            "/company/register",
+            "/vehicle/add",
+            "/vehicle/showall",
+            "/vehicle/page",
+            "/vehicle/id/{id}",
+            "/vehicle/vin/{vin}",
+            "/vehicle/customerid/{customerId}",
+            "/vehicle/update",
+            "/vehicle/count",
+            "/product/add",
+            "/product/count",
+            "/product/companyid/{companyId}",
+            "/product/delupdate/{id}",
+            "/stats/registrations",
+            "/product/showall",
+            "/product/page",
+            "/product/search",
+            "/loginview/**",
+            "/VAADIN/**",
+            "/frontend/**",
+            "/frontend-es5/**",
+            "/frontend-es6/**",
+            "/resources/**",
+            "/webjars/**",
+            "/offline-stub.html",
+            "/offline.html",
+            "/favicon.ico",
+            "/ui/**"
+    };
+
+    // Cesty, ktoré vyžadujú prihlásenie, hoci ich pokrýva niektorý verejný vzor - kontrolujú sa pred PUBLIC_PATHS
+    public static final String[] PROTECTED_PATHS = {
+            "/customer/export",
+            "/customer/search",
+            "/company/export"
+    };
+
+    // Cesty iba pre správcov (ROLE_ADMIN)
+    public static final String[] ADMIN_PATHS = {
+            "/vehicle/admin/**",
+            "/product/admin/**"
+    };
+
+    private static final String AUTHORITY_ADMIN = "ROLE_" + JwtTokenUtil.ROLE_ADMIN;
+
     private final CustomUserDetailsService userDetailsService;
     private final CompanyUserDetailsService companyUserDetailsService;
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
@@ -36,48 +99,22 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable) // Zakáže CSRF ochranu
                 .cors(AbstractHttpConfigurer::disable) // Povolenie alebo zakázanie CORS (záleží na vašom prípade)
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers(
-                                "/",
-                                "/swagger-ui/**",
-                                "/v3/api-docs/**",
-                                "/customer/login",
-                                "/customer/register",
-                                "/customer/editprofile/**",
-                                "/customer/all",
-                                "/customer/{id}",
-                                "/customer/count",
-                                "/company/login",
-                                "/company/**",
-                                "/company/register",
-                                "/vehicle/add",
-                                "/vehicle/showall",
-                                "/vehicle/id/{id}",
-                                "/vehicle/vin/{vin}",
-                                "/vehicle/customerid/{customerId}",
-                                "/vehicle/update",
-                                "/vehicle/count",
-                                "/product/add",
-                                "/product/count",
-                                "/product/companyid/{companyId}",
-                                "/product/delupdate/{id}",
-                                "/product/showall",
-                                "/loginview/**",
-                                "/VAADIN/**",
-                                "/frontend/**",
-                                "/frontend-es5/**",
-                                "/frontend-es6/**",
-                                "/resources/**",
-                                "/webjars/**",
-                                "/offline-stub.html",
-                                "/offline.html",
-                                "/favicon.ico",
-                                "/ui/**"
-                        ).permitAll()
+                        // PATCH (čiastočná zmena záznamu) vždy vyžaduje prihlásenie, aj keď cesta patrí medzi verejné
+                        .requestMatchers(HttpMethod.PATCH, "/**").authenticated()
+                        // Exporty celých tabuliek, ktoré by inak zachytili verejné vzory /customer/{id} a /company/**
+                        .requestMatchers(PROTECTED_PATHS).authenticated()
+                        // Administrácia (záznamy vrátane vymazaných) iba pre správcov
+                        .requestMatchers(ADMIN_PATHS).hasRole(JwtTokenUtil.ROLE_ADMIN)
+                        .requestMatchers(new PublicPathMatcher(PUBLIC_PATHS)).permitAll()
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(session -> session
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 )
+                // Chýbajúci alebo neplatný token - 401 (bez tejto položky by Spring Security vrátil 403)
+                .exceptionHandling(exceptions -> exceptions
+                        .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED))
+                )
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
                 .headers(headers -> headers
                         .frameOptions(HeadersConfigurer.FrameOptionsConfig::disable)
@@ -86,6 +123,12 @@ public class SecurityConfig {
         return http.build();
     }
 
+    // Správca (ROLE_ADMIN) - pre endpointy dostupné všetkým prihláseným, ktoré správcovi povolia viac
+    public static boolean isAdmin(Authentication authentication) {
+        return authentication != null && authentication.getAuthorities().stream()
+                .anyMatch(authority -> AUTHORITY_ADMIN.equals(authority.getAuthority()));
+    }
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
@@ -0,0 +1,29 @@
+package com.example.tbd;
+
+// Odpoveď hromadného označenia záznamov ako vymazaných
+public class SoftDeleteResultDTO {
+
+    private int deleted; // Počet záznamov označených ako vymazané
+    private int skipped; // Zadané ID, ktoré neexistujú alebo už boli vymazané
+
+    public SoftDeleteResultDTO(int deleted, int skipped) {
+        this.deleted = deleted;
+        this.skipped = skipped;
+    }
+
+    public int getDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(int deleted) {
+        this.deleted = deleted;
+    }
+
+    public int getSkipped() {
+        return skipped;
+    }
+
+    public void setSkipped(int skipped) {
+        this.skipped = skipped;
+    }
+}
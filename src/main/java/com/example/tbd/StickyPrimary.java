@@ -0,0 +1,68 @@
+package com.example.tbd;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+
+// Read-your-writes pri čítaní z repliky. Klient, ktorý práve zapisoval (prihlásený používateľ, inak IP adresa),
+// číta počas okna window z primárnej databázy, kým replika nedobehne. Zápis sa zaznamená až po commite.
+// Vlákna mimo HTTP požiadavky (plánované úlohy, streamovaný export) kľúč nemajú a čítajú z repliky - úlohy,
+// ktoré potrebujú aktuálny stav (EntityCounters.reconcile, InMemoryEntityIndex.reload), preto bežia v zapisovacej
+// transakcii na primárnej databáze.
+final class StickyPrimary {
+
+    private final Cache<String, Boolean> recentWriters;
+
+    StickyPrimary(Duration window, long maxClients) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(maxClients)
+                .build();
+    }
+
+    // Volá sa pri získaní spojenia na primárnu databázu - v zapisovacej transakcii zaznamená klienta po commite
+    void onPrimaryConnection() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return;
+        }
+        String client = currentClient();
+        if (client == null) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentWriters.put(client, Boolean.TRUE);
+            }
+        });
+    }
+
+    // Klient zapisoval v rámci okna - čítať z primárnej databázy
+    boolean isSticky() {
+        String client = currentClient();
+        return client != null && recentWriters.getIfPresent(client) != null;
+    }
+
+    private static String currentClient() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            return "ip:" + servletAttributes.getRequest().getRemoteAddr();
+        }
+        return null;
+    }
+}
@@ -9,6 +9,9 @@ import com.vaadin.flow.component.textfield.PasswordField;
 import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.router.Route;
 import com.vaadin.flow.router.RouteParameters;
+import com.vaadin.flow.server.VaadinRequest;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.RestTemplate;
@@ -87,8 +90,15 @@ public class LoginView extends VerticalLayout {
         String endpoint = isCompany ? "/company/login" : "/customer/login";
         String url = "http://localhost:8080" + endpoint;
 
+        // The REST call comes from localhost - pass the browser's address so login limits apply per client, not to all UI users
+        HttpHeaders headers = new HttpHeaders();
+        VaadinRequest vaadinRequest = VaadinRequest.getCurrent();
+        if (vaadinRequest != null) {
+            headers.set("X-Forwarded-For", vaadinRequest.getRemoteAddr());
+        }
+
         try {
-            ResponseEntity<LoginResponse> response = restTemplate.postForEntity(url, new LoginRequest(username, password), LoginResponse.class);
+            ResponseEntity<LoginResponse> response = restTemplate.postForEntity(url, new HttpEntity<>(new LoginRequest(username, password), headers), LoginResponse.class);
 
             if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
                 LoginResponse loginResponse = response.getBody();
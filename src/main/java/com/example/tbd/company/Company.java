@@ -5,12 +5,22 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*; // Import pre JPA anotácie (Entity, Table, Column, Id a pod.)
 import jakarta.validation.constraints.Digits; // Import pre validáciu číslic (kontrola počtu číslic)
 import jakarta.validation.constraints.NotNull; // Import pre validáciu, aby hodnota nebola null (prázdna)
+import org.hibernate.annotations.Cache; // Import pre cache druhej úrovne
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault; // Import pre predvolenú hodnotu stĺpca v databáze
 import org.hibernate.annotations.CreationTimestamp; // Import pre automatické nastavenie dátumu a času pri vytvorení záznamu
+import org.hibernate.annotations.DynamicUpdate; // Import pre UPDATE iba so zmenenými stĺpcami
+import org.hibernate.annotations.NaturalId; // Import pre prirodzený kľúč (IČO)
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.time.LocalDateTime; // Import pre LocalDateTime na uchovanie dátumu a času
 
 @Entity // Označuje, že ide o JPA entitu
 @Table(name = "company") // Určuje názov tabuľky v databáze, s ktorou bude táto entita spojená
+@DynamicUpdate // UPDATE obsahuje iba zmenené stĺpce
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "company") // Cache druhej úrovne (hibernate-cache.conf)
+@NaturalIdCache(region = "company-ico") // IČO -> ID bez dotazu do databázy
 public class Company {
 
     @Id // Označuje primárny kľúč tejto entity
@@ -21,6 +31,7 @@ public class Company {
     @NotNull(message = "Názov spoločnosti nesmie byť prázdny") // Validácia, aby názov spoločnosti nebol prázdny
     private String companyName; // Názov spoločnosti
 
+    @NaturalId(mutable = true) // IČO je unikátne, ale dá sa zmeniť pri úprave firmy
     @Column(name = "ico") // Určuje názov stĺpca pre IČO
     @NotNull(message = "IČO nesmie byť prázdne") // Validácia, aby IČO nebolo prázdne
     private Integer ico; // IČO spoločnosti
@@ -48,8 +59,22 @@ public class Company {
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd HH:mm:ss") // Formátovanie dátumu a času do formátu "yyyy-MM-dd HH:mm:ss" pri serializácii do JSON
     private LocalDateTime createdAt; // Dátum a čas vytvorenia záznamu (timestamp)
 
+    @JsonIgnore
+    @Column(name = "credential_version", nullable = false) // Verzia prihlasovacích údajov (zvyšuje sa pri zmene IČO alebo hesla)
+    @ColumnDefault("0")
+    private Integer credentialVersion = 0; // Ukladá sa aj do JWT tokenu
+
+    @JsonIgnore
+    @Version // Optimistické zamykanie - zvyšuje sa pri každej zmene (aj cez PATCH), klient ju dostane v hlavičke ETag
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // Gettery a settery pre jednotlivé atribúty
 
+    public Long getVersion() {
+        return version;
+    }
+
     public Long getId() {
         return id; // Getter pre ID spoločnosti
     }
@@ -110,6 +135,14 @@ public class Company {
         return createdAt; // Getter pre dátum a čas vytvorenia spoločnosti
     }
 
+    public Integer getCredentialVersion() {
+        return credentialVersion; // Getter pre verziu prihlasovacích údajov
+    }
+
+    public void setCredentialVersion(Integer credentialVersion) {
+        this.credentialVersion = credentialVersion; // Setter pre verziu prihlasovacích údajov
+    }
+
     // Override metódy toString() pre lepšie vypísanie objektu
     @Override
     public String toString() {
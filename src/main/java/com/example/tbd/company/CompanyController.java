@@ -1,15 +1,28 @@
 package com.example.tbd.company;
 
+import com.example.tbd.CursorPage;
+import com.example.tbd.NdjsonExporter;
 import com.example.tbd.JwtTokenUtil;
+import com.example.tbd.LoginRateLimiter;
+import com.example.tbd.MergePatch;
+import com.example.tbd.PasswordHasher;
+import com.example.tbd.PasswordHashingBusyException;
+import com.example.tbd.SecurityConfig;
+import com.fasterxml.jackson.databind.JsonNode;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.core.Authentication;
 
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -26,18 +39,24 @@ public class CompanyController {
     private final CompanyRepository companyRepository;
     private final AuthenticationManager authenticationManager;
     private final JwtTokenUtil jwtTokenUtil;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
+    private final LoginRateLimiter loginRateLimiter;
+    private final CompanyNameSearch companyNameSearch;
     @Autowired
     public CompanyController(CompanyService companyService,
                              CompanyRepository companyRepository,
                              AuthenticationManager authenticationManager,
                              JwtTokenUtil jwtTokenUtil,
-                             PasswordEncoder passwordEncoder) {
+                             PasswordHasher passwordHasher,
+                             LoginRateLimiter loginRateLimiter,
+                             CompanyNameSearch companyNameSearch) {
         this.companyService = companyService;
         this.companyRepository = companyRepository;
         this.authenticationManager = authenticationManager;
         this.jwtTokenUtil = jwtTokenUtil;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHasher = passwordHasher;
+        this.loginRateLimiter = loginRateLimiter;
+        this.companyNameSearch = companyNameSearch;
     }
     /**
      * Získanie údajov o spoločnosti podľa ID.
@@ -60,13 +79,44 @@ public class CompanyController {
         dto.setEmail(company.getEmail());
         dto.setTelephone(company.getTelephone());
         dto.setAddress(company.getAddress());
+        dto.setVersion(company.getVersion());
 
-        return ResponseEntity.ok(dto);
+        return ResponseEntity.ok()
+                .eTag(String.valueOf(company.getVersion())) // Verzia pre If-Match pri PATCH
+                .body(dto);
+    }
+
+    // Čiastočná zmena firmy (JSON Merge Patch) - názov, e-mail, telefón, adresa. IČO a heslo mení /company/update/{id}.
+    // Voliteľná hlavička If-Match s verziou z ETag - ak sa firma medzitým zmenila, vráti 412.
+    // Firma mení iba svoje údaje, správca ľubovoľné - inak 403.
+    @PatchMapping(value = "/{id}", consumes = {MergePatch.APPLICATION_MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    @Operation(summary = "Čiastočná zmena firmy", description = "JSON Merge Patch - jeden UPDATE iba so zmenenými stĺpcami. Nová verzia je v hlavičke ETag.")
+    public ResponseEntity<String> patchCompany(@PathVariable Long id, @RequestBody JsonNode patch,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                               Authentication authentication) {
+        if (!SecurityConfig.isAdmin(authentication) && !id.equals(currentCompanyId(authentication))) {
+            logger.warn("PATCH firmy s ID {} zamietnutý pre {}.", id, authentication.getName());
+            return ResponseEntity.status(403).body("Meniť môžete iba údaje svojej firmy.");
+        }
+        Long expectedVersion = MergePatch.parseIfMatch(ifMatch);
+        MergePatch.Result result = companyService.patchCompany(id, patch, expectedVersion);
+        return MergePatch.toResponse(result, "Údaje spoločnosti boli úspešne aktualizované.",
+                "Spoločnosť s poskytnutým ID neexistuje.",
+                "Údaje spoločnosti medzitým zmenila iná požiadavka. Načítajte ich znova.");
+    }
+
+    // ID prihlásenej firmy (meno principalu je IČO), null pre zákazníka
+    private Long currentCompanyId(Authentication authentication) {
+        try {
+            return companyRepository.findByIco(Integer.parseInt(authentication.getName())).map(Company::getId).orElse(null);
+        } catch (NumberFormatException e) {
+            return null;
+        }
     }
 
     @PostMapping("/login")
     @Operation(summary = "Prihlásenie firmy", description = "Autentifikácia firmy na základe IČO a hesla.")
-    public ResponseEntity<?> login(@RequestBody LoginRequest loginRequest) {
+    public ResponseEntity<?> login(@RequestBody LoginRequest loginRequest, HttpServletRequest request) {
         logger.debug("Prijatý LoginRequest - IČO: {}, Password: {}", loginRequest.getIco(), loginRequest.getPassword());
 
         if (loginRequest.getIco() == null || loginRequest.getIco().isEmpty() || loginRequest.getPassword() == null || loginRequest.getPassword().isEmpty()) {
@@ -74,6 +124,9 @@ public class CompanyController {
             return ResponseEntity.badRequest().body("Chýbajúce prihlasovacie údaje!");
         }
 
+        // Limit pokusov ešte pred dotazom do databázy a overením hesla (pri prekročení 429)
+        loginRateLimiter.check(request.getRemoteAddr(), loginRequest.getIco());
+
         try {
             Company company = companyRepository.findByIco(Integer.parseInt(loginRequest.getIco()))
                     .orElseThrow(() -> {
@@ -81,15 +134,20 @@ public class CompanyController {
                         return new RuntimeException("Firma nenájdená!");
                     });
 
-            if (!passwordEncoder.matches(loginRequest.getPassword(), company.getPassword())) {
+            if (!passwordHasher.matches(loginRequest.getPassword(), company.getPassword())) {
                 logger.warn("Nesprávne prihlasovacie údaje pre IČO: {}", loginRequest.getIco());
                 return ResponseEntity.status(401).body("Nesprávne prihlasovacie údaje!");
             }
+            loginRateLimiter.recordSuccess(loginRequest.getIco());
 
-            String token = jwtTokenUtil.generateToken(company.getIco().toString(), company.getId(), company.getIco().toString());
+            String token = jwtTokenUtil.generateToken(company.getIco().toString(), company.getId(), company.getIco().toString(),
+                    JwtTokenUtil.ROLE_COMPANY, company.getCredentialVersion());
             logger.info("Prihlásenie úspešné. Vygenerovaný token pre firmu: {}", company.getIco());
             return ResponseEntity.ok(new LoginResponse(token, company.getId()));
 
+        } catch (PasswordHashingBusyException e) {
+            loginRateLimiter.release(loginRequest.getIco());
+            throw e; // Spracuje ApiExceptionHandler (503 + Retry-After)
         } catch (RuntimeException e) {
             logger.error("Chyba pri prihlásení pre IČO: {} - {}", loginRequest.getIco(), e.getMessage());
             return ResponseEntity.status(401).body(e.getMessage());
@@ -150,6 +208,39 @@ public class CompanyController {
         return ResponseEntity.ok(companies);
     }
 
+    // Endpoint na stránkované získanie firiem - ďalšiu stránku získate s parametrom after=nextCursor
+    @GetMapping("/page")
+    @Operation(summary = "Stránka firiem", description = "Vráti najviac limit firiem bez hesla zoradených podľa ID a kurzor na ďalšiu stránku.")
+    public ResponseEntity<CursorPage<CompanyDTO>> getCompanyPage(@RequestParam(required = false) String after,
+                                                                 @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(companyService.getCompanyPage(after, limit));
+    }
+
+    // Export všetkých záznamov ako NDJSON (jeden JSON objekt na riadok) pre nočnú synchronizáciu
+    @GetMapping(value = "/export", produces = NdjsonExporter.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export firiem", description = "Streamuje všetky záznamy ako NDJSON bez načítania celej tabuľky do pamäte.")
+    public ResponseEntity<StreamingResponseBody> exportCompanies() {
+        return ResponseEntity.ok()
+                .contentType(NdjsonExporter.APPLICATION_NDJSON)
+                .body(companyService.exportCompanies());
+    }
+
+    // Našepkávanie pri zadávaní názvu firmy - z indexu v pamäti, bez dotazu do databázy
+    @GetMapping("/search")
+    @Operation(summary = "Vyhľadanie firiem podľa začiatku názvu",
+            description = "Vráti najviac limit firiem (predvolene 10), ktorých názov alebo niektoré slovo v ňom začína "
+                    + "na prefix - bez ohľadu na veľkosť písmen a diakritiku, zoradené abecedne.")
+    public ResponseEntity<?> searchCompanies(@RequestParam(required = false) String prefix,
+                                             @RequestParam(defaultValue = "" + CompanyNameSearch.DEFAULT_LIMIT) int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            return ResponseEntity.badRequest().body("Zadajte začiatok názvu firmy.");
+        }
+        if (limit < 1 || limit > CompanyNameSearch.MAX_LIMIT) {
+            return ResponseEntity.badRequest().body("Limit musí byť v rozsahu 1 až " + CompanyNameSearch.MAX_LIMIT + ".");
+        }
+        return ResponseEntity.ok(companyNameSearch.search(prefix, limit));
+    }
+
     @GetMapping("/byemail")
     @Operation(summary = "Zobrazí firmu podľa emailu", description = "Zobrazí firmu podľa emailu.")
     public ResponseEntity<List<CompanyDTO>> getByEmail(@RequestParam String email) {
@@ -197,41 +288,14 @@ public class CompanyController {
             return ResponseEntity.badRequest().body("Neplatné ID spoločnosti!");
         }
 
-        // Kontrola, či spoločnosť s daným ID existuje
-        Optional<Company> existingCompanyOptional = companyRepository.findById(id);
-        if (existingCompanyOptional.isEmpty()) {
-            logger.warn("Spoločnosť s ID {} neexistuje.", id);
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Spoločnosť s poskytnutým ID neexistuje.");
-        }
-
         try {
-            Company existingCompany = existingCompanyOptional.get();
-
-            // Aktualizácia údajov spoločnosti
-            if (updatedCompany.getCompanyName() != null && !updatedCompany.getCompanyName().isEmpty()) {
-                existingCompany.setCompanyName(updatedCompany.getCompanyName());
-            }
-            if (updatedCompany.getIco() != null) {
-                existingCompany.setIco(updatedCompany.getIco());
+            // Načítanie, zmena a zneplatnenie cache v jednej transakcii na primárnej databáze
+            if (!companyService.updateCompany(id, updatedCompany)) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Spoločnosť s poskytnutým ID neexistuje.");
             }
-            if (updatedCompany.getEmail() != null && !updatedCompany.getEmail().isEmpty()) {
-                existingCompany.setEmail(updatedCompany.getEmail());
-            }
-            if (updatedCompany.getTelephone() != null && !updatedCompany.getTelephone().isEmpty()) {
-                existingCompany.setTelephone(updatedCompany.getTelephone());
-            }
-            if (updatedCompany.getAddress() != null && !updatedCompany.getAddress().isEmpty()) {
-                existingCompany.setAddress(updatedCompany.getAddress());
-            }
-            if (updatedCompany.getPassword() != null && !updatedCompany.getPassword().isEmpty()) {
-                existingCompany.setPassword(updatedCompany.getPassword());
-            }
-
-            // Uloženie zmien do databázy
-            companyRepository.save(existingCompany);
-
-            logger.info("Údaje spoločnosti s ID {} boli úspešne aktualizované.", id);
             return ResponseEntity.ok("Údaje spoločnosti boli úspešne aktualizované.");
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw e; // Súbežná zmena toho istého záznamu - spracuje ApiExceptionHandler (409)
         } catch (Exception e) {
             logger.error("Chyba pri aktualizácii spoločnosti s ID {}: {}", id, e.getMessage(), e);
             return ResponseEntity.status(500).body("Chyba pri spracovaní požiadavky!");
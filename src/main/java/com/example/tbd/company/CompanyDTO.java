@@ -7,6 +7,21 @@ public class CompanyDTO {
     private String email;
     private String telephone;
     private String address;
+    private Long version; // Verzia záznamu (ETag / If-Match pre PATCH)
+
+    public CompanyDTO() {
+    }
+
+    // Projekcia v JPQL (SELECT new ...) - pozri CompanyRepository.COMPANY_DTO
+    public CompanyDTO(Long id, String companyName, Integer ico, String email, String telephone, String address, Long version) {
+        this.id = id;
+        this.companyName = companyName;
+        this.ico = ico;
+        this.email = email;
+        this.telephone = telephone;
+        this.address = address;
+        this.version = version;
+    }
 
     // Gettery a settery
     public Long getId() {
@@ -56,4 +71,12 @@ public class CompanyDTO {
     public void setAddress(String address) {
         this.address = address;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
\ No newline at end of file
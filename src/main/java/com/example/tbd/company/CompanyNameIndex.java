@@ -0,0 +1,77 @@
+package com.example.tbd.company;
+
+import com.example.tbd.TextNormalizer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// Index názvov firiem v pamäti pre vyhľadávanie podľa začiatku názvu alebo ktoréhokoľvek slova v ňom
+// ("auto" nájde "Auto Novák" aj "Pneuservis Auto-Ľubica"). Kľúčom je normalizovaný text od začiatku
+// každého slova (TextNormalizer.fold) a ID firmy, v zoradenej mape sa hľadá O(log n + k) bez databázy.
+// Čítanie je bez zámkov, zápisy (registrácia, zmena názvu) sú zriedkavé a navzájom sa vylučujú.
+final class CompanyNameIndex {
+
+    private static final char ID_SEPARATOR = '\u0000'; // Menší ako každý iný znak - kratší text je v poradí prvý
+
+    private final ConcurrentSkipListMap<String, CompanySuggestionDTO> byKey = new ConcurrentSkipListMap<>();
+    private final Map<Long, List<String>> keysById = new ConcurrentHashMap<>();
+
+    CompanyNameIndex() {
+    }
+
+    CompanyNameIndex(Collection<CompanySuggestionDTO> companies) {
+        companies.forEach(this::put);
+    }
+
+    int size() {
+        return keysById.size();
+    }
+
+    // Pridá firmu alebo nahradí jej predchádzajúci názov
+    synchronized void put(CompanySuggestionDTO company) {
+        remove(company.id());
+        String folded = TextNormalizer.fold(company.companyName());
+        if (folded.isEmpty()) {
+            return;
+        }
+        List<String> keys = new ArrayList<>();
+        for (int start = 0; start < folded.length(); start++) {
+            if (start == 0 || !Character.isLetterOrDigit(folded.charAt(start - 1))) {
+                if (Character.isLetterOrDigit(folded.charAt(start))) {
+                    String key = folded.substring(start) + ID_SEPARATOR + company.id();
+                    byKey.put(key, company);
+                    keys.add(key);
+                }
+            }
+        }
+        keysById.put(company.id(), keys);
+    }
+
+    synchronized void remove(Long id) {
+        List<String> keys = keysById.remove(id);
+        if (keys != null) {
+            keys.forEach(byKey::remove);
+        }
+    }
+
+    // Najviac limit firiem, ktorých názov alebo niektoré slovo v ňom začína na prefix (abecedne)
+    List<CompanySuggestionDTO> search(String prefix, int limit) {
+        String folded = TextNormalizer.fold(prefix);
+        if (folded.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, CompanySuggestionDTO> result = new LinkedHashMap<>();
+        for (Map.Entry<String, CompanySuggestionDTO> entry : byKey.tailMap(folded).entrySet()) {
+            if (!entry.getKey().startsWith(folded) || result.size() == limit) {
+                break;
+            }
+            result.putIfAbsent(entry.getValue().id(), entry.getValue());
+        }
+        return new ArrayList<>(result.values());
+    }
+}
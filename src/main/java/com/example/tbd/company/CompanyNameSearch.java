@@ -0,0 +1,56 @@
+package com.example.tbd.company;
+
+import com.example.tbd.InMemoryEntityIndex;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+// Vyhľadávanie firiem podľa začiatku názvu (/company/search) z indexu v pamäti (CompanyNameIndex).
+// Index sa upraví po commite pri registrácii, /company/update a PATCH (InMemoryEntityIndex).
+@Service
+public class CompanyNameSearch extends InMemoryEntityIndex<Company, CompanyNameIndex> {
+
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int MAX_LIMIT = 50;
+
+    private final CompanyRepository companyRepository;
+
+    public CompanyNameSearch(CompanyRepository companyRepository, PlatformTransactionManager transactionManager) {
+        super(Company.class, "názvov firiem", new CompanyNameIndex(), transactionManager);
+        this.companyRepository = companyRepository;
+    }
+
+    // Najviac limit firiem, ktorých názov alebo niektoré slovo v ňom začína na prefix (bez ohľadu na diakritiku)
+    public List<CompanySuggestionDTO> search(String prefix, int limit) {
+        return index().search(prefix, limit);
+    }
+
+    @Override
+    @Scheduled(initialDelayString = "${company.name-index.reload-interval:10m}",
+            fixedDelayString = "${company.name-index.reload-interval:10m}")
+    public void reload() {
+        super.reload();
+    }
+
+    @Override
+    protected CompanyNameIndex load() {
+        return new CompanyNameIndex(companyRepository.findAllSuggestions());
+    }
+
+    @Override
+    protected int size(CompanyNameIndex index) {
+        return index.size();
+    }
+
+    @Override
+    protected void upsert(CompanyNameIndex index, Company company) {
+        index.put(new CompanySuggestionDTO(company.getId(), company.getCompanyName(), company.getIco()));
+    }
+
+    @Override
+    protected void remove(CompanyNameIndex index, Company company) {
+        index.remove(company.getId());
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.tbd.company;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+// Vyhľadanie podľa prirodzeného kľúča (@NaturalId) - použije cache druhej úrovne namiesto dotazu do databázy
+public interface CompanyNaturalIdRepository {
+    @Transactional(readOnly = true)
+    Optional<Company> findByIco(Integer ico);
+}
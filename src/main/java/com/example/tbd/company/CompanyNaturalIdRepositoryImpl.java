@@ -0,0 +1,24 @@
+package com.example.tbd.company;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+
+import java.util.Optional;
+
+// Implementácia fragmentu CompanyRepository - Spring Data ju nájde podľa názvu (rozhranie + Impl)
+class CompanyNaturalIdRepositoryImpl implements CompanyNaturalIdRepository {
+
+    private final EntityManager entityManager;
+
+    CompanyNaturalIdRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Optional<Company> findByIco(Integer ico) {
+        if (ico == null) {
+            return Optional.empty();
+        }
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(Company.class).loadOptional(ico);
+    }
+}
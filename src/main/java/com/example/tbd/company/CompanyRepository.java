@@ -1,25 +1,59 @@
 package com.example.tbd.company;
 
+import com.example.tbd.NdjsonExporter;
 import com.example.tbd.customer.Customer;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface CompanyRepository extends JpaRepository<Company, Integer> {
+public interface CompanyRepository extends JpaRepository<Company, Integer>, CompanyNaturalIdRepository {
+    // Projekcia do CompanyDTO - SELECT iba stĺpcov z DTO (bez hesla). Výsledok nie je entita, takže sa
+    // neregistruje v persistence contexte a pri commite sa nekontroluje (dirty checking).
+    String COMPANY_DTO = "SELECT new com.example.tbd.company.CompanyDTO(c.id, c.companyName, c.ico, c.email, "
+            + "c.telephone, c.address, c.version) FROM Company c";
+    @Query(COMPANY_DTO)
+    List<CompanyDTO> findAllDTO();
+    @Query(COMPANY_DTO + " WHERE c.email = :email")
+    List<CompanyDTO> findDTOByEmail(@Param("email") String email);
+    @Query(COMPANY_DTO + " WHERE c.companyName = :companyName")
+    List<CompanyDTO> findDTOByCompanyName(@Param("companyName") String companyName);
+    @Query(COMPANY_DTO + " WHERE c.ico = :ico")
+    List<CompanyDTO> findDTOByIco(@Param("ico") Integer ico);
+    @Query(COMPANY_DTO + " WHERE c.id > :afterId ORDER BY c.id")
+    List<CompanyDTO> findDTOPage(@Param("afterId") Long afterId, Limit limit); // Stránkovanie podľa kľúča (keyset)
+    // Všetky firmy pre index názvov v pamäti (CompanyNameSearch)
+    @Query("SELECT new com.example.tbd.company.CompanySuggestionDTO(c.id, c.companyName, c.ico) FROM Company c")
+    @Transactional(readOnly = true)
+    List<CompanySuggestionDTO> findAllSuggestions();
     public List<Company> findByCompanyName(String company_name);
-    Optional<Company> findByIco(Integer ico);
-    public List<Company>findAllByIco(Integer ico);
     public List<Company> findByEmail(String email);
     Optional<Company> findById(Integer id);
+    // Existencia cez findById - firma sa načíta z cache druhej úrovne, COUNT by išiel vždy do databázy
+    @Override
+    default boolean existsById(Integer id) {
+        return id != null && findById(id).isPresent();
+    }
     @Query("SELECT COUNT(c) FROM Company c WHERE c.id is not null")
     long countCompany();
     @Query("SELECT COUNT(c) FROM Company c WHERE c.createdAt >= :startTime")
     @Transactional(readOnly = true)
     long countCompanyFrom(@Param("startTime") LocalDateTime startTime);
+    // Celá tabuľka cez databázový kurzor pre NDJSON export - volať v transakcii a Stream zatvoriť
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = NdjsonExporter.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM Company c ORDER BY c.id")
+    Stream<Company> streamAll();
 }
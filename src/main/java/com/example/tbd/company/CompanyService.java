@@ -1,52 +1,139 @@
 package com.example.tbd.company;
 
-
+import com.example.tbd.CursorPage; // Import pre stránkovanie podľa kľúča
+import com.example.tbd.EntityCounters; // Import pre počty udržiavané v pamäti
+import com.example.tbd.JwtTokenUtil; // Import pre rolu firmy v cache prihlásených
+import com.example.tbd.MergePatch; // Import pre čiastočnú zmenu (JSON Merge Patch)
+import com.example.tbd.NdjsonExporter; // Import pre streamovaný export
+import com.example.tbd.PasswordHasher; // Import pre hashovanie hesiel na samostatnom pooli vlákien
+import com.example.tbd.PrincipalCache; // Import pre cache prihlásených používateľov
+import com.example.tbd.stats.RegistrationStats; // Import pre štatistiku registrácií
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.persistence.EntityManager;
 import org.slf4j.Logger; // Import loggera pre logovanie informácií
 import org.slf4j.LoggerFactory; // Import na vytvorenie inštancie loggera
 import org.springframework.beans.factory.annotation.Autowired; // Import pre automatické injektovanie závislostí
-import org.springframework.security.crypto.password.PasswordEncoder; // Import pre šifrovanie hesiel
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service; // Anotácia pre označenie triedy ako Spring služby
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.time.LocalDateTime;
 import java.util.List; // Import pre prácu so zoznamami
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.function.Function;
 
 @Service // Anotácia označujúca triedu ako Spring službu, ktorú je možné injektovať do iných komponentov
 public class CompanyService {
 
+    // Polia, ktoré je možné meniť cez PATCH /company/{id}. IČO a heslo sú prihlasovacie údaje
+    // (verzia údajov v JWT, cache prihlásených) - menia sa iba cez /company/update/{id}.
+    private static final MergePatch<Company> PATCH = new MergePatch<>(Company.class)
+            .required("companyName", "companyName", MergePatch.text(), MergePatch.nonEmpty("companyName", 255))
+            .required("email", "email", MergePatch.text(), MergePatch.nonEmpty("email", 255))
+            .required("telephone", "telephone", MergePatch.text(),
+                    telephone -> telephone.matches("\\d{1,10}") ? null : "Telefónne číslo môže mať najviac 10 číslic.")
+            .required("address", "address", MergePatch.text(), MergePatch.nonEmpty("address", 255));
+
     private final CompanyRepository companyRepository; // Repository pre prístup k databáze firiem
-    private final PasswordEncoder passwordEncoder; // PasswordEncoder na šifrovanie hesiel
+    private final PasswordHasher passwordHasher; // Hashovanie hesiel na samostatnom pooli vlákien
+    private final PrincipalCache principalCache; // Cache prihlásených používateľov (zneplatňuje sa pri zmene údajov)
+    private final NdjsonExporter ndjsonExporter; // Streamovaný export do NDJSON
+    private final EntityCounters entityCounters; // Počty udržiavané v pamäti
+    private final RegistrationStats registrationStats; // Počty registrácií podľa obdobia
+    private final EntityManager entityManager; // Načítanie firmy pre PATCH
 
     private static final Logger logger = LoggerFactory.getLogger(CompanyService.class); // Logger na logovanie informácií, chýb a varovaní
+    // Počet firiem - udržiavaný v pamäti, bez COUNT(*) v databáze
     public long countCompany() {
-        return companyRepository.countCompany();
+        return entityCounters.companies();
     }
+    // Počty registrácií firiem podľa obdobia (z hodinových súčtov RegistrationStats)
     public long countCompanyLast24Hours() {
-        LocalDateTime last24Hours = LocalDateTime.now().minusHours(24);
-        return companyRepository.countCompanyFrom(last24Hours);
+        return registrationStats.countCompaniesSince(LocalDateTime.now().minusHours(24));
     }
     public long countCompanyLast7Days() {
-        LocalDateTime last7Days = LocalDateTime.now().minusDays(7);
-        return companyRepository.countCompanyFrom(last7Days);
+        return registrationStats.countCompaniesSince(LocalDateTime.now().minusDays(7));
     }
     public long countCompanyLast30Days() {
-        LocalDateTime last30Days = LocalDateTime.now().minusDays(30);
-        return companyRepository.countCompanyFrom(last30Days);
+        return registrationStats.countCompaniesSince(LocalDateTime.now().minusDays(30));
     }
     public long countCompanyLast365Days() {
-        LocalDateTime last365Days = LocalDateTime.now().minusDays(365);
-        return companyRepository.countCompanyFrom(last365Days);
+        return registrationStats.countCompaniesSince(LocalDateTime.now().minusDays(365));
     }
     @Autowired // Automatické injektovanie závislostí do konštruktora
-    public CompanyService(CompanyRepository repository, PasswordEncoder passwordEncoder) {
+    public CompanyService(CompanyRepository repository, PasswordHasher passwordHasher, PrincipalCache principalCache,
+                          NdjsonExporter ndjsonExporter,
+                          EntityCounters entityCounters, RegistrationStats registrationStats, EntityManager entityManager) {
         this.companyRepository = repository; // Inicializácia repository pre prístup k dátam
-        this.passwordEncoder = passwordEncoder; // Inicializácia passwordEncoder pre šifrovanie hesiel
+        this.passwordHasher = passwordHasher; // Inicializácia passwordHasher pre šifrovanie hesiel
+        this.principalCache = principalCache;
+        this.ndjsonExporter = ndjsonExporter;
+        this.entityCounters = entityCounters;
+        this.registrationStats = registrationStats;
+        this.entityManager = entityManager;
+    }
+
+    // JSON Merge Patch - UPDATE iba so zmenenými stĺpcami cez načítanú firmu (cache druhej úrovne
+    // sa obnoví iba pre ňu, index názvov upravia Hibernate listenery po commite)
+    @Transactional
+    public MergePatch.Result patchCompany(Long id, JsonNode patch, Long expectedVersion) {
+        return PATCH.apply(entityManager, id, patch, expectedVersion);
+    }
+
+    // Zmena údajov firmy cez PUT /company/update/{id} - načítanie aj zápis v jednej zapisovacej transakcii
+    // na primárnej databáze (findById mimo nej by čítal z repliky). Vráti false, ak firma neexistuje.
+    @Transactional
+    public boolean updateCompany(Integer id, Company updatedCompany) {
+        Optional<Company> existingCompanyOptional = companyRepository.findById(id);
+        if (existingCompanyOptional.isEmpty()) {
+            logger.warn("Spoločnosť s ID {} neexistuje.", id);
+            return false;
+        }
+        Company existingCompany = existingCompanyOptional.get();
+        Integer previousIco = existingCompany.getIco();
+
+        // Aktualizácia údajov spoločnosti
+        if (updatedCompany.getCompanyName() != null && !updatedCompany.getCompanyName().isEmpty()) {
+            existingCompany.setCompanyName(updatedCompany.getCompanyName());
+        }
+        boolean credentialsChanged = false;
+        if (updatedCompany.getIco() != null) {
+            credentialsChanged = !updatedCompany.getIco().equals(previousIco);
+            existingCompany.setIco(updatedCompany.getIco());
+        }
+        if (updatedCompany.getEmail() != null && !updatedCompany.getEmail().isEmpty()) {
+            existingCompany.setEmail(updatedCompany.getEmail());
+        }
+        if (updatedCompany.getTelephone() != null && !updatedCompany.getTelephone().isEmpty()) {
+            existingCompany.setTelephone(updatedCompany.getTelephone());
+        }
+        if (updatedCompany.getAddress() != null && !updatedCompany.getAddress().isEmpty()) {
+            existingCompany.setAddress(updatedCompany.getAddress());
+        }
+        if (updatedCompany.getPassword() != null && !updatedCompany.getPassword().isEmpty()) {
+            existingCompany.setPassword(updatedCompany.getPassword());
+            credentialsChanged = true;
+        }
+
+        // Nová verzia prihlasovacích údajov zneplatní skôr vydané tokeny v bezstavovom režime
+        if (credentialsChanged) {
+            existingCompany.setCredentialVersion(existingCompany.getCredentialVersion() + 1);
+        }
+        companyRepository.saveAndFlush(existingCompany);
+
+        // Zmena IČO alebo hesla musí vyradiť firmu z cache (starý aj nový kľúč) - až po commite
+        principalCache.credentialsChanged(JwtTokenUtil.ROLE_COMPANY, existingCompany.getId(),
+                credentialsChanged ? existingCompany.getCredentialVersion() : null,
+                String.valueOf(previousIco), String.valueOf(existingCompany.getIco()));
+        logger.info("Údaje spoločnosti s ID {} boli úspešne aktualizované.", id);
+        return true;
     }
 
     // Metóda na vytvorenie novej spoločnosti
     public Company createCompany(Company company) {
 
         // Šifrovanie hesla pred uložením do databázy
-        String encodedPassword = passwordEncoder.encode(company.getPassword());
+        String encodedPassword = passwordHasher.encode(company.getPassword());
         company.setPassword(encodedPassword); // Nastavenie šifrovaného hesla do objektu
 
         // Uloženie spoločnosti do databázy
@@ -59,89 +146,71 @@ public class CompanyService {
     // Metóda na získanie všetkých firiem
     public List<CompanyDTO> getAllCompany() {
         logger.info("Načítavam všetky firmy:");
-        List<Company> companies = companyRepository.findAll(); // Načítanie všetkých spoločností
-        return companies.stream()
-                .map(company -> {
-                    CompanyDTO output = new CompanyDTO();
-                    output.setId(company.getId());
-                    output.setCompanyName(company.getCompanyName());
-                    output.setIco(company.getIco());
-                    output.setEmail(company.getEmail());
-                    output.setTelephone(company.getTelephone());
-                    output.setAddress(company.getAddress());
-                    return output;
-                })
-                .collect(Collectors.toList());
+        List<CompanyDTO> companies = companyRepository.findAllDTO(); // Iba stĺpce z DTO, bez hesla
+        return companies;
+    }
+
+    // Jedna stránka firiem zoradených podľa ID, začína za ID zakódovaným v kurzore
+    public CursorPage<CompanyDTO> getCompanyPage(String after, Integer limit) {
+        long afterId = CursorPage.decodeCursor(after);
+        int pageSize = CursorPage.resolveLimit(limit);
+        List<CompanyDTO> companies = companyRepository.findDTOPage(afterId, Limit.of(pageSize + 1));
+        return CursorPage.of(companies, pageSize, CompanyDTO::getId, Function.identity());
+    }
+
+    // Export všetkých firiem (DTO bez hesla) ako NDJSON - riadky sa zapisujú priamo do odpovede
+    public StreamingResponseBody exportCompanies() {
+        return ndjsonExporter.export("firiem", companyRepository::streamAll, CompanyService::toCompanyDTO);
+    }
+
+    // Mapovanie firmy na DTO bez hesla
+    private static CompanyDTO toCompanyDTO(Company company) {
+        CompanyDTO output = new CompanyDTO();
+        output.setId(company.getId());
+        output.setCompanyName(company.getCompanyName());
+        output.setIco(company.getIco());
+        output.setEmail(company.getEmail());
+        output.setTelephone(company.getTelephone());
+        output.setAddress(company.getAddress());
+        output.setVersion(company.getVersion());
+        return output;
     }
 
     public List<CompanyDTO> getByEmail(String email) {
         logger.info("Načítavam firmy s e-mailom: {}", email); // Logovanie pre načítanie firiem podľa e-mailu
-        List<Company> companies = companyRepository.findByEmail(email);
+        List<CompanyDTO> companies = companyRepository.findDTOByEmail(email);
         if (companies.isEmpty()) {
             logger.warn("Nebola nájdená žiadna firma s e-mailom: {}", email);
         } else {
-            logger.info("Nájdené firmy: {}", companies);
+            logger.info("Nájdených firiem: {}", companies.size());
         }
-        return companies.stream()
-                .map(company -> {
-                    CompanyDTO output = new CompanyDTO();
-                    output.setId(company.getId());
-                    output.setCompanyName(company.getCompanyName());
-                    output.setIco(company.getIco());
-                    output.setEmail(company.getEmail());
-                    output.setTelephone(company.getTelephone());
-                    output.setAddress(company.getAddress());
-                    return output;
-                })
-                .collect(Collectors.toList());
+        return companies;
     }
 
     // Metóda na získanie všetkých firiem podľa názvu
     public List<CompanyDTO> getByCompanyName(String companyName) {
         logger.info("Načítavam firmy podľa názvu: {}", companyName); // Logovanie pred načítaním firiem podľa názvu
-        List<Company> companies = companyRepository.findByCompanyName(companyName);
+        List<CompanyDTO> companies = companyRepository.findDTOByCompanyName(companyName);
         if (companies.isEmpty()) {
             logger.warn("Nebola nájdená žiadna firma s názovom: {}", companyName);
         } else {
-            logger.info("Nájdené firmy: {}", companies);
+            logger.info("Nájdených firiem: {}", companies.size());
         }
-        return companies.stream()
-                .map(company -> {
-                    CompanyDTO output = new CompanyDTO();
-                    output.setId(company.getId());
-                    output.setCompanyName(company.getCompanyName());
-                    output.setIco(company.getIco());
-                    output.setEmail(company.getEmail());
-                    output.setTelephone(company.getTelephone());
-                    output.setAddress(company.getAddress());
-                    return output;
-                })
-                .collect(Collectors.toList());
+        return companies;
     }
 
     // Metóda na získanie spoločnosti podľa IČO
     public List<CompanyDTO> getCompanyByIco(Integer ico) {
         logger.info("Načítavam firmy podľa IČO: {}", ico); // Logovanie pred načítaním firiem
-        List<Company> companies = companyRepository.findAllByIco(ico);
+        List<CompanyDTO> companies = companyRepository.findDTOByIco(ico);
         if (companies.isEmpty()) {
             logger.warn("Nebola nájdená žiadna firma s IČO: {}", ico);
         } else {
-            for (Company company : companies) {
+            for (CompanyDTO company : companies) {
                 logger.info("Nájdená firma: IČO: {}, Názov: {}", company.getIco(), company.getCompanyName());
             }
         }
-        return companies.stream()
-                .map(company -> {
-                    CompanyDTO output = new CompanyDTO();
-                    output.setId(company.getId());
-                    output.setCompanyName(company.getCompanyName());
-                    output.setIco(company.getIco());
-                    output.setEmail(company.getEmail());
-                    output.setTelephone(company.getTelephone());
-                    output.setAddress(company.getAddress());
-                    return output;
-                })
-                .collect(Collectors.toList());
+        return companies;
     }
 
 
@@ -0,0 +1,5 @@
+package com.example.tbd.company;
+
+// Firma vo výsledku /company/search - iba údaje potrebné pre výber firmy
+public record CompanySuggestionDTO(Long id, String companyName, Integer ico) {
+}
@@ -1,10 +1,17 @@
 package com.example.tbd.customer;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.springframework.core.style.ToStringCreator;
 import org.springframework.data.jpa.repository.JpaRepository;
 
@@ -14,8 +21,15 @@ import java.time.LocalDateTime;
 // Trieda predstavujúca entitu Customer v databáze
 @Entity
 @Table(name = "customer") // Názov tabuľky v databáze
+@DynamicUpdate // UPDATE obsahuje iba zmenené stĺpce
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "customer") // Cache druhej úrovne (hibernate-cache.conf)
+@NaturalIdCache(region = "customer-email") // E-mail -> ID bez dotazu do databázy
 public class Customer {
 
+    public static final int ROLE_ID_USER = 1;
+    public static final int ROLE_ID_ADMIN = 2; // Správca - prístup k /vehicle/admin/** a /product/admin/**
+
     @Id // Označuje primárny kľúč
     @GeneratedValue(strategy = GenerationType.IDENTITY) // Automatické generovanie hodnoty ID
     private Long id;
@@ -42,6 +56,7 @@ public class Customer {
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd.MM.yyyy") // Formát pre serializáciu a deserializáciu
     private LocalDate birthdate;
 
+    @NaturalId(mutable = true) // E-mail je unikátny, ale dá sa zmeniť v profile
     @Column(name = "email", nullable = false) // Názov stĺpca pre email zákazníka
     @NotNull // Zabezpečuje, že email nemôže byť prázdny
     private String email;
@@ -59,7 +74,19 @@ public class Customer {
 
     @Column(name = "role_id", nullable = false) // Názov stĺpca pre heslo zákazníka
     @NotNull
-    private Integer roleId = 1;
+    private Integer roleId = ROLE_ID_USER;
+
+    // Verzia prihlasovacích údajov - zvyšuje sa pri zmene e-mailu alebo hesla, ukladá sa aj do JWT tokenu
+    @JsonIgnore
+    @Column(name = "credential_version", nullable = false)
+    @ColumnDefault("0")
+    private Integer credentialVersion = 0;
+
+    // Verzia riadku pre optimistické zamykanie - zvyšuje sa pri každej zmene (aj cez PATCH)
+    @JsonIgnore
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
 
     // Override metódy toString pre ľahšie zobrazenie objektu Customer
     @Override
@@ -157,4 +184,13 @@ public class Customer {
     public void setRoleId(Integer roleId) {
         this.roleId = roleId;
     }
+    public Long getVersion() {
+        return version;
+    }
+    public Integer getCredentialVersion() {
+        return credentialVersion;
+    }
+    public void setCredentialVersion(Integer credentialVersion) {
+        this.credentialVersion = credentialVersion;
+    }
 }
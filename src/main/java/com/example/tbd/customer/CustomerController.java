@@ -1,18 +1,31 @@
 package com.example.tbd.customer;
 
+import com.example.tbd.CursorPage;
+import com.example.tbd.NdjsonExporter;
 import com.example.tbd.JwtTokenUtil;
+import com.example.tbd.LoginRateLimiter;
+import com.example.tbd.MergePatch;
+import com.example.tbd.PasswordHasher;
+import com.example.tbd.PasswordHashingBusyException;
+import com.example.tbd.SecurityConfig;
+import com.example.tbd.TextNormalizer;
 import com.example.tbd.company.CompanyController;
 import com.example.tbd.company.CompanyRepository;
+import com.fasterxml.jackson.databind.JsonNode;
 import io.jsonwebtoken.security.Keys; // Import pre generovanie bezpečného kľúča
 import io.swagger.v3.oas.annotations.Operation; // Import pre anotácie OpenAPI
 import io.swagger.v3.oas.annotations.tags.Tag; // Import pre tagy OpenAPI
+import jakarta.servlet.http.HttpServletRequest; // Import pre zistenie IP adresy klienta
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value; // Import pre získanie hodnoty z application.properties
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity; // Import pre ResponseEntity, ktorý sa používa na vytváranie odpovedí
 import org.springframework.security.authentication.AuthenticationManager; // Import pre autentifikáciu
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.core.Authentication;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*; // Import pre vytváranie REST API
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody; // Import pre streamovanú odpoveď
 import com.example.tbd.company.Company; // Import pre triedu Company
 import java.security.Key; // Import pre bezpečný kľúč na šifrovanie JWT
 import java.time.LocalDate; // Import pre dátum
@@ -29,13 +42,14 @@ import org.slf4j.LoggerFactory;
 public class CustomerController {
 
     private static final Logger logger = LoggerFactory.getLogger(CompanyController.class);
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
     private final CustomerService customerService;
     private final CustomerRepository customerRepository;
     private final AuthenticationManager authenticationManager;
     private final Key secretKey;
     private final JwtTokenUtil jwtTokenUtil; // Pridané do konštruktora
     private final CompanyRepository companyRepository; // Pridané do konštruktora
+    private final LoginRateLimiter loginRateLimiter; // Limit pokusov o prihlásenie podľa IP a účtu
 
     // Konštruktor s injekciou všetkých závislostí
     @Autowired
@@ -43,17 +57,19 @@ public class CustomerController {
             CustomerService service,
             AuthenticationManager authenticationManager,
             CustomerRepository repository,
-            PasswordEncoder passwordEncoder,
+            PasswordHasher passwordHasher,
             @Value("${jwt.secret}") String jwtSecret,
             JwtTokenUtil jwtTokenUtil, // Pridané
-            CompanyRepository companyRepository) { // Pridané
+            CompanyRepository companyRepository, // Pridané
+            LoginRateLimiter loginRateLimiter) {
         this.customerService = service;
         this.authenticationManager = authenticationManager;
         this.customerRepository = repository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHasher = passwordHasher;
         this.secretKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
         this.jwtTokenUtil = jwtTokenUtil; // Inicializácia
         this.companyRepository = companyRepository; // Inicializácia
+        this.loginRateLimiter = loginRateLimiter;
     }
 
     // Pomocná metóda na konverziu LocalDate na java.util.Date
@@ -65,7 +81,7 @@ public class CustomerController {
 
     @PostMapping("/login")
     @Operation(summary = "Prihlásenie zákazníka alebo firmy", description = "Autentifikácia používateľa na základe e-mailu/IČO a hesla.")
-    public ResponseEntity<?> login(@RequestBody LoginRequest loginRequest) {
+    public ResponseEntity<?> login(@RequestBody LoginRequest loginRequest, HttpServletRequest request) {
         logger.debug("Prijatý LoginRequest - Username: {}, Password: {}", loginRequest.getUsername(), loginRequest.getPassword());
 
         // Validácia vstupných údajov
@@ -75,15 +91,21 @@ public class CustomerController {
             return ResponseEntity.badRequest().body("Chýbajúce prihlasovacie údaje!");
         }
 
+        // Limit pokusov ešte pred dotazom do databázy a overením hesla (pri prekročení 429)
+        loginRateLimiter.check(request.getRemoteAddr(), loginRequest.getUsername());
+
         try {
             // Rozhodovanie podľa formátu username (e-mail alebo IČO)
-            if (loginRequest.getUsername().contains("@")) {
-                // Prihlásenie zákazníka podľa e-mailu
-                return handleCustomerLogin(loginRequest);
-            } else {
-                // Prihlásenie firmy podľa IČO
-                return handleCompanyLogin(loginRequest);
+            ResponseEntity<?> response = loginRequest.getUsername().contains("@")
+                    ? handleCustomerLogin(loginRequest)  // Prihlásenie zákazníka podľa e-mailu
+                    : handleCompanyLogin(loginRequest);  // Prihlásenie firmy podľa IČO
+            if (response.getStatusCode().is2xxSuccessful()) {
+                loginRateLimiter.recordSuccess(loginRequest.getUsername());
             }
+            return response;
+        } catch (PasswordHashingBusyException e) {
+            loginRateLimiter.release(loginRequest.getUsername());
+            throw e; // Spracuje ApiExceptionHandler (503 + Retry-After)
         } catch (RuntimeException e) {
             logger.error("Chyba pri prihlásení: {}", e.getMessage());
             return ResponseEntity.status(401).body(e.getMessage());
@@ -103,13 +125,15 @@ public class CustomerController {
                     });
 
             // Overenie hesla
-            if (!passwordEncoder.matches(loginRequest.getPassword(), customer.getPassword())) {
+            if (!passwordHasher.matches(loginRequest.getPassword(), customer.getPassword())) {
                 logger.warn("Nesprávne prihlasovacie údaje pre e-mail: {}", loginRequest.getUsername());
                 return ResponseEntity.status(401).body("Nesprávne prihlasovacie údaje!");
             }
 
             // Generovanie tokenu
-            String token = jwtTokenUtil.generateToken(customer.getEmail(), customer.getId(), customer.getEmail());
+            String token = jwtTokenUtil.generateToken(customer.getEmail(), customer.getId(), customer.getEmail(),
+                    JwtTokenUtil.ROLE_CUSTOMER, customer.getCredentialVersion(),
+                    Integer.valueOf(Customer.ROLE_ID_ADMIN).equals(customer.getRoleId()));
             logger.info("Prihlásenie úspešné. Vygenerovaný token pre zákazníka: {}", customer.getEmail());
 
             return ResponseEntity.ok(new LoginResponse(token, customer.getId()));
@@ -132,13 +156,14 @@ public class CustomerController {
                     });
 
             // Overenie hesla
-            if (!passwordEncoder.matches(loginRequest.getPassword(), company.getPassword())) {
+            if (!passwordHasher.matches(loginRequest.getPassword(), company.getPassword())) {
                 logger.warn("Nesprávne prihlasovacie údaje pre IČO: {}", loginRequest.getUsername());
                 return ResponseEntity.status(401).body("Nesprávne prihlasovacie údaje!");
             }
 
             // Generovanie tokenu
-            String token = jwtTokenUtil.generateToken(company.getIco().toString(), company.getId(), company.getIco().toString());
+            String token = jwtTokenUtil.generateToken(company.getIco().toString(), company.getId(), company.getIco().toString(),
+                    JwtTokenUtil.ROLE_COMPANY, company.getCredentialVersion());
             logger.info("Prihlásenie úspešné. Vygenerovaný token pre firmu: {}", company.getIco());
 
             return ResponseEntity.ok(new LoginResponse(token, company.getId()));
@@ -200,6 +225,8 @@ public class CustomerController {
 
             return ResponseEntity.ok(savedCustomer); // Vráti uloženého zákazníka
 
+        } catch (PasswordHashingBusyException e) {
+            throw e; // Spracuje ApiExceptionHandler (503 + Retry-After)
         } catch (Exception e) {
             System.out.println("DEBUG: Error while registering customer: " + e.getMessage());
             return ResponseEntity.status(500).body("An error occurred while processing the request."); // Vráti chybu pri spracovaní požiadavky
@@ -217,6 +244,26 @@ public class CustomerController {
         }
     }
 
+    // Čiastočná zmena profilu (JSON Merge Patch) - meno, priezvisko, mesto, telefón, dátum narodenia.
+    // Voliteľná hlavička If-Match s verziou z ETag - ak sa zákazník medzitým zmenil, vráti 412.
+    // Zákazník mení iba svoj profil, správca ľubovoľný - inak 403.
+    @PatchMapping(value = "/{id}", consumes = {MergePatch.APPLICATION_MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    @Operation(summary = "Čiastočná zmena zákazníka", description = "JSON Merge Patch - jeden UPDATE iba so zmenenými stĺpcami. Nová verzia je v hlavičke ETag.")
+    public ResponseEntity<String> patchCustomer(@PathVariable Long id, @RequestBody JsonNode patch,
+                                                @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                Authentication authentication) {
+        if (!SecurityConfig.isAdmin(authentication) && !customerRepository.findByEmail(authentication.getName())
+                .map(customer -> customer.getId().equals(id)).orElse(false)) {
+            logger.warn("PATCH zákazníka s ID {} zamietnutý pre {}.", id, authentication.getName());
+            return ResponseEntity.status(403).body("Meniť môžete iba svoj profil.");
+        }
+        Long expectedVersion = MergePatch.parseIfMatch(ifMatch);
+        MergePatch.Result result = customerService.patchCustomer(id, patch, expectedVersion);
+        return MergePatch.toResponse(result, "Profil bol úspešne aktualizovaný.",
+                "Zákazník s týmto ID neexistuje.",
+                "Profil medzitým zmenila iná požiadavka. Načítajte ho znova.");
+    }
+
     // Endpoint na získanie zákazníka podľa ID
     // Endpoint na získanie zákazníka podľa ID
     @GetMapping("/{id}")
@@ -224,7 +271,9 @@ public class CustomerController {
     public ResponseEntity<CustomerDTO> getCustomer(@PathVariable("id") Long id) {
         System.out.println("DEBUG: Načítavanie zákazníka s ID: " + id);
         CustomerDTO customerDTO = customerService.getCustomerById(id);
-        return ResponseEntity.ok(customerDTO); // Vráti zákazníka ako DTO
+        return ResponseEntity.ok()
+                .eTag(String.valueOf(customerDTO.getVersion())) // Verzia pre If-Match pri PATCH
+                .body(customerDTO); // Vráti zákazníka ako DTO
     }
 
     // Endpoint na získanie všetkých zákazníkov
@@ -239,6 +288,37 @@ public class CustomerController {
         return ResponseEntity.ok(customers); // Vráti zoznam zákazníkov ako DTO
     }
 
+    // Endpoint na stránkované získanie zákazníkov - ďalšiu stránku získate s parametrom after=nextCursor
+    @GetMapping("/page")
+    @Operation(summary = "Stránka zákazníkov", description = "Vráti najviac limit zákazníkov zoradených podľa ID a kurzor na ďalšiu stránku.")
+    public ResponseEntity<CursorPage<CustomerDTO>> getCustomerPage(@RequestParam(required = false) String after,
+                                                                   @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(customerService.getCustomerPage(after, limit));
+    }
+
+    // Vyhľadávanie zákazníkov pre podporu - časť mena, priezviska, mesta alebo e-mailu, bez ohľadu na diakritiku
+    @GetMapping("/search")
+    @Operation(summary = "Vyhľadanie zákazníkov",
+            description = "Vráti najviac limit zákazníkov, ktorých meno, priezvisko, mesto alebo e-mail obsahuje všetky slová "
+                    + "z parametra q (bez ohľadu na veľkosť písmen a diakritiku), zoradených podľa ID, a kurzor na ďalšiu stránku.")
+    public ResponseEntity<?> searchCustomers(@RequestParam(required = false) String q,
+                                             @RequestParam(required = false) String after,
+                                             @RequestParam(required = false) Integer limit) {
+        if (q == null || TextNormalizer.fold(q).length() < 2) {
+            return ResponseEntity.badRequest().body("Hľadaný text musí mať aspoň 2 znaky.");
+        }
+        return ResponseEntity.ok(customerService.searchCustomers(q, after, limit));
+    }
+
+    // Export všetkých záznamov ako NDJSON (jeden JSON objekt na riadok) pre nočnú synchronizáciu
+    @GetMapping(value = "/export", produces = NdjsonExporter.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export zákazníkov", description = "Streamuje všetky záznamy ako NDJSON bez načítania celej tabuľky do pamäte.")
+    public ResponseEntity<StreamingResponseBody> exportCustomers() {
+        return ResponseEntity.ok()
+                .contentType(NdjsonExporter.APPLICATION_NDJSON)
+                .body(customerService.exportCustomers());
+    }
+
     @GetMapping("/count")
     @Operation(summary = "Počet užívateľov s role_id = 1", description = "Zobrazí počet zákazníkov, ktorí majú role_id = 1.")
     public ResponseEntity<String> countCustomersWithRoleUser() {
@@ -19,6 +19,25 @@ public class CustomerDTO {
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime createdAt;
     private Integer roleId;
+    private Long version; // Verzia záznamu (ETag / If-Match pre PATCH)
+
+    public CustomerDTO() {
+    }
+
+    // Projekcia v JPQL (SELECT new ...) - pozri CustomerRepository.CUSTOMER_DTO
+    public CustomerDTO(Long id, String name, String surname, String city, String telephone, LocalDate birthdate,
+                       String email, LocalDateTime createdAt, Integer roleId, Long version) {
+        this.id = id;
+        this.name = name;
+        this.surname = surname;
+        this.city = city;
+        this.telephone = telephone;
+        this.birthdate = birthdate;
+        this.email = email;
+        this.createdAt = createdAt;
+        this.roleId = roleId;
+        this.version = version;
+    }
 
     // Gettery a settery
     public Long getId() {
@@ -92,4 +111,12 @@ public class CustomerDTO {
     public void setRoleId(Integer roleId) {
         this.roleId = roleId;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
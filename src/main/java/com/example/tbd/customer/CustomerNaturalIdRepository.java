@@ -0,0 +1,11 @@
+package com.example.tbd.customer;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+// Vyhľadanie podľa prirodzeného kľúča (@NaturalId) - použije cache druhej úrovne namiesto dotazu do databázy
+public interface CustomerNaturalIdRepository {
+    @Transactional(readOnly = true)
+    Optional<Customer> findByEmail(String email);
+}
@@ -0,0 +1,24 @@
+package com.example.tbd.customer;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+
+import java.util.Optional;
+
+// Implementácia fragmentu CustomerRepository - Spring Data ju nájde podľa názvu (rozhranie + Impl)
+class CustomerNaturalIdRepositoryImpl implements CustomerNaturalIdRepository {
+
+    private final EntityManager entityManager;
+
+    CustomerNaturalIdRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Optional<Customer> findByEmail(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(Customer.class).loadOptional(email);
+    }
+}
@@ -1,24 +1,56 @@
 package com.example.tbd.customer;
 
+import com.example.tbd.NdjsonExporter;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface CustomerRepository extends JpaRepository<Customer, Long> {
+public interface CustomerRepository extends JpaRepository<Customer, Long>, CustomerNaturalIdRepository {
+    // Projekcia do CustomerDTO - SELECT iba stĺpcov z DTO (bez hesla). Výsledok nie je entita, takže sa
+    // neregistruje v persistence contexte a pri commite sa nekontroluje (dirty checking).
+    String CUSTOMER_DTO = "SELECT new com.example.tbd.customer.CustomerDTO(c.id, c.name, c.surname, c.city, "
+            + "c.telephone, c.birthdate, c.email, c.createdAt, c.roleId, c.version) FROM Customer c";
+    @Query(CUSTOMER_DTO)
+    List<CustomerDTO> findAllDTO();
+    @Query(CUSTOMER_DTO + " WHERE c.id > :afterId ORDER BY c.id")
+    List<CustomerDTO> findDTOPage(@Param("afterId") Long afterId, Limit limit); // Stránkovanie podľa kľúča (keyset)
+    @Query(CUSTOMER_DTO + " WHERE c.id IN :ids ORDER BY c.id")
+    List<CustomerDTO> findDTOByIds(@Param("ids") Collection<Long> ids); // Výsledky /customer/search podľa ID z indexu
+    // Polia pre index vyhľadávania zákazníkov v pamäti (CustomerSearch)
+    @Query("SELECT new com.example.tbd.customer.CustomerSearchFields(c.id, c.name, c.surname, c.city, c.email) FROM Customer c")
+    @Transactional(readOnly = true)
+    List<CustomerSearchFields> findAllSearchFields();
 
     public List<Customer> findAllByName(String name);
     public List<Customer> findAllBySurname(String surname);
-    Optional<Customer> findByEmail(String email);
-    boolean existsById(Long id); // Checks if a customer exists by their ID
+    // Existencia cez findById - zákazník sa načíta z cache druhej úrovne, COUNT by išiel vždy do databázy
+    @Override
+    default boolean existsById(Long id) {
+        return id != null && findById(id).isPresent();
+    }
+    @Query("SELECT c.id FROM Customer c WHERE c.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids); // Hromadná kontrola existencie zákazníkov
     @Query("SELECT COUNT(c) FROM Customer c WHERE c.roleId = 1")
     @Transactional(readOnly = true)
     long countUsersWithRoleUser();
     @Query("SELECT COUNT(c) FROM Customer c WHERE c.createdAt >= :startTime")
     @Transactional(readOnly = true)
     long countUsersFrom(@Param("startTime") LocalDateTime startTime);
+    // Celá tabuľka cez databázový kurzor pre NDJSON export - volať v transakcii a Stream zatvoriť
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = NdjsonExporter.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM Customer c ORDER BY c.id")
+    Stream<Customer> streamAll();
 }
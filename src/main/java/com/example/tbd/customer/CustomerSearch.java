@@ -0,0 +1,55 @@
+package com.example.tbd.customer;
+
+import com.example.tbd.InMemoryEntityIndex;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+// Vyhľadávanie zákazníkov podľa časti mena, priezviska, mesta alebo e-mailu (/customer/search) z indexu
+// v pamäti (CustomerSearchIndex). Index sa upraví po commite pri registrácii, /customer/editprofile
+// a PATCH (InMemoryEntityIndex).
+@Service
+public class CustomerSearch extends InMemoryEntityIndex<Customer, CustomerSearchIndex> {
+
+    private final CustomerRepository customerRepository;
+
+    public CustomerSearch(CustomerRepository customerRepository, PlatformTransactionManager transactionManager) {
+        super(Customer.class, "vyhľadávania zákazníkov", new CustomerSearchIndex(), transactionManager);
+        this.customerRepository = customerRepository;
+    }
+
+    // Najviac limit ID zákazníkov väčších ako afterId (vzostupne), ktorých údaje obsahujú všetky slová hľadaného textu
+    public List<Long> findIds(String query, long afterId, int limit) {
+        return index().search(query, afterId, limit);
+    }
+
+    @Override
+    @Scheduled(initialDelayString = "${customer.search-index.reload-interval:10m}",
+            fixedDelayString = "${customer.search-index.reload-interval:10m}")
+    public void reload() {
+        super.reload();
+    }
+
+    @Override
+    protected CustomerSearchIndex load() {
+        return new CustomerSearchIndex(customerRepository.findAllSearchFields());
+    }
+
+    @Override
+    protected int size(CustomerSearchIndex index) {
+        return index.size();
+    }
+
+    @Override
+    protected void upsert(CustomerSearchIndex index, Customer customer) {
+        index.put(new CustomerSearchFields(customer.getId(), customer.getName(), customer.getSurname(),
+                customer.getCity(), customer.getEmail()));
+    }
+
+    @Override
+    protected void remove(CustomerSearchIndex index, Customer customer) {
+        index.remove(customer.getId());
+    }
+}
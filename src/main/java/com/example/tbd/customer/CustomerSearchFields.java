@@ -0,0 +1,5 @@
+package com.example.tbd.customer;
+
+// Polia zákazníka, v ktorých sa hľadá cez /customer/search (CustomerSearchIndex)
+public record CustomerSearchFields(Long id, String name, String surname, String city, String email) {
+}
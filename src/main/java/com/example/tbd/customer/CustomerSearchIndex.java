@@ -0,0 +1,142 @@
+package com.example.tbd.customer;
+
+import com.example.tbd.TextNormalizer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Index zákazníkov v pamäti pre vyhľadávanie časti mena, priezviska, mesta alebo e-mailu bez ohľadu
+// na diakritiku a veľkosť písmen ("novak" nájde "Novák", "bystr" nájde "Banská Bystrica").
+// Ku každej trojici znakov (trigramu) normalizovaného textu sa drží zoradená množina ID zákazníkov. Hľadaný text
+// sa rozdelí na slová, každé musí byť časťou niektorého poľa. Prechádzajú sa ID z najmenšej množiny trigramov
+// (pri slovách kratších ako 3 znaky všetky ID) v poradí podľa ID a každé sa overí voči uloženému textu.
+final class CustomerSearchIndex {
+
+    private static final int GRAM = 3;
+    private static final char FIELD_SEPARATOR = '\n'; // Nevyskytuje sa v hľadanom slove - trigramy cez hranicu polí sa nenájdu
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<Long, String> textById = new TreeMap<>();
+    private final Map<String, TreeSet<Long>> idsByTrigram = new HashMap<>();
+
+    CustomerSearchIndex() {
+    }
+
+    CustomerSearchIndex(Collection<CustomerSearchFields> customers) {
+        customers.forEach(this::put);
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return textById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Pridá zákazníka alebo nahradí jeho predchádzajúce údaje
+    void put(CustomerSearchFields customer) {
+        String text = TextNormalizer.fold(customer.name()) + FIELD_SEPARATOR + TextNormalizer.fold(customer.surname())
+                + FIELD_SEPARATOR + TextNormalizer.fold(customer.city()) + FIELD_SEPARATOR + TextNormalizer.fold(customer.email());
+        lock.writeLock().lock();
+        try {
+            removeLocked(customer.id());
+            textById.put(customer.id(), text);
+            for (String trigram : trigrams(text)) {
+                idsByTrigram.computeIfAbsent(trigram, key -> new TreeSet<>()).add(customer.id());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Najviac limit ID zákazníkov väčších ako afterId (vzostupne), ktorí obsahujú všetky slová hľadaného textu
+    List<Long> search(String query, long afterId, int limit) {
+        String folded = TextNormalizer.fold(query);
+        if (folded.isEmpty()) {
+            return List.of();
+        }
+        String[] terms = folded.split(" ");
+        lock.readLock().lock();
+        try {
+            NavigableSet<Long> candidates = textById.navigableKeySet();
+            for (String term : terms) {
+                for (String trigram : trigrams(term)) {
+                    TreeSet<Long> ids = idsByTrigram.get(trigram);
+                    if (ids == null) {
+                        return List.of(); // Trigram sa nevyskytuje u žiadneho zákazníka
+                    }
+                    if (ids.size() < candidates.size()) {
+                        candidates = ids;
+                    }
+                }
+            }
+            List<Long> result = new ArrayList<>();
+            for (Long id : candidates.tailSet(afterId, false)) {
+                if (containsAll(textById.get(id), terms)) {
+                    result.add(id);
+                    if (result.size() == limit) {
+                        break;
+                    }
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeLocked(Long id) {
+        String text = textById.remove(id);
+        if (text == null) {
+            return;
+        }
+        for (String trigram : trigrams(text)) {
+            TreeSet<Long> ids = idsByTrigram.get(trigram);
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                idsByTrigram.remove(trigram);
+            }
+        }
+    }
+
+    private static boolean containsAll(String text, String[] terms) {
+        for (String term : terms) {
+            if (!text.contains(term)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Set<String> trigrams(String text) {
+        Set<String> trigrams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            String trigram = text.substring(i, i + GRAM);
+            if (trigram.indexOf(FIELD_SEPARATOR) < 0) {
+                trigrams.add(trigram);
+            }
+        }
+        return trigrams;
+    }
+}
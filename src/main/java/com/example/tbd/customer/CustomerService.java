@@ -1,8 +1,20 @@
 package com.example.tbd.customer;
 
+import com.example.tbd.CursorPage;
+import com.example.tbd.EntityCounters;
+import com.example.tbd.JwtTokenUtil;
+import com.example.tbd.MergePatch;
+import com.example.tbd.NdjsonExporter;
+import com.example.tbd.PasswordHasher;
+import com.example.tbd.PrincipalCache;
+import com.example.tbd.stats.RegistrationStats;
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.persistence.EntityManager;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -11,22 +23,47 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 @Service
 public class CustomerService {
 
+    // Polia, ktoré je možné meniť cez PATCH /customer/{id}. E-mail a heslo sú prihlasovacie údaje
+    // (hash hesla, verzia údajov v JWT, cache prihlásených) - menia sa iba cez /customer/editprofile/{id}.
+    private static final MergePatch<Customer> PATCH = new MergePatch<>(Customer.class)
+            .required("name", "name", MergePatch.text(), MergePatch.nonEmpty("name", 255))
+            .required("surname", "surname", MergePatch.text(), MergePatch.nonEmpty("surname", 255))
+            .required("city", "city", MergePatch.text(), MergePatch.nonEmpty("city", 255))
+            .required("telephone", "telephone", MergePatch.text(),
+                    telephone -> telephone.matches("\\d{1,10}") ? null : "Telefónne číslo môže mať najviac 10 číslic.")
+            .required("birthdate", "birthdate", MergePatch.date("dd.MM.yyyy"), null);
+
     private final CustomerRepository customerRepository; // Repository na komunikáciu s databázou
     private final CustomerMapper customerMapper; // Mapper na konverziu medzi entitou a DTO
-    private final PasswordEncoder passwordEncoder; // PasswordEncoder na šifrovanie hesiel
+    private final PasswordHasher passwordHasher; // Hashovanie hesiel na samostatnom pooli vlákien
+    private final PrincipalCache principalCache; // Cache prihlásených používateľov (zneplatňuje sa pri zmene údajov)
+    private final NdjsonExporter ndjsonExporter; // Streamovaný export do NDJSON
+    private final EntityCounters entityCounters; // Počty udržiavané v pamäti
+    private final RegistrationStats registrationStats; // Počty registrácií podľa obdobia
+    private final EntityManager entityManager; // Načítanie zákazníka pre PATCH
+    private final CustomerSearch customerSearch; // Index vyhľadávania zákazníkov v pamäti
     // Logger na logovanie informácií
     private static final Logger logger = LoggerFactory.getLogger(CustomerService.class);
 
     @Autowired
-    public CustomerService(CustomerRepository customerRepository, CustomerMapper customerMapper, PasswordEncoder passwordEncoder) {
+    public CustomerService(CustomerRepository customerRepository, CustomerMapper customerMapper, PasswordHasher passwordHasher,
+                           PrincipalCache principalCache, NdjsonExporter ndjsonExporter, EntityCounters entityCounters,
+                           RegistrationStats registrationStats, EntityManager entityManager,
+                           CustomerSearch customerSearch) {
         this.customerRepository = customerRepository;
         this.customerMapper = customerMapper;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHasher = passwordHasher;
+        this.principalCache = principalCache;
+        this.ndjsonExporter = ndjsonExporter;
+        this.entityCounters = entityCounters;
+        this.registrationStats = registrationStats;
+        this.entityManager = entityManager;
+        this.customerSearch = customerSearch;
     }
 
     // Metóda na získanie zákazníka podľa ID
@@ -41,19 +78,40 @@ public class CustomerService {
 
     // Metóda na získanie všetkých zákazníkov (vracia zoznam DTO)
     public List<CustomerDTO> getAllCustomers() {
-        List<Customer> customers = customerRepository.findAll();
+        List<CustomerDTO> customers = customerRepository.findAllDTO(); // Iba stĺpce z DTO, bez hesla
         if (customers.isEmpty()) {
             logger.info("Žiadni zákazníci neboli nájdení.");
         }
-        return customers.stream()
-                .map(customerMapper::toCustomerDTO)
-                .collect(Collectors.toList());
+        return customers;
+    }
+
+    // Jedna stránka zákazníkov zoradených podľa ID, začína za ID zakódovaným v kurzore
+    public CursorPage<CustomerDTO> getCustomerPage(String after, Integer limit) {
+        long afterId = CursorPage.decodeCursor(after);
+        int pageSize = CursorPage.resolveLimit(limit);
+        List<CustomerDTO> customers = customerRepository.findDTOPage(afterId, Limit.of(pageSize + 1));
+        return CursorPage.of(customers, pageSize, CustomerDTO::getId, Function.identity());
+    }
+
+    // Jedna stránka zákazníkov, ktorých meno, priezvisko, mesto alebo e-mail obsahuje všetky slová hľadaného textu.
+    // ID vyhľadá index v pamäti, z databázy sa načítajú iba zákazníci na stránke (podľa primárneho kľúča).
+    public CursorPage<CustomerDTO> searchCustomers(String query, String after, Integer limit) {
+        long afterId = CursorPage.decodeCursor(after);
+        int pageSize = CursorPage.resolveLimit(limit);
+        List<Long> ids = customerSearch.findIds(query, afterId, pageSize + 1);
+        List<CustomerDTO> customers = ids.isEmpty() ? List.of() : customerRepository.findDTOByIds(ids);
+        return CursorPage.of(customers, pageSize, CustomerDTO::getId, Function.identity());
+    }
+
+    // Export všetkých zákazníkov (DTO bez hesla) ako NDJSON - riadky sa zapisujú priamo do odpovede
+    public StreamingResponseBody exportCustomers() {
+        return ndjsonExporter.export("zákazníkov", customerRepository::streamAll, customerMapper::toCustomerDTO);
     }
 
     // Metóda na vytvorenie nového zákazníka
     public Customer createCustomer(Customer customer) {
         // Šifrovanie hesla pred uložením do databázy
-        customer.setPassword(passwordEncoder.encode(customer.getPassword()));
+        customer.setPassword(passwordHasher.encode(customer.getPassword()));
         // Uloženie zákazníka do databázy
         Customer savedCustomer = customerRepository.save(customer);
         // Logovanie úspešného uloženia
@@ -62,12 +120,15 @@ public class CustomerService {
         return savedCustomer;
     }
 
-    // Metóda na aktualizáciu profilu zákazníka
+    // Metóda na aktualizáciu profilu zákazníka - načítanie aj zápis v jednej zapisovacej transakcii na primárnej
+    // databáze (findById mimo nej by čítal z repliky a uložil by zastarané hodnoty)
+    @Transactional
     public boolean updateCustomerProfile(Long id, UpdateProfileRequest editProfileRequest) {
         Optional<Customer> customerOptional = customerRepository.findById(id);
 
         if (customerOptional.isPresent()) {
             Customer customer = customerOptional.get();
+            String previousEmail = customer.getEmail();
 
             // Aktualizácia údajov zákazníka
             customer.setName(editProfileRequest.getName());
@@ -81,12 +142,23 @@ public class CustomerService {
             }
 
             customer.setEmail(editProfileRequest.getEmail());
+            boolean credentialsChanged = !customer.getEmail().equals(previousEmail);
 
             if (editProfileRequest.getPassword() != null && !editProfileRequest.getPassword().isEmpty()) {
-                customer.setPassword(passwordEncoder.encode(editProfileRequest.getPassword()));
+                customer.setPassword(passwordHasher.encode(editProfileRequest.getPassword()));
+                credentialsChanged = true;
+            }
+
+            // Nová verzia prihlasovacích údajov zneplatní skôr vydané tokeny v bezstavovom režime
+            if (credentialsChanged) {
+                customer.setCredentialVersion(customer.getCredentialVersion() + 1);
             }
 
-            customerRepository.save(customer);
+            customerRepository.saveAndFlush(customer);
+
+            // Zmena e-mailu alebo hesla musí vyradiť zákazníka z cache (starý aj nový kľúč) - až po commite
+            principalCache.credentialsChanged(JwtTokenUtil.ROLE_CUSTOMER, customer.getId(),
+                    credentialsChanged ? customer.getCredentialVersion() : null, previousEmail, customer.getEmail());
             logger.info("Zákazník bol úspešne aktualizovaný: {}", customer);
             return true;
         }
@@ -95,28 +167,32 @@ public class CustomerService {
         return false;
     }
 
-    // Metódy na počítanie zákazníkov podľa časových období
+    // JSON Merge Patch - UPDATE iba so zmenenými stĺpcami cez načítaného zákazníka (cache druhej úrovne
+    // sa obnoví iba pre neho, index vyhľadávania upravia Hibernate listenery po commite)
+    @Transactional
+    public MergePatch.Result patchCustomer(Long id, JsonNode patch, Long expectedVersion) {
+        return PATCH.apply(entityManager, id, patch, expectedVersion);
+    }
+
+    // Metódy na počítanie zákazníkov podľa časových období (z hodinových súčtov RegistrationStats)
     public long countUsersLast24Hours() {
-        LocalDateTime last24Hours = LocalDateTime.now().minusHours(24);
-        return customerRepository.countUsersFrom(last24Hours);
+        return registrationStats.countCustomersSince(LocalDateTime.now().minusHours(24));
     }
 
     public long countUsersLast7Days() {
-        LocalDateTime last7Days = LocalDateTime.now().minusDays(7);
-        return customerRepository.countUsersFrom(last7Days);
+        return registrationStats.countCustomersSince(LocalDateTime.now().minusDays(7));
     }
 
     public long countUsersLast30Days() {
-        LocalDateTime last30Days = LocalDateTime.now().minusDays(30);
-        return customerRepository.countUsersFrom(last30Days);
+        return registrationStats.countCustomersSince(LocalDateTime.now().minusDays(30));
     }
 
     public long countUsersLast365Days() {
-        LocalDateTime last365Days = LocalDateTime.now().minusDays(365);
-        return customerRepository.countUsersFrom(last365Days);
+        return registrationStats.countCustomersSince(LocalDateTime.now().minusDays(365));
     }
 
+    // Počet zákazníkov s rolou používateľa - udržiavaný v pamäti, bez COUNT(*) v databáze
     public long countCustomersWithRoleUser() {
-        return customerRepository.countUsersWithRoleUser();
+        return entityCounters.customersWithRoleUser();
     }
 }
\ No newline at end of file
@@ -4,12 +4,20 @@ import com.fasterxml.jackson.annotation.JsonFormat;  // Import na formátovanie
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;  // Import pre JPA anotácie
 import org.hibernate.annotations.CreationTimestamp;  // Import pre automatické nastavenie dátumu a času vytvorenia
+import org.hibernate.annotations.JdbcTypeCode;  // Import pre typ stĺpca CHAR namiesto VARCHAR
+import org.hibernate.annotations.SQLRestriction;  // Import pre filtrovanie vymazaných záznamov priamo v SQL
+import org.hibernate.type.SqlTypes;
 
+import java.math.BigDecimal;  // Import pre presnú sumu (bez chýb zaokrúhľovania ako pri double)
 import java.time.LocalDateTime;  // Import pre typ LocalDateTime, ktorý obsahuje dátum aj čas
 
 @Entity  // Anotácia pre označenie triedy ako entitu, ktorá bude mapovaná na databázovú tabuľku
 @Table(name = "product")  // Názov tabuľky v databáze, na ktorú bude entita mapovaná
+@SQLRestriction("deleted = 'N'")  // Každý JPA dotaz vracia iba nevymazané služby (natívne dotazy podmienku nepridávajú)
 public class Product {
+
+    public static final String DEFAULT_CURRENCY = "EUR";
+
     @Id  // Označuje primárny kľúč
     @GeneratedValue(strategy = GenerationType.IDENTITY)  // Nastavenie automatického generovania hodnôt pre primárny kľúč
     private Integer id;  // ID služby
@@ -23,8 +31,12 @@ public class Product {
     @Column(nullable = false)  // Označuje, že hodnota nesmie byť null
     private String description;  // Popis služby
 
-    @Column(name = "price", nullable = false, length = 10)  // Názov stĺpca pre cenu s dĺžkou 10 znakov
-    private String price;  // cena služby
+    @Column(name = "price", nullable = false, precision = 12, scale = 2)  // DECIMAL(12,2) - dá sa porovnávať a indexovať
+    private BigDecimal price;  // cena služby
+
+    @Column(name = "currency", nullable = false, length = 3)  // Kód meny ISO 4217
+    @JdbcTypeCode(SqlTypes.CHAR)  // Stĺpec je CHAR(3) (V11)
+    private String currency = DEFAULT_CURRENCY;  // mena ceny
 
 
     @Column(name = "deleted", nullable = false)
@@ -69,14 +81,22 @@ public class Product {
         this.description = description;
     }
 
-    public String getPrice() {
+    public BigDecimal getPrice() {
         return price;
     }
 
-    public void setPrice(String price) {
+    public void setPrice(BigDecimal price) {
         this.price = price;
     }
 
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,31 @@
+package com.example.tbd.product;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+// Telo PUT /product/delupdate - zoznam ID alebo ID firmy (všetky jej služby), nie oboje
+public class ProductBulkDeleteRequest {
+
+    @Schema(description = "ID služieb na označenie ako vymazané", example = "[1, 2, 3]")
+    private List<Integer> ids;
+
+    @Schema(description = "Označí ako vymazané všetky služby firmy", example = "1")
+    private Integer companyId;
+
+    public List<Integer> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Integer> ids) {
+        this.ids = ids;
+    }
+
+    public Integer getCompanyId() {
+        return companyId;
+    }
+
+    public void setCompanyId(Integer companyId) {
+        this.companyId = companyId;
+    }
+}
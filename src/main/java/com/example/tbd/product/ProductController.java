@@ -1,17 +1,24 @@
 package com.example.tbd.product;
 
+import com.example.tbd.BulkSoftDelete;
+import com.example.tbd.CursorPage;
+import com.example.tbd.NdjsonExporter;
+import com.example.tbd.SecurityConfig;
 import com.example.tbd.company.CompanyRepository;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Currency;
 import java.util.List;
-import java.util.Optional;
 
 @RestController
 @RequestMapping("/product") // Definuje URL cestu pre všetky endpointy tejto triedy
@@ -19,6 +26,7 @@ import java.util.Optional;
 public class ProductController {
 
     private static final Logger logger = LoggerFactory.getLogger(ProductController.class);
+    private static final BigDecimal MAX_PRICE = new BigDecimal("9999999999.99"); // DECIMAL(12,2)
     private final ProductRepository productRepository;
     private final CompanyRepository companyRepository;
     private final ProductService productService;
@@ -43,6 +51,62 @@ public class ProductController {
         return ResponseEntity.ok(products); // Vráti zoznam všetkých služieb (200 OK)
     }
 
+    // Endpoint na stránkované získanie služieb - ďalšiu stránku získate s parametrom after=nextCursor
+    @GetMapping("/page")
+    @Operation(summary = "Stránka služieb", description = "Vráti najviac limit služieb zoradených podľa ID a kurzor na ďalšiu stránku.")
+    public ResponseEntity<CursorPage<Product>> getProductPage(@RequestParam(required = false) String after,
+                                                              @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(productService.getProductPage(after, limit));
+    }
+
+    // Vyhľadávanie služieb podľa ceny (marketplace) - stránkované ako /product/page, ďalšia stránka s after=nextCursor
+    @GetMapping("/search")
+    @Operation(summary = "Vyhľadávanie služieb podľa ceny",
+            description = "Vráti služby v cenovom rozsahu v jednej mene (predvolene EUR), voliteľne iba jednej firmy, "
+                    + "zoradené podľa ceny (sort=asc alebo desc).")
+    public ResponseEntity<?> searchProducts(@RequestParam(required = false) BigDecimal minPrice,
+                                            @RequestParam(required = false) BigDecimal maxPrice,
+                                            @RequestParam(defaultValue = Product.DEFAULT_CURRENCY) String currency,
+                                            @RequestParam(required = false) Integer companyId,
+                                            @RequestParam(defaultValue = "asc") String sort,
+                                            @RequestParam(required = false) String after,
+                                            @RequestParam(required = false) Integer limit) {
+        if ((minPrice != null && minPrice.signum() < 0) || (maxPrice != null && maxPrice.signum() < 0)) {
+            return ResponseEntity.badRequest().body("Cena nemôže byť záporná!");
+        }
+        if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+            return ResponseEntity.badRequest().body("Minimálna cena nemôže byť vyššia ako maximálna.");
+        }
+        if (!isCurrencyCode(currency)) {
+            return ResponseEntity.badRequest().body("Neplatný kód meny: " + currency);
+        }
+        if (companyId != null && companyId <= 0) {
+            return ResponseEntity.badRequest().body("Neplatné ID firmy!");
+        }
+        if (!sort.equals("asc") && !sort.equals("desc")) {
+            return ResponseEntity.badRequest().body("Zoradenie musí byť asc alebo desc.");
+        }
+        ProductSearch search = new ProductSearch(companyId, currency, minPrice, maxPrice, sort.equals("desc"));
+        return ResponseEntity.ok(productService.searchProducts(search, after, limit));
+    }
+
+    // Administrácia - stránka služieb vrátane vymazaných (iba pre správcov, viď SecurityConfig.ADMIN_PATHS)
+    @GetMapping("/admin/page")
+    @Operation(summary = "Stránka služieb vrátane vymazaných", description = "Ako /product/page, ale vracia aj služby označené ako vymazané.")
+    public ResponseEntity<CursorPage<Product>> getProductPageIncludingDeleted(@RequestParam(required = false) String after,
+                                                                             @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(productService.getProductPageIncludingDeleted(after, limit));
+    }
+
+    // Export všetkých záznamov ako NDJSON (jeden JSON objekt na riadok) pre nočnú synchronizáciu
+    @GetMapping(value = "/export", produces = NdjsonExporter.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export služieb", description = "Streamuje všetky záznamy ako NDJSON bez načítania celej tabuľky do pamäte.")
+    public ResponseEntity<StreamingResponseBody> exportProducts() {
+        return ResponseEntity.ok()
+                .contentType(NdjsonExporter.APPLICATION_NDJSON)
+                .body(productService.exportProducts());
+    }
+
     // Endpoint na získanie služieb podľa ID firmy
     @GetMapping("/companyid/{companyId}")
     public ResponseEntity<List<Product>> getServicesByCompanyId(@PathVariable Integer companyId) {
@@ -60,6 +124,46 @@ public class ProductController {
         return ResponseEntity.ok("Celkový počet produktov: " + count);
     }
 
+    // Hromadné označenie služieb ako vymazaných jedným UPDATE - firma iba svoje služby, správca ľubovoľné
+    @PutMapping("/delupdate")
+    @Operation(summary = "Hromadné vymazanie služieb",
+            description = "Označí ako vymazané služby so zadanými ID alebo všetky služby firmy a vráti ich počet. "
+                    + "Firma môže mazať iba svoje služby (cudzie ID sa preskočia), správca ľubovoľné.")
+    public ResponseEntity<?> markServicesAsDeleted(@RequestBody ProductBulkDeleteRequest request, Authentication authentication) {
+        if ((request.getIds() == null) == (request.getCompanyId() == null)) {
+            return ResponseEntity.badRequest().body("Zadajte buď zoznam ID služieb, alebo ID firmy.");
+        }
+        if (request.getCompanyId() != null && request.getCompanyId() <= 0) {
+            return ResponseEntity.badRequest().body("Neplatné ID firmy!");
+        }
+        if (request.getIds() != null) {
+            String error = BulkSoftDelete.checkIds(request.getIds(), "Neplatné ID služby!");
+            if (error != null) {
+                return ResponseEntity.badRequest().body(error);
+            }
+        }
+        Integer ownerId = null;
+        if (!SecurityConfig.isAdmin(authentication)) {
+            ownerId = currentCompanyId(authentication);
+            if (ownerId == null || (request.getCompanyId() != null && !request.getCompanyId().equals(ownerId))) {
+                logger.warn("Hromadné mazanie služieb zamietnuté pre {}.", authentication.getName());
+                return ResponseEntity.status(403).body("Hromadne mazať môžete iba služby svojej firmy.");
+            }
+        }
+        return ResponseEntity.ok(productService.softDeleteProducts(request, ownerId));
+    }
+
+    // ID prihlásenej firmy (meno principalu je IČO), null pre zákazníka
+    private Integer currentCompanyId(Authentication authentication) {
+        try {
+            return companyRepository.findByIco(Integer.parseInt(authentication.getName()))
+                    .map(company -> Math.toIntExact(company.getId()))
+                    .orElse(null);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
     // Endpoint na označenie služby ako vymazanej
     @PutMapping("/delupdate/{id}")
     public ResponseEntity<?> markServiceAsDeleted(@PathVariable Integer id) {
@@ -70,22 +174,12 @@ public class ProductController {
             return ResponseEntity.badRequest().body("Neplatné ID služby!");
         }
 
-        // Kontrola, či služba s daným ID existuje
-        Optional<Product> existingServiceOptional = productRepository.findById(id);
-        if (existingServiceOptional.isEmpty()) {
-            logger.warn("Služba s ID {} neexistuje.", id);
-            return ResponseEntity.badRequest().body("Služba s poskytnutým ID neexistuje.");
-        }
-
         try {
-            Product existingService = existingServiceOptional.get();
-
-            // Aktualizácia hodnoty stĺpca "deleted" na "Y"
-            existingService.setDeleted("Y");
-
-            // Uloženie zmeny do databázy
-            productRepository.save(existingService);
-
+            // Načítanie aj označenie ako vymazanej v jednej transakcii na primárnej databáze
+            if (!productService.softDeleteProduct(id)) {
+                logger.warn("Služba s ID {} neexistuje.", id);
+                return ResponseEntity.badRequest().body("Služba s poskytnutým ID neexistuje.");
+            }
             logger.info("Služba s ID {} bola označená ako vymazaná.", id);
             return ResponseEntity.ok("Služba bola úspešne označená ako vymazaná.");
         } catch (Exception e) {
@@ -102,9 +196,15 @@ public class ProductController {
         if (product.getCompanyId() == null || product.getCompanyId() <= 0 ||
                 product.getName() == null || product.getName().isEmpty() ||
                 product.getDescription() == null || product.getDescription().isEmpty() ||
-                product.getPrice() == null || product.getPrice().isEmpty()) {
+                product.getPrice() == null) {
             return ResponseEntity.badRequest().body("Neplatné údaje pre pridanie služby!");  // Vráti chybu ak sú údaje neúplné
         }
+        if (product.getPrice().signum() < 0 || product.getPrice().scale() > 2 || product.getPrice().compareTo(MAX_PRICE) > 0) {
+            return ResponseEntity.badRequest().body("Neplatná cena služby! Cena je nezáporné číslo s najviac dvomi desatinnými miestami.");
+        }
+        if (!isCurrencyCode(product.getCurrency())) {
+            return ResponseEntity.badRequest().body("Neplatný kód meny: " + product.getCurrency());
+        }
 
         // Kontrola, či firma s daným ID existuje
         boolean companyExists = companyRepository.existsById(product.getCompanyId());
@@ -119,16 +219,18 @@ public class ProductController {
             newproduct.setName(product.getName());
             newproduct.setDescription(product.getDescription());
             newproduct.setPrice(product.getPrice());
+            newproduct.setCurrency(product.getCurrency());
             newproduct.setCreatedAt(LocalDateTime.now());  // Uloženie aktuálneho dátumu a času ako LocalDateTime
         try {
             // Uloženie vozidla do databázy
             productRepository.save(newproduct);
 
             // Logovanie úspešného pridania vozidla
-            logger.info("Služba úspešne pridané pre firmuId {}: Nazov: {}, Cena: {}",
+            logger.info("Služba úspešne pridané pre firmuId {}: Nazov: {}, Cena: {} {}",
                     newproduct.getCompanyId(),
                     newproduct.getName(),
-                    newproduct.getPrice());
+                    newproduct.getPrice(),
+                    newproduct.getCurrency());
 
             return ResponseEntity.ok("Služba úspešne pridaná.");  // Vráti úspešnú odpoveď
         } catch (Exception e) {
@@ -138,4 +240,16 @@ public class ProductController {
         }
     }
 
+    // Kód meny ISO 4217 (EUR, CZK, ...) - veľkými písmenami, ako je uložený v databáze
+    private static boolean isCurrencyCode(String currency) {
+        if (currency == null || !currency.matches("[A-Z]{3}")) {
+            return false;
+        }
+        try {
+            Currency.getInstance(currency);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
 }
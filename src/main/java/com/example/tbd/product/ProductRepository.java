@@ -1,18 +1,52 @@
 package com.example.tbd.product;
 
-
+import com.example.tbd.NdjsonExporter;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Integer> {
+public interface ProductRepository extends JpaRepository<Product, Integer>, ProductSearchRepository {
     List<Product> findByCompanyId(Integer companyId);
     List<Product> findAll();
     Optional<Product> findById(Integer id);
     @Query(value = "SELECT COUNT(*) FROM Product WHERE deleted = 'N'", nativeQuery = true)
     long countProducts();
+    List<Product> findByIdGreaterThanOrderByIdAsc(Integer id, Limit limit); // Stránkovanie podľa kľúča (keyset)
+    // Celá tabuľka cez databázový kurzor pre NDJSON export - volať v transakcii a Stream zatvoriť
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = NdjsonExporter.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Product p ORDER BY p.id")
+    Stream<Product> streamAll();
+    // Administrácia - stránka služieb vrátane vymazaných (natívny dotaz obchádza @SQLRestriction)
+    @Query(value = "SELECT * FROM product WHERE id > :afterId ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<Product> findPageIncludingDeleted(@Param("afterId") Integer afterId, @Param("limit") int limit);
+    // Hromadné mazanie (BulkSoftDelete) - ID nevymazaných služieb so zámkom a jeden UPDATE bez načítania entít
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p.id FROM Product p WHERE p.id IN :ids")
+    List<Integer> lockActiveIds(@Param("ids") Collection<Integer> ids);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p.id FROM Product p WHERE p.id IN :ids AND p.companyId = :companyId")
+    List<Integer> lockActiveIdsOwnedBy(@Param("ids") Collection<Integer> ids, @Param("companyId") Integer companyId);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p.id FROM Product p WHERE p.companyId = :companyId")
+    List<Integer> lockActiveIdsByCompanyId(@Param("companyId") Integer companyId);
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.deleted = 'Y' WHERE p.id IN :ids")
+    int markDeleted(@Param("ids") Collection<Integer> ids);
 }
@@ -0,0 +1,8 @@
+package com.example.tbd.product;
+
+import java.math.BigDecimal;
+
+// Filter pre /product/search - cenový rozsah (null = bez hranice) v jednej mene, voliteľne iba služby jednej firmy
+public record ProductSearch(Integer companyId, String currency, BigDecimal minPrice, BigDecimal maxPrice,
+                            boolean descending) {
+}
@@ -0,0 +1,14 @@
+package com.example.tbd.product;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// Vyhľadávanie služieb podľa ceny - dotaz obsahuje iba podmienky zadaných filtrov, aby databáza
+// mohla použiť index (deleted, currency, price), resp. (company_id, deleted, currency, price)
+public interface ProductSearchRepository {
+    // Najviac limit služieb zoradených podľa (price, id) za dvojicou (afterPrice, afterId); afterPrice = null pre prvú stránku
+    @Transactional(readOnly = true)
+    List<Product> search(ProductSearch search, BigDecimal afterPrice, Integer afterId, int limit);
+}
@@ -0,0 +1,59 @@
+package com.example.tbd.product;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+// Implementácia fragmentu ProductRepository - Spring Data ju nájde podľa názvu (rozhranie + Impl)
+class ProductSearchRepositoryImpl implements ProductSearchRepository {
+
+    private final EntityManager entityManager;
+
+    ProductSearchRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<Product> search(ProductSearch search, BigDecimal afterPrice, Integer afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Product> query = cb.createQuery(Product.class);
+        Root<Product> root = query.from(Product.class);
+        Path<BigDecimal> price = root.get("price");
+        Path<Integer> id = root.get("id");
+
+        List<Predicate> where = new ArrayList<>();
+        if (search.companyId() != null) {
+            where.add(cb.equal(root.get("companyId"), search.companyId()));
+        }
+        where.add(cb.equal(root.get("currency"), search.currency()));
+        if (search.minPrice() != null) {
+            where.add(cb.greaterThanOrEqualTo(price, search.minPrice()));
+        }
+        if (search.maxPrice() != null) {
+            where.add(cb.lessThanOrEqualTo(price, search.maxPrice()));
+        }
+        // Keyset - ďalšia stránka začína za dvojicou (cena, ID) posledného riadku predchádzajúcej
+        if (afterPrice != null) {
+            where.add(search.descending()
+                    ? cb.or(cb.lessThan(price, afterPrice), cb.and(cb.equal(price, afterPrice), cb.lessThan(id, afterId)))
+                    : cb.or(cb.greaterThan(price, afterPrice), cb.and(cb.equal(price, afterPrice), cb.greaterThan(id, afterId))));
+        }
+        query.select(root)
+                .where(where.toArray(new Predicate[0]))
+                .orderBy(search.descending()
+                        ? List.of(cb.desc(price), cb.desc(id))
+                        : List.of(cb.asc(price), cb.asc(id)));
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
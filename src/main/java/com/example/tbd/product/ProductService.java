@@ -1,17 +1,109 @@
 package com.example.tbd.product;
 
 
+import com.example.tbd.BulkSoftDelete;
+import com.example.tbd.CursorPage;
+import com.example.tbd.EntityCounters;
+import com.example.tbd.InvalidPageRequestException;
+import com.example.tbd.NdjsonExporter;
+import com.example.tbd.SoftDeleteResultDTO;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
 
 @Service
 public class ProductService {
 
     private ProductRepository productRepository;
+    private final NdjsonExporter ndjsonExporter;
+    private final EntityCounters entityCounters;
+    private final BulkSoftDelete bulkSoftDelete;
 
-    public ProductService(ProductRepository productRepository) {
+    public ProductService(ProductRepository productRepository, NdjsonExporter ndjsonExporter, EntityCounters entityCounters,
+                          BulkSoftDelete bulkSoftDelete) {
         this.productRepository = productRepository;
+        this.ndjsonExporter = ndjsonExporter;
+        this.entityCounters = entityCounters;
+        this.bulkSoftDelete = bulkSoftDelete;
     }
+    // Počet služieb (nevymazaných) - udržiavaný v pamäti, bez COUNT(*) v databáze
     public long countProducts() {
-        return productRepository.countProducts();
+        return entityCounters.activeProducts();
+    }
+
+    // Jedna stránka služieb zoradených podľa ID, začína za ID zakódovaným v kurzore
+    public CursorPage<Product> getProductPage(String after, Integer limit) {
+        long afterId = CursorPage.decodeCursor(after);
+        int pageSize = CursorPage.resolveLimit(limit);
+        // ID služby je Integer - kurzor za jeho rozsahom vráti prázdnu stránku
+        int afterProductId = (int) Math.min(afterId, Integer.MAX_VALUE);
+        List<Product> products = productRepository.findByIdGreaterThanOrderByIdAsc(afterProductId, Limit.of(pageSize + 1));
+        return CursorPage.of(products, pageSize, Product::getId, Function.identity());
+    }
+
+    // Služby v cenovom rozsahu zoradené podľa ceny (pri rovnakej cene podľa ID), stránkované podľa tejto dvojice
+    public CursorPage<Product> searchProducts(ProductSearch search, String after, Integer limit) {
+        CursorPage.SortKeyCursor cursor = CursorPage.decodeSortKeyCursor(after);
+        BigDecimal afterPrice = cursor != null ? parseCursorPrice(cursor.sortKey()) : null;
+        int afterId = cursor != null ? (int) Math.min(cursor.lastId(), Integer.MAX_VALUE) : 0;
+        int pageSize = CursorPage.resolveLimit(limit);
+        List<Product> products = productRepository.search(search, afterPrice, afterId, pageSize + 1);
+        return CursorPage.of(products, pageSize, product -> product.getPrice().toPlainString(), Product::getId,
+                Function.identity());
+    }
+
+    private static BigDecimal parseCursorPrice(String value) {
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new InvalidPageRequestException("Neplatný kurzor stránkovania.");
+        }
+    }
+
+    // Administrácia - stránka služieb vrátane vymazaných
+    public CursorPage<Product> getProductPageIncludingDeleted(String after, Integer limit) {
+        long afterId = CursorPage.decodeCursor(after);
+        int pageSize = CursorPage.resolveLimit(limit);
+        int afterProductId = (int) Math.min(afterId, Integer.MAX_VALUE);
+        List<Product> products = productRepository.findPageIncludingDeleted(afterProductId, pageSize + 1);
+        return CursorPage.of(products, pageSize, Product::getId, Function.identity());
+    }
+
+    // Označenie jednej služby ako vymazanej - načítanie aj zápis v jednej transakcii na primárnej databáze
+    // (save() zastaranej služby z repliky by prepísal súbežné zmeny). Vráti false, ak služba neexistuje.
+    @Transactional
+    public boolean softDeleteProduct(Integer id) {
+        Optional<Product> existingServiceOptional = productRepository.findById(id);
+        if (existingServiceOptional.isEmpty()) {
+            return false;
+        }
+        existingServiceOptional.get().setDeleted("Y");
+        return true;
+    }
+
+    // Hromadné označenie služieb ako vymazaných - podľa zoznamu ID alebo všetky služby firmy.
+    // ownerId = null (správca) bez obmedzenia, inak sa zo zoznamu ID označia iba služby firmy ownerId.
+    @Transactional
+    public SoftDeleteResultDTO softDeleteProducts(ProductBulkDeleteRequest request, Integer ownerId) {
+        if (request.getIds() != null) {
+            Function<Collection<Integer>, List<Integer>> lockActiveIds = ownerId == null
+                    ? productRepository::lockActiveIds
+                    : ids -> productRepository.lockActiveIdsOwnedBy(ids, ownerId);
+            return bulkSoftDelete.byIds(Product.class, request.getIds(), lockActiveIds, productRepository::markDeleted);
+        }
+        return bulkSoftDelete.byScope(Product.class,
+                () -> productRepository.lockActiveIdsByCompanyId(request.getCompanyId()), productRepository::markDeleted);
+    }
+
+    // Export všetkých služieb ako NDJSON - riadky sa zapisujú priamo do odpovede
+    public StreamingResponseBody exportProducts() {
+        return ndjsonExporter.export("služieb", productRepository::streamAll, Function.identity());
     }
 }
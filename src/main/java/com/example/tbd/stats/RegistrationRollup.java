@@ -0,0 +1,69 @@
+package com.example.tbd.stats;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Počty registrácií jedného typu (zákazník alebo firma) po hodinách a po dňoch.
+// Súčet za interval berie celé dni z denných súčtov a iba okraje z hodinových, takže ani rok
+// nevyžaduje viac ako pár stoviek sčítaní. Rozlíšenie je jedna hodina.
+class RegistrationRollup {
+
+    private final ConcurrentSkipListMap<LocalDateTime, LongAdder> hourly = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<LocalDate, LongAdder> daily = new ConcurrentSkipListMap<>();
+
+    void add(LocalDateTime hour, long registrations) {
+        LocalDateTime bucket = hour.truncatedTo(ChronoUnit.HOURS);
+        hourly.computeIfAbsent(bucket, h -> new LongAdder()).add(registrations);
+        daily.computeIfAbsent(bucket.toLocalDate(), d -> new LongAdder()).add(registrations);
+    }
+
+    // Nastaví hodiny od from (vrátane) na zadané súčty, chýbajúce hodiny na 0. Staršie hodiny sa nemenia.
+    // Prírastok z add() počas prepisu sa môže započítať dvakrát - opraví ho nasledujúce volanie.
+    void replaceFrom(LocalDateTime from, Map<LocalDateTime, Long> hourlyCounts) {
+        for (Map.Entry<LocalDateTime, LongAdder> entry : hourly.tailMap(from, true).entrySet()) {
+            if (!hourlyCounts.containsKey(entry.getKey())) {
+                add(entry.getKey(), -entry.getValue().sum());
+            }
+        }
+        hourlyCounts.forEach((hour, registrations) -> {
+            LongAdder current = hourly.get(hour);
+            long delta = registrations - (current != null ? current.sum() : 0);
+            if (delta != 0) {
+                add(hour, delta);
+            }
+        });
+    }
+
+    // Počet registrácií v hodinách od hodiny obsahujúcej from po hodinu obsahujúcu to (vrátane)
+    long count(LocalDateTime from, LocalDateTime to) {
+        LocalDateTime start = from.truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime end = to.truncatedTo(ChronoUnit.HOURS).plusHours(1); // Exkluzívne
+        if (!start.isBefore(end)) {
+            return 0;
+        }
+        LocalDate firstFullDay = start.toLocalTime().equals(LocalTime.MIDNIGHT)
+                ? start.toLocalDate()
+                : start.toLocalDate().plusDays(1);
+        LocalDate endDay = end.toLocalDate(); // Deň, v ktorom interval končí - nie je celý
+        if (!firstFullDay.isBefore(endDay)) {
+            return sum(hourly.subMap(start, true, end, false));
+        }
+        return sum(hourly.subMap(start, true, firstFullDay.atStartOfDay(), false))
+                + sum(daily.subMap(firstFullDay, true, endDay, false))
+                + sum(hourly.subMap(endDay.atStartOfDay(), true, end, false));
+    }
+
+    private static long sum(NavigableMap<?, LongAdder> buckets) {
+        long total = 0;
+        for (LongAdder adder : buckets.values()) {
+            total += adder.sum();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.tbd.stats;
+
+import com.example.tbd.company.Company;
+import com.example.tbd.customer.Customer;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// Štatistika registrácií zákazníkov a firiem z hodinových súčtov v tabuľke registration_rollup.
+// Nová registrácia po commite pripočíta 1 k svojej hodine v databáze aj v pamäti, dotazy
+// sa odpovedajú z pamäte, iba neúplné okrajové hodiny intervalu sa dopočítajú z databázy. Celá tabuľka sa načíta iba pri štarte. Potom sa periodicky prepočítajú
+// iba posledné hodiny zo stĺpca created_at - tak sa do pamäte dostanú registrácie z ostatných inštancií
+// a v tabuľke sa opravia prírastky, ktoré sa nepodarilo zapísať.
+@Service
+public class RegistrationStats {
+
+    static final String CUSTOMER = "customer";
+    static final String COMPANY = "company";
+
+    private static final String INCREMENT_SQL = "INSERT INTO registration_rollup (entity_type, bucket_hour, registrations) "
+            + "VALUES (?, ?, 1) ON DUPLICATE KEY UPDATE registrations = registrations + 1";
+    private static final String UPSERT_SQL = "INSERT INTO registration_rollup (entity_type, bucket_hour, registrations) "
+            + "VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE registrations = ?";
+
+    private static final Logger logger = LoggerFactory.getLogger(RegistrationStats.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final EntityManagerFactory entityManagerFactory;
+    private final Duration reconcileWindow; // Koľko posledných hodín sa periodicky prepočítava
+
+    private final RegistrationRollup customers = new RegistrationRollup();
+    private final RegistrationRollup companies = new RegistrationRollup();
+
+    public RegistrationStats(JdbcTemplate jdbcTemplate, EntityManager entityManager,
+                             EntityManagerFactory entityManagerFactory,
+                             @Value("${stats.registrations.reconcile-window:24h}") Duration reconcileWindow) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+        this.entityManagerFactory = entityManagerFactory;
+        this.reconcileWindow = reconcileWindow;
+    }
+
+    @PostConstruct
+    void init() {
+        entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class)
+                .appendListeners(EventType.POST_COMMIT_INSERT, new RegistrationListener());
+        backfillIfEmpty();
+        loadAll();
+    }
+
+    // Počet registrácií zákazníkov od from po súčasnosť
+    public long countCustomersSince(LocalDateTime from) {
+        return count("Customer", customers, from, null);
+    }
+
+    // Počet registrácií firiem od from po súčasnosť
+    public long countCompaniesSince(LocalDateTime from) {
+        return count("Company", companies, from, null);
+    }
+
+    // Počet registrácií zákazníkov v intervale from (vrátane) - to (bez)
+    public long countCustomers(LocalDateTime from, LocalDateTime to) {
+        return count("Customer", customers, from, to);
+    }
+
+    // Počet registrácií firiem v intervale from (vrátane) - to (bez)
+    public long countCompanies(LocalDateTime from, LocalDateTime to) {
+        return count("Company", companies, from, to);
+    }
+
+    // Celé hodiny sa sčítajú z pamäte, neúplná prvá a posledná hodina COUNT-om nad created_at (index idx_*_created_at).
+    // Bez to sa počíta po súčasnosť - aktuálna hodina je v pamäti celá, z databázy sa dopočíta iba prvá hodina.
+    private long count(String entityName, RegistrationRollup rollup, LocalDateTime from, LocalDateTime to) {
+        if (to != null && !from.isBefore(to)) {
+            return 0;
+        }
+        LocalDateTime firstHour = from.truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime firstFullHour = firstHour.equals(from) ? from : firstHour.plusHours(1);
+        LocalDateTime endHour = to != null
+                ? to.truncatedTo(ChronoUnit.HOURS) // Začiatok neúplnej poslednej hodiny
+                : LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).plusHours(1);
+        if (!firstFullHour.isBefore(endHour)) {
+            // Interval nepokrýva žiadnu celú hodinu
+            return countCreated(entityName, from, to != null ? to : endHour);
+        }
+        long count = rollup.count(firstFullHour, endHour.minusHours(1));
+        if (from.isBefore(firstFullHour)) {
+            count += countCreated(entityName, from, firstFullHour);
+        }
+        if (to != null && endHour.isBefore(to)) {
+            count += countCreated(entityName, endHour, to);
+        }
+        return count;
+    }
+
+    // Počet registrácií s created_at v intervale from (vrátane) - to (bez)
+    private long countCreated(String entityName, LocalDateTime from, LocalDateTime to) {
+        return entityManager.createQuery(
+                "SELECT COUNT(e) FROM " + entityName + " e WHERE e.createdAt >= :from AND e.createdAt < :to", Long.class)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .getSingleResult();
+    }
+
+    // Posledné hodiny sa prepočítajú zo zdrojových tabuliek - v pamäti sa nahradia, v tabuľke sa prepíšu iba odlišné
+    @Scheduled(initialDelayString = "${stats.registrations.reconcile-interval:1m}",
+            fixedDelayString = "${stats.registrations.reconcile-interval:1m}")
+    public void reconcileRecent() {
+        LocalDateTime since = LocalDateTime.now().minus(reconcileWindow).truncatedTo(ChronoUnit.HOURS);
+        reconcile(CUSTOMER, "Customer", customers, since);
+        reconcile(COMPANY, "Company", companies, since);
+    }
+
+    private void reconcile(String entityType, String entityName, RegistrationRollup rollup, LocalDateTime since) {
+        Map<LocalDateTime, Long> actual = hourlyCounts(entityName, since);
+        Map<LocalDateTime, Long> stored = new HashMap<>();
+        jdbcTemplate.query("SELECT bucket_hour, registrations FROM registration_rollup WHERE entity_type = ? AND bucket_hour >= ?",
+                rs -> {
+                    stored.put(rs.getObject(1, LocalDateTime.class), rs.getLong(2));
+                }, entityType, since);
+
+        List<Object[]> changed = new ArrayList<>();
+        actual.forEach((hour, registrations) -> {
+            if (!registrations.equals(stored.get(hour))) {
+                changed.add(new Object[]{entityType, hour, registrations, registrations});
+            }
+        });
+        stored.forEach((hour, registrations) -> {
+            if (!actual.containsKey(hour) && registrations != 0) {
+                changed.add(new Object[]{entityType, hour, 0L, 0L});
+            }
+        });
+        if (!changed.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, changed);
+            logger.debug("registration_rollup ({}): opravených {} hodín.", entityType, changed.size());
+        }
+        rollup.replaceFrom(since, actual);
+    }
+
+    // Celá tabuľka registration_rollup - iba pri štarte
+    private void loadAll() {
+        jdbcTemplate.query("SELECT entity_type, bucket_hour, registrations FROM registration_rollup", rs -> {
+            RegistrationRollup rollup = CUSTOMER.equals(rs.getString(1)) ? customers
+                    : COMPANY.equals(rs.getString(1)) ? companies : null;
+            if (rollup != null) {
+                rollup.add(rs.getObject(2, LocalDateTime.class), rs.getLong(3));
+            }
+        });
+    }
+
+    // Prvé spustenie nad existujúcimi dátami - hodinové súčty sa dopočítajú zo zdrojových tabuliek
+    void backfillIfEmpty() {
+        Long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM registration_rollup", Long.class);
+        if (rows != null && rows > 0) {
+            return;
+        }
+        int customerBuckets = backfill(CUSTOMER, "Customer");
+        int companyBuckets = backfill(COMPANY, "Company");
+        logger.info("Tabuľka registration_rollup naplnená: {} hodín zákazníkov, {} hodín firiem.", customerBuckets, companyBuckets);
+    }
+
+    private int backfill(String entityType, String entityName) {
+        List<Object[]> batch = new ArrayList<>();
+        hourlyCounts(entityName, null).forEach((hour, registrations) ->
+                batch.add(new Object[]{entityType, hour, registrations, registrations}));
+        jdbcTemplate.batchUpdate(UPSERT_SQL, batch);
+        return batch.size();
+    }
+
+    // Počty registrácií po hodinách zo stĺpca created_at, voliteľne iba od hodiny since
+    private Map<LocalDateTime, Long> hourlyCounts(String entityName, LocalDateTime since) {
+        List<Object[]> rows = entityManager.createQuery(
+                "SELECT year(e.createdAt), month(e.createdAt), day(e.createdAt), hour(e.createdAt), COUNT(e) "
+                        + "FROM " + entityName + " e WHERE e.createdAt >= :since "
+                        + "GROUP BY year(e.createdAt), month(e.createdAt), day(e.createdAt), hour(e.createdAt)",
+                Object[].class)
+                .setParameter("since", Objects.requireNonNullElse(since, LocalDateTime.of(1970, 1, 1, 0, 0)))
+                .getResultList();
+        Map<LocalDateTime, Long> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            LocalDateTime hour = LocalDateTime.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue(),
+                    ((Number) row[2]).intValue(), ((Number) row[3]).intValue(), 0);
+            counts.put(hour, ((Number) row[4]).longValue());
+        }
+        return counts;
+    }
+
+    private void record(String entityType, RegistrationRollup rollup, LocalDateTime createdAt) {
+        LocalDateTime hour = (createdAt != null ? createdAt : LocalDateTime.now()).truncatedTo(ChronoUnit.HOURS);
+        try {
+            jdbcTemplate.update(INCREMENT_SQL, entityType, hour);
+        } catch (DataAccessException e) {
+            // Registrácia je už potvrdená - chýbajúci prírastok doplní reconcileRecent()
+            logger.error("Nepodarilo sa zapísať registráciu ({}) do registration_rollup: {}", entityType, e.getMessage());
+        }
+        rollup.add(hour, 1);
+    }
+
+    // Hibernate listener volaný až po úspešnom commite registrácie
+    private final class RegistrationListener implements PostCommitInsertEventListener {
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            if (event.getEntity() instanceof Customer customer) {
+                record(CUSTOMER, customers, customer.getCreatedAt());
+            } else if (event.getEntity() instanceof Company company) {
+                record(COMPANY, companies, company.getCreatedAt());
+            }
+        }
+
+        @Override
+        public void onPostInsertCommitFailed(PostInsertEvent event) {
+            // Registrácia sa nepotvrdila - nič sa nezapisuje
+        }
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            Class<?> type = persister.getMappedClass();
+            return type == Customer.class || type == Company.class;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.tbd.stats;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+@RestController
+@RequestMapping("/stats")
+@Tag(name = "Štatistiky", description = "API pre štatistiky registrácií")
+public class RegistrationStatsController {
+
+    private final RegistrationStats registrationStats;
+
+    public RegistrationStatsController(RegistrationStats registrationStats) {
+        this.registrationStats = registrationStats;
+    }
+
+    // Všetky obdobia pre zákazníkov aj firmy jednou požiadavkou, voliteľne aj interval from - to
+    @GetMapping("/registrations")
+    @Operation(summary = "Počty registrácií", description = "Vráti počty registrácií zákazníkov a firiem za posledných 24 hodín, 7, 30 a 365 dní "
+            + "a voliteľne za interval from - to (ISO dátum a čas, from vrátane, to bez).")
+    public ResponseEntity<?> getRegistrations(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        LocalDateTime now = LocalDateTime.now();
+        if (to != null && from == null) {
+            return ResponseEntity.badRequest().body("Parameter to vyžaduje aj parameter from.");
+        }
+        if (from != null && to == null) {
+            to = now;
+        }
+        if (from != null && from.isAfter(to)) {
+            return ResponseEntity.badRequest().body("Parameter from musí byť pred parametrom to.");
+        }
+
+        RegistrationStatsDTO output = new RegistrationStatsDTO();
+        output.setFrom(from);
+        output.setTo(to);
+        output.setCustomers(counts(registrationStats::countCustomersSince, registrationStats::countCustomers, now, from, to));
+        output.setCompanies(counts(registrationStats::countCompaniesSince, registrationStats::countCompanies, now, from, to));
+        return ResponseEntity.ok(output);
+    }
+
+    private static RegistrationStatsDTO.Counts counts(Function<LocalDateTime, Long> since,
+                                                      BiFunction<LocalDateTime, LocalDateTime, Long> count,
+                                                      LocalDateTime now, LocalDateTime from, LocalDateTime to) {
+        RegistrationStatsDTO.Counts counts = new RegistrationStatsDTO.Counts();
+        counts.setLast24h(since.apply(now.minusHours(24)));
+        counts.setLast7d(since.apply(now.minusDays(7)));
+        counts.setLast30d(since.apply(now.minusDays(30)));
+        counts.setLast365d(since.apply(now.minusDays(365)));
+        if (from != null) {
+            counts.setRange(count.apply(from, to));
+        }
+        return counts;
+    }
+}
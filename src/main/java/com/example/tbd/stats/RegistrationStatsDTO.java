@@ -0,0 +1,100 @@
+package com.example.tbd.stats;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+
+// Odpoveď /stats/registrations - počty registrácií za štandardné obdobia a voliteľne za zadaný interval
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RegistrationStatsDTO {
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime from; // Začiatok zadaného intervalu (null, ak nebol zadaný)
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime to; // Koniec zadaného intervalu (null, ak nebol zadaný)
+    private Counts customers;
+    private Counts companies;
+
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDateTime from) {
+        this.from = from;
+    }
+
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDateTime to) {
+        this.to = to;
+    }
+
+    public Counts getCustomers() {
+        return customers;
+    }
+
+    public void setCustomers(Counts customers) {
+        this.customers = customers;
+    }
+
+    public Counts getCompanies() {
+        return companies;
+    }
+
+    public void setCompanies(Counts companies) {
+        this.companies = companies;
+    }
+
+    // Počty pre jeden typ registrácie
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Counts {
+        private long last24h;
+        private long last7d;
+        private long last30d;
+        private long last365d;
+        private Long range; // Počet v zadanom intervale (null, ak nebol zadaný)
+
+        public long getLast24h() {
+            return last24h;
+        }
+
+        public void setLast24h(long last24h) {
+            this.last24h = last24h;
+        }
+
+        public long getLast7d() {
+            return last7d;
+        }
+
+        public void setLast7d(long last7d) {
+            this.last7d = last7d;
+        }
+
+        public long getLast30d() {
+            return last30d;
+        }
+
+        public void setLast30d(long last30d) {
+            this.last30d = last30d;
+        }
+
+        public long getLast365d() {
+            return last365d;
+        }
+
+        public void setLast365d(long last365d) {
+            this.last365d = last365d;
+        }
+
+        public Long getRange() {
+            return range;
+        }
+
+        public void setRange(Long range) {
+            this.range = range;
+        }
+    }
+}
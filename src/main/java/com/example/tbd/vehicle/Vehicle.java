@@ -1,9 +1,13 @@
 package com.example.tbd.vehicle;
 
 import com.fasterxml.jackson.annotation.JsonFormat;  // Import na formátovanie dátumu pre JSON
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;  // Import pre vlastnú deserializáciu dátumu
 import jakarta.persistence.*;  // Import pre JPA anotácie
 import org.hibernate.annotations.CreationTimestamp;  // Import pre automatické nastavenie dátumu a času vytvorenia
+import org.hibernate.annotations.DynamicUpdate;  // Import pre UPDATE iba so zmenenými stĺpcami
+import org.hibernate.annotations.SQLRestriction;  // Import pre filtrovanie vymazaných záznamov priamo v SQL
 
 import java.time.LocalDate;  // Import pre typ LocalDate, ktorý obsahuje iba dátum
 import java.time.LocalDateTime;  // Import pre typ LocalDateTime, ktorý obsahuje dátum aj čas
@@ -13,10 +17,17 @@ import java.time.LocalDateTime;  // Import pre typ LocalDateTime, ktorý obsahuj
         name = "vehicle", // Názov tabuľky v databáze, na ktorú bude entita mapovaná
         uniqueConstraints = @UniqueConstraint(columnNames = {"plate_no", "deleted"})
         )
+@DynamicUpdate  // UPDATE obsahuje iba zmenené stĺpce
+@SQLRestriction("deleted = 'N'")  // Každý JPA dotaz vracia iba nevymazané vozidlá (natívne dotazy podmienku nepridávajú)
 public class Vehicle {
 
+    static final int ID_ALLOCATION_SIZE = 50; // Veľkosť bloku ID - zhodná s hibernate.jdbc.batch_size
+
     @Id  // Označuje primárny kľúč
-    @GeneratedValue(strategy = GenerationType.IDENTITY)  // Nastavenie automatického generovania hodnôt pre primárny kľúč
+    // ID sa rezervujú po blokoch z tabuľky id_generator (pooled-lo), aby Hibernate mohol vkladať vozidlá v JDBC dávkach
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "vehicle_id")
+    @TableGenerator(name = "vehicle_id", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "vehicle", allocationSize = Vehicle.ID_ALLOCATION_SIZE)
     private Long id;  // ID vozidla
 
     @Column(name = "customer_id", nullable = false)  // Názov stĺpca v databáze, s podmienkou, že hodnota nemôže byť null
@@ -28,10 +39,11 @@ public class Vehicle {
     @Column(nullable = false)  // Označuje, že hodnota nesmie byť null
     private String model;  // Model vozidla
 
-    // Formátovanie dátumu registrácie vozidla na formát "yyyy-MM-dd"
-    @Column(name = "registered_at", nullable = false)  // Názov stĺpca pre dátum registrácie vozidla
+    // Formátovanie dátumu registrácie vozidla na formát "yyyy-MM-dd", na vstupe aj "dd.MM.yyyy"
+    @Column(name = "registered_at", nullable = false)  // Názov stĺpca pre dátum registrácie vozidla (DATE)
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd")  // Formát pre JSON výstup
-    private String registeredAt;  // Dátum registrácie vozidla (LocalDate obsahuje iba dátum)
+    @JsonDeserialize(using = VehicleDateDeserializer.class)
+    private LocalDate registeredAt;  // Dátum registrácie vozidla (LocalDate obsahuje iba dátum)
 
     @Column(name = "VIN", unique = true, nullable = false, length = 17)  // Názov stĺpca pre VIN kód s dĺžkou 17 znakov a unikátnosťou
     private String vin;  // VIN kód vozidla
@@ -52,7 +64,8 @@ public class Vehicle {
     private String tireSize;
     @Column(name = "last_serviced")
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd")
-    private String lastServiced;
+    @JsonDeserialize(using = VehicleDateDeserializer.class)
+    private LocalDate lastServiced;
     @Column(name = "deleted", nullable = false)
     private String deleted = "N";
     public String getDeleted() {
@@ -65,6 +78,11 @@ public class Vehicle {
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", shape = JsonFormat.Shape.STRING)  // Formát pre JSON výstup, zahŕňa aj čas
     private LocalDateTime createdAt;  // Dátum a čas vytvorenia vozidla (LocalDateTime obsahuje dátum aj čas)
 
+    @JsonIgnore
+    @Version  // Optimistické zamykanie - zvyšuje sa pri každej zmene (aj cez PATCH), klient ju dostane v hlavičke ETag
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // Gettery a settery pre všetky atribúty
     public Long getId() {
         return id;
@@ -91,10 +109,10 @@ public class Vehicle {
     public void setModel(String model) {
         this.model = model;
     }
-    public String getRegisteredAt() {
+    public LocalDate getRegisteredAt() {
         return registeredAt;
     }
-    public void setRegisteredAt(String registeredAt) {
+    public void setRegisteredAt(LocalDate registeredAt) {
         this.registeredAt = registeredAt;
     }
     public String getVin() {
@@ -139,10 +157,10 @@ public class Vehicle {
     public void setTireSize(String tireSize) {
         this.tireSize = tireSize;
     }
-    public String getLastServiced() {
+    public LocalDate getLastServiced() {
         return lastServiced;
     }
-    public void setLastServiced(String lastServiced) {
+    public void setLastServiced(LocalDate lastServiced) {
         this.lastServiced = lastServiced;
     }
     public LocalDateTime getCreatedAt() {
@@ -154,5 +172,8 @@ public class Vehicle {
     public void setDeleted(String deleted) {
         this.deleted = deleted;
     }
+    public Long getVersion() {
+        return version;
+    }
 
 }
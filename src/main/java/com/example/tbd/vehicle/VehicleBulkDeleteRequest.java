@@ -0,0 +1,31 @@
+package com.example.tbd.vehicle;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+// Telo PUT /vehicle/delupdate - zoznam ID alebo ID zákazníka (všetky jeho vozidlá), nie oboje
+public class VehicleBulkDeleteRequest {
+
+    @Schema(description = "ID vozidiel na označenie ako vymazané", example = "[1, 2, 3]")
+    private List<Long> ids;
+
+    @Schema(description = "Označí ako vymazané všetky vozidlá zákazníka", example = "1")
+    private Long customerId;
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(Long customerId) {
+        this.customerId = customerId;
+    }
+}
@@ -1,20 +1,36 @@
 package com.example.tbd.vehicle;
 
+import com.example.tbd.BulkSoftDelete;
+import com.example.tbd.CursorPage;
+import com.example.tbd.MergePatch;
+import com.example.tbd.NdjsonExporter;
+import com.example.tbd.SecurityConfig;
+import com.example.tbd.customer.Customer;
 import com.example.tbd.customer.CustomerRepository;  // Import pre CustomerRepository, ktoré sa používa na kontrolu existencie zákazníka
+import com.fasterxml.jackson.databind.JsonNode;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.time.LocalDate;
+import java.io.InputStream;
+import java.io.Reader;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Callable;
 
 @RestController
 @RequestMapping("/vehicle")  // Definuje URL cestu pre všetky endpointy tejto triedy
@@ -22,18 +38,23 @@ import java.util.Optional;
 public class VehicleController {
 
     private static final Logger logger = LoggerFactory.getLogger(VehicleController.class); // SLF4J logger
+    private static final String TEXT_CSV_VALUE = "text/csv";
+    private static final int MAX_SERVICE_MONTHS = 120;
     private final VehicleRepository vehicleRepository;
     private final CustomerRepository customerRepository;
     private final VehicleService vehicleService;
+    private final VehicleImportService vehicleImportService;
 
     // Konštruktor s injekciou všetkých závislostí
     @Autowired
     public VehicleController(VehicleRepository vehicleRepository,
                              CustomerRepository customerRepository,
-                             VehicleService vehicleService) {
+                             VehicleService vehicleService,
+                             VehicleImportService vehicleImportService) {
         this.vehicleRepository = vehicleRepository;
         this.customerRepository = customerRepository;
         this.vehicleService = vehicleService;
+        this.vehicleImportService = vehicleImportService;
     }
 
     // Endpoint pre pridanie nového vozidla
@@ -42,61 +63,20 @@ public class VehicleController {
         logger.debug("Prijatý VehicleRequest - {}", vehicle); // Logovanie prijatého požiadavky na pridanie vozidla
 
         // Validácia povinných údajov
-        if (vehicle.getCustomerId() == null || vehicle.getCustomerId() <= 0 ||
-                vehicle.getBrand() == null || vehicle.getBrand().isEmpty() ||
-                vehicle.getModel() == null || vehicle.getModel().isEmpty() ||
-                vehicle.getRegisteredAt() == null || vehicle.getRegisteredAt().isEmpty() ||
-                vehicle.getVin() == null || vehicle.getVin().isEmpty() ||
-                vehicle.getPlateNo() == null || vehicle.getPlateNo().isEmpty()) {
-            return ResponseEntity.badRequest().body("Neplatné údaje pre vozidlo!"); // Vráti chybu ak sú povinné údaje neúplné
+        String error = VehicleValidation.checkRequired(vehicle);
+        if (error != null) {
+            return ResponseEntity.badRequest().body(error); // Vráti chybu ak sú povinné údaje neúplné
         }
 
-        // Kontrola, či zákazník s daným ID existuje
-        if (!customerRepository.existsById(vehicle.getCustomerId())) {
-            logger.warn("Zákazník s ID {} neexistuje.", vehicle.getCustomerId());
-            return ResponseEntity.badRequest().body("Zákazník s poskytnutým ID neexistuje.");
+        // Validácia dátumu registrácie a voliteľných údajov
+        error = VehicleValidation.checkFormat(vehicle);
+        if (error != null) {
+            return ResponseEntity.badRequest().body(error);
         }
 
-        // Parsing dátumu registrácie vozidla
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd.MM.yyyy");
-        LocalDate registeredAt;
+        // Existenciu zákazníka a duplicitu SPZ / VIN nekontrolujú dotazy vopred - stráži ich cudzí kľúč
+        // a unikátne indexy pri samotnom INSERTe (bez súbehu medzi kontrolou a zápisom)
         try {
-            registeredAt = LocalDate.parse(vehicle.getRegisteredAt(), formatter);
-        } catch (DateTimeParseException e) {
-            return ResponseEntity.badRequest().body("Neplatný formát dátumu registrácie vozidla. Očakávaný formát: DD.MM.YYYY.");
-        }
-
-        // Validácia voliteľných údajov
-        if (vehicle.getFuel() != null && vehicle.getFuel().isEmpty()) {
-            return ResponseEntity.badRequest().body("Typ paliva nemôže byť prázdny, ak je uvedený!");
-        }
-        if (vehicle.getColor() != null && vehicle.getColor().isEmpty()) {
-            return ResponseEntity.badRequest().body("Farba nemôže byť prázdna, ak je uvedená!");
-        }
-        if (vehicle.getMileage() != null && vehicle.getMileage() < 0) {
-            return ResponseEntity.badRequest().body("Najazdené kilometre nemôžu byť záporné!");
-        }
-        if (vehicle.getTireSize() != null && vehicle.getTireSize().isEmpty()) {
-            return ResponseEntity.badRequest().body("Rozmer pneumatík nemôže byť prázdny, ak je uvedený!");
-        }
-        if (vehicle.getLastServiced() != null && vehicle.getLastServiced().isEmpty()) {
-            return ResponseEntity.badRequest().body("Dátum posledného servisu nemôže byť prázdny, ak je uvedený!");
-        }
-        if (vehicle.getTransmissionType() != null && vehicle.getTransmissionType().isEmpty()) {
-            return ResponseEntity.badRequest().body("Typ prevodovky nemôže byť prázdny, ak je uvedený!");
-        }
-
-        try {
-            // Kontrola duplicity SPZ iba pre záznamy, kde deleted = 'N'
-            if (vehicleRepository.existsByPlateNoAndDeleted(vehicle.getPlateNo(), "N")) {
-                logger.warn("Vozidlo s SPZ {} už existuje.", vehicle.getPlateNo());
-                return ResponseEntity.badRequest().body("Vozidlo so zadanou SPZ už existuje.");
-            }
-            if (vehicleRepository.existsByVin(vehicle.getVin())) {
-                logger.warn("Vozidlo s VIN {} už existuje.", vehicle.getVin());
-                return ResponseEntity.badRequest().body("Vozidlo so zadaným VIN už existuje.");
-            }
-
             // Vytvorenie a uloženie nového vozidla
             Vehicle newVehicle = new Vehicle();
             newVehicle.setCustomerId(vehicle.getCustomerId());
@@ -114,8 +94,8 @@ public class VehicleController {
             newVehicle.setDeleted("N"); // Nastavenie defaultnej hodnoty pre deleted
             newVehicle.setCreatedAt(LocalDateTime.now()); // Nastavenie aktuálneho času
 
-            // Uloženie vozidla do databázy
-            vehicleRepository.save(newVehicle);
+            // Uloženie vozidla do databázy - INSERT sa vykoná hneď, aby sa porušené obmedzenie prejavilo tu
+            vehicleRepository.saveAndFlush(newVehicle);
 
             logger.info("Vozidlo úspešne pridané pre uživateľa {}: Značka: {}, Model: {}, VIN: {}, ŠPZ: {}, Dátum registrácie: {}",
                     newVehicle.getCustomerId(), newVehicle.getBrand(), newVehicle.getModel(),
@@ -123,12 +103,79 @@ public class VehicleController {
                     newVehicle.getRegisteredAt());
 
             return ResponseEntity.ok("Vozidlo úspešne pridané.");
+        } catch (DataIntegrityViolationException e) {
+            String message = constraintViolationMessage(e, vehicle.getCustomerId(), vehicle.getPlateNo(), vehicle.getVin());
+            if (message != null) {
+                logger.warn("Vozidlo nebolo pridané (zákazník {}, VIN {}, ŠPZ {}): {}",
+                        vehicle.getCustomerId(), vehicle.getVin(), vehicle.getPlateNo(), message);
+                return ResponseEntity.badRequest().body(message);
+            }
+            logger.error("Chyba pri pridávaní vozidla: {}", e.getMessage(), e);
+            return ResponseEntity.status(500).body("Chyba pri spracovaní požiadavky!");
         } catch (Exception e) {
             logger.error("Chyba pri pridávaní vozidla: {}", e.getMessage(), e);
             return ResponseEntity.status(500).body("Chyba pri spracovaní požiadavky!");
         }
     }
 
+    // Preklad porušeného obmedzenia na správu, akú vracali kontroly pred uložením (null = iná chyba).
+    // Názov obmedzenia je v správe databázy (MySQL aj H2); databáza vytvorená ešte cez ddl-auto má
+    // unikátne indexy s názvami od Hibernate - vtedy príčinu zistia dotazy, ale iba v tejto chybovej vetve.
+    private String constraintViolationMessage(DataIntegrityViolationException e, Long customerId, String plateNo, String vin) {
+        String cause = String.valueOf(e.getMostSpecificCause().getMessage()).toLowerCase(Locale.ROOT);
+        if (cause.contains("fk_vehicle_customer")) {
+            return "Zákazník s poskytnutým ID neexistuje.";
+        }
+        if (cause.contains("uk_vehicle_plate_no")) {
+            return "Vozidlo so zadanou SPZ už existuje.";
+        }
+        if (cause.contains("uk_vehicle_vin")) {
+            return "Vozidlo so zadaným VIN už existuje.";
+        }
+        if (customerId != null && !customerRepository.existsById(customerId)) {
+            return "Zákazník s poskytnutým ID neexistuje.";
+        }
+        if (plateNo != null && vehicleRepository.existsByPlateNo(plateNo)) {
+            return "Vozidlo so zadanou SPZ už existuje.";
+        }
+        if (vin != null && vehicleRepository.existsByVin(vin)) {
+            return "Vozidlo so zadaným VIN už existuje.";
+        }
+        return null;
+    }
+
+    // Hromadný import vozidiel z JSON poľa (rovnaké polia ako /vehicle/add)
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Import vozidiel (JSON)", description = "Pridá všetky platné vozidlá v jednej transakcii, neplatné riadky vráti s chybou.")
+    public ResponseEntity<?> importVehicles(InputStream body) {
+        return importResult(() -> vehicleImportService.importJson(body));
+    }
+
+    // Hromadný import vozidiel z CSV s hlavičkou (customer_id, brand, model, registered_at, vin, plate_no, ...)
+    @PostMapping(value = "/import", consumes = TEXT_CSV_VALUE)
+    @Operation(summary = "Import vozidiel (CSV)", description = "Pridá všetky platné vozidlá v jednej transakcii, neplatné riadky vráti s chybou.")
+    public ResponseEntity<?> importVehiclesCsv(Reader body) {
+        return importResult(() -> vehicleImportService.importCsv(body));
+    }
+
+    private ResponseEntity<?> importResult(Callable<VehicleImportResultDTO> importer) {
+        try {
+            VehicleImportResultDTO result = importer.call();
+            if (result.getImported() == 0) {
+                return ResponseEntity.badRequest().body(result); // Žiadny riadok nebol platný
+            }
+            return ResponseEntity.ok(result);
+        } catch (VehicleImportException e) {
+            throw e; // 400 - ApiExceptionHandler
+        } catch (DataIntegrityViolationException e) {
+            // Iná požiadavka medzitým pridala vozidlo s rovnakým VIN alebo SPZ - transakcia sa vrátila celá
+            logger.warn("Import vozidiel zlyhal na obmedzení databázy: {}", e.getMessage());
+            return ResponseEntity.status(409).body("Import sa nepodaril - niektoré vozidlo medzitým pridala iná požiadavka. Zopakujte import.");
+        } catch (Exception e) {
+            logger.error("Chyba pri importe vozidiel: {}", e.getMessage(), e);
+            return ResponseEntity.status(500).body("Chyba pri spracovaní požiadavky!");
+        }
+    }
 
     @GetMapping("/count")
     @Operation(summary = "Počet vozidiel", description = "Zobrazí počet vozidiel celkovo")
@@ -154,6 +201,72 @@ public class VehicleController {
         return ResponseEntity.ok(vehicles); // Vráti zoznam všetkých vozidiel (200 OK)
     }
 
+    // Endpoint na stránkované získanie vozidiel - ďalšiu stránku získate s parametrom after=nextCursor
+    @GetMapping("/page")
+    @Operation(summary = "Stránka vozidiel", description = "Vráti najviac limit vozidiel zoradených podľa ID a kurzor na ďalšiu stránku.")
+    public ResponseEntity<CursorPage<VehicleDTO>> getVehiclePage(@RequestParam(required = false) String after,
+                                                                 @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(vehicleService.getVehiclePage(after, limit));
+    }
+
+    // Vozidlá, ktorým je potrebné pripomenúť servis (iba pre prihlásených) - stránkované ako /vehicle/page
+    @GetMapping("/service-due")
+    @Operation(summary = "Vozidlá po termíne servisu",
+            description = "Vráti vozidlá s posledným servisom starším ako months mesiacov, najstarší servis prvý. Voliteľne iba vozidlá zákazníka.")
+    public ResponseEntity<?> getVehiclesDueForService(@RequestParam int months,
+                                                      @RequestParam(required = false) Long customerId,
+                                                      @RequestParam(required = false) String after,
+                                                      @RequestParam(required = false) Integer limit) {
+        if (months < 1 || months > MAX_SERVICE_MONTHS) {
+            return ResponseEntity.badRequest().body("Počet mesiacov musí byť v rozsahu 1 až " + MAX_SERVICE_MONTHS + ".");
+        }
+        if (customerId != null && customerId <= 0) {
+            return ResponseEntity.badRequest().body("Neplatné ID zákazníka!");
+        }
+        return ResponseEntity.ok(vehicleService.getVehiclesDueForService(months, customerId, after, limit));
+    }
+
+    // Filtrovanie vozného parku podľa atribútov s počtami (iba pre prihlásených), napr. ?brand=Škoda&model=Octavia&fuel=Diesel.
+    // Viac hodnôt jedného atribútu (opakovaný parameter alebo oddelené čiarkou) = ktorákoľvek z nich.
+    @GetMapping("/facets")
+    @Operation(summary = "Filtrovanie vozidiel podľa atribútov",
+            description = "Vráti počet vozidiel vyhovujúcich všetkým zadaným atribútom (bez ohľadu na veľkosť písmen a diakritiku), "
+                    + "počty podľa hodnôt každého atribútu a stránku vyhovujúcich vozidiel zoradených podľa ID.")
+    public ResponseEntity<VehicleFacetsDTO> getVehicleFacets(@RequestParam(required = false) List<String> brand,
+                                                             @RequestParam(required = false) List<String> model,
+                                                             @RequestParam(required = false) List<String> fuel,
+                                                             @RequestParam(required = false) List<String> color,
+                                                             @RequestParam(required = false) List<String> transmissionType,
+                                                             @RequestParam(required = false) List<String> tireSize,
+                                                             @RequestParam(required = false) String after,
+                                                             @RequestParam(required = false) Integer limit) {
+        Map<VehicleFacet, List<String>> filters = new EnumMap<>(VehicleFacet.class);
+        filters.put(VehicleFacet.BRAND, brand);
+        filters.put(VehicleFacet.MODEL, model);
+        filters.put(VehicleFacet.FUEL, fuel);
+        filters.put(VehicleFacet.COLOR, color);
+        filters.put(VehicleFacet.TRANSMISSION_TYPE, transmissionType);
+        filters.put(VehicleFacet.TIRE_SIZE, tireSize);
+        return ResponseEntity.ok(vehicleService.getVehicleFacets(filters, after, limit));
+    }
+
+    // Administrácia - stránka vozidiel vrátane vymazaných (iba pre správcov, viď SecurityConfig.ADMIN_PATHS)
+    @GetMapping("/admin/page")
+    @Operation(summary = "Stránka vozidiel vrátane vymazaných", description = "Ako /vehicle/page, ale vracia aj vozidlá označené ako vymazané.")
+    public ResponseEntity<CursorPage<Vehicle>> getVehiclePageIncludingDeleted(@RequestParam(required = false) String after,
+                                                                             @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(vehicleService.getVehiclePageIncludingDeleted(after, limit));
+    }
+
+    // Export všetkých záznamov ako NDJSON (jeden JSON objekt na riadok) pre nočnú synchronizáciu
+    @GetMapping(value = "/export", produces = NdjsonExporter.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export vozidiel", description = "Streamuje všetky záznamy ako NDJSON bez načítania celej tabuľky do pamäte.")
+    public ResponseEntity<StreamingResponseBody> exportVehicles() {
+        return ResponseEntity.ok()
+                .contentType(NdjsonExporter.APPLICATION_NDJSON)
+                .body(vehicleService.exportVehicles());
+    }
+
     // Endpoint na získanie vozidla podľa ID
     @GetMapping("/id/{id}")  // Endpoint na získanie vozidla podľa ID
     public ResponseEntity<?> getVehicleById(@PathVariable Long id) {
@@ -163,7 +276,10 @@ public class VehicleController {
             logger.debug("Vozidlo s ID {} nebolo nájdené.", id);
             return ResponseEntity.status(404).body("Vozidlo s ID " + id + " nebolo nájdené.");
         }
-        return ResponseEntity.ok(vehicleOutput.get()); // Vráti 200 OK so záznamom vozidla
+        // Verzia v ETag slúži ako If-Match pre PATCH /vehicle/{id}
+        return ResponseEntity.ok()
+                .eTag(String.valueOf(vehicleOutput.get().getVersion()))
+                .body(vehicleOutput.get()); // Vráti 200 OK so záznamom vozidla
     }
 
     // Endpoint na získanie vozidla podľa VIN kódu
@@ -197,91 +313,99 @@ public class VehicleController {
             return ResponseEntity.badRequest().body("Neplatné ID vozidla!");
         }
 
-        // Kontrola, či vozidlo s daným ID existuje
-        Optional<Vehicle> existingVehicleOptional = vehicleRepository.findById(updatedVehicle.getId());
-        if (existingVehicleOptional.isEmpty()) {
-            logger.warn("Vozidlo s ID {} neexistuje.", updatedVehicle.getId());
-            return ResponseEntity.badRequest().body("Vozidlo s poskytnutým ID neexistuje.");
-        }
-
-        Vehicle existingVehicle = existingVehicleOptional.get();
-
         try {
-            // Aktualizácia povinných hodnôt
-            if (updatedVehicle.getCustomerId() != null) {
-                existingVehicle.setCustomerId(updatedVehicle.getCustomerId());
-            }
-            if (updatedVehicle.getBrand() != null && !updatedVehicle.getBrand().isEmpty()) {
-                existingVehicle.setBrand(updatedVehicle.getBrand());
-            }
-            if (updatedVehicle.getModel() != null && !updatedVehicle.getModel().isEmpty()) {
-                existingVehicle.setModel(updatedVehicle.getModel());
+            String error = vehicleService.updateVehicle(updatedVehicle);
+            if (error != null) {
+                return ResponseEntity.badRequest().body(error);
             }
-            if (updatedVehicle.getRegisteredAt() != null && !updatedVehicle.getRegisteredAt().isEmpty()) {
-                // Validácia formátu dátumu
-                DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-                try {
-                    LocalDate.parse(updatedVehicle.getRegisteredAt(), formatter);
-                    existingVehicle.setRegisteredAt(updatedVehicle.getRegisteredAt());
-                } catch (DateTimeParseException e) {
-                    return ResponseEntity.badRequest().body("Neplatný formát dátumu registrácie vozidla. Očakávaný formát: yyyy-MM-dd.");
-                }
-            }
-            if (updatedVehicle.getVin() != null && !updatedVehicle.getVin().isEmpty()) {
-                // Kontrola duplicity VIN
-                if (!existingVehicle.getVin().equals(updatedVehicle.getVin()) &&
-                        vehicleRepository.existsByVin(updatedVehicle.getVin())) {
-                    return ResponseEntity.badRequest().body("Vozidlo s poskytnutým VIN už existuje.");
-                }
-                existingVehicle.setVin(updatedVehicle.getVin());
-            }
-            if (updatedVehicle.getPlateNo() != null && !updatedVehicle.getPlateNo().isEmpty()) {
-                // Kontrola duplicity SPZ
-                if (!existingVehicle.getPlateNo().equals(updatedVehicle.getPlateNo()) &&
-                        vehicleRepository.existsByPlateNo(updatedVehicle.getPlateNo())) {
-                    return ResponseEntity.badRequest().body("Vozidlo so zadanou SPZ už existuje.");
-                }
-                existingVehicle.setPlateNo(updatedVehicle.getPlateNo());
+            return ResponseEntity.ok("Vozidlo úspešne aktualizované.");
+        } catch (DataIntegrityViolationException e) {
+            // Cudzí kľúč fk_vehicle_customer - zmena na neexistujúceho zákazníka
+            if (updatedVehicle.getCustomerId() != null && !customerRepository.existsById(updatedVehicle.getCustomerId())) {
+                return ResponseEntity.badRequest().body("Zákazník s poskytnutým ID neexistuje.");
             }
+            logger.error("Chyba pri aktualizácii vozidla: {}", e.getMessage(), e);
+            return ResponseEntity.status(500).body("Chyba pri aktualizácii vozidla!");
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw e; // Súbežná zmena toho istého záznamu - spracuje ApiExceptionHandler (409)
+        } catch (Exception e) {
+            logger.error("Chyba pri aktualizácii vozidla: {}", e.getMessage(), e);
+            return ResponseEntity.status(500).body("Chyba pri aktualizácii vozidla!");
+        }
+    }
 
-            // Aktualizácia voliteľných hodnôt
-            if (updatedVehicle.getFuel() != null) {
-                existingVehicle.setFuel(updatedVehicle.getFuel());
-            }
-            if (updatedVehicle.getColor() != null) {
-                existingVehicle.setColor(updatedVehicle.getColor());
-            }
-            if (updatedVehicle.getMileage() != null) {
-                existingVehicle.setMileage(updatedVehicle.getMileage());
-            }
-            if (updatedVehicle.getTireSize() != null) {
-                existingVehicle.setTireSize(updatedVehicle.getTireSize());
-            }
-            if (updatedVehicle.getLastServiced() != null) {
-                // Validácia formátu dátumu
-                DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-                try {
-                    LocalDate.parse(updatedVehicle.getLastServiced(), formatter);
-                    existingVehicle.setLastServiced(updatedVehicle.getLastServiced());
-                } catch (DateTimeParseException e) {
-                    return ResponseEntity.badRequest().body("Neplatný formát dátumu posledného servisu. Očakávaný formát: yyyy-MM-dd.");
-                }
+
+    // Čiastočná zmena vozidla (JSON Merge Patch) - mení iba uvedené polia, null pole vymaže.
+    // Voliteľná hlavička If-Match s verziou z ETag - ak sa vozidlo medzitým zmenilo, vráti 412.
+    // Zákazník mení iba svoje vozidlá, správca ľubovoľné - inak 403.
+    @PatchMapping(value = "/{id}", consumes = {MergePatch.APPLICATION_MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    @Operation(summary = "Čiastočná zmena vozidla", description = "JSON Merge Patch - jeden UPDATE iba so zmenenými stĺpcami. Nová verzia je v hlavičke ETag.")
+    public ResponseEntity<?> patchVehicle(@PathVariable Long id, @RequestBody JsonNode patch,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                          Authentication authentication) {
+        if (!SecurityConfig.isAdmin(authentication)) {
+            Long ownerId = currentCustomerId(authentication);
+            Optional<Long> vehicleOwner = vehicleRepository.findCustomerIdById(id);
+            if (ownerId == null || (vehicleOwner.isPresent() && !ownerId.equals(vehicleOwner.get()))) {
+                logger.warn("PATCH vozidla s ID {} zamietnutý pre {}.", id, authentication.getName());
+                return ResponseEntity.status(403).body("Meniť môžete iba svoje vozidlá.");
             }
-            if (updatedVehicle.getTransmissionType() != null) {
-                existingVehicle.setTransmissionType(updatedVehicle.getTransmissionType());
+        }
+        Long expectedVersion = MergePatch.parseIfMatch(ifMatch);
+        try {
+            MergePatch.Result result = vehicleService.patchVehicle(id, patch, expectedVersion);
+            logger.debug("PATCH vozidla s ID {}: {}", id, result.outcome());
+            return MergePatch.toResponse(result, "Vozidlo úspešne aktualizované.",
+                    "Vozidlo s ID " + id + " nebolo nájdené.",
+                    "Vozidlo medzitým zmenila iná požiadavka. Načítajte ho znova.");
+        } catch (DataIntegrityViolationException e) {
+            String message = constraintViolationMessage(e, null, textValue(patch, "plate_no"), textValue(patch, "vin"));
+            if (message != null) {
+                return ResponseEntity.badRequest().body(message);
             }
-
-            // Uloženie aktualizovaného vozidla
-            vehicleRepository.save(existingVehicle);
-
-            logger.info("Vozidlo s ID {} úspešne aktualizované.", existingVehicle.getId());
-            return ResponseEntity.ok("Vozidlo úspešne aktualizované.");
-        } catch (Exception e) {
             logger.error("Chyba pri aktualizácii vozidla: {}", e.getMessage(), e);
             return ResponseEntity.status(500).body("Chyba pri aktualizácii vozidla!");
         }
     }
 
+    private static String textValue(JsonNode patch, String field) {
+        JsonNode value = patch.get(field);
+        return value != null && !value.isNull() ? value.asText() : null;
+    }
+
+    // Hromadné označenie vozidiel ako vymazaných jedným UPDATE - zákazník iba svoje vozidlá, správca ľubovoľné
+    @PutMapping("/delupdate")
+    @Operation(summary = "Hromadné vymazanie vozidiel",
+            description = "Označí ako vymazané vozidlá so zadanými ID alebo všetky vozidlá zákazníka a vráti ich počet. "
+                    + "Zákazník môže mazať iba svoje vozidlá (cudzie ID sa preskočia), správca ľubovoľné.")
+    public ResponseEntity<?> deleteUpdateVehicles(@RequestBody VehicleBulkDeleteRequest request, Authentication authentication) {
+        if ((request.getIds() == null) == (request.getCustomerId() == null)) {
+            return ResponseEntity.badRequest().body("Zadajte buď zoznam ID vozidiel, alebo ID zákazníka.");
+        }
+        if (request.getCustomerId() != null && request.getCustomerId() <= 0) {
+            return ResponseEntity.badRequest().body("Neplatné ID zákazníka!");
+        }
+        if (request.getIds() != null) {
+            String error = BulkSoftDelete.checkIds(request.getIds(), "Neplatné ID vozidla!");
+            if (error != null) {
+                return ResponseEntity.badRequest().body(error);
+            }
+        }
+        Long ownerId = null;
+        if (!SecurityConfig.isAdmin(authentication)) {
+            ownerId = currentCustomerId(authentication);
+            if (ownerId == null || (request.getCustomerId() != null && !request.getCustomerId().equals(ownerId))) {
+                logger.warn("Hromadné mazanie vozidiel zamietnuté pre {}.", authentication.getName());
+                return ResponseEntity.status(403).body("Hromadne mazať môžete iba svoje vozidlá.");
+            }
+        }
+        return ResponseEntity.ok(vehicleService.softDeleteVehicles(request, ownerId));
+    }
+
+    // ID prihláseného zákazníka (meno principalu je e-mail), null pre firmu
+    private Long currentCustomerId(Authentication authentication) {
+        return customerRepository.findByEmail(authentication.getName()).map(Customer::getId).orElse(null);
+    }
 
     @PutMapping("/delupdate/{id}")
     public ResponseEntity<?> deleteUpdateVehicle(@PathVariable Integer id) {
@@ -292,24 +416,14 @@ public class VehicleController {
             return ResponseEntity.badRequest().body("Neplatné ID vozidla!");
         }
 
-        // Kontrola, či vozidlo s daným ID existuje
-        Optional<Vehicle> existingVehicleOptional = vehicleRepository.findById(id);
-        if (existingVehicleOptional.isEmpty()) {
-            logger.warn("Vozidlo s ID {} neexistuje.", id);
-            return ResponseEntity.badRequest().body("Vozidlo s poskytnutým ID neexistuje.");
-        }
-
         try {
-            Vehicle existingVehicle = existingVehicleOptional.get();
-
-            // Aktualizácia hodnoty stĺpca "deleted" na "Y"
-            existingVehicle.setDeleted("Y");
-
-            // Uloženie zmeny do databázy
-            vehicleRepository.save(existingVehicle);
-
-            logger.info("Vozidlo s ID {} bolo označené ako vymazané.", id);
+            // Načítanie aj označenie ako vymazané v jednej transakcii na primárnej databáze
+            if (!vehicleService.softDeleteVehicle(id.longValue())) {
+                return ResponseEntity.badRequest().body("Vozidlo s poskytnutým ID neexistuje.");
+            }
             return ResponseEntity.ok("Vozidlo bolo úspešne označené ako vymazané.");
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw e; // Súbežná zmena toho istého záznamu - spracuje ApiExceptionHandler (409)
         } catch (Exception e) {
             logger.error("Chyba pri označovaní vozidla s ID {} ako vymazaného: {}", id, e.getMessage(), e);
             return ResponseEntity.status(500).body("Chyba pri spracovaní požiadavky!");
@@ -0,0 +1,152 @@
+package com.example.tbd.vehicle;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Čítanie CSV pre /vehicle/import. Prvý riadok je hlavička s názvami stĺpcov (customer_id, brand, model,
+// registered_at, vin, plate_no, fuel, color, mileage, transmission_type, tire_size, last_serviced) v ľubovoľnom poradí.
+// Oddeľovač je čiarka, hodnoty s čiarkou alebo novým riadkom sú v úvodzovkách ("" = úvodzovka). Prázdna bunka = hodnota neuvedená.
+// Dátumy v tvare dd.MM.yyyy alebo yyyy-MM-dd (ako v JSON, VehicleDateDeserializer).
+final class VehicleCsvReader {
+
+    private static final List<String> COLUMNS = List.of("customer_id", "brand", "model", "registered_at", "vin",
+            "plate_no", "fuel", "color", "mileage", "transmission_type", "tire_size", "last_serviced");
+
+    private final Reader reader;
+    private int next = -2; // Ďalší znak (-2 = ešte nenačítaný, -1 = koniec vstupu)
+
+    private VehicleCsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    // Najviac maxRows riadkov - väčší súbor sa odmietne bez načítania zvyšku do pamäte
+    static List<VehicleImportRow> read(Reader reader, int maxRows) throws IOException {
+        return new VehicleCsvReader(new BufferedReader(reader)).readAll(maxRows);
+    }
+
+    private List<VehicleImportRow> readAll(int maxRows) throws IOException {
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new VehicleImportException("CSV neobsahuje hlavičku.");
+        }
+        int[] columnIndex = new int[header.size()];
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i);
+            if (i == 0 && name.startsWith("\uFEFF")) {
+                name = name.substring(1); // BOM na začiatku súboru (Excel)
+            }
+            name = name.trim().toLowerCase(Locale.ROOT);
+            columnIndex[i] = COLUMNS.indexOf(name);
+            if (columnIndex[i] < 0) {
+                throw new VehicleImportException("Neznámy stĺpec v CSV: " + header.get(i));
+            }
+        }
+
+        List<VehicleImportRow> rows = new ArrayList<>();
+        List<String> record;
+        while ((record = readRecord()) != null) {
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue; // Prázdny riadok
+            }
+            if (rows.size() == maxRows) {
+                throw new VehicleImportException("Import môže obsahovať najviac " + maxRows + " vozidiel.");
+            }
+            rows.add(toRow(record, header, columnIndex));
+        }
+        return rows;
+    }
+
+    private static VehicleImportRow toRow(List<String> record, List<String> header, int[] columnIndex) {
+        if (record.size() != header.size()) {
+            return VehicleImportRow.rejected("Riadok má " + record.size() + " stĺpcov, hlavička " + header.size() + ".");
+        }
+        Vehicle vehicle = new Vehicle();
+        for (int i = 0; i < record.size(); i++) {
+            String value = record.get(i).trim();
+            if (value.isEmpty()) {
+                continue;
+            }
+            String column = COLUMNS.get(columnIndex[i]);
+            try {
+                switch (column) {
+                    case "customer_id" -> vehicle.setCustomerId(Long.parseLong(value));
+                    case "brand" -> vehicle.setBrand(value);
+                    case "model" -> vehicle.setModel(value);
+                    case "registered_at" -> vehicle.setRegisteredAt(VehicleDateDeserializer.parse(value));
+                    case "vin" -> vehicle.setVin(value);
+                    case "plate_no" -> vehicle.setPlateNo(value);
+                    case "fuel" -> vehicle.setFuel(value);
+                    case "color" -> vehicle.setColor(value);
+                    case "mileage" -> vehicle.setMileage(Integer.parseInt(value));
+                    case "transmission_type" -> vehicle.setTransmissionType(value);
+                    case "tire_size" -> vehicle.setTireSize(value);
+                    case "last_serviced" -> vehicle.setLastServiced(VehicleDateDeserializer.parse(value));
+                    default -> throw new IllegalStateException(column);
+                }
+            } catch (NumberFormatException e) {
+                return VehicleImportRow.rejected("Neplatné číslo v stĺpci " + column + ": " + value);
+            } catch (DateTimeParseException e) {
+                return VehicleImportRow.rejected("Neplatný dátum v stĺpci " + column + ": " + value);
+            }
+        }
+        return VehicleImportRow.of(vehicle);
+    }
+
+    // Jeden záznam CSV (null na konci vstupu)
+    private List<String> readRecord() throws IOException {
+        if (peek() == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            int c = take();
+            if (quoted) {
+                if (c == -1) {
+                    throw new VehicleImportException("CSV obsahuje neukončené úvodzovky.");
+                }
+                if (c == '"') {
+                    if (peek() == '"') {
+                        field.append((char) take());
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r' && peek() == '\n') {
+                    take();
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+        }
+    }
+
+    private int peek() throws IOException {
+        if (next == -2) {
+            next = reader.read();
+        }
+        return next;
+    }
+
+    private int take() throws IOException {
+        int c = peek();
+        next = -2;
+        return c;
+    }
+}
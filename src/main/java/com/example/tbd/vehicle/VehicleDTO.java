@@ -1,11 +1,15 @@
 package com.example.tbd.vehicle;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
 public class VehicleDTO {
 
     private Long id; // Identifikátor vozidla
     private String brand; // Značka vozidla
     private String model; // Model vozidla
-    private String registeredAt; // Dátum registrácie
+    private String registeredAt; // Dátum registrácie (yyyy-MM-dd)
     private String vin; // VIN kód
     private String plateNo; // ŠPZ
     private String fuel; // Typ paliva
@@ -13,9 +17,35 @@ public class VehicleDTO {
     private Integer mileage; // Počet kilometrov
     private String transmissionType; // Typ prevodovky
     private String tireSize; // Rozmer pneumatík
-    private String lastServiced; // Posledný servis
+    private String lastServiced; // Posledný servis (yyyy-MM-dd)
     private String deleted; // Stav deleted
     private String createdAt; // Dátum vytvorenia
+    private Long version; // Verzia záznamu (ETag / If-Match pre PATCH)
+
+    public VehicleDTO() {
+    }
+
+    // Projekcia v JPQL (SELECT new ...) - pozri VehicleRepository.VEHICLE_DTO.
+    // Dátumy sa formátujú rovnako ako vo VehicleMapper (ISO_LOCAL_DATE, ISO_LOCAL_DATE_TIME).
+    public VehicleDTO(Long id, String brand, String model, LocalDate registeredAt, String vin, String plateNo, String fuel,
+                      String color, Integer mileage, String transmissionType, String tireSize, LocalDate lastServiced,
+                      String deleted, LocalDateTime createdAt, Long version) {
+        this.id = id;
+        this.brand = brand;
+        this.model = model;
+        this.registeredAt = registeredAt != null ? registeredAt.toString() : null;
+        this.vin = vin;
+        this.plateNo = plateNo;
+        this.fuel = fuel;
+        this.color = color;
+        this.mileage = mileage;
+        this.transmissionType = transmissionType;
+        this.tireSize = tireSize;
+        this.lastServiced = lastServiced != null ? lastServiced.toString() : null;
+        this.deleted = deleted;
+        this.createdAt = createdAt != null ? DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(createdAt) : null;
+        this.version = version;
+    }
 
     // Gettery a settery pre všetky atribúty
 
@@ -130,4 +160,12 @@ public class VehicleDTO {
     public void setCreatedAt(String createdAt) {
         this.createdAt = createdAt;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
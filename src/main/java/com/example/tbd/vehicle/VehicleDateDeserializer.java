@@ -0,0 +1,37 @@
+package com.example.tbd.vehicle;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+
+// Dátumy vozidla v JSON a CSV - /vehicle/add a import posielajú dd.MM.yyyy, /vehicle/update yyyy-MM-dd,
+// preto sa prijímajú oba formáty. Výstup je vždy yyyy-MM-dd (@JsonFormat na entite).
+public class VehicleDateDeserializer extends JsonDeserializer<LocalDate> {
+
+    private static final DateTimeFormatter SLOVAK_FORMAT = DateTimeFormatter.ofPattern("dd.MM.uuuu")
+            .withResolverStyle(ResolverStyle.STRICT);
+
+    @Override
+    public LocalDate deserialize(JsonParser jsonParser, DeserializationContext context) throws IOException {
+        String text = jsonParser.getText().trim();
+        if (text.isEmpty()) {
+            return null;
+        }
+        try {
+            return parse(text);
+        } catch (DateTimeParseException e) {
+            return (LocalDate) context.handleWeirdStringValue(LocalDate.class, text,
+                    "Neplatný formát dátumu. Očakávaný formát: DD.MM.YYYY alebo YYYY-MM-DD.");
+        }
+    }
+
+    static LocalDate parse(String text) {
+        return text.contains(".") ? LocalDate.parse(text, SLOVAK_FORMAT) : LocalDate.parse(text);
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.tbd.vehicle;
+
+import java.util.function.Function;
+
+// Atribúty vozidla s malým počtom rôznych hodnôt, podľa ktorých filtruje /vehicle/facets.
+// Názov parametra je zhodný s názvom poľa v JSON vozidla.
+public enum VehicleFacet {
+    BRAND("brand", VehicleFacetFields::brand),
+    MODEL("model", VehicleFacetFields::model),
+    FUEL("fuel", VehicleFacetFields::fuel),
+    COLOR("color", VehicleFacetFields::color),
+    TRANSMISSION_TYPE("transmissionType", VehicleFacetFields::transmissionType),
+    TIRE_SIZE("tireSize", VehicleFacetFields::tireSize);
+
+    private final String parameter;
+    private final Function<VehicleFacetFields, String> value;
+
+    VehicleFacet(String parameter, Function<VehicleFacetFields, String> value) {
+        this.parameter = parameter;
+        this.value = value;
+    }
+
+    public String parameter() {
+        return parameter;
+    }
+
+    String valueOf(VehicleFacetFields vehicle) {
+        return value.apply(vehicle);
+    }
+}
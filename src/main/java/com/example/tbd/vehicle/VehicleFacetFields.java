@@ -0,0 +1,6 @@
+package com.example.tbd.vehicle;
+
+// Atribúty vozidla, podľa ktorých sa filtruje v /vehicle/facets (VehicleFacetIndex)
+public record VehicleFacetFields(Long id, String brand, String model, String fuel, String color,
+                                 String transmissionType, String tireSize) {
+}
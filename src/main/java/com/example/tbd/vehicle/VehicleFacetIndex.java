@@ -0,0 +1,351 @@
+package com.example.tbd.vehicle;
+
+import com.example.tbd.TextNormalizer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Index aktívnych vozidiel v pamäti pre filtrovanie podľa atribútov z VehicleFacet. Každé vozidlo má pridelené
+// poradové číslo (slot), každá hodnota atribútu poradové číslo hodnoty (ordinal). Pre filter sa ku každej hodnote
+// drží BitSet slotov - filter je AND medzi atribútmi a OR medzi hodnotami jedného atribútu. Pre počty sa ku každému
+// slotu drží ordinal jeho hodnoty v každom atribúte, takže počty atribútu vzniknú jedným prechodom cez vyhovujúce
+// sloty. Sloty sa prideľujú vzostupne podľa ID, stránka vozidiel sa preto číta priamo z vyhovujúcich slotov
+// od kurzora a končí po limit vozidlách. Hodnoty sa porovnávajú bez ohľadu na diakritiku a veľkosť písmen
+// ("skoda" = "Škoda"), v počtoch sa zobrazí prvý zápis hodnoty, ktorý index dostal.
+public final class VehicleFacetIndex {
+
+    public record Result(long total, Map<String, Map<String, Long>> facets, List<Long> ids) {
+    }
+
+    private static final VehicleFacet[] FACETS = VehicleFacet.values();
+    private static final int NO_VALUE = 0; // Ordinal slotu bez hodnoty atribútu
+
+    // Pomocné BitSety a počítadlá vlákna - dotaz ich používa znova namiesto klonovania
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> slotById = new HashMap<>();
+    private final BitSet live = new BitSet();
+    private final FacetValues[] values = new FacetValues[FACETS.length];
+    private final int[][] ordinalBySlot = new int[FACETS.length][]; // [atribút][slot]
+    // Vymazané vozidlo nechá v slotoch dieru (ID ostane kvôli binárnemu vyhľadaniu) - odstráni ju až ďalšie
+    // načítanie indexu (InMemoryEntityIndex.reload)
+    private long[] idBySlot = new long[1024];
+    private int nextSlot;
+    private boolean slotsInIdOrder = true; // Nepravda po pridaní vozidla s ID nie väčším, ako má posledný slot
+
+    public VehicleFacetIndex() {
+        for (int facet = 0; facet < FACETS.length; facet++) {
+            values[facet] = new FacetValues();
+            ordinalBySlot[facet] = new int[idBySlot.length];
+        }
+    }
+
+    public VehicleFacetIndex(Collection<VehicleFacetFields> vehicles) {
+        this();
+        vehicles.stream()
+                .sorted(Comparator.comparing(VehicleFacetFields::id))
+                .forEach(this::put);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Pridá vozidlo alebo nahradí jeho predchádzajúce hodnoty
+    public void put(VehicleFacetFields vehicle) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotById.get(vehicle.id());
+            if (slot != null) {
+                removeValues(slot); // Zmenené vozidlo ostáva vo svojom slote
+            } else {
+                slot = addSlot(vehicle.id());
+            }
+            for (int facet = 0; facet < FACETS.length; facet++) {
+                String value = FACETS[facet].valueOf(vehicle);
+                String key = TextNormalizer.fold(value);
+                ordinalBySlot[facet][slot] = key.isEmpty() ? NO_VALUE : values[facet].add(key, value.trim(), slot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Počet vyhovujúcich vozidiel, počty hodnôt každého atribútu a najviac limit ID väčších ako afterId (vzostupne).
+    // Počty atribútu sa rátajú bez filtra na tento atribút, aby bolo vidieť, koľko pribudne výberom ďalšej hodnoty.
+    public Result query(Map<VehicleFacet, ? extends Collection<String>> filters, long afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            Scratch scratch = SCRATCH.get();
+            boolean[] filtered = new boolean[FACETS.length];
+            int filteredCount = 0;
+            for (Map.Entry<VehicleFacet, ? extends Collection<String>> filter : filters.entrySet()) {
+                if (filter.getValue() == null || filter.getValue().isEmpty()) {
+                    continue;
+                }
+                int facet = filter.getKey().ordinal();
+                BitSet any = scratch.selected[facet];
+                any.clear();
+                for (String value : filter.getValue()) {
+                    BitSet slots = values[facet].slots(TextNormalizer.fold(value));
+                    if (slots != null) {
+                        any.or(slots);
+                    }
+                }
+                filtered[facet] = true;
+                filteredCount++;
+            }
+            BitSet matching = matchingExcept(scratch.matching, scratch.selected, filtered, -1);
+            List<Long> page = slotsInIdOrder ? pageInSlotOrder(matching, afterId, limit) : pageByHeap(matching, afterId, limit);
+
+            long[][] counts = scratch.counts(values);
+            if (filteredCount == 0) {
+                // Bez filtra sú počty rovnaké ako počty všetkých aktívnych vozidiel
+                for (int facet = 0; facet < FACETS.length; facet++) {
+                    values[facet].copyLiveCounts(counts[facet]);
+                }
+            } else {
+                boolean[] unfiltered = new boolean[FACETS.length];
+                for (int facet = 0; facet < FACETS.length; facet++) {
+                    unfiltered[facet] = !filtered[facet];
+                }
+                countSlots(matching, unfiltered, counts);
+                for (int facet = 0; facet < FACETS.length; facet++) {
+                    if (!filtered[facet]) {
+                        continue;
+                    }
+                    if (filteredCount == 1) {
+                        values[facet].copyLiveCounts(counts[facet]);
+                    } else {
+                        boolean[] only = new boolean[FACETS.length];
+                        only[facet] = true;
+                        countSlots(matchingExcept(scratch.except, scratch.selected, filtered, facet), only, counts);
+                    }
+                }
+            }
+            Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+            for (int facet = 0; facet < FACETS.length; facet++) {
+                facets.put(FACETS[facet].parameter(), values[facet].toMap(counts[facet]));
+            }
+
+            return new Result(matching.cardinality(), facets, page);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Prvých limit vyhovujúcich slotov za posledným slotom s ID najviac afterId
+    private List<Long> pageInSlotOrder(BitSet matching, long afterId, int limit) {
+        int from = Arrays.binarySearch(idBySlot, 0, nextSlot, afterId);
+        from = from >= 0 ? from + 1 : -from - 1;
+        List<Long> page = new ArrayList<>(limit);
+        for (int slot = matching.nextSetBit(from); slot >= 0 && page.size() < limit; slot = matching.nextSetBit(slot + 1)) {
+            page.add(idBySlot[slot]);
+        }
+        return page;
+    }
+
+    // Sloty nie sú zoradené podľa ID - prejdú sa všetky vyhovujúce a v halde sa drží iba limit najmenších ID
+    private List<Long> pageByHeap(BitSet matching, long afterId, int limit) {
+        PriorityQueue<Long> smallest = new PriorityQueue<>(Math.max(1, limit), Comparator.reverseOrder());
+        for (int slot = matching.nextSetBit(0); slot >= 0 && limit > 0; slot = matching.nextSetBit(slot + 1)) {
+            long id = idBySlot[slot];
+            if (id <= afterId) {
+                continue;
+            }
+            if (smallest.size() < limit) {
+                smallest.add(id);
+            } else if (id < smallest.peek()) {
+                smallest.poll();
+                smallest.add(id);
+            }
+        }
+        List<Long> page = new ArrayList<>(smallest);
+        page.sort(null);
+        return page;
+    }
+
+    // Aktívne vozidlá vyhovujúce filtrom všetkých atribútov okrem skipped, zapísané do target
+    private BitSet matchingExcept(BitSet target, BitSet[] selected, boolean[] filtered, int skipped) {
+        target.clear();
+        target.or(live);
+        for (int facet = 0; facet < FACETS.length; facet++) {
+            if (filtered[facet] && facet != skipped) {
+                target.and(selected[facet]);
+            }
+        }
+        return target;
+    }
+
+    // Jeden prechod cez sloty - k počtom vybraných atribútov pripočíta ordinal hodnoty každého slotu
+    private void countSlots(BitSet slots, boolean[] facets, long[][] counts) {
+        for (int slot = slots.nextSetBit(0); slot >= 0; slot = slots.nextSetBit(slot + 1)) {
+            for (int facet = 0; facet < FACETS.length; facet++) {
+                if (facets[facet]) {
+                    counts[facet][ordinalBySlot[facet][slot]]++;
+                }
+            }
+        }
+    }
+
+    private int addSlot(long id) {
+        int slot = nextSlot++;
+        if (slot == idBySlot.length) {
+            idBySlot = Arrays.copyOf(idBySlot, slot * 2);
+            for (int facet = 0; facet < FACETS.length; facet++) {
+                ordinalBySlot[facet] = Arrays.copyOf(ordinalBySlot[facet], slot * 2);
+            }
+        }
+        if (slot > 0 && id <= idBySlot[slot - 1]) {
+            slotsInIdOrder = false;
+        }
+        idBySlot[slot] = id;
+        slotById.put(id, slot);
+        live.set(slot);
+        return slot;
+    }
+
+    private void removeLocked(Long id) {
+        Integer slot = slotById.remove(id);
+        if (slot != null) {
+            live.clear(slot);
+            removeValues(slot);
+        }
+    }
+
+    private void removeValues(int slot) {
+        for (int facet = 0; facet < FACETS.length; facet++) {
+            int ordinal = ordinalBySlot[facet][slot];
+            if (ordinal != NO_VALUE) {
+                values[facet].remove(ordinal, slot);
+                ordinalBySlot[facet][slot] = NO_VALUE;
+            }
+        }
+    }
+
+    // Hodnoty jedného atribútu - ordinal 0 je vyhradený pre sloty bez hodnoty. Ordinal hodnoty, ktorú už nemá
+    // žiadne vozidlo, sa uvoľní na opätovné použitie.
+    private static final class FacetValues {
+
+        private final Map<String, Integer> ordinalByKey = new HashMap<>();
+        private final ArrayDeque<Integer> freeOrdinals = new ArrayDeque<>();
+        private String[] keys = new String[16];
+        private String[] labels = new String[16];
+        private BitSet[] slots = new BitSet[16];
+        private long[] liveCounts = new long[16];
+        private int nextOrdinal = NO_VALUE + 1;
+
+        int add(String key, String label, int slot) {
+            Integer ordinal = ordinalByKey.get(key);
+            if (ordinal == null) {
+                ordinal = freeOrdinals.isEmpty() ? nextOrdinal++ : freeOrdinals.pop();
+                if (ordinal == keys.length) {
+                    keys = Arrays.copyOf(keys, ordinal * 2);
+                    labels = Arrays.copyOf(labels, ordinal * 2);
+                    slots = Arrays.copyOf(slots, ordinal * 2);
+                    liveCounts = Arrays.copyOf(liveCounts, ordinal * 2);
+                }
+                ordinalByKey.put(key, ordinal);
+                keys[ordinal] = key;
+                labels[ordinal] = label;
+                slots[ordinal] = new BitSet();
+            }
+            slots[ordinal].set(slot);
+            liveCounts[ordinal]++;
+            return ordinal;
+        }
+
+        void remove(int ordinal, int slot) {
+            slots[ordinal].clear(slot);
+            if (--liveCounts[ordinal] == 0) {
+                ordinalByKey.remove(keys[ordinal]);
+                keys[ordinal] = null;
+                labels[ordinal] = null;
+                slots[ordinal] = null;
+                freeOrdinals.push(ordinal);
+            }
+        }
+
+        BitSet slots(String key) {
+            Integer ordinal = ordinalByKey.get(key);
+            return ordinal != null ? slots[ordinal] : null;
+        }
+
+        int capacity() {
+            return nextOrdinal;
+        }
+
+        void copyLiveCounts(long[] counts) {
+            System.arraycopy(liveCounts, 0, counts, 0, nextOrdinal);
+        }
+
+        // Počty podľa hodnôt - od najčastejšej, hodnoty bez vozidla sa vynechajú
+        Map<String, Long> toMap(long[] counts) {
+            List<Map.Entry<String, Long>> entries = new ArrayList<>();
+            for (int ordinal = NO_VALUE + 1; ordinal < nextOrdinal; ordinal++) {
+                if (labels[ordinal] != null && counts[ordinal] > 0) {
+                    entries.add(Map.entry(labels[ordinal], counts[ordinal]));
+                }
+            }
+            entries.sort(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                    .thenComparing(Map.Entry.comparingByKey()));
+            Map<String, Long> result = new LinkedHashMap<>();
+            entries.forEach(entry -> result.put(entry.getKey(), entry.getValue()));
+            return result;
+        }
+    }
+
+    // Pracovné BitSety a počítadlá jedného vlákna. BitSety si po prvom dotaze ponechajú veľkosť indexu.
+    private static final class Scratch {
+
+        private final BitSet matching = new BitSet();
+        private final BitSet except = new BitSet();
+        private final BitSet[] selected = new BitSet[FACETS.length];
+        private final long[][] counts = new long[FACETS.length][16];
+
+        Scratch() {
+            for (int facet = 0; facet < FACETS.length; facet++) {
+                selected[facet] = new BitSet();
+            }
+        }
+
+        // Vynulované počítadlá s miestom pre všetky ordinaly atribútov
+        long[][] counts(FacetValues[] values) {
+            for (int facet = 0; facet < FACETS.length; facet++) {
+                int capacity = values[facet].capacity();
+                if (counts[facet].length < capacity) {
+                    counts[facet] = new long[Math.max(capacity, counts[facet].length * 2)];
+                } else {
+                    Arrays.fill(counts[facet], 0, capacity, 0L);
+                }
+            }
+            return counts;
+        }
+    }
+}
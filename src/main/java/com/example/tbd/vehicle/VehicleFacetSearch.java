@@ -0,0 +1,78 @@
+package com.example.tbd.vehicle;
+
+import com.example.tbd.EntitySoftDeletedEvent;
+import com.example.tbd.InMemoryEntityIndex;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+
+// Filtrovanie vozidiel podľa atribútov z VehicleFacet s počtami (/vehicle/facets) z indexu v pamäti
+// (VehicleFacetIndex), ktorý obsahuje iba nevymazané vozidlá. Index sa upraví po commite pri pridaní, importe,
+// /vehicle/update a /vehicle/delupdate/{id} (InMemoryEntityIndex), pri PATCH cez VehiclePatchedEvent
+// a pri hromadnom vymazaní cez EntitySoftDeletedEvent.
+@Service
+public class VehicleFacetSearch extends InMemoryEntityIndex<Vehicle, VehicleFacetIndex> {
+
+    private final VehicleRepository vehicleRepository;
+
+    public VehicleFacetSearch(VehicleRepository vehicleRepository, PlatformTransactionManager transactionManager) {
+        super(Vehicle.class, "atribútov vozidiel", new VehicleFacetIndex(), transactionManager);
+        this.vehicleRepository = vehicleRepository;
+    }
+
+    // Vozidlá vyhovujúce filtrom (AND medzi atribútmi, OR medzi hodnotami), počty hodnôt a najviac limit ID väčších ako afterId
+    VehicleFacetIndex.Result query(Map<VehicleFacet, List<String>> filters, long afterId, int limit) {
+        return index().query(filters, afterId, limit);
+    }
+
+    @TransactionalEventListener
+    public void onPatched(VehiclePatchedEvent event) {
+        vehicleRepository.findById(event.id())
+                .ifPresent(vehicle -> upsert(index(), vehicle));
+    }
+
+    // Hromadné označenie ako vymazané (BulkSoftDelete) - volá sa až po commite
+    @TransactionalEventListener
+    public void onSoftDeleted(EntitySoftDeletedEvent event) {
+        if (event.entityType() == Vehicle.class) {
+            event.ids().forEach(id -> index().remove(((Number) id).longValue()));
+        }
+    }
+
+    @Override
+    @Scheduled(initialDelayString = "${vehicle.facet-index.reload-interval:10m}",
+            fixedDelayString = "${vehicle.facet-index.reload-interval:10m}")
+    public void reload() {
+        super.reload();
+    }
+
+    @Override
+    protected VehicleFacetIndex load() {
+        return new VehicleFacetIndex(vehicleRepository.findAllFacetFields());
+    }
+
+    @Override
+    protected int size(VehicleFacetIndex index) {
+        return index.size();
+    }
+
+    // Vozidlo označené ako vymazané (/vehicle/delupdate/{id}) sa z indexu odstráni
+    @Override
+    protected void upsert(VehicleFacetIndex index, Vehicle vehicle) {
+        if ("N".equals(vehicle.getDeleted())) {
+            index.put(new VehicleFacetFields(vehicle.getId(), vehicle.getBrand(), vehicle.getModel(), vehicle.getFuel(),
+                    vehicle.getColor(), vehicle.getTransmissionType(), vehicle.getTireSize()));
+        } else {
+            index.remove(vehicle.getId());
+        }
+    }
+
+    @Override
+    protected void remove(VehicleFacetIndex index, Vehicle vehicle) {
+        index.remove(vehicle.getId());
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.tbd.vehicle;
+
+import com.example.tbd.CursorPage;
+
+import java.util.Map;
+
+// Odpoveď /vehicle/facets - počet vyhovujúcich vozidiel, počty podľa hodnôt každého atribútu
+// (napr. facets.fuel = {"Diesel": 12, "Benzín": 3}) a stránka vyhovujúcich vozidiel zoradených podľa ID
+public record VehicleFacetsDTO(long total, Map<String, Map<String, Long>> facets, CursorPage<VehicleDTO> vehicles) {
+}
@@ -0,0 +1,9 @@
+package com.example.tbd.vehicle;
+
+// Import vozidiel nie je možné spracovať ako celok (prázdny, príliš veľký alebo nečitateľný súbor) - API vráti 400 Bad Request
+public class VehicleImportException extends RuntimeException {
+
+    public VehicleImportException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.tbd.vehicle;
+
+import java.util.List;
+
+// Odpoveď /vehicle/import - počet pridaných vozidiel a chyby jednotlivých riadkov (riadky sa číslujú od 1)
+public class VehicleImportResultDTO {
+
+    private int imported; // Počet pridaných vozidiel
+    private int rejected; // Počet odmietnutých riadkov
+    private List<RowError> errors;
+
+    public VehicleImportResultDTO(int imported, List<RowError> errors) {
+        this.imported = imported;
+        this.rejected = errors.size();
+        this.errors = errors;
+    }
+
+    public int getImported() {
+        return imported;
+    }
+
+    public void setImported(int imported) {
+        this.imported = imported;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(int rejected) {
+        this.rejected = rejected;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<RowError> errors) {
+        this.errors = errors;
+    }
+
+    // Chyba jedného riadku - rovnaké správy ako vracia /vehicle/add
+    public static class RowError {
+
+        private int row;
+        private String message;
+
+        public RowError(int row, String message) {
+            this.row = row;
+            this.message = message;
+        }
+
+        public int getRow() {
+            return row;
+        }
+
+        public void setRow(int row) {
+            this.row = row;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.tbd.vehicle;
+
+// Jeden riadok importu - načítané vozidlo, alebo chyba, ak riadok nebolo možné prečítať (napr. text v číselnom stĺpci)
+record VehicleImportRow(Vehicle vehicle, String error) {
+
+    static VehicleImportRow of(Vehicle vehicle) {
+        return new VehicleImportRow(vehicle, null);
+    }
+
+    static VehicleImportRow rejected(String error) {
+        return new VehicleImportRow(null, error);
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.tbd.vehicle;
+
+import com.example.tbd.customer.CustomerRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+// Hromadný import vozidiel. Celá dávka sa overí v pamäti, duplicity a zákazníci sa kontrolujú niekoľkými
+// dotazmi s IN namiesto troch dotazov na každé vozidlo a platné riadky sa vložia v JDBC dávkach
+// (ID z id_generator po blokoch, hibernate.jdbc.batch_size). Neplatné riadky sa preskočia a vrátia s chybou.
+@Service
+public class VehicleImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VehicleImportService.class);
+
+    private static final int IN_CHUNK_SIZE = 1_000; // Najviac hodnôt v jednom IN (...)
+
+    private final VehicleRepository vehicleRepository;
+    private final CustomerRepository customerRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int maxRows;
+
+    public VehicleImportService(VehicleRepository vehicleRepository,
+                                CustomerRepository customerRepository,
+                                EntityManager entityManager,
+                                PlatformTransactionManager transactionManager,
+                                ObjectMapper objectMapper,
+                                @Value("${vehicle.import.max-rows:10000}") int maxRows) {
+        this.vehicleRepository = vehicleRepository;
+        this.customerRepository = customerRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.maxRows = maxRows;
+    }
+
+    // Import z JSON poľa (formát ako /vehicle/add, viď VehicleJsonReader)
+    public VehicleImportResultDTO importJson(InputStream input) throws IOException {
+        return importRows(VehicleJsonReader.read(input, objectMapper, maxRows));
+    }
+
+    // Import z CSV (formát popisuje VehicleCsvReader)
+    public VehicleImportResultDTO importCsv(Reader reader) throws IOException {
+        return importRows(VehicleCsvReader.read(reader, maxRows));
+    }
+
+    private VehicleImportResultDTO importRows(List<VehicleImportRow> rows) {
+        if (rows.isEmpty()) {
+            throw new VehicleImportException("Import neobsahuje žiadne vozidlá.");
+        }
+        String[] errors = new String[rows.size()];
+
+        // 1. Kontroly jednotlivých riadkov v pamäti (rovnaké ako /vehicle/add)
+        for (int i = 0; i < rows.size(); i++) {
+            VehicleImportRow row = rows.get(i);
+            errors[i] = row.error();
+            if (errors[i] == null) {
+                errors[i] = VehicleValidation.checkRequired(row.vehicle());
+            }
+            if (errors[i] == null) {
+                errors[i] = VehicleValidation.checkFormat(row.vehicle());
+            }
+        }
+
+        // 2. Duplicity v rámci importu - platí prvý výskyt. MySQL porovnáva reťazce bez ohľadu
+        //    na veľkosť písmen, preto sa porovnávajú aj tu (inak by INSERT zlyhal na unikátnom indexe).
+        Map<String, Integer> vinRows = new HashMap<>();
+        Map<String, Integer> plateRows = new HashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            if (errors[i] != null) {
+                continue;
+            }
+            Vehicle vehicle = rows.get(i).vehicle();
+            Integer firstVin = vinRows.putIfAbsent(key(vehicle.getVin()), i);
+            Integer firstPlate = plateRows.putIfAbsent(key(vehicle.getPlateNo()), i);
+            if (firstVin != null) {
+                errors[i] = "VIN sa v importe opakuje (riadok " + (firstVin + 1) + ").";
+            } else if (firstPlate != null) {
+                errors[i] = "SPZ sa v importe opakuje (riadok " + (firstPlate + 1) + ").";
+            }
+        }
+
+        return transactionTemplate.execute(status -> {
+            // 3. Kontroly voči databáze - jeden dotaz na najviac IN_CHUNK_SIZE hodnôt
+            Set<Long> customerIds = new HashSet<>();
+            List<String> plateNos = new ArrayList<>();
+            List<String> vins = new ArrayList<>();
+            for (int i = 0; i < rows.size(); i++) {
+                if (errors[i] == null) {
+                    Vehicle vehicle = rows.get(i).vehicle();
+                    customerIds.add(vehicle.getCustomerId());
+                    plateNos.add(vehicle.getPlateNo());
+                    vins.add(vehicle.getVin());
+                }
+            }
+            Set<Long> existingCustomers = new HashSet<>(queryInChunks(customerIds, customerRepository::findExistingIds));
+            Set<String> existingPlates = keys(queryInChunks(plateNos, vehicleRepository::findExistingPlateNos));
+            Set<String> existingVins = keys(queryInChunks(vins, vehicleRepository::findExistingVins));
+
+            List<Vehicle> newVehicles = new ArrayList<>();
+            for (int i = 0; i < rows.size(); i++) {
+                if (errors[i] != null) {
+                    continue;
+                }
+                Vehicle vehicle = rows.get(i).vehicle();
+                if (!existingCustomers.contains(vehicle.getCustomerId())) {
+                    errors[i] = "Zákazník s poskytnutým ID neexistuje.";
+                } else if (existingPlates.contains(key(vehicle.getPlateNo()))) {
+                    errors[i] = "Vozidlo so zadanou SPZ už existuje.";
+                } else if (existingVins.contains(key(vehicle.getVin()))) {
+                    errors[i] = "Vozidlo so zadaným VIN už existuje.";
+                } else {
+                    newVehicles.add(newVehicle(vehicle));
+                }
+            }
+
+            // 4. Vloženie po dávkach - po každej dávke sa persistence context vyprázdni, aby nerástol s veľkosťou importu
+            for (int from = 0; from < newVehicles.size(); from += Vehicle.ID_ALLOCATION_SIZE) {
+                vehicleRepository.saveAll(newVehicles.subList(from, Math.min(from + Vehicle.ID_ALLOCATION_SIZE, newVehicles.size())));
+                vehicleRepository.flush();
+                entityManager.clear();
+            }
+
+            List<VehicleImportResultDTO.RowError> rowErrors = new ArrayList<>();
+            for (int i = 0; i < errors.length; i++) {
+                if (errors[i] != null) {
+                    rowErrors.add(new VehicleImportResultDTO.RowError(i + 1, errors[i]));
+                }
+            }
+            logger.info("Import vozidiel: {} pridaných, {} odmietnutých.", newVehicles.size(), rowErrors.size());
+            return new VehicleImportResultDTO(newVehicles.size(), rowErrors);
+        });
+    }
+
+    private static Vehicle newVehicle(Vehicle vehicle) {
+        Vehicle newVehicle = new Vehicle();
+        newVehicle.setCustomerId(vehicle.getCustomerId());
+        newVehicle.setBrand(vehicle.getBrand());
+        newVehicle.setModel(vehicle.getModel());
+        newVehicle.setRegisteredAt(vehicle.getRegisteredAt());
+        newVehicle.setVin(vehicle.getVin());
+        newVehicle.setPlateNo(vehicle.getPlateNo());
+        newVehicle.setFuel(vehicle.getFuel());
+        newVehicle.setColor(vehicle.getColor());
+        newVehicle.setMileage(vehicle.getMileage());
+        newVehicle.setTireSize(vehicle.getTireSize());
+        newVehicle.setLastServiced(vehicle.getLastServiced());
+        newVehicle.setTransmissionType(vehicle.getTransmissionType());
+        newVehicle.setDeleted("N");
+        newVehicle.setCreatedAt(LocalDateTime.now());
+        return newVehicle;
+    }
+
+    private static <T, R> List<R> queryInChunks(Collection<T> values, Function<Collection<T>, List<R>> query) {
+        List<T> list = new ArrayList<>(values);
+        List<R> result = new ArrayList<>();
+        for (int from = 0; from < list.size(); from += IN_CHUNK_SIZE) {
+            result.addAll(query.apply(list.subList(from, Math.min(from + IN_CHUNK_SIZE, list.size()))));
+        }
+        return result;
+    }
+
+    private static String key(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> keys(List<String> values) {
+        Set<String> keys = new HashSet<>();
+        for (String value : values) {
+            keys.add(key(value));
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.tbd.vehicle;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.exc.StreamReadException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+// Čítanie JSON poľa pre /vehicle/import po jednom prvku cez JsonParser - pole sa nedeserializuje celé naraz.
+// Prvok, z ktorého sa nedá zostaviť vozidlo, sa odmietne samostatne ako riadok CSV.
+final class VehicleJsonReader {
+
+    private VehicleJsonReader() {
+    }
+
+    // Najviac maxRows prvkov - väčšie pole sa odmietne bez načítania zvyšku do pamäte
+    static List<VehicleImportRow> read(InputStream input, ObjectMapper objectMapper, int maxRows) throws IOException {
+        try (JsonParser parser = objectMapper.createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new VehicleImportException("Import musí byť JSON pole vozidiel.");
+            }
+            List<VehicleImportRow> rows = new ArrayList<>();
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    throw new VehicleImportException("JSON pole vozidiel nie je ukončené.");
+                }
+                if (rows.size() == maxRows) {
+                    throw new VehicleImportException("Import môže obsahovať najviac " + maxRows + " vozidiel.");
+                }
+                rows.add(toRow(parser.readValueAsTree(), objectMapper));
+            }
+            return rows;
+        } catch (StreamReadException e) {
+            throw new VehicleImportException("Neplatný JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private static VehicleImportRow toRow(JsonNode element, ObjectMapper objectMapper) {
+        if (element == null || !element.isObject()) {
+            return VehicleImportRow.rejected("Neplatné údaje pre vozidlo!");
+        }
+        try {
+            return VehicleImportRow.of(objectMapper.treeToValue(element, Vehicle.class));
+        } catch (JsonProcessingException e) {
+            return VehicleImportRow.rejected("Neplatné údaje pre vozidlo!");
+        }
+    }
+}
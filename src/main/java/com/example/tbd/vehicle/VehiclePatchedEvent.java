@@ -0,0 +1,5 @@
+package com.example.tbd.vehicle;
+
+// Zmena atribútov z VehicleFacet cez PATCH (hromadný UPDATE bez Hibernate udalostí) - VehicleFacetSearch ju spracuje po commite
+public record VehiclePatchedEvent(Long id) {
+}
@@ -1,25 +1,109 @@
 package com.example.tbd.vehicle;
 
+import com.example.tbd.NdjsonExporter;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface VehicleRepository extends JpaRepository<Vehicle, Integer> {
+    // Projekcia do VehicleDTO - SELECT iba stĺpcov z DTO. Výsledok nie je entita, takže sa neregistruje
+    // v persistence contexte a pri commite sa nekontroluje (dirty checking). @SQLRestriction platí aj tu.
+    String VEHICLE_DTO = "SELECT new com.example.tbd.vehicle.VehicleDTO(v.id, v.brand, v.model, v.registeredAt, v.vin, "
+            + "v.plateNo, v.fuel, v.color, v.mileage, v.transmissionType, v.tireSize, v.lastServiced, v.deleted, "
+            + "v.createdAt, v.version) FROM Vehicle v";
+    @Query(VEHICLE_DTO)
+    List<VehicleDTO> findAllDTO();
+    @Query(VEHICLE_DTO + " WHERE v.id > :afterId ORDER BY v.id")
+    List<VehicleDTO> findDTOPage(@Param("afterId") Long afterId, Limit limit); // Stránkovanie podľa kľúča (keyset)
+    @Query(VEHICLE_DTO + " WHERE v.id = :id")
+    Optional<VehicleDTO> findDTOById(@Param("id") Long id);
+    @Query(VEHICLE_DTO + " WHERE v.id IN :ids ORDER BY v.id")
+    List<VehicleDTO> findDTOByIds(@Param("ids") Collection<Long> ids); // Výsledky /vehicle/facets podľa ID z indexu
+    // Atribúty aktívnych vozidiel pre index v pamäti (VehicleFacetSearch)
+    @Query("SELECT new com.example.tbd.vehicle.VehicleFacetFields(v.id, v.brand, v.model, v.fuel, v.color, "
+            + "v.transmissionType, v.tireSize) FROM Vehicle v")
+    @Transactional(readOnly = true)
+    List<VehicleFacetFields> findAllFacetFields();
+    @Query(VEHICLE_DTO + " WHERE v.vin = :vin")
+    Optional<VehicleDTO> findDTOByVin(@Param("vin") String vin);
+    @Query(VEHICLE_DTO + " WHERE v.customerId = :customerId")
+    List<VehicleDTO> findDTOByCustomerId(@Param("customerId") Long customerId);
+    @Query("SELECT v.customerId FROM Vehicle v WHERE v.id = :id")
+    Optional<Long> findCustomerIdById(@Param("id") Long id); // Vlastník vozidla pre kontrolu pri PATCH
+    // Vozidlá s posledným servisom pred dátumom before, zoradené podľa (lastServiced, id) a stránkované podľa
+    // tejto dvojice (prvá stránka: afterDate = null). Indexy idx_vehicle_deleted_last_serviced
+    // a idx_vehicle_customer_deleted_last_serviced (V10). Vozidlá bez záznamu o servise sa nevracajú.
+    String SERVICE_DUE = " v.lastServiced < :before AND (:afterDate IS NULL OR v.lastServiced > :afterDate"
+            + " OR (v.lastServiced = :afterDate AND v.id > :afterId)) ORDER BY v.lastServiced, v.id";
+    @Query(VEHICLE_DTO + " WHERE" + SERVICE_DUE)
+    List<VehicleDTO> findDTODueForService(@Param("before") LocalDate before, @Param("afterDate") LocalDate afterDate,
+                                          @Param("afterId") Long afterId, Limit limit);
+    @Query(VEHICLE_DTO + " WHERE v.customerId = :customerId AND" + SERVICE_DUE)
+    List<VehicleDTO> findDTODueForServiceByCustomerId(@Param("customerId") Long customerId, @Param("before") LocalDate before,
+                                                      @Param("afterDate") LocalDate afterDate, @Param("afterId") Long afterId,
+                                                      Limit limit);
     List<Vehicle> findAll(); // Find all vehicles
     Optional<Vehicle> findById(Long id); // Find vehicle by ID
     Optional<Vehicle> findByVin(String vin);   // Find vehicle by VIN
     Optional<Vehicle> findByPlateNo(String plateNo);
     List<Vehicle> findByCustomerId(Long customerId); // Find vehicles by customer ID
-    boolean existsByPlateNo(String plateNo);
-    boolean existsByVin(String vin);
-    List<Vehicle> findByCustomerIdAndDeleted(Long customerId, String deleted);
-    boolean existsByPlateNoAndDeleted(String plateNo, String deleted);
+    // SPZ a VIN sú v databáze unikátne aj medzi vymazanými vozidlami, preto kontrola duplicity
+    // ide natívnym dotazom, ktorý @SQLRestriction na entite neobmedzuje
+    @Query(value = "SELECT COUNT(*) FROM vehicle WHERE plate_no = :plateNo", nativeQuery = true)
+    long countByPlateNoIncludingDeleted(@Param("plateNo") String plateNo);
+    @Query(value = "SELECT COUNT(*) FROM vehicle WHERE vin = :vin", nativeQuery = true)
+    long countByVinIncludingDeleted(@Param("vin") String vin);
+    // Hromadná kontrola duplicity pre import - vráti tie zo zadaných hodnôt, ktoré už v tabuľke sú
+    @Query(value = "SELECT plate_no FROM vehicle WHERE plate_no IN (:plateNos)", nativeQuery = true)
+    List<String> findExistingPlateNos(@Param("plateNos") Collection<String> plateNos);
+    @Query(value = "SELECT vin FROM vehicle WHERE vin IN (:vins)", nativeQuery = true)
+    List<String> findExistingVins(@Param("vins") Collection<String> vins);
+    default boolean existsByPlateNo(String plateNo) {
+        return countByPlateNoIncludingDeleted(plateNo) > 0;
+    }
+    default boolean existsByVin(String vin) {
+        return countByVinIncludingDeleted(vin) > 0;
+    }
     @Query(value = "SELECT COUNT(*) FROM vehicle WHERE deleted = 'N'", nativeQuery = true)
     long countVehicles();
+    // Celá tabuľka cez databázový kurzor pre NDJSON export - volať v transakcii a Stream zatvoriť
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = NdjsonExporter.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT v FROM Vehicle v ORDER BY v.id")
+    Stream<Vehicle> streamAll();
+    // Administrácia - stránka vozidiel vrátane vymazaných (natívny dotaz obchádza @SQLRestriction)
+    @Query(value = "SELECT * FROM vehicle WHERE id > :afterId ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<Vehicle> findPageIncludingDeleted(@Param("afterId") Long afterId, @Param("limit") int limit);
+    // Hromadné mazanie (BulkSoftDelete) - ID nevymazaných vozidiel so zámkom a jeden UPDATE bez načítania entít
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT v.id FROM Vehicle v WHERE v.id IN :ids")
+    List<Long> lockActiveIds(@Param("ids") Collection<Long> ids);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT v.id FROM Vehicle v WHERE v.id IN :ids AND v.customerId = :customerId")
+    List<Long> lockActiveIdsOwnedBy(@Param("ids") Collection<Long> ids, @Param("customerId") Long customerId);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT v.id FROM Vehicle v WHERE v.customerId = :customerId")
+    List<Long> lockActiveIdsByCustomerId(@Param("customerId") Long customerId);
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Vehicle v SET v.deleted = 'Y', v.version = v.version + 1 WHERE v.id IN :ids")
+    int markDeleted(@Param("ids") Collection<Long> ids);
 
 }
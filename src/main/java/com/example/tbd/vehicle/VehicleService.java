@@ -1,48 +1,268 @@
 package com.example.tbd.vehicle;
 
+import com.example.tbd.BulkSoftDelete;
+import com.example.tbd.CursorPage;
+import com.example.tbd.EntityCounters;
+import com.example.tbd.InvalidPageRequestException;
+import com.example.tbd.MergePatch;
+import com.example.tbd.NdjsonExporter;
+import com.example.tbd.SoftDeleteResultDTO;
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 
 @Service
 public class VehicleService {
 
+    // Polia, ktoré je možné meniť cez PATCH /vehicle/{id} (názvy ako v tele /vehicle/add).
+    // Stĺpec deleted sa nemení - na to slúži /vehicle/delupdate/{id}. Vlastník (customerId) sa mení iba cez /vehicle/update.
+    private static final MergePatch<Vehicle> PATCH = new MergePatch<>(Vehicle.class)
+            .required("brand", "brand", MergePatch.text(), MergePatch.nonEmpty("brand", 255))
+            .required("model", "model", MergePatch.text(), MergePatch.nonEmpty("model", 255))
+            .required("registeredAt", "registeredAt", MergePatch.date("yyyy-MM-dd"), null)
+            .required("vin", "vin", MergePatch.text(), MergePatch.nonEmpty("vin", 17))
+            .required("plate_no", "plateNo", MergePatch.text(), MergePatch.nonEmpty("plate_no", 255))
+            .optional("fuel", "fuel", MergePatch.text(), MergePatch.nonEmpty("fuel", 255))
+            .optional("color", "color", MergePatch.text(), MergePatch.nonEmpty("color", 255))
+            .optional("mileage", "mileage", MergePatch.integer(), km -> km < 0 ? "Najazdené kilometre nemôžu byť záporné!" : null)
+            .optional("transmissionType", "transmissionType", MergePatch.text(), MergePatch.nonEmpty("transmissionType", 255))
+            .optional("tireSize", "tireSize", MergePatch.text(), MergePatch.nonEmpty("tireSize", 15))
+            .optional("lastServiced", "lastServiced", MergePatch.date("yyyy-MM-dd"), null);
+
+    private static final Logger logger = LoggerFactory.getLogger(VehicleService.class);
+
     private final VehicleRepository vehicleRepository;
     private final VehicleMapper vehicleMapper;
+    private final NdjsonExporter ndjsonExporter;
+    private final EntityCounters entityCounters;
+    private final EntityManager entityManager;
+    private final BulkSoftDelete bulkSoftDelete;
+    private final VehicleFacetSearch vehicleFacetSearch;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public VehicleService(VehicleRepository vehicleRepository, VehicleMapper vehicleMapper) {
+    public VehicleService(VehicleRepository vehicleRepository, VehicleMapper vehicleMapper, NdjsonExporter ndjsonExporter,
+                          EntityCounters entityCounters, EntityManager entityManager, BulkSoftDelete bulkSoftDelete,
+                          VehicleFacetSearch vehicleFacetSearch, ApplicationEventPublisher eventPublisher) {
         this.vehicleRepository = vehicleRepository;
         this.vehicleMapper = vehicleMapper;
+        this.ndjsonExporter = ndjsonExporter;
+        this.entityCounters = entityCounters;
+        this.entityManager = entityManager;
+        this.bulkSoftDelete = bulkSoftDelete;
+        this.vehicleFacetSearch = vehicleFacetSearch;
+        this.eventPublisher = eventPublisher;
     }
 
-    // Počet vozidiel
+    // Počet vozidiel (nevymazaných) - udržiavaný v pamäti, bez COUNT(*) v databáze
     public long countVehicles() {
-        return vehicleRepository.countVehicles();
+        return entityCounters.activeVehicles();
     }
 
     // Získanie všetkých vozidiel ako DTO
+    @Transactional(readOnly = true)
     public List<VehicleDTO> getAllVehicles() {
-        List<Vehicle> vehicles = vehicleRepository.findAll(); // Načítanie všetkých vozidiel z databázy
-        return vehicleMapper.toVehicleOutputList(vehicles); // Použitie MapStruct na mapovanie
+        return vehicleRepository.findAllDTO(); // Iba stĺpce z DTO, bez načítania entít
+    }
+
+    // Jedna stránka vozidiel zoradených podľa ID, začína za ID zakódovaným v kurzore
+    @Transactional(readOnly = true)
+    public CursorPage<VehicleDTO> getVehiclePage(String after, Integer limit) {
+        long afterId = CursorPage.decodeCursor(after);
+        int pageSize = CursorPage.resolveLimit(limit);
+        List<VehicleDTO> vehicles = vehicleRepository.findDTOPage(afterId, Limit.of(pageSize + 1));
+        return CursorPage.of(vehicles, pageSize, VehicleDTO::getId, Function.identity());
+    }
+
+    // Vozidlá s posledným servisom starším ako months mesiacov (najstarší servis prvý), voliteľne iba jedného zákazníka
+    @Transactional(readOnly = true)
+    public CursorPage<VehicleDTO> getVehiclesDueForService(int months, Long customerId, String after, Integer limit) {
+        CursorPage.SortKeyCursor cursor = CursorPage.decodeSortKeyCursor(after);
+        LocalDate afterDate = cursor != null ? parseCursorDate(cursor.sortKey()) : null;
+        long afterId = cursor != null ? cursor.lastId() : 0L;
+        int pageSize = CursorPage.resolveLimit(limit);
+        LocalDate before = LocalDate.now().minusMonths(months);
+        List<VehicleDTO> vehicles = customerId == null
+                ? vehicleRepository.findDTODueForService(before, afterDate, afterId, Limit.of(pageSize + 1))
+                : vehicleRepository.findDTODueForServiceByCustomerId(customerId, before, afterDate, afterId, Limit.of(pageSize + 1));
+        return CursorPage.of(vehicles, pageSize, VehicleDTO::getLastServiced, VehicleDTO::getId, Function.identity());
+    }
+
+    // Filtrovanie podľa atribútov s počtami z indexu v pamäti - z databázy sa načítajú iba vozidlá na stránke
+    @Transactional(readOnly = true)
+    public VehicleFacetsDTO getVehicleFacets(Map<VehicleFacet, List<String>> filters, String after, Integer limit) {
+        long afterId = CursorPage.decodeCursor(after);
+        int pageSize = CursorPage.resolveLimit(limit);
+        VehicleFacetIndex.Result result = vehicleFacetSearch.query(filters, afterId, pageSize + 1);
+        List<VehicleDTO> vehicles = result.ids().isEmpty() ? List.of() : vehicleRepository.findDTOByIds(result.ids());
+        return new VehicleFacetsDTO(result.total(), result.facets(),
+                CursorPage.of(vehicles, pageSize, VehicleDTO::getId, Function.identity()));
+    }
+
+    private static LocalDate parseCursorDate(String value) {
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new InvalidPageRequestException("Neplatný kurzor stránkovania.");
+        }
+    }
+
+    // Administrácia - stránka vozidiel vrátane vymazaných
+    @Transactional(readOnly = true)
+    public CursorPage<Vehicle> getVehiclePageIncludingDeleted(String after, Integer limit) {
+        long afterId = CursorPage.decodeCursor(after);
+        int pageSize = CursorPage.resolveLimit(limit);
+        List<Vehicle> vehicles = vehicleRepository.findPageIncludingDeleted(afterId, pageSize + 1);
+        return CursorPage.of(vehicles, pageSize, Vehicle::getId, Function.identity());
+    }
+
+    // Export všetkých vozidiel ako NDJSON - riadky sa zapisujú priamo do odpovede
+    public StreamingResponseBody exportVehicles() {
+        return ndjsonExporter.export("vozidiel", vehicleRepository::streamAll, vehicleMapper::toVehicleOutput);
     }
 
     // Získanie vozidla podľa ID ako DTO
+    @Transactional(readOnly = true)
     public Optional<VehicleDTO> findById(Long id) {
-        return vehicleRepository.findById(id)
-                .map(vehicleMapper::toVehicleOutput); // Transformácia entity na DTO pomocou MapStruct
+        return vehicleRepository.findDTOById(id);
     }
 
+    @Transactional(readOnly = true)
     public Optional<VehicleDTO> findByVin(String vin) {
-        return vehicleRepository.findByVin(vin)
-                .map(vehicleMapper::toVehicleOutput); // Transformácia entity na DTO pomocou MapStruct
+        return vehicleRepository.findDTOByVin(vin);
     }
 
+    @Transactional(readOnly = true)
     public List<VehicleDTO> findByCustomerId(Long customerId) {
-        List<Vehicle> vehicles = vehicleRepository.findByCustomerIdAndDeleted(customerId, "N"); // Načítanie aktívnych vozidiel
-        return vehicleMapper.toVehicleOutputList(vehicles); // Transformácia entít na DTO pomocou MapStruct
+        return vehicleRepository.findDTOByCustomerId(customerId); // Aktívne vozidlá (@SQLRestriction)
+    }
+
+    // Zmena vozidla cez PUT /vehicle/update. Načítanie aj zápis bežia v jednej zapisovacej transakcii na primárnej
+    // databáze - findById mimo nej by zdedil readOnly, čítal z repliky a uložil by zastarané hodnoty.
+    // Vráti chybovú správu pre odpoveď 400 alebo null, ak bolo vozidlo uložené.
+    @Transactional
+    public String updateVehicle(Vehicle updatedVehicle) {
+        Optional<Vehicle> existingVehicleOptional = vehicleRepository.findById(updatedVehicle.getId());
+        if (existingVehicleOptional.isEmpty()) {
+            logger.warn("Vozidlo s ID {} neexistuje.", updatedVehicle.getId());
+            return "Vozidlo s poskytnutým ID neexistuje.";
+        }
+        Vehicle existingVehicle = existingVehicleOptional.get();
+
+        // Kontroly duplicity pred prvou zmenou - spravované vozidlo by sa pri commite uložilo aj po vrátení chyby
+        String vin = updatedVehicle.getVin();
+        if (vin != null && !vin.isEmpty() && !existingVehicle.getVin().equals(vin) && vehicleRepository.existsByVin(vin)) {
+            return "Vozidlo s poskytnutým VIN už existuje.";
+        }
+        String plateNo = updatedVehicle.getPlateNo();
+        if (plateNo != null && !plateNo.isEmpty() && !existingVehicle.getPlateNo().equals(plateNo)
+                && vehicleRepository.existsByPlateNo(plateNo)) {
+            return "Vozidlo so zadanou SPZ už existuje.";
+        }
+
+        // Aktualizácia povinných hodnôt
+        if (updatedVehicle.getCustomerId() != null) {
+            existingVehicle.setCustomerId(updatedVehicle.getCustomerId());
+        }
+        if (updatedVehicle.getBrand() != null && !updatedVehicle.getBrand().isEmpty()) {
+            existingVehicle.setBrand(updatedVehicle.getBrand());
+        }
+        if (updatedVehicle.getModel() != null && !updatedVehicle.getModel().isEmpty()) {
+            existingVehicle.setModel(updatedVehicle.getModel());
+        }
+        if (updatedVehicle.getRegisteredAt() != null) {
+            existingVehicle.setRegisteredAt(updatedVehicle.getRegisteredAt()); // Formát overil VehicleDateDeserializer
+        }
+        if (vin != null && !vin.isEmpty()) {
+            existingVehicle.setVin(vin);
+        }
+        if (plateNo != null && !plateNo.isEmpty()) {
+            existingVehicle.setPlateNo(plateNo);
+        }
+
+        // Aktualizácia voliteľných hodnôt
+        if (updatedVehicle.getFuel() != null) {
+            existingVehicle.setFuel(updatedVehicle.getFuel());
+        }
+        if (updatedVehicle.getColor() != null) {
+            existingVehicle.setColor(updatedVehicle.getColor());
+        }
+        if (updatedVehicle.getMileage() != null) {
+            existingVehicle.setMileage(updatedVehicle.getMileage());
+        }
+        if (updatedVehicle.getTireSize() != null) {
+            existingVehicle.setTireSize(updatedVehicle.getTireSize());
+        }
+        if (updatedVehicle.getLastServiced() != null) {
+            existingVehicle.setLastServiced(updatedVehicle.getLastServiced());
+        }
+        if (updatedVehicle.getTransmissionType() != null) {
+            existingVehicle.setTransmissionType(updatedVehicle.getTransmissionType());
+        }
+
+        // Flush ešte v metóde - porušenie cudzieho kľúča alebo súbežná zmena sa prejaví výnimkou pre volajúceho
+        vehicleRepository.saveAndFlush(existingVehicle);
+        logger.info("Vozidlo s ID {} úspešne aktualizované.", existingVehicle.getId());
+        return null;
+    }
+
+    // Označenie jedného vozidla ako vymazaného - načítanie aj zápis v jednej transakcii na primárnej databáze.
+    // Vráti false, ak vozidlo neexistuje.
+    @Transactional
+    public boolean softDeleteVehicle(Long id) {
+        Optional<Vehicle> existingVehicleOptional = vehicleRepository.findById(id);
+        if (existingVehicleOptional.isEmpty()) {
+            logger.warn("Vozidlo s ID {} neexistuje.", id);
+            return false;
+        }
+        existingVehicleOptional.get().setDeleted("Y");
+        vehicleRepository.flush();
+        logger.info("Vozidlo s ID {} bolo označené ako vymazané.", id);
+        return true;
     }
 
+    // Hromadné označenie vozidiel ako vymazaných - podľa zoznamu ID alebo všetky vozidlá zákazníka.
+    // ownerId = null (správca) bez obmedzenia, inak sa zo zoznamu ID označia iba vozidlá zákazníka ownerId.
+    @Transactional
+    public SoftDeleteResultDTO softDeleteVehicles(VehicleBulkDeleteRequest request, Long ownerId) {
+        if (request.getIds() != null) {
+            Function<Collection<Long>, List<Long>> lockActiveIds = ownerId == null
+                    ? vehicleRepository::lockActiveIds
+                    : ids -> vehicleRepository.lockActiveIdsOwnedBy(ids, ownerId);
+            return bulkSoftDelete.byIds(Vehicle.class, request.getIds(), lockActiveIds, vehicleRepository::markDeleted);
+        }
+        return bulkSoftDelete.byScope(Vehicle.class,
+                () -> vehicleRepository.lockActiveIdsByCustomerId(request.getCustomerId()), vehicleRepository::markDeleted);
+    }
+
+    // JSON Merge Patch - jeden UPDATE iba so zmenenými stĺpcami, bez načítania vozidla
+    @Transactional
+    public MergePatch.Result patchVehicle(Long id, JsonNode patch, Long expectedVersion) {
+        MergePatch.Result result = PATCH.apply(entityManager, id, patch, expectedVersion);
+        if (result.outcome() == MergePatch.Outcome.UPDATED) {
+            for (VehicleFacet facet : VehicleFacet.values()) {
+                if (patch.has(facet.parameter())) {
+                    // Hromadný UPDATE nevyvolá Hibernate listenery - index atribútov sa upraví po commite cez udalosť
+                    eventPublisher.publishEvent(new VehiclePatchedEvent(id));
+                    break;
+                }
+            }
+        }
+        return result;
+    }
 }
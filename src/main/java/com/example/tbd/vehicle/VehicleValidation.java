@@ -0,0 +1,47 @@
+package com.example.tbd.vehicle;
+
+// Kontroly údajov nového vozidla spoločné pre /vehicle/add a /vehicle/import.
+// Metódy vracajú chybovú správu pre klienta, alebo null, ak sú údaje v poriadku.
+// Formát dátumov kontroluje už VehicleDateDeserializer (JSON) a VehicleCsvReader (CSV).
+final class VehicleValidation {
+
+    private VehicleValidation() {
+    }
+
+    // Povinné údaje
+    static String checkRequired(Vehicle vehicle) {
+        if (vehicle.getCustomerId() == null || vehicle.getCustomerId() <= 0 ||
+                isEmpty(vehicle.getBrand()) ||
+                isEmpty(vehicle.getModel()) ||
+                vehicle.getRegisteredAt() == null ||
+                isEmpty(vehicle.getVin()) ||
+                isEmpty(vehicle.getPlateNo())) {
+            return "Neplatné údaje pre vozidlo!";
+        }
+        return null;
+    }
+
+    // Voliteľné údaje
+    static String checkFormat(Vehicle vehicle) {
+        if (vehicle.getFuel() != null && vehicle.getFuel().isEmpty()) {
+            return "Typ paliva nemôže byť prázdny, ak je uvedený!";
+        }
+        if (vehicle.getColor() != null && vehicle.getColor().isEmpty()) {
+            return "Farba nemôže byť prázdna, ak je uvedená!";
+        }
+        if (vehicle.getMileage() != null && vehicle.getMileage() < 0) {
+            return "Najazdené kilometre nemôžu byť záporné!";
+        }
+        if (vehicle.getTireSize() != null && vehicle.getTireSize().isEmpty()) {
+            return "Rozmer pneumatík nemôže byť prázdny, ak je uvedený!";
+        }
+        if (vehicle.getTransmissionType() != null && vehicle.getTransmissionType().isEmpty()) {
+            return "Typ prevodovky nemôže byť prázdny, ak je uvedený!";
+        }
+        return null;
+    }
+
+    private static boolean isEmpty(String value) {
+        return value == null || value.isEmpty();
+    }
+}
@@ -0,0 +1,155 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// product.price z VARCHAR(10) na DECIMAL(12,2) a nový stĺpec currency (ISO 4217, predvolene EUR).
+// Cena bola voľný text ("49.90", "49,90 €", "1 200,- Kč"), preto sa hodnoty najprv v Jave prepíšu na tvar
+// 1234.50 (po blokoch podľa ID), mena sa určí zo symbolu alebo kódu v texte a až potom sa zmení typ stĺpca.
+// Cenu, ktorú nie je možné prečítať, migrácia neodhaduje - ešte pred zmenou tabuľky zlyhá so zoznamom ID služieb
+// na ručnú opravu.
+public class V11__product_price_decimal extends BaseJavaMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(V11__product_price_decimal.class);
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final String DEFAULT_CURRENCY = "EUR";
+    private static final BigDecimal MAX_PRICE = new BigDecimal("9999999999.99"); // DECIMAL(12,2)
+    // Pevné poradie, dlhšie symboly skôr - kód meny sa odstráni celý skôr, než by sa hľadal kratší symbol
+    private static final List<Map.Entry<String, String>> CURRENCY_SYMBOLS = List.of(
+            Map.entry("EUR", "EUR"), Map.entry("CZK", "CZK"), Map.entry("USD", "USD"), Map.entry("GBP", "GBP"),
+            Map.entry("KČ", "CZK"), Map.entry("€", "EUR"), Map.entry("$", "USD"), Map.entry("£", "GBP"));
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        // Najprv iba kontrola - ALTER TABLE v MySQL potvrdí transakciu, takže pri chybe nesmie byť nič zmenené
+        List<String> invalid = convertPrices(connection, false);
+        if (!invalid.isEmpty()) {
+            throw new IllegalStateException("Cenu služieb nie je možné previesť na číslo, opravte ich a spustite migráciu znova: "
+                    + String.join(", ", invalid.subList(0, Math.min(invalid.size(), 100)))
+                    + (invalid.size() > 100 ? " a ďalšie (" + invalid.size() + " spolu)" : ""));
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE product ADD COLUMN currency CHAR(3) NOT NULL DEFAULT '" + DEFAULT_CURRENCY + "'");
+        }
+        convertPrices(connection, true);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE product MODIFY price DECIMAL(12,2) NOT NULL");
+        }
+    }
+
+    // Prejde všetky služby a vráti tie s neplatnou cenou; pri write = true zapíše prevedenú cenu a menu
+    private List<String> convertPrices(Connection connection, boolean write) throws SQLException {
+        List<String> invalid = new ArrayList<>();
+        int rounded = 0;
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT id, price FROM product WHERE id > ? ORDER BY id LIMIT " + BATCH_SIZE);
+             PreparedStatement update = connection.prepareStatement(
+                     write ? "UPDATE product SET price = ?, currency = ? WHERE id = ?" : "SELECT 1")) {
+            long afterId = 0;
+            while (true) {
+                select.setLong(1, afterId);
+                int rows = 0;
+                try (ResultSet resultSet = select.executeQuery()) {
+                    while (resultSet.next()) {
+                        rows++;
+                        afterId = resultSet.getLong("id");
+                        String value = resultSet.getString("price");
+                        Price price = parse(value);
+                        if (price == null) {
+                            invalid.add(afterId + " ('" + value + "')");
+                        } else if (write) {
+                            if (price.amount().scale() > 2) {
+                                logger.warn("Služba {}: cena '{}' zaokrúhlená na dve desatinné miesta.", afterId, value);
+                                rounded++;
+                            }
+                            update.setString(1, price.amount().setScale(2, RoundingMode.HALF_UP).toPlainString());
+                            update.setString(2, price.currency());
+                            update.setLong(3, afterId);
+                            update.addBatch();
+                        }
+                    }
+                }
+                if (write) {
+                    update.executeBatch();
+                }
+                if (rows < BATCH_SIZE) {
+                    break;
+                }
+            }
+        }
+        if (write) {
+            logger.info("Ceny služieb prevedené na DECIMAL, zaokrúhlených: {}.", rounded);
+        }
+        return invalid;
+    }
+
+    // Suma a mena z textu; null, ak text nie je nezáporná suma
+    static Price parse(String value) {
+        if (value == null) {
+            return null;
+        }
+        String text = value.replace('\u00A0', ' ').trim().toUpperCase(Locale.ROOT);
+        String currency = DEFAULT_CURRENCY;
+        for (Map.Entry<String, String> symbol : CURRENCY_SYMBOLS) {
+            if (text.contains(symbol.getKey())) {
+                currency = symbol.getValue();
+                text = text.replace(symbol.getKey(), "");
+            }
+        }
+        text = text.replace(" ", "");
+        if (text.endsWith(",-") || text.endsWith(".-")) {
+            text = text.substring(0, text.length() - 2); // 1200,- = 1200
+        }
+        // Pri čiarke aj bodke je desatinný oddeľovač posledný z nich, ostatné oddeľujú tisíce ("1.200,50").
+        // Viackrát ten istý oddeľovač bez iného oddeľuje iba tisíce ("1,200,000"). Jediný oddeľovač s presne
+        // tromi číslicami za ním ("1.200", "1,200") môže byť oboje - takú cenu migrácia neodhaduje.
+        int comma = text.lastIndexOf(',');
+        int dot = text.lastIndexOf('.');
+        int decimal;
+        if (comma >= 0 && dot >= 0) {
+            decimal = Math.max(comma, dot);
+        } else {
+            int separator = Math.max(comma, dot);
+            if (separator >= 0 && text.indexOf(text.charAt(separator)) != separator) {
+                decimal = -1;
+            } else if (separator >= 0 && text.length() - separator - 1 == 3) {
+                return null;
+            } else {
+                decimal = separator;
+            }
+        }
+        if (decimal >= 0) {
+            text = text.substring(0, decimal).replace(",", "").replace(".", "") + "." + text.substring(decimal + 1);
+        } else {
+            text = text.replace(",", "").replace(".", "");
+        }
+        try {
+            BigDecimal amount = new BigDecimal(text);
+            if (amount.signum() < 0 || amount.compareTo(MAX_PRICE) > 0) {
+                return null;
+            }
+            return new Price(amount, currency);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    record Price(BigDecimal amount, String currency) {
+    }
+}
@@ -0,0 +1,114 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+
+// vehicle.registered_at a vehicle.last_serviced z VARCHAR na DATE. /vehicle/add ukladal dátum ako dd.MM.yyyy,
+// /vehicle/update a PATCH ako yyyy-MM-dd - SQL konverzia by prvý formát nepoznala, preto sa hodnoty najprv
+// v Jave prepíšu na yyyy-MM-dd (po blokoch podľa ID) a až potom sa zmení typ stĺpcov.
+// Neplatný dátum registrácie nahradí dátum vytvorenia záznamu, neplatný dátum servisu sa vymaže - oboje sa zaloguje.
+public class V9__vehicle_date_columns extends BaseJavaMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(V9__vehicle_date_columns.class);
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final DateTimeFormatter SLOVAK_FORMAT = DateTimeFormatter.ofPattern("d.M.uuuu")
+            .withResolverStyle(ResolverStyle.STRICT);
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        normalizeDates(connection);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE vehicle MODIFY registered_at DATE NOT NULL");
+            statement.execute("ALTER TABLE vehicle MODIFY last_serviced DATE NULL");
+        }
+    }
+
+    private void normalizeDates(Connection connection) throws SQLException {
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT id, registered_at, last_serviced, created_at FROM vehicle WHERE id > ? ORDER BY id LIMIT " + BATCH_SIZE);
+             PreparedStatement update = connection.prepareStatement(
+                     "UPDATE vehicle SET registered_at = ?, last_serviced = ? WHERE id = ?")) {
+            long afterId = 0;
+            int updated = 0;
+            while (true) {
+                select.setLong(1, afterId);
+                int rows = 0;
+                try (ResultSet resultSet = select.executeQuery()) {
+                    while (resultSet.next()) {
+                        rows++;
+                        afterId = resultSet.getLong("id");
+                        String registeredAt = resultSet.getString("registered_at");
+                        String lastServiced = resultSet.getString("last_serviced");
+                        String newRegisteredAt = registeredAt(afterId, registeredAt, resultSet.getTimestamp("created_at"));
+                        String newLastServiced = lastServiced(afterId, lastServiced);
+                        if (!newRegisteredAt.equals(registeredAt) || !equalsOrBothNull(newLastServiced, lastServiced)) {
+                            update.setString(1, newRegisteredAt);
+                            update.setString(2, newLastServiced);
+                            update.setLong(3, afterId);
+                            update.addBatch();
+                            updated++;
+                        }
+                    }
+                }
+                update.executeBatch();
+                if (rows < BATCH_SIZE) {
+                    break;
+                }
+            }
+            logger.info("Dátumy vozidiel prevedené na yyyy-MM-dd, zmenených záznamov: {}.", updated);
+        }
+    }
+
+    private static String registeredAt(long id, String value, Timestamp createdAt) {
+        LocalDate date = parse(value);
+        if (date == null) {
+            date = createdAt.toLocalDateTime().toLocalDate();
+            logger.warn("Vozidlo {}: neplatný dátum registrácie '{}' nahradený dátumom vytvorenia {}.", id, value, date);
+        }
+        return date.toString();
+    }
+
+    private static String lastServiced(long id, String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        LocalDate date = parse(value);
+        if (date == null) {
+            logger.warn("Vozidlo {}: neplatný dátum posledného servisu '{}' bol vymazaný.", id, value);
+            return null;
+        }
+        return date.toString();
+    }
+
+    // yyyy-MM-dd alebo dd.MM.yyyy (aj bez úvodných núl); null, ak hodnota nie je dátum
+    private static LocalDate parse(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        try {
+            return trimmed.contains(".") ? LocalDate.parse(trimmed, SLOVAK_FORMAT) : LocalDate.parse(trimmed);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static boolean equalsOrBothNull(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+}
@@ -0,0 +1,6 @@
+-- Vozidlá s posledným servisom starším ako N mesiacov (/vehicle/service-due), zoradené podľa (last_serviced, id)
+CREATE INDEX idx_vehicle_deleted_last_serviced ON vehicle (deleted, last_serviced);
+
+-- To isté pre jedného zákazníka - nahrádza idx_vehicle_customer_deleted (V2) aj pre cudzí kľúč fk_vehicle_customer
+CREATE INDEX idx_vehicle_customer_deleted_last_serviced ON vehicle (customer_id, deleted, last_serviced);
+DROP INDEX idx_vehicle_customer_deleted ON vehicle;
@@ -0,0 +1,6 @@
+-- Vyhľadávanie služieb podľa meny a rozsahu ceny (/product/search), zoradené podľa (price, id)
+CREATE INDEX idx_product_deleted_currency_price ON product (deleted, currency, price);
+
+-- To isté pre služby jednej firmy - nahrádza idx_product_company_deleted (V3) aj pre ProductRepository.findByCompanyId
+CREATE INDEX idx_product_company_deleted_currency_price ON product (company_id, deleted, currency, price);
+DROP INDEX idx_product_company_deleted ON product;
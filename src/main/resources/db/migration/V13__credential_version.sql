@@ -0,0 +1,4 @@
+-- Verzia prihlasovacích údajov pre bezstavové JWT (JwtTokenUtil) - zmena e-mailu alebo hesla ju zvýši
+-- a skôr vydané tokeny prestanú platiť. Existujúce účty začínajú na 0.
+ALTER TABLE customer ADD COLUMN credential_version INT NOT NULL DEFAULT 0;
+ALTER TABLE company ADD COLUMN credential_version INT NOT NULL DEFAULT 0;
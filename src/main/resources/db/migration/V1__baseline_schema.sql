@@ -0,0 +1,62 @@
+-- Východisková schéma - zodpovedá tabuľkám, ktoré Hibernate vytváral (ddl-auto=update) pred zavedením Flyway.
+-- Neskoršie stĺpce (credential_version, version, ...) pridávajú až ďalšie migrácie.
+-- Existujúce databázy túto migráciu preskočia (spring.flyway.baseline-on-migrate, baseline verzia 1).
+
+CREATE TABLE customer (
+    id                 BIGINT       NOT NULL AUTO_INCREMENT,
+    name               VARCHAR(255) NOT NULL,
+    surname            VARCHAR(255) NOT NULL,
+    city               VARCHAR(255) NOT NULL,
+    telephone          VARCHAR(255) NOT NULL,
+    birthdate          DATE         NOT NULL,
+    email              VARCHAR(255) NOT NULL,
+    password           VARCHAR(255) NOT NULL,
+    created_at         DATETIME(6),
+    role_id            INT          NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE company (
+    id                 BIGINT       NOT NULL AUTO_INCREMENT,
+    company_name       VARCHAR(255),
+    ico                INT,
+    email              VARCHAR(255),
+    telephone          VARCHAR(255),
+    address            VARCHAR(255),
+    password           VARCHAR(255),
+    created_at         DATETIME(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE vehicle (
+    id                BIGINT       NOT NULL AUTO_INCREMENT,
+    customer_id       BIGINT       NOT NULL,
+    brand             VARCHAR(255) NOT NULL,
+    model             VARCHAR(255) NOT NULL,
+    registered_at     VARCHAR(255) NOT NULL,
+    vin               VARCHAR(17)  NOT NULL,
+    plate_no          VARCHAR(255) NOT NULL,
+    fuel              VARCHAR(255),
+    color             VARCHAR(255),
+    mileage           INT,
+    transmission_type VARCHAR(255),
+    tire_size         VARCHAR(15),
+    last_serviced     VARCHAR(255),
+    deleted           VARCHAR(255) NOT NULL,
+    created_at        DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_vehicle_vin UNIQUE (vin),
+    CONSTRAINT uk_vehicle_plate_no UNIQUE (plate_no),
+    CONSTRAINT uk_vehicle_plate_no_deleted UNIQUE (plate_no, deleted)
+);
+
+CREATE TABLE product (
+    id          INT          NOT NULL AUTO_INCREMENT,
+    company_id  INT          NOT NULL,
+    name        VARCHAR(255) NOT NULL,
+    description VARCHAR(255) NOT NULL,
+    price       VARCHAR(10)  NOT NULL,
+    deleted     VARCHAR(255) NOT NULL,
+    created_at  DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id)
+);
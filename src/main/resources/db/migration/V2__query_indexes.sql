@@ -0,0 +1,19 @@
+-- Indexy pre dotazy na horúcej ceste
+
+-- VehicleRepository.findByCustomerIdAndDeleted (vozidlá zákazníka)
+CREATE INDEX idx_vehicle_customer_deleted ON vehicle (customer_id, deleted);
+
+-- Prihlásenie a JwtAuthenticationFilter (CustomerRepository.findByEmail)
+CREATE INDEX idx_customer_email ON customer (email);
+-- Počty registrácií za posledných N dní (countUsersFrom)
+CREATE INDEX idx_customer_created_at ON customer (created_at);
+
+-- Prihlásenie firmy a CompanyUserDetailsService (findByIco), vyhľadávanie podľa e-mailu a názvu
+CREATE INDEX idx_company_ico ON company (ico);
+CREATE INDEX idx_company_email ON company (email);
+CREATE INDEX idx_company_company_name ON company (company_name);
+-- Počty registrácií firiem za posledných N dní (countCompanyFrom)
+CREATE INDEX idx_company_created_at ON company (created_at);
+
+-- ProductRepository.findByCompanyId (služby firmy)
+CREATE INDEX idx_product_company_id ON product (company_id);
@@ -0,0 +1,8 @@
+-- Vehicle a Product majú @SQLRestriction("deleted = 'N'"), takže každý JPA dotaz obsahuje aj podmienku na deleted
+
+-- ProductRepository.findByCompanyId -> WHERE company_id = ? AND deleted = 'N'
+CREATE INDEX idx_product_company_deleted ON product (company_id, deleted);
+DROP INDEX idx_product_company_id ON product;
+
+-- VehicleRepository.findAll / findByCustomerId a ostatné dotazy podľa zákazníka pokrýva idx_vehicle_customer_deleted (V2),
+-- dotazy podľa ID, VIN a SPZ pokrývajú primárny kľúč a unikátne indexy
@@ -0,0 +1,8 @@
+-- Hodinové súčty registrácií pre /stats/registrations (RegistrationStats).
+-- Pri prvom štarte sa tabuľka dopočíta zo stĺpcov created_at tabuliek customer a company.
+CREATE TABLE registration_rollup (
+    entity_type   VARCHAR(16) NOT NULL, -- 'customer' alebo 'company'
+    bucket_hour   DATETIME    NOT NULL, -- Začiatok hodiny
+    registrations BIGINT      NOT NULL,
+    PRIMARY KEY (entity_type, bucket_hour)
+);
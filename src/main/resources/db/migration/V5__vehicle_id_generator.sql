@@ -0,0 +1,13 @@
+-- Generátor ID pre vozidlá (Hibernate @TableGenerator s optimalizátorom pooled-lo).
+-- IDENTITY neumožňuje dávkové vkladanie (každý INSERT musí vrátiť vygenerované ID hneď),
+-- preto si aplikácia rezervuje ID po blokoch a INSERTy posiela v JDBC dávkach.
+-- Stĺpec vehicle.id si ponecháva AUTO_INCREMENT, aplikácia však ID vždy vkladá explicitne.
+CREATE TABLE id_generator (
+    sequence_name VARCHAR(255) NOT NULL,
+    next_val      BIGINT,
+    PRIMARY KEY (sequence_name)
+);
+
+-- Prvý blok začína za najvyšším existujúcim ID
+INSERT INTO id_generator (sequence_name, next_val)
+SELECT 'vehicle', COALESCE(MAX(id), 0) + 1 FROM vehicle;
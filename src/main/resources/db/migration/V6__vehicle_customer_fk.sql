@@ -0,0 +1,7 @@
+-- Cudzí kľúč vehicle.customer_id -> customer.id. /vehicle/add sa už pred INSERTom nepýta, či zákazník
+-- existuje - neexistujúceho zákazníka odmietne databáza (rovnako ako duplicitné VIN a SPZ unikátne indexy).
+-- Ak migrácia zlyhá, v tabuľke sú vozidlá bez zákazníka; nájde ich:
+--   SELECT v.id, v.customer_id FROM vehicle v LEFT JOIN customer c ON c.id = v.customer_id WHERE c.id IS NULL;
+-- Index pre cudzí kľúč netreba - pokrýva ho idx_vehicle_customer_deleted (customer_id, deleted).
+ALTER TABLE vehicle
+    ADD CONSTRAINT fk_vehicle_customer FOREIGN KEY (customer_id) REFERENCES customer (id);
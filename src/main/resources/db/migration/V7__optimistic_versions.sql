@@ -0,0 +1,5 @@
+-- Verzia riadku pre optimistické zamykanie (@Version) - PATCH endpointy ju porovnávajú s hlavičkou If-Match
+-- a každá zmena ju zvýši o 1. Existujúce riadky začínajú na 0.
+ALTER TABLE vehicle ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE company ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE customer ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
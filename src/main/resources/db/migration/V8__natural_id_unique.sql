@@ -0,0 +1,7 @@
+-- E-mail zákazníka a IČO firmy sú prirodzené kľúče (@NaturalId) uložené v cache druhej úrovne -
+-- unikátny index nahrádza pôvodný. Prípadné duplicity treba pred migráciou odstrániť.
+CREATE UNIQUE INDEX uk_customer_email ON customer (email);
+DROP INDEX idx_customer_email ON customer;
+
+CREATE UNIQUE INDEX uk_company_ico ON company (ico);
+DROP INDEX idx_company_ico ON company;
@@ -0,0 +1,126 @@
+package com.example.tbd;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CursorPageTest {
+
+    @Test
+    void missingCursorStartsFirstPage() {
+        assertThat(CursorPage.decodeCursor(null)).isZero();
+        assertThat(CursorPage.decodeCursor(" ")).isZero();
+        assertThat(CursorPage.decodeSortKeyCursor(null)).isNull();
+        assertThat(CursorPage.decodeSortKeyCursor("")).isNull();
+    }
+
+    @Test
+    void idCursorRoundTrips() {
+        assertThat(CursorPage.decodeCursor(CursorPage.encodeCursor(0))).isZero();
+        assertThat(CursorPage.decodeCursor(CursorPage.encodeCursor(42))).isEqualTo(42);
+        assertThat(CursorPage.decodeCursor(CursorPage.encodeCursor(Long.MAX_VALUE))).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void invalidOrTamperedIdCursorIsRejected() {
+        for (String cursor : List.of("%%%", "nie-je-kurzor", encode("id:"), encode("id:abc"), encode("id:-5"),
+                encode("42"), encode("key:42:2024-01-01"))) {
+            assertThatThrownBy(() -> CursorPage.decodeCursor(cursor))
+                    .as(cursor)
+                    .isInstanceOf(InvalidPageRequestException.class);
+        }
+    }
+
+    @Test
+    void invalidOrTamperedSortKeyCursorIsRejected() {
+        for (String cursor : List.of("%%%", encode("key:"), encode("key:42"), encode("key:x:2024-01-01"),
+                encode("key:-1:2024-01-01"), encode("id:42"))) {
+            assertThatThrownBy(() -> CursorPage.decodeSortKeyCursor(cursor))
+                    .as(cursor)
+                    .isInstanceOf(InvalidPageRequestException.class);
+        }
+    }
+
+    @Test
+    void limitDefaultsAndBounds() {
+        assertThat(CursorPage.resolveLimit(null)).isEqualTo(CursorPage.DEFAULT_LIMIT).isEqualTo(50);
+        assertThat(CursorPage.resolveLimit(1)).isEqualTo(1);
+        assertThat(CursorPage.resolveLimit(CursorPage.MAX_LIMIT)).isEqualTo(500);
+        assertThatThrownBy(() -> CursorPage.resolveLimit(0)).isInstanceOf(InvalidPageRequestException.class);
+        assertThatThrownBy(() -> CursorPage.resolveLimit(-1)).isInstanceOf(InvalidPageRequestException.class);
+        assertThatThrownBy(() -> CursorPage.resolveLimit(CursorPage.MAX_LIMIT + 1)).isInstanceOf(InvalidPageRequestException.class);
+    }
+
+    // Stránky za sebou pokryjú všetky riadky práve raz - rovnako ako keyset dotaz "id > afterId ORDER BY id LIMIT limit + 1"
+    @Test
+    void idPagesAreContinuous() {
+        List<Long> table = LongStream.rangeClosed(1, 23).boxed().toList();
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            long afterId = CursorPage.decodeCursor(cursor);
+            List<Long> rows = table.stream().filter(id -> id > afterId).limit(6).toList();
+            CursorPage<Long> page = CursorPage.of(rows, 5, Function.identity(), Function.identity());
+            assertThat(page.getItems()).hasSizeLessThanOrEqualTo(5);
+            seen.addAll(page.getItems());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(seen).isEqualTo(table);
+        assertThat(pages).isEqualTo(5);
+    }
+
+    @Test
+    void exactlyFullLastPageHasNoNextCursor() {
+        CursorPage<Long> page = CursorPage.of(List.of(1L, 2L, 3L), 3, Function.identity(), Function.identity());
+        assertThat(page.getItems()).containsExactly(1L, 2L, 3L);
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    // Kurzor zoradenej stránky nesie hodnotu aj ID posledného riadku - pri rovnakých hodnotách rozhoduje ID
+    @Test
+    void sortKeyPagesAreContinuousAcrossEqualKeys() {
+        List<Row> table = List.of(new Row(3, "2020-01-01"), new Row(1, "2021-06-01"), new Row(4, "2021-06-01"),
+                new Row(7, "2021-06-01"), new Row(2, "2022-03-01"));
+        List<Row> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage.SortKeyCursor after = CursorPage.decodeSortKeyCursor(cursor);
+            List<Row> rows = table.stream()
+                    .filter(row -> after == null || row.key().compareTo(after.sortKey()) > 0
+                            || (row.key().equals(after.sortKey()) && row.id() > after.lastId()))
+                    .limit(3)
+                    .toList();
+            CursorPage<Row> page = CursorPage.of(rows, 2, Row::key, Row::id, Function.identity());
+            seen.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(seen).isEqualTo(table);
+    }
+
+    @Test
+    void sortKeyMayContainSeparator() {
+        CursorPage<Row> page = CursorPage.of(List.of(new Row(1, "10:30"), new Row(2, "11:00")), 1,
+                Row::key, Row::id, Function.identity());
+        assertThat(CursorPage.decodeSortKeyCursor(page.getNextCursor()))
+                .isEqualTo(new CursorPage.SortKeyCursor("10:30", 1));
+    }
+
+    private static String encode(String cursor) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private record Row(long id, String key) {
+    }
+}
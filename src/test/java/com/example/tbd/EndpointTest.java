@@ -0,0 +1,57 @@
+package com.example.tbd;
+
+import com.example.tbd.customer.Customer;
+import com.example.tbd.customer.CustomerRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Základ testov endpointov cez MockMvc nad H2 (profil test) - prihlásení zákazníci a opakované požiadavky
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public abstract class EndpointTest {
+
+    @Autowired
+    protected MockMvc mockMvc;
+
+    @Autowired
+    protected ObjectMapper objectMapper;
+
+    @Autowired
+    protected CustomerRepository customerRepository;
+
+    @Autowired
+    protected JwtTokenUtil jwtTokenUtil;
+
+    // Uloží zákazníka s rolou používateľa a vráti hodnotu hlavičky Authorization
+    protected String bearer(String email) {
+        return TestAccounts.bearer(jwtTokenUtil, TestAccounts.saveCustomer(customerRepository, email, Customer.ROLE_ID_USER));
+    }
+
+    // POST s JSON telom, ktorý musí skončiť 200 - vráti id z odpovede
+    protected int postForId(String url, String json) throws Exception {
+        String response = mockMvc.perform(post(url).contentType(MediaType.APPLICATION_JSON).content(json))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("id").asInt();
+    }
+
+    // PATCH s telom JSON Merge Patch za prihláseným zákazníkom
+    protected static MockHttpServletRequestBuilder mergePatch(String url, String bearer, String json) {
+        return patch(url)
+                .header(HttpHeaders.AUTHORIZATION, bearer)
+                .contentType(MergePatch.APPLICATION_MERGE_PATCH_JSON_VALUE)
+                .content(json);
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.tbd;
+
+import com.example.tbd.customer.Customer;
+import com.example.tbd.vehicle.Vehicle;
+import com.example.tbd.vehicle.VehicleRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Počítadlá za endpointmi /count - menia sa po commite, rollback ich nemení, reconcile() opraví zmeny mimo Hibernate
+class EntityCountersTest extends EndpointTest {
+
+    @Autowired
+    private EntityCounters entityCounters;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void insertAndSoftDeleteMoveVehicleCount() throws Exception {
+        Customer owner = TestAccounts.saveCustomer(customerRepository, "counters.vehicle@example.com", Customer.ROLE_ID_USER);
+        long vehicles = count("/vehicle/count");
+
+        long first = add(owner.getId(), "BA501CT", "COUNTERSVIN000001");
+        long second = add(owner.getId(), "BA502CT", "COUNTERSVIN000002");
+        assertThat(count("/vehicle/count")).isEqualTo(vehicles + 2);
+
+        // Hromadné označenie ako vymazané ide mimo Hibernate listenerov - počet upraví EntitySoftDeletedEvent
+        mockMvc.perform(put("/vehicle/delupdate")
+                        .header(HttpHeaders.AUTHORIZATION, TestAccounts.bearer(jwtTokenUtil, owner))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[" + first + "," + second + "]}"))
+                .andExpect(status().isOk());
+        assertThat(count("/vehicle/count")).isEqualTo(vehicles);
+    }
+
+    @Test
+    void insertMovesCompanyCount() throws Exception {
+        long companies = count("/company/count");
+
+        postForId("/company/register",
+                "{\"companyName\":\"Čerpacia stanica Počet\",\"ico\":87650501,\"email\":\"pocet@example.sk\","
+                        + "\"telephone\":\"0900000005\",\"address\":\"Hlavná 5\",\"password\":\"heslo123\"}");
+
+        assertThat(count("/company/count")).isEqualTo(companies + 1);
+    }
+
+    @Test
+    void roleIdChangeMovesCustomerCount() throws Exception {
+        long customers = count("/customer/count");
+
+        Customer customer = TestAccounts.saveCustomer(customerRepository, "counters.role@example.com", Customer.ROLE_ID_USER);
+        assertThat(count("/customer/count")).isEqualTo(customers + 1);
+
+        customer.setRoleId(Customer.ROLE_ID_ADMIN);
+        customer = customerRepository.save(customer);
+        assertThat(count("/customer/count")).isEqualTo(customers);
+
+        customer.setRoleId(Customer.ROLE_ID_USER);
+        customerRepository.save(customer);
+        assertThat(count("/customer/count")).isEqualTo(customers + 1);
+    }
+
+    @Test
+    void rolledBackChangesAreNotCounted() throws Exception {
+        Customer owner = TestAccounts.saveCustomer(customerRepository, "counters.rollback@example.com", Customer.ROLE_ID_USER);
+        Vehicle vehicle = vehicleRepository.save(TestVehicles.vehicle(owner.getId(), "BA503CT", "COUNTERSVIN000003"));
+        long vehicles = count("/vehicle/count");
+        long customers = count("/customer/count");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            vehicleRepository.save(TestVehicles.vehicle(owner.getId(), "BA504CT", "COUNTERSVIN000004"));
+            Vehicle deleted = vehicleRepository.findById(vehicle.getId()).orElseThrow();
+            deleted.setDeleted("Y");
+            vehicleRepository.saveAndFlush(deleted);
+            TestAccounts.saveCustomer(customerRepository, "counters.rollback.new@example.com", Customer.ROLE_ID_USER);
+            status.setRollbackOnly();
+        });
+
+        assertThat(count("/vehicle/count")).isEqualTo(vehicles);
+        assertThat(count("/customer/count")).isEqualTo(customers);
+        assertThat(vehicleRepository.findByVin("COUNTERSVIN000004")).isEmpty();
+    }
+
+    @Test
+    void reconcileOverwritesCountersWithDatabaseValues() throws Exception {
+        Customer owner = TestAccounts.saveCustomer(customerRepository, "counters.reconcile@example.com", Customer.ROLE_ID_USER);
+        Vehicle vehicle = vehicleRepository.save(TestVehicles.vehicle(owner.getId(), "BA505CT", "COUNTERSVIN000005"));
+        long vehicles = count("/vehicle/count");
+
+        // Natívne SQL listenery nevidia - počítadlo zostáva pôvodné až do reconcile()
+        jdbcTemplate.update("UPDATE vehicle SET deleted = 'Y' WHERE id = ?", vehicle.getId());
+        entityCounters.adjustActiveVehicles(5);
+        assertThat(count("/vehicle/count")).isEqualTo(vehicles + 5);
+
+        entityCounters.reconcile();
+
+        long actual = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM vehicle WHERE deleted = 'N'", Long.class);
+        assertThat(count("/vehicle/count")).isEqualTo(actual);
+    }
+
+    // Číslo na konci textovej odpovede endpointu /count
+    private long count(String url) throws Exception {
+        String body = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return Long.parseLong(body.substring(body.lastIndexOf(' ') + 1));
+    }
+
+    // Pridá vozidlo cez /vehicle/add a vráti jeho id
+    private long add(Long customerId, String plateNo, String vin) throws Exception {
+        mockMvc.perform(post("/vehicle/add")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"customerId\":" + customerId + ",\"brand\":\"Skoda\",\"model\":\"Octavia\","
+                                + "\"registeredAt\":\"2020-01-01\",\"vin\":\"" + vin + "\",\"plate_no\":\"" + plateNo + "\"}"))
+                .andExpect(status().isOk());
+        return vehicleRepository.findByVin(vin).orElseThrow().getId();
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.tbd;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Existujúca databáza zo schémy, ktorú vytváral Hibernate pred Flyway - pri štarte sa označí ako verzia 1,
+// prebehnú ostatné migrácie a Hibernate schému overí (ddl-auto=validate)
+@SpringBootTest
+@ActiveProfiles("test")
+class FlywayBaselineTest {
+
+    private static final String URL = "jdbc:h2:mem:tbd_pre_flyway;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Schéma musí existovať skôr, ako Flyway pri štarte kontextu zistí, že databáza nie je prázdna
+    @DynamicPropertySource
+    static void preFlywayDatabase(DynamicPropertyRegistry registry) {
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource("db/pre-flyway-schema.sql"));
+        populator.setSqlScriptEncoding("UTF-8");
+        populator.execute(new DriverManagerDataSource(URL, "sa", ""));
+        registry.add("spring.datasource.url", () -> URL);
+    }
+
+    @Test
+    void existingDatabaseIsBaselinedAndMigrated() {
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT type FROM flyway_schema_history WHERE version = '1'", String.class)).isEqualTo("BASELINE");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM flyway_schema_history WHERE success = FALSE", Integer.class)).isZero();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT credential_version FROM customer WHERE id = 1", Integer.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT credential_version FROM company WHERE id = 1", Integer.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT registered_at FROM vehicle WHERE id = 1", LocalDate.class))
+                .isEqualTo(LocalDate.of(2020, 2, 1));
+        assertThat(jdbcTemplate.queryForObject("SELECT price FROM product WHERE id = 1", BigDecimal.class))
+                .isEqualByComparingTo("49.90");
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.tbd;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Cache overených claimov v JwtTokenUtil - opakovaný token sa neoveruje znova, pozmenený ani exspirovaný sa z nej nevráti
+class JwtTokenUtilTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final JwtTokenUtil jwtTokenUtil = new JwtTokenUtil(meterRegistry, 1000);
+
+    @Test
+    void repeatedTokenIsServedFromCache() {
+        String token = token("cache.hit@example.com", JwtTokenUtil.TOKEN_VALIDITY);
+
+        Claims first = jwtTokenUtil.extractClaims(token);
+        Claims second = jwtTokenUtil.extractClaims(token);
+
+        assertThat(second).isSameAs(first);
+        assertThat(second.getSubject()).isEqualTo("cache.hit@example.com");
+        assertThat(cacheGets("hit")).isEqualTo(1);
+        assertThat(cacheGets("miss")).isEqualTo(1);
+    }
+
+    @Test
+    void tamperedTokenIsNotServedFromCache() {
+        String token = token("cache.owner@example.com", JwtTokenUtil.TOKEN_VALIDITY);
+        String other = token("cache.attacker@example.com", JwtTokenUtil.TOKEN_VALIDITY);
+        jwtTokenUtil.extractClaims(token);
+        jwtTokenUtil.extractClaims(other);
+        String[] parts = token.split("\\.");
+        String[] otherParts = other.split("\\.");
+
+        // Claims iného (platného) tokenu s podpisom prvého
+        String swappedPayload = parts[0] + "." + otherParts[1] + "." + parts[2];
+        assertThatThrownBy(() -> jwtTokenUtil.extractClaims(swappedPayload)).isInstanceOf(JwtException.class);
+
+        // Zmenený prvý znak podpisu mení jeho prvý bajt
+        String signature = parts[2];
+        String forgedSignature = parts[0] + "." + parts[1] + "."
+                + (signature.charAt(0) == 'A' ? 'B' : 'A') + signature.substring(1);
+        assertThatThrownBy(() -> jwtTokenUtil.extractClaims(forgedSignature)).isInstanceOf(JwtException.class);
+
+        assertThat(jwtTokenUtil.extractClaims(token).getSubject()).isEqualTo("cache.owner@example.com");
+    }
+
+    // Položka cache vyprší spolu s tokenom - po exp sa token znova overí a parser ho odmietne
+    @Test
+    void cachedTokenExpiresAtExp() throws InterruptedException {
+        String token = token("cache.expiry@example.com", Duration.ofSeconds(2));
+        Claims claims = jwtTokenUtil.extractClaims(token);
+        assertThat(jwtTokenUtil.extractClaims(token)).isSameAs(claims);
+
+        long untilExpired = claims.getExpiration().getTime() - System.currentTimeMillis() + 100;
+        Thread.sleep(Math.max(0, untilExpired));
+
+        assertThatThrownBy(() -> jwtTokenUtil.extractClaims(token)).isInstanceOf(ExpiredJwtException.class);
+        assertThat(cacheGets("hit")).isEqualTo(1);
+    }
+
+    @Test
+    void expiredTokenIsNeverCached() {
+        String token = token("cache.expired@example.com", Duration.ofSeconds(-10));
+
+        assertThatThrownBy(() -> jwtTokenUtil.extractClaims(token)).isInstanceOf(ExpiredJwtException.class);
+        assertThatThrownBy(() -> jwtTokenUtil.extractClaims(token)).isInstanceOf(ExpiredJwtException.class);
+        assertThat(cacheGets("hit")).isZero();
+    }
+
+    private String token(String email, Duration validity) {
+        return jwtTokenUtil.generateToken(email, 1L, email, JwtTokenUtil.ROLE_CUSTOMER, 0, false, validity);
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", "jwt.verified").tag("result", result).functionCounter().count();
+    }
+}
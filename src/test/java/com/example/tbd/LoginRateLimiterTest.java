@@ -0,0 +1,111 @@
+package com.example.tbd;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoginRateLimiterTest {
+
+    // Kapacita účtu 3 pokusy, IP prakticky bez limitu, doplnenie tak pomalé, že sa počas testu neprejaví
+    private final LoginRateLimiter limiter = new LoginRateLimiter(new SimpleMeterRegistry(), 1000, 0.001, 3, 0.001, 1000);
+
+    @Test
+    void successfulLoginsDoNotLockAccount() {
+        for (int i = 0; i < 10; i++) {
+            limiter.check("10.0.0.1", "jan@example.com");
+            limiter.recordSuccess("jan@example.com");
+        }
+        assertThatCode(() -> limiter.check("10.0.0.2", "jan@example.com")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void failedLoginsLockAccountUntilSuccessResetsIt() {
+        for (int i = 0; i < 3; i++) {
+            limiter.check("10.0.0.1", "Jan@Example.com");
+        }
+        assertThatThrownBy(() -> limiter.check("10.0.0.2", "jan@example.com"))
+                .isInstanceOf(LoginRateLimitedException.class);
+
+        limiter.recordSuccess("jan@example.com");
+        assertThatCode(() -> limiter.check("10.0.0.2", "jan@example.com")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void everyAttemptCountsAgainstClientIp() {
+        LoginRateLimiter strictIp = new LoginRateLimiter(new SimpleMeterRegistry(), 2, 0.001, 1000, 0.001, 1000);
+        strictIp.check("10.0.0.1", "a@example.com");
+        strictIp.check("10.0.0.1", "b@example.com");
+        assertThatThrownBy(() -> strictIp.check("10.0.0.1", "c@example.com"))
+                .isInstanceOf(LoginRateLimitedException.class);
+        assertThatCode(() -> strictIp.check("10.0.0.2", "c@example.com")).doesNotThrowAnyException();
+    }
+
+    // Heslo sa pre preťažený BCrypt neoverilo - pokus sa účtu nezapočíta
+    @Test
+    void releasedAttemptDoesNotCountAgainstAccount() {
+        for (int i = 0; i < 10; i++) {
+            limiter.check("10.0.0.1", "eva@example.com");
+            limiter.release("eva@example.com");
+        }
+        assertThatCode(() -> limiter.check("10.0.0.2", "eva@example.com")).doesNotThrowAnyException();
+    }
+
+    // Súbežné pokusy na jeden účet z rôznych IP adries - token účtu sa berie pri check(), nie až po zlyhaní hesla
+    @Test
+    void concurrentAttemptsFromManyIpsStayWithinAccountLimit() throws Exception {
+        int attempts = 32;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(attempts);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < attempts; i++) {
+                String clientIp = "10.0.1." + i;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        limiter.check(clientIp, "petra@example.com");
+                        return true;
+                    } catch (LoginRateLimitedException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+
+            int allowed = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get()) {
+                    allowed++;
+                }
+            }
+            assertThat(allowed).isEqualTo(3);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // Zamknutý účet, na ktorý sa stále skúša prihlásiť, nevytlačia ani tisíce nových mien (pruh vyraďuje najdlhšie nepoužitý)
+    @Test
+    void sprayingNewAccountsDoesNotEvictRecentlyUsedBucket() {
+        for (int i = 0; i < 3; i++) {
+            limiter.check("10.0.0.9", "obet@example.com");
+        }
+        for (int i = 0; i < 2000; i++) {
+            limiter.check("10.2." + (i / 250) + "." + (i % 250), "sprej" + i + "@example.com");
+            if (i % 8 == 7) {
+                assertThatThrownBy(() -> limiter.check("10.0.0.9", "obet@example.com"))
+                        .isInstanceOf(LoginRateLimitedException.class);
+            }
+        }
+    }
+}
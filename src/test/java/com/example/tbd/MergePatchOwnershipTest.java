@@ -0,0 +1,74 @@
+package com.example.tbd;
+
+import com.example.tbd.company.Company;
+import com.example.tbd.company.CompanyRepository;
+import com.example.tbd.customer.Customer;
+import com.example.tbd.vehicle.Vehicle;
+import com.example.tbd.vehicle.VehicleRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// PATCH /customer/{id}, /company/{id} a /vehicle/{id} - cudzí účet dostane 403, vlastník a správca záznam zmenia
+class MergePatchOwnershipTest extends EndpointTest {
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Test
+    void customerPatchesOnlyOwnProfile() throws Exception {
+        Customer owner = TestAccounts.saveCustomer(customerRepository, "patch.profile.owner@example.com", Customer.ROLE_ID_USER);
+        String url = "/customer/" + owner.getId();
+
+        mockMvc.perform(mergePatch(url, bearer("patch.profile.foreign@example.com"), "{\"city\":\"Nitra\"}"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(mergePatch(url, TestAccounts.bearer(jwtTokenUtil, TestAccounts.saveCompany(companyRepository, 87653301)),
+                        "{\"city\":\"Nitra\"}"))
+                .andExpect(status().isForbidden());
+        assertThat(customerRepository.findById(owner.getId()).orElseThrow().getCity()).isEqualTo("Bratislava");
+
+        mockMvc.perform(mergePatch(url, TestAccounts.bearer(jwtTokenUtil, owner), "{\"city\":\"Nitra\"}"))
+                .andExpect(status().isOk());
+        Customer admin = TestAccounts.saveCustomer(customerRepository, "patch.profile.admin@example.com", Customer.ROLE_ID_ADMIN);
+        mockMvc.perform(mergePatch(url, TestAccounts.bearer(jwtTokenUtil, admin), "{\"city\":\"Trnava\"}"))
+                .andExpect(status().isOk());
+        assertThat(customerRepository.findById(owner.getId()).orElseThrow().getCity()).isEqualTo("Trnava");
+    }
+
+    @Test
+    void companyPatchesOnlyOwnRecord() throws Exception {
+        Company owner = TestAccounts.saveCompany(companyRepository, 87653311);
+        Company other = TestAccounts.saveCompany(companyRepository, 87653312);
+        String url = "/company/" + owner.getId();
+
+        mockMvc.perform(mergePatch(url, TestAccounts.bearer(jwtTokenUtil, other), "{\"email\":\"prevzata@example.sk\"}"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(mergePatch(url, bearer("patch.company.customer@example.com"), "{\"email\":\"prevzata@example.sk\"}"))
+                .andExpect(status().isForbidden());
+        assertThat(companyRepository.findById(Math.toIntExact(owner.getId())).orElseThrow().getEmail()).isEqualTo("87653311@example.sk");
+
+        mockMvc.perform(mergePatch(url, TestAccounts.bearer(jwtTokenUtil, owner), "{\"email\":\"nova@example.sk\"}"))
+                .andExpect(status().isOk());
+        assertThat(companyRepository.findById(Math.toIntExact(owner.getId())).orElseThrow().getEmail()).isEqualTo("nova@example.sk");
+    }
+
+    @Test
+    void customerPatchesOnlyOwnVehicles() throws Exception {
+        Customer owner = TestAccounts.saveCustomer(customerRepository, "patch.vehicle.owner@example.com", Customer.ROLE_ID_USER);
+        Vehicle vehicle = vehicleRepository.save(TestVehicles.vehicle(owner.getId(), "BA601PO", "PATCHOWNERSHIP001"));
+        String url = "/vehicle/" + vehicle.getId();
+
+        mockMvc.perform(mergePatch(url, bearer("patch.vehicle.foreign@example.com"), "{\"color\":\"modrá\"}"))
+                .andExpect(status().isForbidden());
+        assertThat(vehicleRepository.findById(vehicle.getId()).orElseThrow().getColor()).isNull();
+
+        mockMvc.perform(mergePatch(url, TestAccounts.bearer(jwtTokenUtil, owner), "{\"color\":\"modrá\"}"))
+                .andExpect(status().isOk());
+        assertThat(vehicleRepository.findById(vehicle.getId()).orElseThrow().getColor()).isEqualTo("modrá");
+    }
+}
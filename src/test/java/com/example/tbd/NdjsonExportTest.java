@@ -0,0 +1,100 @@
+package com.example.tbd;
+
+import com.example.tbd.company.CompanyRepository;
+import com.example.tbd.customer.Customer;
+import com.example.tbd.vehicle.Vehicle;
+import com.example.tbd.vehicle.VehicleRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// NDJSON export - viac riadkov ako jedna dávka FLUSH_EVERY_ROWS, každý riadok je samostatný JSON bez hesla
+class NdjsonExportTest extends EndpointTest {
+
+    private static final int ROWS = NdjsonExporter.FLUSH_EVERY_ROWS + 25;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Test
+    void customerExportStreamsEveryRowWithoutPassword() throws Exception {
+        Set<String> emails = new HashSet<>();
+        for (int i = 0; i < ROWS; i++) {
+            emails.add(TestAccounts.saveCustomer(customerRepository, "export" + i + "@example.com", Customer.ROLE_ID_USER).getEmail());
+        }
+
+        List<JsonNode> rows = export("/customer/export", "export.customers.reader@example.com");
+
+        assertThat(rows).extracting(row -> row.get("email").asText()).containsAll(emails);
+    }
+
+    @Test
+    void companyExportStreamsEveryRowWithoutPassword() throws Exception {
+        Set<Integer> icos = new HashSet<>();
+        for (int i = 0; i < ROWS; i++) {
+            icos.add(TestAccounts.saveCompany(companyRepository, 87700000 + i).getIco());
+        }
+
+        List<JsonNode> rows = export("/company/export", "export.companies.reader@example.com");
+
+        assertThat(rows).extracting(row -> row.get("ico").asInt()).containsAll(icos);
+    }
+
+    @Test
+    void vehicleExportStreamsEveryRowWithoutPassword() throws Exception {
+        Customer owner = TestAccounts.saveCustomer(customerRepository, "export.vehicles@example.com", Customer.ROLE_ID_USER);
+        List<Vehicle> vehicles = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            vehicles.add(TestVehicles.vehicle(owner.getId(), "EX%05d".formatted(i), "EXPORT%011d".formatted(i)));
+        }
+        Set<String> vins = new HashSet<>();
+        vehicleRepository.saveAll(vehicles).forEach(vehicle -> vins.add(vehicle.getVin()));
+
+        List<JsonNode> rows = export("/vehicle/export", "export.vehicles.reader@example.com");
+
+        assertThat(rows).extracting(row -> row.get("vin").asText()).containsAll(vins);
+    }
+
+    // Stiahne export a rozparsuje každý riadok - riadky idú podľa ID a žiadny neobsahuje heslo (ani vnorené)
+    private List<JsonNode> export(String url, String readerEmail) throws Exception {
+        MvcResult started = mockMvc.perform(get(url).header(HttpHeaders.AUTHORIZATION, bearer(readerEmail)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(NdjsonExporter.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        assertThat(body).endsWith("\n");
+        List<JsonNode> rows = new ArrayList<>();
+        long previousId = 0;
+        for (String line : body.split("\n")) {
+            JsonNode row = objectMapper.readTree(line);
+            assertThat(row.isObject()).as(line).isTrue();
+            assertThat(row.findValue("password")).as(line).isNull();
+            assertThat(row.get("id").asLong()).isGreaterThan(previousId);
+            previousId = row.get("id").asLong();
+            rows.add(row);
+        }
+        assertThat(rows.size()).isGreaterThan(NdjsonExporter.FLUSH_EVERY_ROWS);
+        return rows;
+    }
+}
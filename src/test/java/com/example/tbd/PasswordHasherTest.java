@@ -0,0 +1,121 @@
+package com.example.tbd;
+
+import com.example.tbd.customer.Customer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Plný front PasswordHasher - prihlásenie skončí 503 s Retry-After a pokus sa účtu nezapočíta
+@TestPropertySource(properties = {
+        "auth.hashing.threads=1",
+        "auth.hashing.queue-capacity=1",
+        "auth.hashing.retry-after-seconds=3",
+        "auth.login-limit.account.capacity=1"
+})
+class PasswordHasherTest extends EndpointTest {
+
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    @Autowired
+    private GatedPasswordEncoder passwordEncoder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void fullQueueRejectsLoginWithRetryAfterAndReleasesAccountToken() throws Exception {
+        Customer customer = TestAccounts.saveCustomer(customerRepository, "hashing.busy@example.com", Customer.ROLE_ID_USER);
+        double rejected = meterRegistry.get("password.hashing.rejected").counter().count();
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            // Jedno overenie obsadí jediné vlákno, druhé čaká vo fronte s kapacitou 1
+            Future<Boolean> running = callers.submit(() -> passwordHasher.matches("heslo", "n/a"));
+            assertThat(passwordEncoder.started.await(10, TimeUnit.SECONDS)).isTrue();
+            Future<Boolean> queued = callers.submit(() -> passwordHasher.matches("heslo", "n/a"));
+            awaitQueued(1);
+
+            login(customer.getEmail())
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "3"));
+            assertThat(meterRegistry.get("password.hashing.rejected").counter().count()).isEqualTo(rejected + 1);
+
+            passwordEncoder.gate.countDown();
+            assertThat(running.get(10, TimeUnit.SECONDS)).isFalse();
+            assertThat(queued.get(10, TimeUnit.SECONDS)).isFalse();
+        } finally {
+            passwordEncoder.gate.countDown();
+            callers.shutdownNow();
+        }
+
+        // Limit účtu je 1 pokus - bez vrátenia tokenu po 503 by ďalšie prihlásenie skončilo 429
+        login(customer.getEmail()).andExpect(status().isUnauthorized());
+        login(customer.getEmail()).andExpect(status().isTooManyRequests());
+    }
+
+    private void awaitQueued(int tasks) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (meterRegistry.get("executor.queued").tag("name", "password.hashing").gauge().value() < tasks) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    private ResultActions login(String email) throws Exception {
+        return mockMvc.perform(post("/customer/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"" + email + "\",\"password\":\"zleHeslo\"}"));
+    }
+
+    @TestConfiguration
+    static class GatedEncoderConfiguration {
+
+        @Bean
+        @Primary
+        GatedPasswordEncoder gatedPasswordEncoder() {
+            return new GatedPasswordEncoder();
+        }
+    }
+
+    // Overenie hesla čaká, kým test neotvorí bránu, a heslo nikdy nesedí
+    static class GatedPasswordEncoder implements PasswordEncoder {
+
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch gate = new CountDownLatch(1);
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            started.countDown();
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.tbd;
+
+import com.example.tbd.customer.Customer;
+import com.example.tbd.customer.CustomerService;
+import com.example.tbd.customer.UpdateProfileRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// PrincipalCache - zmena hesla alebo e-mailu vyradí zákazníka z cache až po commite, rollback cache nezmení
+class PrincipalCacheTest extends EndpointTest {
+
+    private static final String PROFILE = "{\"name\":\"Test\",\"surname\":\"Test\",\"city\":\"Bratislava\","
+            + "\"telephone\":\"0900000000\",\"birthdate\":\"01.01.1990\",\"email\":\"%s\"%s}";
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void passwordChangeEvictsCachedPrincipal() throws Exception {
+        Customer customer = TestAccounts.saveCustomer(customerRepository, "principal.password@example.com", Customer.ROLE_ID_USER);
+        UserDetails cached = principalCache.getCustomer(customer.getEmail());
+        assertThat(principalCache.getCustomer(customer.getEmail())).isSameAs(cached);
+
+        mockMvc.perform(put("/customer/editprofile/" + customer.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(PROFILE.formatted(customer.getEmail(), ",\"password\":\"noveHeslo123\"")))
+                .andExpect(status().isOk());
+
+        UserDetails reloaded = principalCache.getCustomer(customer.getEmail());
+        assertThat(reloaded).isNotSameAs(cached);
+        assertThat(reloaded.getPassword()).isNotEqualTo(cached.getPassword());
+    }
+
+    @Test
+    void emailChangeEvictsPreviousEmail() throws Exception {
+        Customer customer = TestAccounts.saveCustomer(customerRepository, "principal.before@example.com", Customer.ROLE_ID_USER);
+        principalCache.getCustomer(customer.getEmail());
+
+        mockMvc.perform(put("/customer/editprofile/" + customer.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(PROFILE.formatted("principal.after@example.com", "")))
+                .andExpect(status().isOk());
+
+        assertThatThrownBy(() -> principalCache.getCustomer("principal.before@example.com"))
+                .isInstanceOf(UsernameNotFoundException.class);
+        assertThat(principalCache.getCustomer("principal.after@example.com").getUsername())
+                .isEqualTo("principal.after@example.com");
+    }
+
+    @Test
+    void rolledBackChangeKeepsCachedPrincipal() {
+        Customer customer = TestAccounts.saveCustomer(customerRepository, "principal.rollback@example.com", Customer.ROLE_ID_USER);
+        UserDetails cached = principalCache.getCustomer(customer.getEmail());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            customerService.updateCustomerProfile(customer.getId(), profile("principal.rollback.new@example.com", "noveHeslo123"));
+            status.setRollbackOnly();
+        });
+
+        assertThat(principalCache.getCustomer(customer.getEmail())).isSameAs(cached);
+        assertThatThrownBy(() -> principalCache.getCustomer("principal.rollback.new@example.com"))
+                .isInstanceOf(UsernameNotFoundException.class);
+    }
+
+    private static UpdateProfileRequest profile(String email, String password) {
+        UpdateProfileRequest request = new UpdateProfileRequest();
+        request.setName("Test");
+        request.setSurname("Test");
+        request.setCity("Bratislava");
+        request.setTelephone("0900000000");
+        request.setEmail(email);
+        request.setPassword(password);
+        return request;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.tbd;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PublicPathMatcherTest {
+
+    private final PublicPathMatcher matcher = new PublicPathMatcher(SecurityConfig.PUBLIC_PATHS);
+    private final AntPathMatcher antPathMatcher = new AntPathMatcher();
+
+    @Test
+    void matchesSameAsAntPathMatcher() {
+        List<String> paths = List.of(
+                "/", "/index.html", "/favicon.ico", "/offline.html", "/offline.htm",
+                "/VAADIN", "/VAADIN/", "/VAADIN/build/vaadin-bundle-1a2b.js", "/VAADIN/themes/my-theme/styles.css",
+                "/ui", "/ui/", "/ui/vehicles", "/uix",
+                "/swagger-ui/index.html", "/v3/api-docs", "/v3/api-docs/swagger-config",
+                "/customer/login", "/customer/login/", "/customer/12", "/customer/12/vehicles", "/customer/all",
+                "/customer/editprofile", "/customer/editprofile/5", "/customer",
+                "/company", "/company/", "/company/login", "/company/5/products",
+                "/vehicle/id/7", "/vehicle/id", "/vehicle/id/7/extra", "/vehicle/vin/ABC123",
+                "/vehicle/customerid/3", "/vehicle/delete/3", "/vehicle/count", "/vehicle/COUNT",
+                "/product/companyid/9", "/product/delupdate/1", "/product/update/1",
+                "/actuator/health", "/admin", "/loginview", "/frontend-es5/app.js", "/webjars/x/y.js");
+
+        for (String path : paths) {
+            boolean expected = Arrays.stream(SecurityConfig.PUBLIC_PATHS)
+                    .anyMatch(pattern -> antPathMatcher.match(pattern, path));
+            assertThat(matcher.matches(path)).as(path).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void usesPathWithinApplication() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/vehicle/id/7");
+        request.setContextPath("/app");
+        assertThat(matcher.matches(request)).isTrue();
+
+        request = new MockHttpServletRequest("GET", "/app/vehicle/delete/7");
+        request.setContextPath("/app");
+        assertThat(matcher.matches(request)).isFalse();
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.tbd;
+
+import com.example.tbd.company.CompanyNameSearch;
+import com.example.tbd.company.CompanySuggestionDTO;
+import com.example.tbd.customer.Customer;
+import com.example.tbd.customer.CustomerRepository;
+import com.example.tbd.customer.CustomerService;
+import com.example.tbd.customer.UpdateProfileRequest;
+import com.example.tbd.vehicle.Vehicle;
+import com.example.tbd.vehicle.VehicleService;
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Primárna databáza a replika sú dve samostatné H2 databázy v pamäti - podľa toho,
+// v ktorej je vozidlo, je vidieť, kam bol dotaz nasmerovaný
+@SpringBootTest(properties = {
+        "datasource.replica.urls=" + ReplicaRoutingDataSourceTest.REPLICA_URL,
+        "datasource.replica.sticky-window=1m"
+})
+@ActiveProfiles("test")
+class ReplicaRoutingDataSourceTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:tbd_replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    private static final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @Autowired
+    private VehicleService vehicleService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EntityCounters entityCounters;
+
+    @Autowired
+    private CompanyNameSearch companyNameSearch;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeAll
+    static void createReplica() {
+        Flyway.configure().dataSource(REPLICA_URL, "sa", "").load().migrate();
+        replica.update("INSERT INTO customer (id, name, surname, email, password, birthdate, city, telephone, role_id, created_at) "
+                + "VALUES (1, 'Ján', 'Replika', 'jan@replika.sk', 'x', '1990-01-01', 'Nitra', '1', 1, NOW())");
+        replica.update("INSERT INTO vehicle (customer_id, brand, model, registered_at, vin, plate_no, deleted, created_at) "
+                + "VALUES (1, 'Škoda', 'Octavia', '2020-01-01', 'REPLICAVIN0000001', 'NR111AA', 'N', NOW())");
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionReadsFromReplica() {
+        assertThat(vehicleService.findByVin("REPLICAVIN0000001")).isPresent();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM vehicle WHERE vin = 'REPLICAVIN0000001'", Long.class))
+                .isZero();
+    }
+
+    @Test
+    void clientReadsFromPrimaryAfterWrite() {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("writer@tbd.sk", null, "ROLE_USER"));
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                jdbcTemplate.update("UPDATE id_generator SET next_val = next_val WHERE sequence_name = 'vehicle'"));
+
+        assertThat(vehicleService.findByVin("REPLICAVIN0000001")).isEmpty();
+
+        // Iný klient zápis nerobil - stále číta z repliky
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("reader@tbd.sk", null, "ROLE_USER"));
+        assertThat(vehicleService.findByVin("REPLICAVIN0000001")).isPresent();
+    }
+
+    // Replika zaostáva - pozná staršiu verziu riadku. Zmena ju nesmie načítať a uložiť.
+    @Test
+    void updateVehicleReadsCurrentRowFromPrimary() {
+        jdbcTemplate.update("INSERT INTO customer (id, name, surname, email, password, birthdate, city, telephone, role_id, created_at) "
+                + "VALUES (900, 'Peter', 'Primár', 'peter@primar.sk', 'x', '1990-01-01', 'Nitra', '1', 1, NOW())");
+        jdbcTemplate.update("INSERT INTO vehicle (id, customer_id, brand, model, registered_at, vin, plate_no, deleted, created_at, version) "
+                + "VALUES (900, 900, 'Škoda', 'Superb', '2020-01-01', 'PRIMARYVIN0000900', 'NR900AA', 'N', NOW(), 3)");
+        replica.update("INSERT INTO vehicle (id, customer_id, brand, model, registered_at, vin, plate_no, deleted, created_at, version) "
+                + "VALUES (900, 1, 'Škoda', 'Octavia', '2020-01-01', 'PRIMARYVIN0000900', 'NR900AA', 'N', NOW(), 0)");
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("editor@tbd.sk", null, "ROLE_USER"));
+
+        Vehicle change = new Vehicle();
+        change.setId(900L);
+        change.setColor("modrá");
+        assertThat(vehicleService.updateVehicle(change)).isNull();
+
+        assertThat(jdbcTemplate.queryForMap("SELECT model, color, version FROM vehicle WHERE id = 900"))
+                .containsEntry("model", "Superb")
+                .containsEntry("color", "modrá")
+                .containsEntry("version", 4L);
+    }
+
+    @Test
+    void updateCustomerProfileReadsCurrentRowFromPrimary() {
+        jdbcTemplate.update("INSERT INTO customer (id, name, surname, email, password, birthdate, city, telephone, role_id, created_at, version) "
+                + "VALUES (901, 'Eva', 'Primárna', 'eva@primar.sk', 'x', '1990-01-01', 'Nitra', '1', 1, NOW(), 2)");
+        replica.update("INSERT INTO customer (id, name, surname, email, password, birthdate, city, telephone, role_id, created_at, version) "
+                + "VALUES (901, 'Eva', 'Replika', 'eva@replika.sk', 'x', '1990-01-01', 'Nitra', '1', 1, NOW(), 0)");
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("editor@tbd.sk", null, "ROLE_USER"));
+
+        UpdateProfileRequest request = new UpdateProfileRequest();
+        request.setName("Eva");
+        request.setSurname("Primárna");
+        request.setCity("Trnava");
+        request.setTelephone("1");
+        request.setEmail("eva@primar.sk");
+        assertThat(customerService.updateCustomerProfile(901L, request)).isTrue();
+
+        assertThat(jdbcTemplate.queryForMap("SELECT city, credential_version, version FROM customer WHERE id = 901"))
+                .containsEntry("city", "Trnava")
+                .containsEntry("credential_version", 0)
+                .containsEntry("version", 3L);
+    }
+
+    // Zákazník načítaný z repliky sa do cache druhej úrovne neuloží - replika môže zaostávať
+    @Test
+    void readOnlyLoadDoesNotPopulateSecondLevelCache() {
+        replica.update("INSERT INTO customer (id, name, surname, email, password, birthdate, city, telephone, role_id, created_at) "
+                + "VALUES (902, 'Jana', 'Replika', 'jana@replika.sk', 'x', '1990-01-01', 'Nitra', '1', 1, NOW())");
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("reader@tbd.sk", null, "ROLE_USER"));
+
+        assertThat(customerRepository.findById(902L)).isPresent();
+        assertThat(entityManagerFactory.getCache().contains(Customer.class, 902L)).isFalse();
+    }
+
+    // Plánované úlohy nemajú klienta pre StickyPrimary - kontrola počítadiel a načítanie indexu aj tak čítajú
+    // z primárnej databázy, replika bez firiem by počítadlo prepísala na 0 a firmu z indexu vypustila
+    @Test
+    void scheduledJobsReadFromPrimary() {
+        jdbcTemplate.update("INSERT INTO company (company_name, ico, email, telephone, address, password, created_at) "
+                + "VALUES ('Primárna Stanica', 87659903, 'stanica@primar.sk', '1', 'Nitra', 'x', NOW())");
+
+        entityCounters.reconcile();
+        companyNameSearch.reload();
+
+        assertThat(entityCounters.companies())
+                .isEqualTo(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM company", Long.class))
+                .isPositive();
+        assertThat(companyNameSearch.search("Primárna Stanica", 10))
+                .extracting(CompanySuggestionDTO::ico)
+                .containsExactly(87659903);
+    }
+}
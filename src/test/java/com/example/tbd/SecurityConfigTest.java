@@ -0,0 +1,64 @@
+package com.example.tbd;
+
+import com.example.tbd.customer.Customer;
+import com.example.tbd.customer.CustomerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SecurityConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private JwtTokenUtil jwtTokenUtil;
+
+    @Test
+    void customerExportRequiresAuthentication() throws Exception {
+        mockMvc.perform(get("/customer/export")).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void customerSearchRequiresAuthentication() throws Exception {
+        mockMvc.perform(get("/customer/search").param("q", "novak")).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void companyExportRequiresAuthentication() throws Exception {
+        mockMvc.perform(get("/company/export")).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void publicPathsStayPublic() throws Exception {
+        mockMvc.perform(get("/customer/count")).andExpect(status().isOk());
+        mockMvc.perform(get("/company/count")).andExpect(status().isOk());
+    }
+
+    @Test
+    void adminPagesRequireAdminRole() throws Exception {
+        mockMvc.perform(get("/vehicle/admin/page")).andExpect(status().isUnauthorized());
+
+        String customer = TestAccounts.bearer(jwtTokenUtil,
+                TestAccounts.saveCustomer(customerRepository, "security.customer@example.com", Customer.ROLE_ID_USER));
+        mockMvc.perform(get("/vehicle/admin/page").header("Authorization", customer)).andExpect(status().isForbidden());
+        mockMvc.perform(get("/product/admin/page").header("Authorization", customer)).andExpect(status().isForbidden());
+
+        String admin = TestAccounts.bearer(jwtTokenUtil,
+                TestAccounts.saveCustomer(customerRepository, "security.admin@example.com", Customer.ROLE_ID_ADMIN));
+        mockMvc.perform(get("/vehicle/admin/page").header("Authorization", admin)).andExpect(status().isOk());
+        mockMvc.perform(get("/product/admin/page").header("Authorization", admin)).andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.tbd;
+
+import com.example.tbd.company.Company;
+import com.example.tbd.company.CompanyRepository;
+import com.example.tbd.customer.Customer;
+import com.example.tbd.product.Product;
+import com.example.tbd.product.ProductRepository;
+import com.example.tbd.vehicle.Vehicle;
+import com.example.tbd.vehicle.VehicleRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// @SQLRestriction na Vehicle a Product - vymazané záznamy bežné endpointy nevracajú, stránky /admin/page áno
+class SoftDeleteFilterTest extends EndpointTest {
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Test
+    void deletedVehicleIsHiddenExceptOnAdminPage() throws Exception {
+        Customer owner = TestAccounts.saveCustomer(customerRepository, "softdelete.owner@example.com", Customer.ROLE_ID_USER);
+        String bearer = TestAccounts.bearer(jwtTokenUtil, owner);
+        Vehicle deleted = vehicleRepository.save(TestVehicles.vehicle(owner.getId(), "BA701SD", "SOFTDELETE0000001"));
+        Vehicle kept = vehicleRepository.save(TestVehicles.vehicle(owner.getId(), "BA702SD", "SOFTDELETE0000002"));
+
+        mockMvc.perform(put("/vehicle/delupdate/" + deleted.getId()).header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/vehicle/id/" + deleted.getId())).andExpect(status().isNotFound());
+        mockMvc.perform(get("/vehicle/vin/" + deleted.getVin())).andExpect(status().isNotFound());
+        mockMvc.perform(get("/vehicle/customerid/" + owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(kept.getId()));
+        pageAfter("/vehicle/page", deleted.getId(), null)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(kept.getId()));
+
+        String admin = TestAccounts.bearer(jwtTokenUtil,
+                TestAccounts.saveCustomer(customerRepository, "softdelete.admin@example.com", Customer.ROLE_ID_ADMIN));
+        pageAfter("/vehicle/admin/page", deleted.getId(), admin)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(deleted.getId()))
+                .andExpect(jsonPath("$.items[0].deleted").value("Y"));
+        pageAfter("/vehicle/admin/page", deleted.getId(), bearer).andExpect(status().isForbidden());
+    }
+
+    @Test
+    void deletedProductIsHiddenExceptOnAdminPage() throws Exception {
+        Company company = TestAccounts.saveCompany(companyRepository, 87654501);
+        Product deleted = productRepository.save(product(company, "20.00"));
+        Product kept = productRepository.save(product(company, "30.00"));
+
+        mockMvc.perform(put("/product/delupdate/" + deleted.getId())).andExpect(status().isOk());
+
+        mockMvc.perform(get("/product/companyid/" + company.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(kept.getId()));
+        mockMvc.perform(get("/product/search").param("companyId", company.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(kept.getId()));
+        pageAfter("/product/page", deleted.getId(), null)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(kept.getId()));
+
+        String admin = TestAccounts.bearer(jwtTokenUtil,
+                TestAccounts.saveCustomer(customerRepository, "softdelete.product.admin@example.com", Customer.ROLE_ID_ADMIN));
+        pageAfter("/product/admin/page", deleted.getId(), admin)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(deleted.getId()))
+                .andExpect(jsonPath("$.items[0].deleted").value("Y"));
+    }
+
+    // Stránka s jediným záznamom - prvým s ID aspoň id
+    private ResultActions pageAfter(String url, long id, String bearer) throws Exception {
+        MockHttpServletRequestBuilder request = get(url).param("after", CursorPage.encodeCursor(id - 1)).param("limit", "1");
+        if (bearer != null) {
+            request.header(HttpHeaders.AUTHORIZATION, bearer);
+        }
+        return mockMvc.perform(request);
+    }
+
+    private static Product product(Company company, String price) {
+        Product product = new Product();
+        product.setCompanyId(Math.toIntExact(company.getId()));
+        product.setName("Geometria");
+        product.setDescription("Test");
+        product.setPrice(new BigDecimal(price));
+        return product;
+    }
+}
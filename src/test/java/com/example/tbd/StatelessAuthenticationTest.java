@@ -0,0 +1,99 @@
+package com.example.tbd;
+
+import com.example.tbd.customer.Customer;
+import com.example.tbd.customer.CustomerService;
+import com.example.tbd.customer.UpdateProfileRequest;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Bezstavový režim (auth.stateless-claims) - bez databázy, token so staršou verziou prihlasovacích údajov sa odmietne
+@TestPropertySource(properties = "auth.stateless-claims=true")
+class StatelessAuthenticationTest extends EndpointTest {
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void passwordAndEmailChangeRejectEarlierTokens() throws Exception {
+        Customer customer = TestAccounts.saveCustomer(customerRepository, "stateless.change@example.com", Customer.ROLE_ID_USER);
+        String before = TestAccounts.bearer(jwtTokenUtil, customer);
+        authenticated(before).andExpect(status().isOk());
+
+        assertThat(customerService.updateCustomerProfile(customer.getId(), profile(customer.getEmail(), "noveHeslo123"))).isTrue();
+        authenticated(before).andExpect(status().isUnauthorized());
+
+        Customer afterPassword = customerRepository.findById(customer.getId()).orElseThrow();
+        String current = TestAccounts.bearer(jwtTokenUtil, afterPassword);
+        authenticated(current).andExpect(status().isOk());
+
+        assertThat(customerService.updateCustomerProfile(customer.getId(), profile("stateless.moved@example.com", null))).isTrue();
+        authenticated(current).andExpect(status().isUnauthorized());
+        authenticated(TestAccounts.bearer(jwtTokenUtil, customerRepository.findById(customer.getId()).orElseThrow()))
+                .andExpect(status().isOk());
+    }
+
+    // Autentifikácia iba z claimov - filter nepošle do databázy žiadny dotaz
+    @Test
+    void authenticatesFromClaimsWithoutDatabase() throws Exception {
+        Customer admin = TestAccounts.saveCustomer(customerRepository, "stateless.admin@example.com", Customer.ROLE_ID_ADMIN);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/vehicle/facets");
+        request.addHeader(HttpHeaders.AUTHORIZATION, TestAccounts.bearer(jwtTokenUtil, admin));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        try {
+            jwtAuthenticationFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            assertThat(authentication.getName()).isEqualTo(admin.getEmail());
+            assertThat(SecurityConfig.isAdmin(authentication)).isTrue();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void tokenWithoutCredentialVersionIsRejected() throws Exception {
+        Customer customer = TestAccounts.saveCustomer(customerRepository, "stateless.noversion@example.com", Customer.ROLE_ID_USER);
+        String token = jwtTokenUtil.generateToken(customer.getEmail(), customer.getId(), customer.getEmail(),
+                JwtTokenUtil.ROLE_CUSTOMER, null);
+
+        authenticated("Bearer " + token).andExpect(status().isUnauthorized());
+    }
+
+    private ResultActions authenticated(String bearer) throws Exception {
+        return mockMvc.perform(get("/vehicle/facets").header(HttpHeaders.AUTHORIZATION, bearer));
+    }
+
+    private static UpdateProfileRequest profile(String email, String password) {
+        UpdateProfileRequest request = new UpdateProfileRequest();
+        request.setName("Test");
+        request.setSurname("Test");
+        request.setCity("Bratislava");
+        request.setTelephone("0900000000");
+        request.setEmail(email);
+        request.setPassword(password);
+        return request;
+    }
+}
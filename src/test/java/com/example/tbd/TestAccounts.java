@@ -0,0 +1,54 @@
+package com.example.tbd;
+
+import com.example.tbd.company.Company;
+import com.example.tbd.company.CompanyRepository;
+import com.example.tbd.customer.Customer;
+import com.example.tbd.customer.CustomerRepository;
+
+import java.time.LocalDate;
+
+// Zákazníci, firmy a JWT tokeny pre testy endpointov za prihlásením
+public final class TestAccounts {
+
+    private TestAccounts() {
+    }
+
+    // Uloží zákazníka so zadaným e-mailom a rolou (heslo sa v testoch neoveruje)
+    public static Customer saveCustomer(CustomerRepository customerRepository, String email, int roleId) {
+        Customer customer = new Customer();
+        customer.setName("Test");
+        customer.setSurname("Test");
+        customer.setCity("Bratislava");
+        customer.setTelephone("0900000000");
+        customer.setBirthdate(LocalDate.of(1990, 1, 1));
+        customer.setEmail(email);
+        customer.setPassword("n/a");
+        customer.setRoleId(roleId);
+        return customerRepository.save(customer);
+    }
+
+    // Hodnota hlavičky Authorization pre zákazníka
+    public static String bearer(JwtTokenUtil jwtTokenUtil, Customer customer) {
+        return "Bearer " + jwtTokenUtil.generateToken(customer.getEmail(), customer.getId(), customer.getEmail(),
+                JwtTokenUtil.ROLE_CUSTOMER, customer.getCredentialVersion(),
+                Integer.valueOf(Customer.ROLE_ID_ADMIN).equals(customer.getRoleId()));
+    }
+
+    // Uloží firmu so zadaným IČO (heslo sa v testoch neoveruje)
+    public static Company saveCompany(CompanyRepository companyRepository, int ico) {
+        Company company = new Company();
+        company.setCompanyName("Test " + ico);
+        company.setIco(ico);
+        company.setEmail(ico + "@example.sk");
+        company.setTelephone("0900000000");
+        company.setAddress("Hlavná 1");
+        company.setPassword("n/a");
+        return companyRepository.save(company);
+    }
+
+    // Hodnota hlavičky Authorization pre firmu
+    public static String bearer(JwtTokenUtil jwtTokenUtil, Company company) {
+        return "Bearer " + jwtTokenUtil.generateToken(company.getIco().toString(), company.getId(), company.getIco().toString(),
+                JwtTokenUtil.ROLE_COMPANY, company.getCredentialVersion());
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.tbd;
+
+import com.example.tbd.vehicle.Vehicle;
+
+import java.time.LocalDate;
+
+// Vozidlá pre testy - iba povinné stĺpce, ostatné atribúty si test nastaví sám
+public final class TestVehicles {
+
+    private TestVehicles() {
+    }
+
+    public static Vehicle vehicle(Long customerId, String plateNo, String vin) {
+        Vehicle vehicle = new Vehicle();
+        vehicle.setCustomerId(customerId);
+        vehicle.setBrand("Skoda");
+        vehicle.setModel("Octavia");
+        vehicle.setRegisteredAt(LocalDate.of(2020, 1, 1));
+        vehicle.setPlateNo(plateNo);
+        vehicle.setVin(vin);
+        return vehicle;
+    }
+}
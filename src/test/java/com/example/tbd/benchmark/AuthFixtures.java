@@ -0,0 +1,55 @@
+package com.example.tbd.benchmark;
+
+import com.example.tbd.CompanyUserDetailsService;
+import com.example.tbd.CustomUserDetailsService;
+import com.example.tbd.JwtAuthenticationFilter;
+import com.example.tbd.JwtTokenUtil;
+import com.example.tbd.PrincipalCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Duration;
+import java.util.List;
+
+// Spoločné objekty pre benchmarky autentifikácie - bez Spring kontextu a bez databázy
+final class AuthFixtures {
+
+    static final String CUSTOMER_EMAIL = "jan.novak@example.com";
+    static final String COMPANY_ICO = "12345678";
+
+    // JwtAuthenticationFilter heslo nepoužíva, stačí ľubovoľná neprázdna hodnota
+    private static final String STORED_PASSWORD = "n/a";
+
+    private AuthFixtures() {
+    }
+
+    static JwtTokenUtil jwtTokenUtil() {
+        return new JwtTokenUtil(new SimpleMeterRegistry(), 50_000);
+    }
+
+    static PrincipalCache principalCache() {
+        return new PrincipalCache(new StubCustomerDetailsService(), new StubCompanyDetailsService(),
+                new SimpleMeterRegistry(), 10_000, Duration.ofMinutes(5), 100_000);
+    }
+
+    static JwtAuthenticationFilter filter(boolean statelessClaims) {
+        return new JwtAuthenticationFilter(principalCache(), jwtTokenUtil(), statelessClaims);
+    }
+
+    // Náhrada CustomUserDetailsService - vracia zákazníka bez dotazu do databázy
+    static final class StubCustomerDetailsService extends CustomUserDetailsService {
+        @Override
+        public UserDetails loadUserByUsername(String username) {
+            return new User(username, STORED_PASSWORD, List.of());
+        }
+    }
+
+    // Náhrada CompanyUserDetailsService - vracia firmu bez dotazu do databázy
+    static final class StubCompanyDetailsService extends CompanyUserDetailsService {
+        @Override
+        public UserDetails loadUserByUsername(String ico) {
+            return new User(ico, STORED_PASSWORD, List.of());
+        }
+    }
+}
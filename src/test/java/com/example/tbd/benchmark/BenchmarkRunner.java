@@ -0,0 +1,30 @@
+package com.example.tbd.benchmark;
+
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Spustenie JMH benchmarkov z testovacích zdrojov.
+ * <p>
+ * Všetky benchmarky:
+ * <pre>
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-cp %classpath com.example.tbd.benchmark.BenchmarkRunner"
+ * </pre>
+ * Iba vybrané benchmarky - prvý argument je regulárny výraz, napr. {@code JwtTokenBenchmark}.
+ * Druhý argument je voliteľný JMH profiler, napr. {@code gc} pre alokácie na operáciu.
+ * Výsledky pred a po optimalizácii porovnávajte na rovnakom stroji.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : BenchmarkRunner.class.getPackageName() + ".*Benchmark";
+        OptionsBuilder options = new OptionsBuilder();
+        options.include(include);
+        if (args.length > 1) {
+            options.addProfiler(args[1]);
+        }
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.tbd.benchmark;
+
+import com.example.tbd.company.Company;
+import com.example.tbd.company.CompanyDTO;
+import com.example.tbd.company.CompanyRepository;
+import com.example.tbd.vehicle.Vehicle;
+import com.example.tbd.vehicle.VehicleDTO;
+import com.example.tbd.vehicle.VehicleMapper;
+import com.example.tbd.vehicle.VehicleRepository;
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+// Zoznam firiem a vozidiel ako DTO: pôvodne načítanie celých entít (vrátane hesla) v read-only transakcii
+// a mapovanie na DTO, teraz projekcia v JPQL (CompanyRepository.COMPANY_DTO, VehicleRepository.VEHICLE_DTO).
+// Alokácie na operáciu: BenchmarkRunner DtoProjectionBenchmark gc
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DtoProjectionBenchmark {
+
+    @Param({"1000", "10000"})
+    public int rows;
+
+    private Connection connection;
+    private SessionFactory sessionFactory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        String url = "jdbc:h2:mem:projection_benchmark_" + rows + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL(url);
+        dataSource.setUser("sa");
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+        connection = dataSource.getConnection();
+        seed(connection, rows);
+
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(Company.class)
+                .addAnnotatedClass(Vehicle.class)
+                .setProperty("hibernate.connection.url", url)
+                .setProperty("hibernate.connection.username", "sa")
+                .setProperty("hibernate.cache.use_second_level_cache", "false")
+                .setProperty("jakarta.persistence.validation.mode", "none")
+                .buildSessionFactory();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        sessionFactory.close();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SHUTDOWN");
+        }
+    }
+
+    @Benchmark
+    public List<CompanyDTO> companiesAsEntities() {
+        return inReadOnlyTransaction(session -> {
+            List<CompanyDTO> result = new ArrayList<>();
+            for (Company company : session.createQuery("SELECT c FROM Company c", Company.class).getResultList()) {
+                CompanyDTO output = new CompanyDTO();
+                output.setId(company.getId());
+                output.setCompanyName(company.getCompanyName());
+                output.setIco(company.getIco());
+                output.setEmail(company.getEmail());
+                output.setTelephone(company.getTelephone());
+                output.setAddress(company.getAddress());
+                output.setVersion(company.getVersion());
+                result.add(output);
+            }
+            return result;
+        });
+    }
+
+    @Benchmark
+    public List<CompanyDTO> companiesAsProjection() {
+        return inReadOnlyTransaction(session ->
+                session.createQuery(CompanyRepository.COMPANY_DTO, CompanyDTO.class).getResultList());
+    }
+
+    @Benchmark
+    public List<VehicleDTO> vehiclesAsEntities() {
+        return inReadOnlyTransaction(session -> VehicleMapper.INSTANCE.toVehicleOutputList(
+                session.createQuery("SELECT v FROM Vehicle v", Vehicle.class).getResultList()));
+    }
+
+    @Benchmark
+    public List<VehicleDTO> vehiclesAsProjection() {
+        return inReadOnlyTransaction(session ->
+                session.createQuery(VehicleRepository.VEHICLE_DTO, VehicleDTO.class).getResultList());
+    }
+
+    // Rovnako ako @Transactional(readOnly = true) v Spring - read-only session bez flush
+    private <T> T inReadOnlyTransaction(Function<Session, T> work) {
+        try (Session session = sessionFactory.openSession()) {
+            session.setDefaultReadOnly(true);
+            session.beginTransaction();
+            T result = work.apply(session);
+            session.getTransaction().commit();
+            return result;
+        }
+    }
+
+    private static void seed(Connection connection, int rows) throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO customer (id, name, surname, city, telephone, birthdate, email, password, created_at, role_id) "
+                    + "VALUES (1, 'Ján', 'Novák', 'Bratislava', '0900123456', DATE '1990-01-01', 'jan@example.com', 'n/a', NOW(), 1)");
+        }
+        // Heslo ako BCrypt hash - entita ho načíta, projekcia nie
+        String password = "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z0ZbZ2hZ8y8p9z5QXbqj1F1W";
+        try (PreparedStatement company = connection.prepareStatement(
+                "INSERT INTO company (company_name, ico, email, telephone, address, password, created_at) "
+                        + "VALUES (?, ?, ?, '0900123456', 'Hlavná 1, 811 01 Bratislava', ?, ?)");
+             PreparedStatement vehicle = connection.prepareStatement(
+                     "INSERT INTO vehicle (customer_id, brand, model, registered_at, vin, plate_no, fuel, color, mileage, "
+                             + "transmission_type, tire_size, last_serviced, deleted, created_at) "
+                             + "VALUES (1, 'Škoda', 'Octavia', '2020-01-01', ?, ?, 'Diesel', 'Sivá', 120000, "
+                             + "'Manuálna', '205/55 R16', '2024-05-01', 'N', ?)")) {
+            for (int i = 1; i <= rows; i++) {
+                company.setString(1, "Firma " + i);
+                company.setInt(2, 10_000_000 + i);
+                company.setString(3, "firma" + i + "@example.com");
+                company.setString(4, password);
+                company.setTimestamp(5, now);
+                company.addBatch();
+                vehicle.setString(1, String.format("VIN%014d", i));
+                vehicle.setString(2, "BA" + i);
+                vehicle.setTimestamp(3, now);
+                vehicle.addBatch();
+                if (i % 1_000 == 0) {
+                    company.executeBatch();
+                    vehicle.executeBatch();
+                }
+            }
+            company.executeBatch();
+            vehicle.executeBatch();
+        }
+        connection.commit();
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.tbd.benchmark;
+
+import com.example.tbd.JwtAuthenticationFilter;
+import com.example.tbd.JwtTokenUtil;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.TimeUnit;
+
+// Celý JwtAuthenticationFilter.doFilterInternal pre požiadavku s Bearer tokenom (mock servlet objekty, bez databázy)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    // Atribút, ktorým OncePerRequestFilter označí už spracovanú požiadavku
+    private static final String ALREADY_FILTERED = JwtAuthenticationFilter.class.getName() + ".FILTERED";
+
+    @Param({"false", "true"})
+    public boolean statelessClaims;
+
+    @Param({"CUSTOMER", "COMPANY"})
+    public String role;
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private FilterChain chain;
+
+    @Setup
+    public void setUp() {
+        filter = AuthFixtures.filter(statelessClaims);
+        JwtTokenUtil jwtTokenUtil = AuthFixtures.jwtTokenUtil();
+        String subject = JwtTokenUtil.ROLE_COMPANY.equals(role) ? AuthFixtures.COMPANY_ICO : AuthFixtures.CUSTOMER_EMAIL;
+        String token = jwtTokenUtil.generateToken(subject, 42L, subject, role, 0);
+
+        request = new MockHttpServletRequest("GET", "/vehicle/id/1");
+        request.addHeader("Authorization", "Bearer " + token);
+        response = new MockHttpServletResponse();
+        chain = (req, res) -> { }; // Za filtrom už nič nebeží
+    }
+
+    @Benchmark
+    public Authentication doFilter() throws Exception {
+        SecurityContextHolder.clearContext();
+        request.removeAttribute(ALREADY_FILTERED);
+        filter.doFilter(request, response, chain);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    // Požiadavka bez hlavičky Authorization - spodná hranica réžie filtra
+    @Benchmark
+    public void doFilterWithoutToken() throws Exception {
+        MockHttpServletRequest anonymous = new MockHttpServletRequest("GET", "/vehicle/id/1");
+        filter.doFilter(anonymous, response, new MockFilterChain());
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.tbd.benchmark;
+
+import com.example.tbd.JwtTokenUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.Key;
+import java.util.concurrent.TimeUnit;
+
+// Generovanie a overovanie JWT tokenov cez JwtTokenUtil
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtTokenBenchmark {
+
+    private JwtTokenUtil jwtTokenUtil;
+    private String token;
+    private Key key;
+
+    @Setup
+    public void setUp() {
+        jwtTokenUtil = AuthFixtures.jwtTokenUtil();
+        token = jwtTokenUtil.generateToken(AuthFixtures.CUSTOMER_EMAIL, 42L, AuthFixtures.CUSTOMER_EMAIL,
+                JwtTokenUtil.ROLE_CUSTOMER, 0);
+        key = Keys.hmacShaKeyFor("verysecuresecretkeywith256bits1234567890".getBytes());
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtTokenUtil.generateToken(AuthFixtures.CUSTOMER_EMAIL, 42L, AuthFixtures.CUSTOMER_EMAIL,
+                JwtTokenUtil.ROLE_CUSTOMER, 0);
+    }
+
+    // Opakovaný token - po prvom volaní ide o cache overených claimov
+    @Benchmark
+    public Claims extractClaims() {
+        return jwtTokenUtil.extractClaims(token);
+    }
+
+    // Porovnanie: nový parser, overenie podpisu a parsovanie JSON pri každom volaní
+    @Benchmark
+    public Claims extractClaimsWithoutCache() {
+        return Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.tbd.benchmark;
+
+import com.example.tbd.PublicPathMatcher;
+import com.example.tbd.SecurityConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// PublicPathMatcher oproti pôvodnému reťazcu vzorov, ktoré sa skúšajú jeden po druhom
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PublicPathMatcherBenchmark {
+
+    // Statický súbor Vaadinu, koniec zoznamu vzorov, parameter v ceste a neverejná cesta
+    @Param({"/VAADIN/build/vaadin-bundle-1a2b3c.js", "/ui/vehicles", "/vehicle/id/42", "/vehicle/delete/42"})
+    public String path;
+
+    private RequestMatcher chain;
+    private RequestMatcher trie;
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setUp() {
+        List<RequestMatcher> matchers = Arrays.stream(SecurityConfig.PUBLIC_PATHS)
+                .<RequestMatcher>map(AntPathRequestMatcher::antMatcher)
+                .toList();
+        chain = new OrRequestMatcher(matchers);
+        trie = new PublicPathMatcher(SecurityConfig.PUBLIC_PATHS);
+        request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+    }
+
+    @Benchmark
+    public boolean requestMatchersChain() {
+        return chain.matches(request);
+    }
+
+    @Benchmark
+    public boolean publicPathMatcher() {
+        return trie.matches(request);
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.tbd.benchmark;
+
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Latencia dotazov z repozitárov pred (iba V1 - východisková schéma) a po migrácii V2 s indexmi.
+// Beží nad H2 v režime MySQL s naplnenými dátami, aby nebol potrebný MySQL server - absolútne čísla
+// sa od MySQL líšia, rozdiel medzi úplným prechodom tabuľky a vyhľadaním v indexe je však rovnaký.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryIndexBenchmark {
+
+    private static final int CUSTOMERS = 50_000;
+    private static final int VEHICLES_PER_CUSTOMER = 4;
+    private static final int COMPANIES = 10_000;
+    private static final int PRODUCTS_PER_COMPANY = 10;
+
+    // "1" = schéma bez indexov, "2" = s indexmi z V2__query_indexes.sql
+    @Param({"1", "2"})
+    public String schemaVersion;
+
+    private Connection connection;
+    private PreparedStatement vehiclesByCustomer;
+    private PreparedStatement customerByEmail;
+    private PreparedStatement companyByIco;
+    private PreparedStatement productsByCompany;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:index_benchmark_" + schemaVersion + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .target(schemaVersion)
+                .load()
+                .migrate();
+
+        connection = dataSource.getConnection();
+        seed(connection);
+
+        vehiclesByCustomer = connection.prepareStatement("SELECT * FROM vehicle WHERE customer_id = ? AND deleted = 'N'");
+        customerByEmail = connection.prepareStatement("SELECT * FROM customer WHERE email = ?");
+        companyByIco = connection.prepareStatement("SELECT * FROM company WHERE ico = ?");
+        productsByCompany = connection.prepareStatement("SELECT * FROM product WHERE company_id = ?");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SHUTDOWN");
+        }
+    }
+
+    @Benchmark
+    public int findVehiclesByCustomerIdAndDeleted() throws SQLException {
+        vehiclesByCustomer.setLong(1, randomId(CUSTOMERS));
+        return countRows(vehiclesByCustomer);
+    }
+
+    @Benchmark
+    public int findCustomerByEmail() throws SQLException {
+        customerByEmail.setString(1, "zakaznik" + randomId(CUSTOMERS) + "@example.com");
+        return countRows(customerByEmail);
+    }
+
+    @Benchmark
+    public int findCompanyByIco() throws SQLException {
+        companyByIco.setInt(1, 10_000_000 + (int) randomId(COMPANIES));
+        return countRows(companyByIco);
+    }
+
+    @Benchmark
+    public int findProductsByCompanyId() throws SQLException {
+        productsByCompany.setInt(1, (int) randomId(COMPANIES));
+        return countRows(productsByCompany);
+    }
+
+    private static long randomId(int bound) {
+        return ThreadLocalRandom.current().nextInt(bound) + 1;
+    }
+
+    private static int countRows(PreparedStatement statement) throws SQLException {
+        int rows = 0;
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private static void seed(Connection connection) throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        connection.setAutoCommit(false);
+        try (PreparedStatement customer = connection.prepareStatement(
+                "INSERT INTO customer (name, surname, city, telephone, birthdate, email, password, created_at, role_id) "
+                        + "VALUES ('Ján', 'Novák', 'Bratislava', '0900123456', DATE '1990-01-01', ?, 'n/a', ?, 1)");
+             PreparedStatement vehicle = connection.prepareStatement(
+                     "INSERT INTO vehicle (customer_id, brand, model, registered_at, vin, plate_no, deleted, created_at) "
+                             + "VALUES (?, 'Škoda', 'Octavia', '2020-01-01', ?, ?, ?, ?)")) {
+            for (int c = 1; c <= CUSTOMERS; c++) {
+                customer.setString(1, "zakaznik" + c + "@example.com");
+                customer.setTimestamp(2, now);
+                customer.addBatch();
+                for (int v = 0; v < VEHICLES_PER_CUSTOMER; v++) {
+                    long number = (long) c * VEHICLES_PER_CUSTOMER + v;
+                    vehicle.setLong(1, c);
+                    vehicle.setString(2, String.format("VIN%014d", number));
+                    vehicle.setString(3, "BA" + number);
+                    vehicle.setString(4, v == 0 ? "Y" : "N");
+                    vehicle.setTimestamp(5, now);
+                    vehicle.addBatch();
+                }
+                if (c % 1_000 == 0) {
+                    customer.executeBatch();
+                    vehicle.executeBatch();
+                }
+            }
+            customer.executeBatch();
+            vehicle.executeBatch();
+        }
+        try (PreparedStatement company = connection.prepareStatement(
+                "INSERT INTO company (company_name, ico, email, telephone, address, password, created_at) "
+                        + "VALUES (?, ?, ?, '0900123456', 'Hlavná 1', 'n/a', ?)");
+             PreparedStatement product = connection.prepareStatement(
+                     "INSERT INTO product (company_id, name, description, price, deleted, created_at) "
+                             + "VALUES (?, 'Výmena oleja', 'Servis', '49.90', 'N', ?)")) {
+            for (int c = 1; c <= COMPANIES; c++) {
+                company.setString(1, "Firma " + c);
+                company.setInt(2, 10_000_000 + c);
+                company.setString(3, "firma" + c + "@example.com");
+                company.setTimestamp(4, now);
+                company.addBatch();
+                for (int p = 0; p < PRODUCTS_PER_COMPANY; p++) {
+                    product.setInt(1, c);
+                    product.setTimestamp(2, now);
+                    product.addBatch();
+                }
+                if (c % 1_000 == 0) {
+                    company.executeBatch();
+                    product.executeBatch();
+                }
+            }
+            company.executeBatch();
+            product.executeBatch();
+        }
+        connection.commit();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE");
+        }
+    }
+}
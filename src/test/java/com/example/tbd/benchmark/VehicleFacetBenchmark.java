@@ -0,0 +1,79 @@
+package com.example.tbd.benchmark;
+
+import com.example.tbd.vehicle.VehicleFacet;
+import com.example.tbd.vehicle.VehicleFacetFields;
+import com.example.tbd.vehicle.VehicleFacetIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Dotaz /vehicle/facets nad indexom v pamäti (VehicleFacetIndex) pri veľkosti vozového parku 100k a 1M vozidiel:
+// bez filtra, s filtrom na jeden atribút a s filtrom na tri atribúty (z toho jeden s dvomi hodnotami).
+// Alokácie na operáciu: BenchmarkRunner VehicleFacetBenchmark gc
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class VehicleFacetBenchmark {
+
+    private static final int PAGE = 51; // Stránka 50 vozidiel a jedno navyše pre kurzor, ako vo VehicleService
+
+    @Param({"100000", "1000000"})
+    public int vehicles;
+
+    private VehicleFacetIndex index;
+    private Map<VehicleFacet, List<String>> oneFacet;
+    private Map<VehicleFacet, List<String>> threeFacets;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Pevné semienko - rovnaké rozdelenie hodnôt v každom behu
+        Random random = new Random(42);
+        List<VehicleFacetFields> fleet = new ArrayList<>(vehicles);
+        for (long id = 1; id <= vehicles; id++) {
+            int brand = random.nextInt(25);
+            fleet.add(new VehicleFacetFields(id, "Značka " + brand, "Model " + brand + "-" + random.nextInt(12),
+                    "Palivo " + random.nextInt(5), "Farba " + random.nextInt(15),
+                    random.nextBoolean() ? "manual" : "automatic",
+                    random.nextInt(4) == 0 ? null : "Pneu " + random.nextInt(40)));
+        }
+        index = new VehicleFacetIndex(fleet);
+        oneFacet = Map.of(VehicleFacet.BRAND, List.of("Značka 3"));
+        threeFacets = Map.of(
+                VehicleFacet.BRAND, List.of("Značka 3", "Značka 7"),
+                VehicleFacet.FUEL, List.of("Palivo 1"),
+                VehicleFacet.TRANSMISSION_TYPE, List.of("automatic"));
+    }
+
+    @Benchmark
+    public VehicleFacetIndex.Result unfiltered() {
+        return index.query(Map.of(), 0, PAGE);
+    }
+
+    @Benchmark
+    public VehicleFacetIndex.Result oneFacet() {
+        return index.query(oneFacet, 0, PAGE);
+    }
+
+    @Benchmark
+    public VehicleFacetIndex.Result threeFacets() {
+        return index.query(threeFacets, 0, PAGE);
+    }
+}
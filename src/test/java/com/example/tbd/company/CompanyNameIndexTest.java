@@ -0,0 +1,25 @@
+package com.example.tbd.company;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompanyNameIndexTest {
+
+    @Test
+    void matchesWordPrefixesWithoutDiacritics() {
+        CompanyNameIndex index = new CompanyNameIndex(List.of(
+                new CompanySuggestionDTO(1L, "Autoservis Ľubica s.r.o.", 11),
+                new CompanySuggestionDTO(2L, "Pneu-Auto  Šaštín", 12),
+                new CompanySuggestionDTO(3L, "Čistiareň áut", 13)));
+
+        assertThat(index.search("auto", 10)).extracting(CompanySuggestionDTO::id).containsExactly(2L, 1L);
+        assertThat(index.search("  ĽUB", 10)).extracting(CompanySuggestionDTO::id).containsExactly(1L);
+        assertThat(index.search("aut", 10)).extracting(CompanySuggestionDTO::id).containsExactly(3L, 2L, 1L);
+        assertThat(index.search("aut", 2)).hasSize(2);
+        assertThat(index.search("servis", 10)).isEmpty();
+        assertThat(index.search(" ", 10)).isEmpty();
+    }
+}
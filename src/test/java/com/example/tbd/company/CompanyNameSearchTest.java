@@ -0,0 +1,47 @@
+package com.example.tbd.company;
+
+import com.example.tbd.EndpointTest;
+import com.example.tbd.TestAccounts;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class CompanyNameSearchTest extends EndpointTest {
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Test
+    void renameReplacesPreviousName() throws Exception {
+        int id = postForId("/company/register",
+                "{\"companyName\":\"Autoservis Zelený\",\"ico\":87650001,\"email\":\"zeleny@example.sk\","
+                        + "\"telephone\":\"0900000001\",\"address\":\"Hlavná 1\",\"password\":\"heslo123\"}");
+        assertNames("zeleny", "Autoservis Zelený");
+
+        mockMvc.perform(put("/company/update/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"companyName\":\"Pneuservis Zelený\"}"))
+                .andExpect(status().isOk());
+        assertNames("zeleny", "Pneuservis Zelený");
+        assertNames("autoservis");
+
+        String bearer = TestAccounts.bearer(jwtTokenUtil, companyRepository.findByIco(87650001).orElseThrow());
+        mockMvc.perform(mergePatch("/company/" + id, bearer, "{\"companyName\":\"Karoséria Zelený\"}"))
+                .andExpect(status().isOk());
+        assertNames("zeleny", "Karoséria Zelený");
+        assertNames("pneuservis");
+    }
+
+    private void assertNames(String prefix, String... names) throws Exception {
+        mockMvc.perform(get("/company/search").param("prefix", prefix))
+                .andExpect(status().isOk())
+                .andExpect(names.length == 0 ? jsonPath("$", empty()) : jsonPath("$[*].companyName", contains(names)));
+    }
+}
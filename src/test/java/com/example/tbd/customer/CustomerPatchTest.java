@@ -0,0 +1,47 @@
+package com.example.tbd.customer;
+
+import com.example.tbd.MergePatch;
+import com.example.tbd.TestAccounts;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CustomerPatchTest {
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // PATCH obnoví v cache druhej úrovne iba zmeneného zákazníka, ostatní v nej zostanú
+    @Test
+    void patchKeepsOtherCustomersCached() throws Exception {
+        Customer patched = TestAccounts.saveCustomer(customerRepository, "patch.cache.a@example.com", Customer.ROLE_ID_USER);
+        Customer other = TestAccounts.saveCustomer(customerRepository, "patch.cache.b@example.com", Customer.ROLE_ID_USER);
+        customerRepository.findById(other.getId());
+        assertThat(entityManagerFactory.getCache().contains(Customer.class, other.getId())).isTrue();
+
+        MergePatch.Result result = customerService.patchCustomer(patched.getId(),
+                objectMapper.readTree("{\"city\":\"Košice\"}"), patched.getVersion());
+
+        assertThat(result.outcome()).isEqualTo(MergePatch.Outcome.UPDATED);
+        assertThat(result.version()).isEqualTo(patched.getVersion() + 1);
+        assertThat(entityManagerFactory.getCache().contains(Customer.class, other.getId())).isTrue();
+        assertThat(customerRepository.findById(patched.getId())).get()
+                .extracting(Customer::getCity).isEqualTo("Košice");
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.tbd.customer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CustomerSearchIndexTest {
+
+    @Test
+    void matchesAllTermsWithoutDiacriticsInIdOrder() {
+        CustomerSearchIndex index = new CustomerSearchIndex(List.of(
+                new CustomerSearchFields(3L, "Peter", "Novak", "Žilina", "peter@example.sk"),
+                new CustomerSearchFields(1L, "Ján", "Novák", "Banská Bystrica", "jan@example.sk"),
+                new CustomerSearchFields(2L, "Eva", "Kováčová", "Bratislava", "eva@example.sk")));
+
+        assertThat(index.search("NOVÁK", 0, 10)).containsExactly(1L, 3L);
+        assertThat(index.search("novak bystr", 0, 10)).containsExactly(1L);
+        assertThat(index.search("ko", 0, 10)).containsExactly(2L);
+        assertThat(index.search("example.sk", 1, 1)).containsExactly(2L);
+        assertThat(index.search("ka br", 0, 10)).isEmpty(); // Trigram cez hranicu polí "novak\nbanska" sa nenájde
+        assertThat(index.search("xyz", 0, 10)).isEmpty();
+    }
+}
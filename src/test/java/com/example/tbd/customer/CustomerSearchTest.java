@@ -0,0 +1,47 @@
+package com.example.tbd.customer;
+
+import com.example.tbd.EndpointTest;
+import com.example.tbd.TestAccounts;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class CustomerSearchTest extends EndpointTest {
+
+    private static final String PROFILE = "{\"name\":\"Ján\",\"surname\":\"Hrnčiarik\",\"city\":\"%s\","
+            + "\"telephone\":\"0900000002\",\"email\":\"hrnciarik@example.sk\",\"birthdate\":\"01.01.1990\"%s}";
+
+    @Test
+    void profileChangesReplacePreviousValues() throws Exception {
+        String bearer = bearer("customer.search@example.com");
+        int id = postForId("/customer/register", PROFILE.formatted("Banská Bystrica", ",\"password\":\"heslo123\""));
+        assertFound(bearer, "hrnciarik bystrica", id);
+
+        mockMvc.perform(put("/customer/editprofile/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(PROFILE.formatted("Košice", "")))
+                .andExpect(status().isOk());
+        assertFound(bearer, "hrnciarik kosice", id);
+        assertFound(bearer, "hrnciarik bystrica");
+
+        // Profil mení iba jeho vlastník
+        String owner = TestAccounts.bearer(jwtTokenUtil, customerRepository.findById((long) id).orElseThrow());
+        mockMvc.perform(mergePatch("/customer/" + id, owner, "{\"city\":\"Prešov\"}"))
+                .andExpect(status().isOk());
+        assertFound(bearer, "hrnciarik presov", id);
+        assertFound(bearer, "hrnciarik kosice");
+    }
+
+    private void assertFound(String bearer, String query, Integer... ids) throws Exception {
+        mockMvc.perform(get("/customer/search").param("q", query).header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isOk())
+                .andExpect(ids.length == 0 ? jsonPath("$.items", empty()) : jsonPath("$.items[*].id", contains(ids)));
+    }
+}
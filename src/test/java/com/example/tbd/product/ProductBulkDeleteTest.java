@@ -0,0 +1,105 @@
+package com.example.tbd.product;
+
+import com.example.tbd.EndpointTest;
+import com.example.tbd.EntityCounters;
+import com.example.tbd.TestAccounts;
+import com.example.tbd.company.Company;
+import com.example.tbd.company.CompanyRepository;
+import com.example.tbd.customer.Customer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// PUT /product/delupdate - počty v odpovedi, vlastníctvo služieb a úprava počítadla po commite
+class ProductBulkDeleteTest extends EndpointTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private EntityCounters entityCounters;
+
+    @Test
+    void idsDeleteOnlyOwnProductsAndUpdateCounter() throws Exception {
+        Company owner = TestAccounts.saveCompany(companyRepository, 87652201);
+        Company other = TestAccounts.saveCompany(companyRepository, 87652202);
+        Product first = productRepository.save(product(owner));
+        Product second = productRepository.save(product(owner));
+        Product foreign = productRepository.save(product(other));
+        long activeProducts = entityCounters.activeProducts();
+
+        bulkDelete(TestAccounts.bearer(jwtTokenUtil, owner), "{\"ids\":[" + first.getId() + "," + second.getId() + ","
+                + foreign.getId() + ",999999999]}")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(2))
+                .andExpect(jsonPath("$.skipped").value(2));
+
+        assertThat(entityCounters.activeProducts()).isEqualTo(activeProducts - 2);
+        assertThat(productRepository.findById(first.getId())).isEmpty();
+        assertThat(productRepository.findById(foreign.getId())).isPresent();
+    }
+
+    @Test
+    void companyScopeIsLimitedToOwnProducts() throws Exception {
+        Company owner = TestAccounts.saveCompany(companyRepository, 87652211);
+        Company other = TestAccounts.saveCompany(companyRepository, 87652212);
+        String bearer = TestAccounts.bearer(jwtTokenUtil, owner);
+        productRepository.save(product(owner));
+        Product foreign = productRepository.save(product(other));
+
+        bulkDelete(bearer, "{\"companyId\":" + other.getId() + "}")
+                .andExpect(status().isForbidden());
+        assertThat(productRepository.findById(foreign.getId())).isPresent();
+
+        long activeProducts = entityCounters.activeProducts();
+        bulkDelete(bearer, "{\"companyId\":" + owner.getId() + "}")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(1))
+                .andExpect(jsonPath("$.skipped").value(0));
+        assertThat(entityCounters.activeProducts()).isEqualTo(activeProducts - 1);
+    }
+
+    @Test
+    void customerNeedsAdminRoleForProducts() throws Exception {
+        Company company = TestAccounts.saveCompany(companyRepository, 87652221);
+        Product product = productRepository.save(product(company));
+
+        bulkDelete(bearer("bulk.product.user@example.com"), "{\"companyId\":" + company.getId() + "}")
+                .andExpect(status().isForbidden());
+        assertThat(productRepository.findById(product.getId())).isPresent();
+
+        Customer admin = TestAccounts.saveCustomer(customerRepository, "bulk.product.admin@example.com", Customer.ROLE_ID_ADMIN);
+        bulkDelete(TestAccounts.bearer(jwtTokenUtil, admin), "{\"companyId\":" + company.getId() + "}")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(1));
+        assertThat(productRepository.findById(product.getId())).isEmpty();
+    }
+
+    private ResultActions bulkDelete(String bearer, String json) throws Exception {
+        return mockMvc.perform(put("/product/delupdate")
+                .header(HttpHeaders.AUTHORIZATION, bearer)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json));
+    }
+
+    private static Product product(Company company) {
+        Product product = new Product();
+        product.setCompanyId(Math.toIntExact(company.getId()));
+        product.setName("Výmena oleja");
+        product.setDescription("Test");
+        product.setPrice(new BigDecimal("49.90"));
+        return product;
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.tbd.product;
+
+import com.example.tbd.EndpointTest;
+import com.example.tbd.TestAccounts;
+import com.example.tbd.company.Company;
+import com.example.tbd.company.CompanyRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// GET /product/search - stránkovanie podľa (cena, ID) v oboch smeroch, filter meny a cenového rozsahu
+class ProductSearchTest extends EndpointTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Test
+    void pagesContinueAcrossEqualPricesInBothDirections() throws Exception {
+        Company company = TestAccounts.saveCompany(companyRepository, 87654401);
+        int cheapest = save(company, "5.00", "EUR");
+        int firstTen = save(company, "10.00", "EUR");
+        int secondTen = save(company, "10.00", "EUR");
+        int twenty = save(company, "20.00", "EUR");
+        int thirty = save(company, "30.00", "EUR");
+
+        // Vzostupne po 2 - hranica stránky delí služby s rovnakou cenou
+        List<List<Integer>> ascending = pages(company, "asc", 2);
+        assertThat(ascending).containsExactly(List.of(cheapest, firstTen), List.of(secondTen, twenty), List.of(thirty));
+
+        // Zostupne po 3 - pri rovnakej cene rozhoduje ID, tiež zostupne
+        List<List<Integer>> descending = pages(company, "desc", 3);
+        assertThat(descending).containsExactly(List.of(thirty, twenty, secondTen), List.of(firstTen, cheapest));
+    }
+
+    @Test
+    void currencyAndPriceBoundsFilterProducts() throws Exception {
+        Company company = TestAccounts.saveCompany(companyRepository, 87654411);
+        save(company, "9.99", "EUR");
+        int lowerBound = save(company, "10.00", "EUR");
+        int inside = save(company, "15.50", "EUR");
+        int upperBound = save(company, "20.00", "EUR");
+        save(company, "20.01", "EUR");
+        int koruny = save(company, "15.00", "CZK");
+
+        assertThat(ids(search(company).param("minPrice", "10").param("maxPrice", "20")))
+                .containsExactly(lowerBound, inside, upperBound);
+        assertThat(ids(search(company).param("currency", "CZK"))).containsExactly(koruny);
+        assertThat(ids(search(company).param("currency", "CZK").param("maxPrice", "14.99"))).isEmpty();
+    }
+
+    @Test
+    void invalidParametersAreRejected() throws Exception {
+        for (String currency : List.of("eur", "EU", "XYZ1", "QQQ")) {
+            mockMvc.perform(get("/product/search").param("currency", currency))
+                    .andExpect(status().isBadRequest());
+        }
+        mockMvc.perform(get("/product/search").param("minPrice", "20").param("maxPrice", "10"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/product/search").param("sort", "price"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private int save(Company company, String price, String currency) {
+        Product product = new Product();
+        product.setCompanyId(Math.toIntExact(company.getId()));
+        product.setName("Pneuservis");
+        product.setDescription("Test");
+        product.setPrice(new BigDecimal(price));
+        product.setCurrency(currency);
+        return productRepository.save(product).getId();
+    }
+
+    private MockHttpServletRequestBuilder search(Company company) {
+        return get("/product/search").param("companyId", company.getId().toString());
+    }
+
+    private List<List<Integer>> pages(Company company, String sort, int limit) throws Exception {
+        List<List<Integer>> pages = new ArrayList<>();
+        String cursor = null;
+        do {
+            MockHttpServletRequestBuilder request = search(company).param("sort", sort).param("limit", String.valueOf(limit));
+            if (cursor != null) {
+                request.param("after", cursor);
+            }
+            JsonNode page = page(request);
+            pages.add(ids(page));
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+        } while (cursor != null);
+        return pages;
+    }
+
+    private List<Integer> ids(MockHttpServletRequestBuilder request) throws Exception {
+        return ids(page(request));
+    }
+
+    private JsonNode page(MockHttpServletRequestBuilder request) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    private static List<Integer> ids(JsonNode page) {
+        List<Integer> ids = new ArrayList<>();
+        page.get("items").forEach(item -> ids.add(item.get("id").asInt()));
+        return ids;
+    }
+}
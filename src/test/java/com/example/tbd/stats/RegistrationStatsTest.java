@@ -0,0 +1,152 @@
+package com.example.tbd.stats;
+
+import com.example.tbd.EndpointTest;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Hodinové súčty v registration_rollup - prírastok po registrácii, oprava posledných hodín a prvé naplnenie
+class RegistrationStatsTest extends EndpointTest {
+
+    private static final String CUSTOMER = "{\"name\":\"Eva\",\"surname\":\"Štatistická\",\"city\":\"Trnava\","
+            + "\"telephone\":\"0900000003\",\"email\":\"%s\",\"birthdate\":\"01.01.1990\",\"password\":\"heslo123\"}";
+    private static final String COMPANY = "{\"companyName\":\"Štatistika %1$d\",\"ico\":%1$d,\"email\":\"stat%1$d@example.sk\","
+            + "\"telephone\":\"0900000004\",\"address\":\"Hlavná 4\",\"password\":\"heslo123\"}";
+
+    @Autowired
+    private RegistrationStats registrationStats;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void registrationsIncrementTheirHour() throws Exception {
+        JsonNode before = stats();
+        long customerRows = rollupTotal(RegistrationStats.CUSTOMER);
+        long companyRows = rollupTotal(RegistrationStats.COMPANY);
+
+        postForId("/customer/register", CUSTOMER.formatted("stats.increment.a@example.com"));
+        postForId("/customer/register", CUSTOMER.formatted("stats.increment.b@example.com"));
+        postForId("/company/register", COMPANY.formatted(87651301));
+
+        JsonNode after = stats();
+        assertThat(after.at("/customers/last24h").asLong()).isEqualTo(before.at("/customers/last24h").asLong() + 2);
+        assertThat(after.at("/companies/last24h").asLong()).isEqualTo(before.at("/companies/last24h").asLong() + 1);
+        assertThat(rollupTotal(RegistrationStats.CUSTOMER)).isEqualTo(customerRows + 2);
+        assertThat(rollupTotal(RegistrationStats.COMPANY)).isEqualTo(companyRows + 1);
+    }
+
+    @Test
+    void reconcileRecentRepairsRecentHours() throws Exception {
+        postForId("/company/register", COMPANY.formatted(87651302));
+        long customers = stats().at("/customers/last24h").asLong();
+        LocalDateTime hour = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+
+        // Registrácia mimo Hibernate, zlý súčet a hodina bez registrácií
+        jdbcTemplate.update("INSERT INTO customer (name, surname, city, telephone, birthdate, email, password, created_at, role_id) "
+                + "VALUES ('Eva', 'Natívna', 'Trnava', '0900000003', '1990-01-01', 'stats.native@example.com', 'x', ?, 1)",
+                LocalDateTime.now());
+        jdbcTemplate.update("UPDATE registration_rollup SET registrations = registrations + 10 "
+                + "WHERE entity_type = ? AND bucket_hour >= ?", RegistrationStats.COMPANY, hour.minusHours(1));
+        jdbcTemplate.update("INSERT INTO registration_rollup (entity_type, bucket_hour, registrations) VALUES (?, ?, 7)",
+                RegistrationStats.COMPANY, hour.minusHours(3));
+        assertThat(stats().at("/customers/last24h").asLong()).isEqualTo(customers);
+
+        registrationStats.reconcileRecent();
+
+        assertThat(stats().at("/customers/last24h").asLong()).isEqualTo(customers + 1);
+        LocalDateTime since = hour.minusHours(23);
+        assertThat(rollup(RegistrationStats.CUSTOMER, since)).isEqualTo(hourlyCounts("customer", since));
+        assertThat(rollup(RegistrationStats.COMPANY, since)).isEqualTo(hourlyCounts("company", since));
+        assertThat(jdbcTemplate.queryForObject("SELECT registrations FROM registration_rollup WHERE entity_type = ? AND bucket_hour = ?",
+                Long.class, RegistrationStats.COMPANY, hour.minusHours(3))).isZero();
+    }
+
+    // Neúplná prvá a posledná hodina intervalu sa nepočíta celá - registrácie pred from a po to sa nezapočítajú
+    @Test
+    void partialEdgeHoursCountOnlyRegistrationsInsideInterval() {
+        LocalDateTime hour = LocalDateTime.now().minusHours(24).truncatedTo(ChronoUnit.HOURS);
+        for (int minutes : new int[]{10, 50, 90, 130, 140}) {
+            jdbcTemplate.update("INSERT INTO customer (name, surname, city, telephone, birthdate, email, password, created_at, role_id) "
+                    + "VALUES ('Eva', 'Okrajová', 'Trnava', '0900000003', '1990-01-01', ?, 'x', ?, 1)",
+                    "stats.edge." + minutes + "@example.com", hour.plusMinutes(minutes));
+        }
+        registrationStats.reconcileRecent(); // Registrácie mimo Hibernate sa dostanú do pamäte
+
+        assertThat(registrationStats.countCustomers(hour.plusMinutes(30), hour.plusMinutes(135))).isEqualTo(3);
+        assertThat(registrationStats.countCustomers(hour.plusMinutes(5), hour.plusMinutes(30))).isEqualTo(1);
+        assertThat(registrationStats.countCustomers(hour, hour.plusHours(2))).isEqualTo(3);
+        assertThat(registrationStats.countCustomers(hour.plusMinutes(30), hour.plusMinutes(30))).isZero();
+
+        // Po súčasnosť - najstaršia hodina okna "posledných 24 hodín" sa počíta iba od from
+        LocalDateTime from = hour.plusMinutes(30);
+        assertThat(registrationStats.countCustomersSince(from)).isEqualTo(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM customer WHERE created_at >= ?", Long.class, from));
+    }
+
+    @Test
+    void backfillFillsEmptyTableFromCreatedAt() throws Exception {
+        postForId("/customer/register", CUSTOMER.formatted("stats.backfill@example.com"));
+        postForId("/company/register", COMPANY.formatted(87651303));
+        LocalDateTime epoch = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+        jdbcTemplate.update("DELETE FROM registration_rollup");
+        registrationStats.backfillIfEmpty();
+
+        assertThat(rollup(RegistrationStats.CUSTOMER, epoch)).isEqualTo(hourlyCounts("customer", epoch)).isNotEmpty();
+        assertThat(rollup(RegistrationStats.COMPANY, epoch)).isEqualTo(hourlyCounts("company", epoch)).isNotEmpty();
+
+        // Neprázdna tabuľka sa druhýkrát neprepočítava
+        jdbcTemplate.update("UPDATE registration_rollup SET registrations = registrations + 1 WHERE entity_type = ?",
+                RegistrationStats.CUSTOMER);
+        Map<LocalDateTime, Long> changed = rollup(RegistrationStats.CUSTOMER, epoch);
+        registrationStats.backfillIfEmpty();
+        assertThat(rollup(RegistrationStats.CUSTOMER, epoch)).isEqualTo(changed);
+
+        // Tabuľka sa vráti do stavu zodpovedajúceho created_at pre ďalšie testy
+        jdbcTemplate.update("DELETE FROM registration_rollup");
+        registrationStats.backfillIfEmpty();
+    }
+
+    private JsonNode stats() throws Exception {
+        return objectMapper.readTree(mockMvc.perform(get("/stats/registrations"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    private long rollupTotal(String entityType) {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(SUM(registrations), 0) FROM registration_rollup WHERE entity_type = ?",
+                Long.class, entityType);
+    }
+
+    // Nenulové hodinové súčty uložené v registration_rollup od hodiny since
+    private Map<LocalDateTime, Long> rollup(String entityType, LocalDateTime since) {
+        Map<LocalDateTime, Long> rollup = new HashMap<>();
+        jdbcTemplate.query("SELECT bucket_hour, registrations FROM registration_rollup "
+                        + "WHERE entity_type = ? AND bucket_hour >= ? AND registrations > 0",
+                rs -> {
+                    rollup.put(rs.getObject(1, LocalDateTime.class), rs.getLong(2));
+                }, entityType, since);
+        return rollup;
+    }
+
+    // Očakávané hodinové súčty priamo zo stĺpca created_at
+    private Map<LocalDateTime, Long> hourlyCounts(String table, LocalDateTime since) {
+        Map<LocalDateTime, Long> counts = new HashMap<>();
+        jdbcTemplate.query("SELECT created_at FROM " + table + " WHERE created_at >= ?",
+                rs -> {
+                    counts.merge(rs.getObject(1, LocalDateTime.class).truncatedTo(ChronoUnit.HOURS), 1L, Long::sum);
+                }, since);
+        return counts;
+    }
+}
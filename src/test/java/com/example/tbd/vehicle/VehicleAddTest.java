@@ -0,0 +1,99 @@
+package com.example.tbd.vehicle;
+
+import com.example.tbd.EndpointTest;
+import com.example.tbd.TestAccounts;
+import com.example.tbd.TestVehicles;
+import com.example.tbd.customer.Customer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// /vehicle/add a /vehicle/update - porušené obmedzenia databázy vracajú rovnaké 400 ako pôvodné kontroly pred INSERTom
+class VehicleAddTest extends EndpointTest {
+
+    private static final long UNKNOWN_CUSTOMER = 987_654L;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Customer owner;
+
+    @BeforeEach
+    void createOwner(TestInfo testInfo) {
+        owner = TestAccounts.saveCustomer(customerRepository,
+                "vehicle.add." + testInfo.getTestMethod().orElseThrow().getName() + "@example.com", Customer.ROLE_ID_USER);
+    }
+
+    @Test
+    void duplicateVinIsRejected() throws Exception {
+        add(owner.getId(), "BA401AD", "ADDTESTVIN0000001").andExpect(status().isOk());
+
+        add(owner.getId(), "BA402AD", "ADDTESTVIN0000001")
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Vozidlo so zadaným VIN už existuje."));
+    }
+
+    @Test
+    void duplicatePlateIsRejectedEvenIfHolderIsDeleted() throws Exception {
+        add(owner.getId(), "BA403AD", "ADDTESTVIN0000003").andExpect(status().isOk());
+        add(owner.getId(), "BA403AD", "ADDTESTVIN0000004")
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Vozidlo so zadanou SPZ už existuje."));
+
+        Vehicle deleted = TestVehicles.vehicle(owner.getId(), "BA405AD", "ADDTESTVIN0000005");
+        deleted.setDeleted("Y");
+        vehicleRepository.save(deleted);
+        add(owner.getId(), "BA405AD", "ADDTESTVIN0000006")
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Vozidlo so zadanou SPZ už existuje."));
+    }
+
+    @Test
+    void unknownCustomerIsRejectedOnAddAndUpdate() throws Exception {
+        add(UNKNOWN_CUSTOMER, "BA407AD", "ADDTESTVIN0000007")
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Zákazník s poskytnutým ID neexistuje."));
+
+        Vehicle vehicle = vehicleRepository.save(TestVehicles.vehicle(owner.getId(), "BA408AD", "ADDTESTVIN0000008"));
+        mockMvc.perform(put("/vehicle/update")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":" + vehicle.getId() + ",\"customerId\":" + UNKNOWN_CUSTOMER + "}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Zákazník s poskytnutým ID neexistuje."));
+    }
+
+    // Databáza vytvorená ešte cez ddl-auto má unikátny index VIN s názvom od Hibernate - príčinu zistí dotaz
+    @Test
+    void hibernateNamedConstraintFallsBackToLookup() throws Exception {
+        add(owner.getId(), "BA409AD", "ADDTESTVIN0000009").andExpect(status().isOk());
+        jdbcTemplate.execute("ALTER TABLE vehicle DROP CONSTRAINT uk_vehicle_vin");
+        jdbcTemplate.execute("ALTER TABLE vehicle ADD CONSTRAINT UKtl8p3n2kx6ek3kq4a9w4hmxqv UNIQUE (vin)");
+        try {
+            add(owner.getId(), "BA410AD", "ADDTESTVIN0000009")
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string("Vozidlo so zadaným VIN už existuje."));
+        } finally {
+            jdbcTemplate.execute("ALTER TABLE vehicle DROP CONSTRAINT UKtl8p3n2kx6ek3kq4a9w4hmxqv");
+            jdbcTemplate.execute("ALTER TABLE vehicle ADD CONSTRAINT uk_vehicle_vin UNIQUE (vin)");
+        }
+    }
+
+    private ResultActions add(long customerId, String plateNo, String vin) throws Exception {
+        return mockMvc.perform(post("/vehicle/add")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"customerId\":" + customerId + ",\"brand\":\"Skoda\",\"model\":\"Fabia\","
+                        + "\"registeredAt\":\"2020-01-01\",\"vin\":\"" + vin + "\",\"plate_no\":\"" + plateNo + "\"}"));
+    }
+}
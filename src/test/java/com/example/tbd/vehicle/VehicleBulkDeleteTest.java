@@ -0,0 +1,124 @@
+package com.example.tbd.vehicle;
+
+import com.example.tbd.EndpointTest;
+import com.example.tbd.EntityCounters;
+import com.example.tbd.TestAccounts;
+import com.example.tbd.TestVehicles;
+import com.example.tbd.company.Company;
+import com.example.tbd.company.CompanyRepository;
+import com.example.tbd.customer.Customer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// PUT /vehicle/delupdate - počty v odpovedi, vlastníctvo vozidiel a úprava počítadla a indexu atribútov po commite
+class VehicleBulkDeleteTest extends EndpointTest {
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private EntityCounters entityCounters;
+
+    @Test
+    void idsDeleteOnlyOwnVehiclesAndUpdateCountersAndFacets() throws Exception {
+        Customer owner = TestAccounts.saveCustomer(customerRepository, "bulk.owner@example.com", Customer.ROLE_ID_USER);
+        Customer other = TestAccounts.saveCustomer(customerRepository, "bulk.other@example.com", Customer.ROLE_ID_USER);
+        String bearer = TestAccounts.bearer(jwtTokenUtil, owner);
+        Vehicle first = vehicleRepository.save(praga(owner.getId(), "BA401BD", "BULKDELETE0000001"));
+        Vehicle second = vehicleRepository.save(praga(owner.getId(), "BA402BD", "BULKDELETE0000002"));
+        Vehicle foreign = vehicleRepository.save(praga(other.getId(), "BA403BD", "BULKDELETE0000003"));
+        long activeVehicles = entityCounters.activeVehicles();
+
+        // Duplicitné ID sa počíta raz, cudzie a neexistujúce vozidlo sa preskočí
+        bulkDelete(bearer, "{\"ids\":[" + first.getId() + "," + second.getId() + "," + first.getId() + ","
+                + foreign.getId() + ",999999999]}")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(2))
+                .andExpect(jsonPath("$.skipped").value(2));
+
+        assertThat(entityCounters.activeVehicles()).isEqualTo(activeVehicles - 2);
+        assertThat(vehicleRepository.findById(first.getId())).isEmpty();
+        assertThat(vehicleRepository.findById(foreign.getId())).isPresent();
+        mockMvc.perform(get("/vehicle/facets").param("brand", "praga").header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.vehicles.items[*].vin", contains(foreign.getVin())));
+
+        // Už vymazané vozidlá sa druhýkrát nepočítajú
+        bulkDelete(bearer, "{\"ids\":[" + first.getId() + "," + second.getId() + "]}")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(0))
+                .andExpect(jsonPath("$.skipped").value(2));
+        assertThat(entityCounters.activeVehicles()).isEqualTo(activeVehicles - 2);
+    }
+
+    @Test
+    void customerScopeIsLimitedToOwnVehicles() throws Exception {
+        Customer owner = TestAccounts.saveCustomer(customerRepository, "bulk.scope@example.com", Customer.ROLE_ID_USER);
+        Customer other = TestAccounts.saveCustomer(customerRepository, "bulk.victim@example.com", Customer.ROLE_ID_USER);
+        String bearer = TestAccounts.bearer(jwtTokenUtil, owner);
+        vehicleRepository.save(TestVehicles.vehicle(owner.getId(), "BA411BD", "BULKDELETE0000011"));
+        vehicleRepository.save(TestVehicles.vehicle(owner.getId(), "BA412BD", "BULKDELETE0000012"));
+        Vehicle foreign = vehicleRepository.save(TestVehicles.vehicle(other.getId(), "BA413BD", "BULKDELETE0000013"));
+
+        bulkDelete(bearer, "{\"customerId\":" + other.getId() + "}")
+                .andExpect(status().isForbidden());
+        assertThat(vehicleRepository.findById(foreign.getId())).isPresent();
+
+        long activeVehicles = entityCounters.activeVehicles();
+        bulkDelete(bearer, "{\"customerId\":" + owner.getId() + "}")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(2))
+                .andExpect(jsonPath("$.skipped").value(0));
+        assertThat(entityCounters.activeVehicles()).isEqualTo(activeVehicles - 2);
+    }
+
+    @Test
+    void adminMayDeleteAnyCustomerScope() throws Exception {
+        Customer admin = TestAccounts.saveCustomer(customerRepository, "bulk.admin@example.com", Customer.ROLE_ID_ADMIN);
+        Customer other = TestAccounts.saveCustomer(customerRepository, "bulk.managed@example.com", Customer.ROLE_ID_USER);
+        Vehicle foreign = vehicleRepository.save(TestVehicles.vehicle(other.getId(), "BA421BD", "BULKDELETE0000021"));
+
+        bulkDelete(TestAccounts.bearer(jwtTokenUtil, admin), "{\"customerId\":" + other.getId() + "}")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(1));
+        assertThat(vehicleRepository.findById(foreign.getId())).isEmpty();
+    }
+
+    @Test
+    void companyCannotBulkDeleteVehicles() throws Exception {
+        Customer owner = TestAccounts.saveCustomer(customerRepository, "bulk.kept@example.com", Customer.ROLE_ID_USER);
+        Vehicle vehicle = vehicleRepository.save(TestVehicles.vehicle(owner.getId(), "BA431BD", "BULKDELETE0000031"));
+        Company company = TestAccounts.saveCompany(companyRepository, 87652101);
+
+        bulkDelete(TestAccounts.bearer(jwtTokenUtil, company), "{\"ids\":[" + vehicle.getId() + "]}")
+                .andExpect(status().isForbidden());
+        assertThat(vehicleRepository.findById(vehicle.getId())).isPresent();
+    }
+
+    private ResultActions bulkDelete(String bearer, String json) throws Exception {
+        return mockMvc.perform(put("/vehicle/delupdate")
+                .header(HttpHeaders.AUTHORIZATION, bearer)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json));
+    }
+
+    private static Vehicle praga(Long customerId, String plateNo, String vin) {
+        Vehicle vehicle = TestVehicles.vehicle(customerId, plateNo, vin);
+        vehicle.setBrand("Praga");
+        return vehicle;
+    }
+}
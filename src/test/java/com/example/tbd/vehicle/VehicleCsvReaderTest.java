@@ -0,0 +1,58 @@
+package com.example.tbd.vehicle;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class VehicleCsvReaderTest {
+
+    @Test
+    void readsQuotedFieldsAndReportsRowErrors() throws IOException {
+        String csv = "\uFEFFvin,plate_no,customer_id,brand,model,registered_at,mileage\r\n"
+                + "VIN1,BA123AA,7,\"Škoda, a.s.\",\"Octavia \"\"RS\"\"\",01.02.2020,\r\n"
+                + "\n"
+                + "VIN2,BA124AA,x,Škoda,Fabia,01.02.2020,10\n"
+                + "VIN3,BA125AA,7\n";
+
+        List<VehicleImportRow> rows = VehicleCsvReader.read(new StringReader(csv), 10);
+
+        assertThat(rows).hasSize(3);
+        Vehicle vehicle = rows.get(0).vehicle();
+        assertThat(vehicle.getVin()).isEqualTo("VIN1");
+        assertThat(vehicle.getCustomerId()).isEqualTo(7L);
+        assertThat(vehicle.getBrand()).isEqualTo("Škoda, a.s.");
+        assertThat(vehicle.getModel()).isEqualTo("Octavia \"RS\"");
+        assertThat(vehicle.getMileage()).isNull();
+        assertThat(rows.get(1).error()).isEqualTo("Neplatné číslo v stĺpci customer_id: x");
+        assertThat(rows.get(2).error()).isEqualTo("Riadok má 3 stĺpcov, hlavička 7.");
+    }
+
+    @Test
+    void readsBothDateFormats() throws IOException {
+        String csv = "vin,registered_at,last_serviced\n"
+                + "VIN1,01.02.2020,2024-05-31\n"
+                + "VIN2,2020-02-30,\n";
+
+        List<VehicleImportRow> rows = VehicleCsvReader.read(new StringReader(csv), 10);
+
+        assertThat(rows.get(0).vehicle().getRegisteredAt()).isEqualTo(LocalDate.of(2020, 2, 1));
+        assertThat(rows.get(0).vehicle().getLastServiced()).isEqualTo(LocalDate.of(2024, 5, 31));
+        assertThat(rows.get(1).error()).isEqualTo("Neplatný dátum v stĺpci registered_at: 2020-02-30");
+    }
+
+    @Test
+    void rejectsUnknownColumnAndTooManyRows() {
+        assertThatThrownBy(() -> VehicleCsvReader.read(new StringReader("vin,owner\nA,B\n"), 10))
+                .isInstanceOf(VehicleImportException.class)
+                .hasMessage("Neznámy stĺpec v CSV: owner");
+        assertThatThrownBy(() -> VehicleCsvReader.read(new StringReader("vin\nA\nB\nC\n"), 2))
+                .isInstanceOf(VehicleImportException.class)
+                .hasMessage("Import môže obsahovať najviac 2 vozidiel.");
+    }
+}
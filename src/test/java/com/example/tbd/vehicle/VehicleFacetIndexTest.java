@@ -0,0 +1,54 @@
+package com.example.tbd.vehicle;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VehicleFacetIndexTest {
+
+    private final VehicleFacetIndex index = new VehicleFacetIndex(List.of(
+            new VehicleFacetFields(1L, "Škoda", "Octavia", "Diesel", "biela", "manual", null),
+            new VehicleFacetFields(2L, "skoda", "Fabia", "Benzín", "čierna", "manual", null),
+            new VehicleFacetFields(3L, "VW", "Golf", "diesel", null, "automatic", "205/55 R16"),
+            new VehicleFacetFields(4L, "Škoda", "Octavia", "Diesel", "biela", "automatic", null)));
+
+    @Test
+    void filtersWithAndBetweenFacetsAndOrWithinFacet() {
+        VehicleFacetIndex.Result result = index.query(Map.of(
+                VehicleFacet.BRAND, List.of("skoda"),
+                VehicleFacet.FUEL, List.of("DIESEL"),
+                VehicleFacet.TRANSMISSION_TYPE, List.of("manual")), 0, 10);
+
+        assertThat(result.total()).isEqualTo(1);
+        assertThat(result.ids()).containsExactly(1L);
+        // Počty atribútu bez filtra na tento atribút
+        assertThat(result.facets().get("fuel")).containsExactly(Map.entry("Benzín", 1L), Map.entry("Diesel", 1L));
+        assertThat(result.facets().get("transmissionType")).containsExactly(Map.entry("automatic", 1L), Map.entry("manual", 1L));
+
+        VehicleFacetIndex.Result either = index.query(Map.of(VehicleFacet.BRAND, List.of("Škoda", "vw")), 1, 2);
+        assertThat(either.total()).isEqualTo(4);
+        assertThat(either.ids()).containsExactly(2L, 3L);
+        assertThat(either.facets().get("model")).containsExactly(Map.entry("Octavia", 2L), Map.entry("Fabia", 1L), Map.entry("Golf", 1L));
+    }
+
+    @Test
+    void updateAndRemoveKeepCountsInSync() {
+        index.put(new VehicleFacetFields(2L, "Škoda", "Fabia", "Diesel", "čierna", "manual", null));
+        index.remove(3L);
+
+        VehicleFacetIndex.Result result = index.query(Map.of(), 0, 10);
+        assertThat(result.total()).isEqualTo(3);
+        assertThat(result.facets().get("fuel")).containsExactly(Map.entry("Diesel", 3L));
+        assertThat(result.facets().get("tireSize")).isEmpty();
+        assertThat(index.size()).isEqualTo(3);
+
+        // Vozidlo 3 pridané znova za vozidlom 4 - sloty už nie sú zoradené podľa ID, stránka áno
+        index.remove(1L);
+        index.put(new VehicleFacetFields(3L, "VW", "Polo", "Benzín", null, "manual", null));
+        assertThat(index.query(Map.of(), 0, 2).ids()).containsExactly(2L, 3L);
+        assertThat(index.query(Map.of(), 2, 5).ids()).containsExactly(3L, 4L);
+    }
+}
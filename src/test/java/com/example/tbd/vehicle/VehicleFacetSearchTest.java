@@ -0,0 +1,61 @@
+package com.example.tbd.vehicle;
+
+import com.example.tbd.EndpointTest;
+import com.example.tbd.TestAccounts;
+import com.example.tbd.TestVehicles;
+import com.example.tbd.customer.Customer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class VehicleFacetSearchTest extends EndpointTest {
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Test
+    void createPatchAndBulkDeleteUpdateFacets() throws Exception {
+        Customer owner = TestAccounts.saveCustomer(customerRepository, "facets.owner@example.com", Customer.ROLE_ID_USER);
+        String bearer = TestAccounts.bearer(jwtTokenUtil, owner);
+        Vehicle first = vehicleRepository.save(tatra(owner.getId(), "BA301FC", "FACETSEARCH000001"));
+        Vehicle second = vehicleRepository.save(tatra(owner.getId(), "BA302FC", "FACETSEARCH000002"));
+
+        mockMvc.perform(get("/vehicle/facets").param("brand", "tatra").header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.facets.color.biela").value(2));
+
+        mockMvc.perform(mergePatch("/vehicle/" + first.getId(), bearer, "{\"color\":\"červená\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/vehicle/facets").param("brand", "tatra").param("color", "cervena")
+                        .header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.vehicles.items[*].vin", contains(first.getVin())));
+
+        mockMvc.perform(put("/vehicle/delupdate")
+                        .header(HttpHeaders.AUTHORIZATION, bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[" + first.getId() + "]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(1));
+        mockMvc.perform(get("/vehicle/facets").param("brand", "tatra").header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.vehicles.items[*].vin", contains(second.getVin())));
+    }
+
+    private static Vehicle tatra(Long customerId, String plateNo, String vin) {
+        Vehicle vehicle = TestVehicles.vehicle(customerId, plateNo, vin);
+        vehicle.setBrand("Tatra");
+        vehicle.setColor("biela");
+        return vehicle;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.tbd.vehicle;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class VehicleJsonReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    void readsElementsAndRejectsInvalidOnesSeparately() throws IOException {
+        String json = "[{\"customerId\": 7, \"vin\": \"VIN1\", \"plate_no\": \"BA123AA\", \"registeredAt\": \"01.02.2020\"},"
+                + " null, {\"customerId\": \"x\"}, 5]";
+
+        List<VehicleImportRow> rows = VehicleJsonReader.read(input(json), objectMapper, 10);
+
+        assertThat(rows).hasSize(4);
+        Vehicle vehicle = rows.get(0).vehicle();
+        assertThat(vehicle.getCustomerId()).isEqualTo(7L);
+        assertThat(vehicle.getPlateNo()).isEqualTo("BA123AA");
+        assertThat(vehicle.getRegisteredAt()).isEqualTo(LocalDate.of(2020, 2, 1));
+        assertThat(rows.subList(1, 4)).allSatisfy(row -> assertThat(row.error()).isEqualTo("Neplatné údaje pre vozidlo!"));
+    }
+
+    @Test
+    void stopsAfterMaxRows() {
+        // Za tretím prvkom je neplatný JSON - čítanie musí skončiť skôr, než sa k nemu dostane
+        String json = "[{\"vin\": \"A\"}, {\"vin\": \"B\"}, {\"vin\": \"C\"}, !!!";
+        assertThatThrownBy(() -> VehicleJsonReader.read(input(json), objectMapper, 2))
+                .isInstanceOf(VehicleImportException.class)
+                .hasMessage("Import môže obsahovať najviac 2 vozidiel.");
+    }
+
+    @Test
+    void rejectsNonArrayAndMalformedInput() {
+        assertThatThrownBy(() -> VehicleJsonReader.read(input("{\"vin\": \"A\"}"), objectMapper, 10))
+                .isInstanceOf(VehicleImportException.class)
+                .hasMessage("Import musí byť JSON pole vozidiel.");
+        assertThatThrownBy(() -> VehicleJsonReader.read(input("[{\"vin\": \"A\"}"), objectMapper, 10))
+                .isInstanceOf(VehicleImportException.class);
+    }
+
+    private static InputStream input(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
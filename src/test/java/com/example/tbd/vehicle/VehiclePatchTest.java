@@ -0,0 +1,62 @@
+package com.example.tbd.vehicle;
+
+import com.example.tbd.JwtTokenUtil;
+import com.example.tbd.MergePatch;
+import com.example.tbd.TestAccounts;
+import com.example.tbd.TestVehicles;
+import com.example.tbd.customer.Customer;
+import com.example.tbd.customer.CustomerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class VehiclePatchTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private JwtTokenUtil jwtTokenUtil;
+
+    @Test
+    void patchWithoutIfMatchReturnsNewVersion() throws Exception {
+        Customer owner = TestAccounts.saveCustomer(customerRepository, "patch.etag@example.com", Customer.ROLE_ID_USER);
+        Vehicle vehicle = vehicleRepository.save(TestVehicles.vehicle(owner.getId(), "BA111PT", "PATCHETAG00000001"));
+
+        mockMvc.perform(patch("/vehicle/" + vehicle.getId())
+                        .header(HttpHeaders.AUTHORIZATION, TestAccounts.bearer(jwtTokenUtil, owner))
+                        .contentType(MergePatch.APPLICATION_MERGE_PATCH_JSON_VALUE)
+                        .content("{\"color\":\"red\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + (vehicle.getVersion() + 1) + "\""));
+    }
+
+    @Test
+    void patchCannotChangeOwner() throws Exception {
+        Customer owner = TestAccounts.saveCustomer(customerRepository, "patch.owner@example.com", Customer.ROLE_ID_USER);
+        Vehicle vehicle = vehicleRepository.save(TestVehicles.vehicle(owner.getId(), "BA222PT", "PATCHOWNER0000001"));
+
+        mockMvc.perform(patch("/vehicle/" + vehicle.getId())
+                        .header(HttpHeaders.AUTHORIZATION, TestAccounts.bearer(jwtTokenUtil, owner))
+                        .contentType(MergePatch.APPLICATION_MERGE_PATCH_JSON_VALUE)
+                        .content("{\"customerId\":" + owner.getId() + "}"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.tbd.vehicle;
+
+import com.example.tbd.EndpointTest;
+import com.example.tbd.TestAccounts;
+import com.example.tbd.TestVehicles;
+import com.example.tbd.customer.Customer;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// GET /vehicle/service-due - hranica months, filter customerId a stránkovanie podľa (lastServiced, id)
+class VehicleServiceDueTest extends EndpointTest {
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Test
+    void monthsCutoffAndCursorPagingAcrossEqualDates() throws Exception {
+        Customer owner = TestAccounts.saveCustomer(customerRepository, "service.due@example.com", Customer.ROLE_ID_USER);
+        String bearer = TestAccounts.bearer(jwtTokenUtil, owner);
+        LocalDate today = LocalDate.now();
+        Vehicle oldest = save(owner, "BA501SD", "SERVICEDUE0000001", today.minusYears(2));
+        Vehicle sameDayFirst = save(owner, "BA502SD", "SERVICEDUE0000002", today.minusYears(1));
+        Vehicle sameDaySecond = save(owner, "BA503SD", "SERVICEDUE0000003", today.minusYears(1));
+        Vehicle sameDayThird = save(owner, "BA504SD", "SERVICEDUE0000004", today.minusYears(1));
+        Vehicle newest = save(owner, "BA505SD", "SERVICEDUE0000005", today.minusMonths(7));
+        save(owner, "BA506SD", "SERVICEDUE0000006", today.minusMonths(1));
+        save(owner, "BA507SD", "SERVICEDUE0000007", null);
+
+        assertThat(vins(page(bearer, 18, owner.getId(), null, null))).containsExactly(oldest.getVin());
+
+        // Strana končí uprostred vozidiel s rovnakým dátumom servisu - ďalšia pokračuje podľa ID
+        JsonNode first = page(bearer, 6, owner.getId(), null, 2);
+        assertThat(vins(first)).containsExactly(oldest.getVin(), sameDayFirst.getVin());
+        JsonNode second = page(bearer, 6, owner.getId(), first.get("nextCursor").asText(), 2);
+        assertThat(vins(second)).containsExactly(sameDaySecond.getVin(), sameDayThird.getVin());
+        JsonNode third = page(bearer, 6, owner.getId(), second.get("nextCursor").asText(), 2);
+        assertThat(vins(third)).containsExactly(newest.getVin());
+        assertThat(third.get("nextCursor").isNull()).isTrue();
+    }
+
+    @Test
+    void customerIdFiltersVehicles() throws Exception {
+        Customer owner = TestAccounts.saveCustomer(customerRepository, "service.owner@example.com", Customer.ROLE_ID_USER);
+        Customer other = TestAccounts.saveCustomer(customerRepository, "service.other@example.com", Customer.ROLE_ID_USER);
+        String bearer = TestAccounts.bearer(jwtTokenUtil, owner);
+        LocalDate serviced = LocalDate.now().minusYears(3);
+        Vehicle own = save(owner, "BA511SD", "SERVICEDUE0000011", serviced);
+        Vehicle foreign = save(other, "BA512SD", "SERVICEDUE0000012", serviced);
+
+        assertThat(vins(page(bearer, 6, owner.getId(), null, null))).containsExactly(own.getVin());
+        assertThat(vins(page(bearer, 6, other.getId(), null, null))).containsExactly(foreign.getVin());
+
+        // Bez filtra vozidlá všetkých zákazníkov - prejdú sa všetky stránky
+        List<String> all = new ArrayList<>();
+        String cursor = null;
+        do {
+            JsonNode page = page(bearer, 6, null, cursor, 500);
+            all.addAll(vins(page));
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+        } while (cursor != null);
+        assertThat(all).contains(own.getVin(), foreign.getVin());
+    }
+
+    @Test
+    void invalidMonthsAndCursorAreRejected() throws Exception {
+        String bearer = bearer("service.invalid@example.com");
+
+        mockMvc.perform(get("/vehicle/service-due").param("months", "0").header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/vehicle/service-due").param("months", "6").param("after", "nie-je-kurzor")
+                        .header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isBadRequest());
+    }
+
+    private Vehicle save(Customer owner, String plateNo, String vin, LocalDate lastServiced) {
+        Vehicle vehicle = TestVehicles.vehicle(owner.getId(), plateNo, vin);
+        vehicle.setLastServiced(lastServiced);
+        return vehicleRepository.save(vehicle);
+    }
+
+    private JsonNode page(String bearer, int months, Long customerId, String after, Integer limit) throws Exception {
+        MockHttpServletRequestBuilder request = get("/vehicle/service-due")
+                .param("months", String.valueOf(months))
+                .header(HttpHeaders.AUTHORIZATION, bearer);
+        if (customerId != null) {
+            request.param("customerId", customerId.toString());
+        }
+        if (after != null) {
+            request.param("after", after);
+        }
+        if (limit != null) {
+            request.param("limit", limit.toString());
+        }
+        return objectMapper.readTree(mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    private static List<String> vins(JsonNode page) {
+        List<String> vins = new ArrayList<>();
+        page.get("items").forEach(item -> vins.add(item.get("vin").asText()));
+        return vins;
+    }
+}
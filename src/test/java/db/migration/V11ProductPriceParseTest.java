@@ -0,0 +1,27 @@
+package db.migration;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class V11ProductPriceParseTest {
+
+    @Test
+    void readsDecimalAndThousandsSeparators() {
+        assertThat(V11__product_price_decimal.parse("49,90 €"))
+                .isEqualTo(new V11__product_price_decimal.Price(new BigDecimal("49.90"), "EUR"));
+        assertThat(V11__product_price_decimal.parse("1.200,50 EUR").amount()).isEqualByComparingTo("1200.50");
+        assertThat(V11__product_price_decimal.parse("1,200,000").amount()).isEqualByComparingTo("1200000");
+        assertThat(V11__product_price_decimal.parse("1 200,- Kč"))
+                .isEqualTo(new V11__product_price_decimal.Price(new BigDecimal("1200"), "CZK"));
+    }
+
+    // Jediný oddeľovač s tromi číslicami za ním môže byť desatinný aj oddeľovač tisícov
+    @Test
+    void rejectsAmbiguousSeparator() {
+        assertThat(V11__product_price_decimal.parse("1.200")).isNull();
+        assertThat(V11__product_price_decimal.parse("1,200 $")).isNull();
+    }
+}
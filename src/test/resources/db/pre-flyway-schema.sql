@@ -0,0 +1,66 @@
+-- Schéma, ktorú vytváral Hibernate (ddl-auto=update) z entít pred zavedením Flyway, s niekoľkými záznamami.
+-- Názvy unikátnych obmedzení generoval Hibernate.
+create table customer (
+    id bigint not null auto_increment,
+    birthdate date not null,
+    city varchar(255) not null,
+    created_at datetime(6),
+    email varchar(255) not null,
+    name varchar(255) not null,
+    password varchar(255) not null,
+    role_id integer not null,
+    surname varchar(255) not null,
+    telephone varchar(255) not null,
+    primary key (id)
+);
+create table company (
+    id bigint not null auto_increment,
+    address varchar(255),
+    company_name varchar(255),
+    created_at datetime(6),
+    email varchar(255),
+    ico integer,
+    password varchar(255),
+    telephone varchar(255),
+    primary key (id)
+);
+create table vehicle (
+    id bigint not null auto_increment,
+    brand varchar(255) not null,
+    color varchar(255),
+    created_at datetime(6) not null,
+    customer_id bigint not null,
+    deleted varchar(255) not null,
+    last_serviced varchar(255),
+    mileage integer,
+    model varchar(255) not null,
+    plate_no varchar(255) not null,
+    registered_at varchar(255) not null,
+    tire_size varchar(15),
+    transmission_type varchar(255),
+    fuel varchar(255),
+    vin varchar(17) not null,
+    primary key (id)
+);
+create table product (
+    id integer not null auto_increment,
+    company_id integer not null,
+    created_at datetime(6) not null,
+    deleted varchar(255) not null,
+    description varchar(255) not null,
+    name varchar(255) not null,
+    price varchar(10) not null,
+    primary key (id)
+);
+alter table vehicle add constraint UK4ygt9v8gvbbq6dpyvuxlmx5ax unique (plate_no, deleted);
+alter table vehicle add constraint UKtl8p3n2kx6ek3kq4a9w4hmxqv unique (vin);
+alter table vehicle add constraint UK6s5v1sx1ga1d8ymvlnqtw0hpk unique (plate_no);
+
+insert into customer (id, birthdate, city, created_at, email, name, password, role_id, surname, telephone)
+values (1, '1985-03-14', 'Trnava', '2024-05-01 10:15:00', 'stary.zakaznik@example.sk', 'Peter', 'n/a', 1, 'Starý', '0900111222');
+insert into company (id, address, company_name, created_at, email, ico, password, telephone)
+values (1, 'Hlavná 5', 'Starý servis', '2024-05-01 11:00:00', 'servis@example.sk', 11223344, 'n/a', '0900333444');
+insert into vehicle (id, brand, created_at, customer_id, deleted, last_serviced, model, plate_no, registered_at, vin)
+values (1, 'Škoda', '2024-05-02 09:00:00', 1, 'N', '2024-04-30', 'Octavia', 'TT123AB', '01.02.2020', 'TMBJJ7NE0L0000001');
+insert into product (id, company_id, created_at, deleted, description, name, price)
+values (1, 1, '2024-05-03 08:00:00', 'N', 'Výmena oleja a filtra', 'Servis', '49,90 €');